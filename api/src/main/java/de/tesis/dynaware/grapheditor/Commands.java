@@ -270,20 +270,49 @@ public class Commands
             {
                 updateConnector(connection.getSource(), command, editingDomain, skinLookup);
                 updateConnector(connection.getTarget(), command, editingDomain, skinLookup);
+                updateJoints(connection, command, editingDomain, skinLookup);
+            }
+        }
+    }
 
-                for (final GJoint joint : connection.getJoints())
-                {
-                    final GJointSkin jointSkin = skinLookup.lookupJoint(joint);
-                    if (jointSkin != null && checkJointChanged(joint, jointSkin))
-                    {
-                        final Region jointRegion = jointSkin.getRoot();
-                        final double x = jointRegion.getLayoutX() + jointSkin.getWidth() / 2;
-                        final double y = jointRegion.getLayoutY() + jointSkin.getHeight() / 2;
+    /**
+     * Updates the joint layout values of a single connection to match those in the skin instances.
+     *
+     * <p>
+     * This method adds set operations to the given compound command but does <b>not</b> execute it. Use this instead
+     * of {@link #updateLayoutValues(CompoundCommand, GModel, SkinLookup)} when only the joints of one connection can
+     * have moved.
+     * </p>
+     *
+     * @param command a {@link CompoundCommand} to which the set commands will be added
+     * @param connection the {@link GConnection} whose joint layout values should be updated
+     * @param skinLookup the {@link SkinLookup} in use for this graph editor instance
+     */
+    public static void updateLayoutValues(final CompoundCommand command, final GConnection connection,
+            final SkinLookup skinLookup)
+    {
+        final EditingDomain editingDomain = AdapterFactoryEditingDomain.getEditingDomainFor(connection);
 
-                        command.append(SetCommand.create(editingDomain, joint, JOINT_X, x));
-                        command.append(SetCommand.create(editingDomain, joint, JOINT_Y, y));
-                    }
-                }
+        if (editingDomain != null)
+        {
+            updateJoints(connection, command, editingDomain, skinLookup);
+        }
+    }
+
+    private static void updateJoints(final GConnection connection, final CompoundCommand command,
+            final EditingDomain editingDomain, final SkinLookup skinLookup)
+    {
+        for (final GJoint joint : connection.getJoints())
+        {
+            final GJointSkin jointSkin = skinLookup.lookupJoint(joint);
+            if (jointSkin != null && checkJointChanged(joint, jointSkin))
+            {
+                final Region jointRegion = jointSkin.getRoot();
+                final double x = jointRegion.getLayoutX() + jointSkin.getWidth() / 2;
+                final double y = jointRegion.getLayoutY() + jointSkin.getHeight() / 2;
+
+                command.append(SetCommand.create(editingDomain, joint, JOINT_X, x));
+                command.append(SetCommand.create(editingDomain, joint, JOINT_Y, y));
             }
         }
     }
@@ -6,12 +6,14 @@ package de.tesis.dynaware.grapheditor;
 import java.util.function.BiConsumer;
 
 import javafx.beans.property.ObjectProperty;
+import javafx.collections.ObservableList;
 import javafx.scene.layout.Region;
 
 import org.eclipse.emf.common.command.CompoundCommand;
 
 import de.tesis.dynaware.grapheditor.model.GConnection;
 import de.tesis.dynaware.grapheditor.model.GModel;
+import de.tesis.dynaware.grapheditor.utils.GraphEditorMetrics;
 import de.tesis.dynaware.grapheditor.utils.GraphEditorProperties;
 
 /**
@@ -175,4 +177,36 @@ public interface GraphEditor extends GraphEditorSkins {
      * @param consumer a consumer to append additional commands
      */
     void setOnConnectionRemoved(BiConsumer<GConnection, CompoundCommand> consumer);
+
+    /**
+     * Gets the problems found in the current model.
+     *
+     * <p>
+     * The list is kept up to date as the model is edited. Only the elements changed by each edit are checked again.
+     * </p>
+     *
+     * @return a read-only observable list of {@link ValidationIssue} instances
+     */
+    ObservableList<ValidationIssue> getValidationIssues();
+
+    /**
+     * Checks the whole model again in the background.
+     *
+     * <p>
+     * The model is validated automatically when it is set. This method can be used to run a full validation on
+     * demand. The results replace the contents of {@link #getValidationIssues()} when they are ready.
+     * </p>
+     */
+    void validate();
+
+    /**
+     * Gets the performance metrics of the graph editor.
+     *
+     * <p>
+     * Metrics are disabled by default. Call {@link GraphEditorMetrics#setEnabled(boolean)} to start recording them.
+     * </p>
+     *
+     * @return the {@link GraphEditorMetrics} of this editor
+     */
+    GraphEditorMetrics getMetrics();
 }
@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor;
+
+import org.eclipse.emf.ecore.EObject;
+
+/**
+ * A problem found when validating the model of a graph editor, e.g. a connection that is missing its target.
+ *
+ * <p>
+ * Issues are immutable. When the element is changed, its issue is replaced or removed.
+ * </p>
+ */
+public final class ValidationIssue {
+
+    private final EObject element;
+    private final String message;
+
+    /**
+     * Creates a new validation issue.
+     *
+     * @param element the model element that is invalid
+     * @param message a description of the problem
+     */
+    public ValidationIssue(final EObject element, final String message) {
+        this.element = element;
+        this.message = message;
+    }
+
+    /**
+     * Gets the model element that is invalid.
+     *
+     * @return the invalid element, e.g. a {@code GNode} or {@code GConnection}
+     */
+    public EObject getElement() {
+        return element;
+    }
+
+    /**
+     * Gets a description of the problem.
+     *
+     * @return a description of the problem
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return message + " (" + element + ")";
+    }
+}
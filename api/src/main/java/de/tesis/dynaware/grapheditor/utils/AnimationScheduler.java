@@ -0,0 +1,360 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javafx.animation.AnimationTimer;
+
+/**
+ * A single clock that drives animations in the graph editor.
+ *
+ * <p>
+ * Components register a lightweight {@link FrameCallback} instead of creating their own {@link javafx.animation.Timeline}
+ * or transition. All callbacks are run from one {@link AnimationTimer}, which is only active while at least one callback
+ * is registered.
+ * </p>
+ *
+ * <p>
+ * Each frame has a time budget. If the callbacks run so far have used up the budget, the remaining callbacks are
+ * deferred to the next frame, where they run first. Callbacks should therefore compute their state from the frame
+ * timestamp rather than from the number of frames they have seen.
+ * </p>
+ *
+ * <p>
+ * Must only be used on the JavaFX application thread.
+ * </p>
+ */
+public final class AnimationScheduler {
+
+    private static final long DEFAULT_FRAME_BUDGET = TimeUnit.MILLISECONDS.toNanos(8);
+
+    // JavaFX pulses at 60 frames per second. A gap of more than 1.5 periods between pulses counts as dropped frames.
+    private static final long FRAME_PERIOD = TimeUnit.SECONDS.toNanos(1) / 60;
+    private static final long DROPPED_FRAME_THRESHOLD = FRAME_PERIOD * 3 / 2;
+
+    private static AnimationScheduler instance;
+
+    private final AnimationTimer timer = new AnimationTimer() {
+
+        @Override
+        public void handle(final long now) {
+            pulse(now);
+        }
+    };
+
+    private List<FrameCallback> callbacks = new ArrayList<>();
+    private List<FrameCallback> reordered = new ArrayList<>();
+    private final Set<FrameCallback> registered = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private long frameBudget = DEFAULT_FRAME_BUDGET;
+
+    private boolean running;
+    private boolean pulsing;
+    private long lastPulse;
+
+    private long frameCount;
+    private long droppedFrameCount;
+    private long overBudgetFrameCount;
+    private long deferredCallbackCount;
+    private long maxFrameTime;
+    private long totalFrameTime;
+
+    /**
+     * Creates a new scheduler. Only used directly in tests, otherwise see {@link #getInstance()}.
+     */
+    AnimationScheduler() {
+    }
+
+    /**
+     * Gets the editor-wide animation scheduler.
+     *
+     * @return the {@link AnimationScheduler} instance
+     */
+    public static AnimationScheduler getInstance() {
+
+        if (instance == null) {
+            instance = new AnimationScheduler();
+        }
+        return instance;
+    }
+
+    /**
+     * Registers a callback to be run on every frame, starting with the next one.
+     *
+     * <p>
+     * Does nothing if the callback is already registered, so a callback is never run twice in the same frame.
+     * </p>
+     *
+     * @param callback a {@link FrameCallback}
+     */
+    public void add(final FrameCallback callback) {
+
+        if (!registered.add(callback)) {
+            return;
+        }
+
+        callbacks.add(callback);
+
+        if (!running) {
+            running = true;
+            lastPulse = 0;
+            timer.start();
+        }
+    }
+
+    /**
+     * Removes a callback. Does nothing if the callback is not registered.
+     *
+     * @param callback a {@link FrameCallback}
+     */
+    public void remove(final FrameCallback callback) {
+
+        if (!registered.remove(callback)) {
+            return;
+        }
+
+        final int index = indexOf(callback);
+
+        if (pulsing) {
+            // Compacted at the end of the pulse, so that indices stay valid while iterating.
+            callbacks.set(index, null);
+        } else {
+            callbacks.remove(index);
+            stopIfIdle();
+        }
+    }
+
+    /**
+     * Sets the time budget for the callbacks of a single frame.
+     *
+     * @param frameBudget the budget in nanoseconds
+     */
+    public void setFrameBudget(final long frameBudget) {
+        this.frameBudget = frameBudget;
+    }
+
+    /**
+     * Gets the time budget for the callbacks of a single frame.
+     *
+     * @return the budget in nanoseconds
+     */
+    public long getFrameBudget() {
+        return frameBudget;
+    }
+
+    /**
+     * Gets the statistics collected since the scheduler was created or last reset.
+     *
+     * @return a {@link FrameStatistics} snapshot
+     */
+    public FrameStatistics getStatistics() {
+        return new FrameStatistics(frameCount, droppedFrameCount, overBudgetFrameCount, deferredCallbackCount,
+                maxFrameTime, totalFrameTime);
+    }
+
+    /**
+     * Resets the collected statistics.
+     */
+    public void resetStatistics() {
+        frameCount = 0;
+        droppedFrameCount = 0;
+        overBudgetFrameCount = 0;
+        deferredCallbackCount = 0;
+        maxFrameTime = 0;
+        totalFrameTime = 0;
+    }
+
+    /**
+     * Checks whether the scheduler's timer is running, i.e. whether any callbacks are registered.
+     *
+     * @return {@code true} if the timer is running
+     */
+    boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Runs the registered callbacks for one frame.
+     *
+     * @param now the timestamp of the frame in nanoseconds
+     */
+    void pulse(final long now) {
+
+        final long start = System.nanoTime();
+
+        if (lastPulse != 0 && now - lastPulse > DROPPED_FRAME_THRESHOLD) {
+            droppedFrameCount += (now - lastPulse) / FRAME_PERIOD - 1;
+        }
+        lastPulse = now;
+        frameCount++;
+
+        final int count = callbacks.size();
+        int processed = 0;
+
+        pulsing = true;
+        try {
+            while (processed < count) {
+
+                final FrameCallback callback = callbacks.get(processed);
+                if (callback != null && !callback.onFrame(now) && callbacks.get(processed) == callback) {
+                    callbacks.set(processed, null);
+                    registered.remove(callback);
+                }
+                processed++;
+
+                if (processed < count && System.nanoTime() - start > frameBudget) {
+                    break;
+                }
+            }
+        } finally {
+            pulsing = false;
+        }
+
+        if (processed < count) {
+            overBudgetFrameCount++;
+            deferredCallbackCount += count - processed;
+        }
+
+        reorder(processed);
+
+        final long frameTime = System.nanoTime() - start;
+        maxFrameTime = Math.max(maxFrameTime, frameTime);
+        totalFrameTime += frameTime;
+
+        stopIfIdle();
+    }
+
+    /**
+     * Moves deferred callbacks to the front of the list and drops removed ones.
+     *
+     * @param processed the number of callbacks that were run this frame
+     */
+    private void reorder(final int processed) {
+
+        reordered.clear();
+
+        for (int i = processed; i < callbacks.size(); i++) {
+            if (callbacks.get(i) != null) {
+                reordered.add(callbacks.get(i));
+            }
+        }
+        for (int i = 0; i < processed; i++) {
+            if (callbacks.get(i) != null) {
+                reordered.add(callbacks.get(i));
+            }
+        }
+
+        final List<FrameCallback> previous = callbacks;
+        callbacks = reordered;
+        reordered = previous;
+    }
+
+    /**
+     * Finds a callback by identity, like the set of registered callbacks does.
+     */
+    private int indexOf(final FrameCallback callback) {
+
+        for (int i = 0; i < callbacks.size(); i++) {
+            if (callbacks.get(i) == callback) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void stopIfIdle() {
+
+        if (running && callbacks.isEmpty()) {
+            running = false;
+            timer.stop();
+        }
+    }
+
+    /**
+     * A callback that is run once per frame.
+     */
+    @FunctionalInterface
+    public interface FrameCallback {
+
+        /**
+         * Called on each frame while the callback is registered.
+         *
+         * @param now the timestamp of the frame in nanoseconds, as passed to {@link AnimationTimer#handle(long)}
+         * @return {@code true} to stay registered, {@code false} to be removed after this frame
+         */
+        boolean onFrame(long now);
+    }
+
+    /**
+     * An immutable snapshot of the frame statistics of the scheduler.
+     */
+    public static final class FrameStatistics {
+
+        private final long frameCount;
+        private final long droppedFrameCount;
+        private final long overBudgetFrameCount;
+        private final long deferredCallbackCount;
+        private final long maxFrameTime;
+        private final long totalFrameTime;
+
+        private FrameStatistics(final long frameCount, final long droppedFrameCount, final long overBudgetFrameCount,
+                final long deferredCallbackCount, final long maxFrameTime, final long totalFrameTime) {
+
+            this.frameCount = frameCount;
+            this.droppedFrameCount = droppedFrameCount;
+            this.overBudgetFrameCount = overBudgetFrameCount;
+            this.deferredCallbackCount = deferredCallbackCount;
+            this.maxFrameTime = maxFrameTime;
+            this.totalFrameTime = totalFrameTime;
+        }
+
+        /**
+         * @return the number of frames in which the scheduler ran
+         */
+        public long getFrameCount() {
+            return frameCount;
+        }
+
+        /**
+         * @return the estimated number of frames that were missed because a pulse came late
+         */
+        public long getDroppedFrameCount() {
+            return droppedFrameCount;
+        }
+
+        /**
+         * @return the number of frames in which the budget was used up before all callbacks had run
+         */
+        public long getOverBudgetFrameCount() {
+            return overBudgetFrameCount;
+        }
+
+        /**
+         * @return the total number of callback invocations that were deferred to a later frame
+         */
+        public long getDeferredCallbackCount() {
+            return deferredCallbackCount;
+        }
+
+        /**
+         * @return the longest time spent running callbacks in a single frame, in nanoseconds
+         */
+        public long getMaxFrameTime() {
+            return maxFrameTime;
+        }
+
+        /**
+         * @return the average time spent running callbacks per frame, in nanoseconds
+         */
+        public double getAverageFrameTime() {
+            return frameCount == 0 ? 0 : (double) totalFrameTime / frameCount;
+        }
+    }
+}
@@ -0,0 +1,553 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.utils;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.ToDoubleFunction;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+import javafx.application.Platform;
+
+/**
+ * Opt-in performance metrics for a graph editor.
+ *
+ * <p>
+ * Metrics are disabled by default. While disabled, {@link #start()} returns {@code 0} after reading a single volatile
+ * field, and {@link #stop(Timer, long)} and {@link #increment(Counter)} return immediately, so the instrumented code
+ * paths cost next to nothing.
+ * </p>
+ *
+ * <p>
+ * While enabled, every {@link Timer} records its durations in a {@link LatencyHistogram}, and every {@link Counter}
+ * keeps a running total. A frame callback on the {@link AnimationScheduler} marks the pulses: the time spent in
+ * instrumented code between two pulses is recorded as {@link Timer#PULSE}, and the increase of each counter is kept
+ * as its last-pulse value. Note that the callback keeps JavaFX pulsing continuously while metrics are enabled.
+ * </p>
+ *
+ * <p>
+ * Timers must be started and stopped on the JavaFX application thread. Counters may be incremented, and snapshots
+ * taken, from any thread.
+ * </p>
+ */
+public final class GraphEditorMetrics {
+
+    private static final String OBJECT_NAME_PREFIX = "de.tesis.dynaware.grapheditor:type=GraphEditorMetrics,name=";
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final Timer[] TIMERS = Timer.values();
+    private static final Counter[] COUNTERS = Counter.values();
+    private static final Gauge[] GAUGES = Gauge.values();
+
+    private final LatencyHistogram[] histograms = new LatencyHistogram[TIMERS.length];
+    private final LongAdder[] counters = new LongAdder[COUNTERS.length];
+    private final AtomicLongArray lastPulseCounts = new AtomicLongArray(COUNTERS.length);
+    private final AtomicReferenceArray<LongSupplier> gauges = new AtomicReferenceArray<>(GAUGES.length);
+
+    private final AnimationScheduler.FrameCallback frameCallback = this::onFrame;
+
+    private volatile boolean enabled;
+
+    // Only accessed on the JavaFX application thread.
+    private final long[] pulseStartCounts = new long[COUNTERS.length];
+    private boolean registered;
+    private int depth;
+    private long pulseTime;
+    private long lastFrame;
+
+    private ObjectName objectName;
+
+    /**
+     * Creates a new, disabled metrics instance.
+     */
+    public GraphEditorMetrics() {
+
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Starts or stops recording metrics. Values recorded so far are kept.
+     *
+     * @param enabled {@code true} to start recording metrics
+     */
+    public void setEnabled(final boolean enabled) {
+
+        this.enabled = enabled;
+
+        if (!enabled) {
+            // The frame callback removes itself on the next frame.
+            return;
+        } else if (Platform.isFxApplicationThread()) {
+            registerFrameCallback();
+        } else {
+            Platform.runLater(this::registerFrameCallback);
+        }
+    }
+
+    /**
+     * @return {@code true} if metrics are being recorded
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts a timing.
+     *
+     * <p>
+     * Every call that returns a non-zero value must be followed by a call to {@link #stop(Timer, long)}, preferably in
+     * a {@code finally} block. Timings may be nested.
+     * </p>
+     *
+     * @return the start time to pass to {@link #stop(Timer, long)}, or {@code 0} if metrics are disabled
+     */
+    public long start() {
+
+        if (!enabled) {
+            return 0;
+        }
+        depth++;
+        return System.nanoTime();
+    }
+
+    /**
+     * Stops a timing and records its duration.
+     *
+     * @param timer the {@link Timer} to record the duration in
+     * @param start the value returned by {@link #start()}
+     */
+    public void stop(final Timer timer, final long start) {
+
+        if (start == 0) {
+            return;
+        }
+
+        final long duration = System.nanoTime() - start;
+        histograms[timer.ordinal()].record(duration);
+
+        // Only outermost timings count towards the pulse, so that nested ones are not counted twice.
+        if (--depth == 0) {
+            pulseTime += duration;
+        }
+    }
+
+    /**
+     * Increments a counter by one.
+     *
+     * @param counter the {@link Counter} to increment
+     */
+    public void increment(final Counter counter) {
+
+        if (enabled) {
+            counters[counter.ordinal()].increment();
+        }
+    }
+
+    /**
+     * Sets the function that supplies the current value of a gauge.
+     *
+     * <p>
+     * The function is called on whatever thread takes a {@link #snapshot()}, so it should only read values that are
+     * cheap to get and safe to read approximately.
+     * </p>
+     *
+     * @param gauge the {@link Gauge} to set
+     * @param supplier the function that supplies its value, or {@code null} to remove it
+     */
+    public void setGauge(final Gauge gauge, final LongSupplier supplier) {
+        gauges.set(gauge.ordinal(), supplier);
+    }
+
+    /**
+     * Removes all recorded values.
+     */
+    public void reset() {
+
+        for (final LatencyHistogram histogram : histograms) {
+            histogram.reset();
+        }
+        for (int i = 0; i < counters.length; i++) {
+            counters[i].reset();
+            lastPulseCounts.set(i, 0);
+        }
+
+        if (Platform.isFxApplicationThread()) {
+            resetPulse();
+        } else {
+            Platform.runLater(this::resetPulse);
+        }
+    }
+
+    /**
+     * Takes a snapshot of all metrics.
+     *
+     * @return an immutable {@link Snapshot}
+     */
+    public Snapshot snapshot() {
+
+        final LatencyHistogram.Snapshot[] timerSnapshots = new LatencyHistogram.Snapshot[TIMERS.length];
+        for (int i = 0; i < TIMERS.length; i++) {
+            timerSnapshots[i] = histograms[i].snapshot();
+        }
+
+        final long[] counts = new long[COUNTERS.length];
+        final long[] lastPulse = new long[COUNTERS.length];
+        for (int i = 0; i < COUNTERS.length; i++) {
+            counts[i] = counters[i].sum();
+            lastPulse[i] = lastPulseCounts.get(i);
+        }
+
+        final long[] gaugeValues = new long[GAUGES.length];
+        for (int i = 0; i < GAUGES.length; i++) {
+            final LongSupplier supplier = gauges.get(i);
+            gaugeValues[i] = supplier == null ? 0 : supplier.getAsLong();
+        }
+
+        return new Snapshot(timerSnapshots, counts, lastPulse, gaugeValues);
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server, so that they can be inspected with any JMX client.
+     *
+     * <p>
+     * Any previous registration of this instance is removed first.
+     * </p>
+     *
+     * @param name a name that is unique among the graph editors of this JVM
+     * @throws JMException if the metrics cannot be registered
+     */
+    public synchronized void registerMBean(final String name) throws JMException {
+
+        unregisterMBean();
+
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        final ObjectName newName = new ObjectName(OBJECT_NAME_PREFIX + ObjectName.quote(name));
+
+        server.registerMBean(new StandardMBean(new MXBeanAdapter(), GraphEditorMetricsMXBean.class, true), newName);
+        objectName = newName;
+    }
+
+    /**
+     * Removes these metrics from the platform MBean server. Does nothing if they are not registered.
+     *
+     * @throws JMException if the metrics cannot be unregistered
+     */
+    public synchronized void unregisterMBean() throws JMException {
+
+        if (objectName != null) {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            objectName = null;
+        }
+    }
+
+    private void registerFrameCallback() {
+
+        if (!registered && enabled) {
+            registered = true;
+            lastFrame = 0;
+            AnimationScheduler.getInstance().add(frameCallback);
+        }
+    }
+
+    /**
+     * Records the metrics of the pulse that has just ended.
+     *
+     * @param now the timestamp of the frame in nanoseconds
+     * @return {@code true} to stay registered while metrics are enabled
+     */
+    private boolean onFrame(final long now) {
+
+        if (!enabled) {
+            registered = false;
+            return false;
+        }
+
+        if (lastFrame != 0) {
+            histograms[Timer.FRAME_INTERVAL.ordinal()].record(now - lastFrame);
+            histograms[Timer.PULSE.ordinal()].record(pulseTime);
+        }
+
+        for (int i = 0; i < counters.length; i++) {
+            final long count = counters[i].sum();
+            lastPulseCounts.set(i, count - pulseStartCounts[i]);
+            pulseStartCounts[i] = count;
+        }
+
+        lastFrame = now;
+        pulseTime = 0;
+        return true;
+    }
+
+    private void resetPulse() {
+
+        for (int i = 0; i < pulseStartCounts.length; i++) {
+            pulseStartCounts[i] = counters[i].sum();
+        }
+        lastFrame = 0;
+        pulseTime = 0;
+    }
+
+    /**
+     * The timed operations of a graph editor.
+     */
+    public enum Timer {
+
+        /**
+         * The time spent in all instrumented operations between two pulses.
+         */
+        PULSE,
+
+        /**
+         * The time between two pulses. Its mean is the reciprocal of the frame rate.
+         */
+        FRAME_INTERVAL,
+
+        /**
+         * The layout pass of the graph editor view, including the redraw of all connections.
+         */
+        LAYOUT_CHILDREN,
+
+        /**
+         * Redrawing all connections.
+         */
+        CONNECTION_REDRAW,
+
+        /**
+         * Finding the intersections of a single connection with all others.
+         */
+        INTERSECTION_FINDING,
+
+        /**
+         * Updating the whole editor after a new model is set or a command is executed.
+         */
+        INITIALIZE_ALL,
+
+        /**
+         * Comparing the model with its previous state, as part of {@link #INITIALIZE_ALL}.
+         */
+        MODEL_DIFF,
+
+        /**
+         * Removing elements from the managers, as part of {@link #INITIALIZE_ALL}.
+         */
+        MANAGER_REMOVAL,
+
+        /**
+         * Creating and removing skins and adding them to the view, as part of {@link #INITIALIZE_ALL}.
+         */
+        VIEW_RELOAD,
+
+        /**
+         * Adding elements to the managers, as part of {@link #INITIALIZE_ALL}.
+         */
+        MANAGER_ADDITION,
+
+        /**
+         * Executing, undoing or redoing a command, including the editor's reaction to it.
+         */
+        COMMAND_EXECUTION,
+
+        /**
+         * Changing the selection, including all listeners of the selected items.
+         */
+        SELECTION_CHANGE
+    }
+
+    /**
+     * The counted events of a graph editor.
+     */
+    public enum Counter {
+
+        /**
+         * A node skin was created.
+         */
+        NODE_SKINS_CREATED,
+
+        /**
+         * A connector skin was created.
+         */
+        CONNECTOR_SKINS_CREATED,
+
+        /**
+         * A connection skin was created.
+         */
+        CONNECTION_SKINS_CREATED,
+
+        /**
+         * A joint skin was created.
+         */
+        JOINT_SKINS_CREATED,
+
+        /**
+         * A tail skin was created.
+         */
+        TAIL_SKINS_CREATED,
+
+        /**
+         * A connection skin actually redrew its path, because its points or intersections changed.
+         */
+        CONNECTIONS_REDRAWN
+    }
+
+    /**
+     * The sampled values of a graph editor.
+     */
+    public enum Gauge {
+
+        /**
+         * The number of skins currently held by the editor.
+         */
+        LIVE_SKINS
+    }
+
+    /**
+     * An immutable snapshot of the metrics of a graph editor.
+     */
+    public static final class Snapshot {
+
+        private final LatencyHistogram.Snapshot[] timers;
+        private final long[] counts;
+        private final long[] lastPulseCounts;
+        private final long[] gauges;
+
+        private Snapshot(final LatencyHistogram.Snapshot[] timers, final long[] counts, final long[] lastPulseCounts,
+                final long[] gauges) {
+
+            this.timers = timers;
+            this.counts = counts;
+            this.lastPulseCounts = lastPulseCounts;
+            this.gauges = gauges;
+        }
+
+        /**
+         * @param timer a {@link Timer}
+         * @return the durations recorded by the timer
+         */
+        public LatencyHistogram.Snapshot getTimer(final Timer timer) {
+            return timers[timer.ordinal()];
+        }
+
+        /**
+         * @param counter a {@link Counter}
+         * @return the total of the counter
+         */
+        public long getCount(final Counter counter) {
+            return counts[counter.ordinal()];
+        }
+
+        /**
+         * @param counter a {@link Counter}
+         * @return the increase of the counter during the last complete pulse
+         */
+        public long getLastPulseCount(final Counter counter) {
+            return lastPulseCounts[counter.ordinal()];
+        }
+
+        /**
+         * @param gauge a {@link Gauge}
+         * @return the value of the gauge, or 0 if it has no supplier
+         */
+        public long getGauge(final Gauge gauge) {
+            return gauges[gauge.ordinal()];
+        }
+    }
+
+    /**
+     * Exposes the metrics via JMX.
+     */
+    private class MXBeanAdapter implements GraphEditorMetricsMXBean {
+
+        @Override
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        @Override
+        public void setEnabled(final boolean enabled) {
+            GraphEditorMetrics.this.setEnabled(enabled);
+        }
+
+        @Override
+        public void reset() {
+            GraphEditorMetrics.this.reset();
+        }
+
+        @Override
+        public Map<String, Long> getSampleCounts() {
+
+            final Snapshot snapshot = snapshot();
+            final Map<String, Long> values = new LinkedHashMap<>();
+
+            for (final Timer timer : TIMERS) {
+                values.put(timer.name(), snapshot.getTimer(timer).getCount());
+            }
+            return values;
+        }
+
+        @Override
+        public Map<String, Double> getMeanTimes() {
+            return getTimes(LatencyHistogram.Snapshot::getMean);
+        }
+
+        @Override
+        public Map<String, Double> get99thPercentileTimes() {
+            return getTimes(histogram -> histogram.getPercentile(99));
+        }
+
+        @Override
+        public Map<String, Double> getMaxTimes() {
+            return getTimes(LatencyHistogram.Snapshot::getMax);
+        }
+
+        @Override
+        public Map<String, Long> getCounts() {
+
+            final Snapshot snapshot = snapshot();
+            final Map<String, Long> values = new LinkedHashMap<>();
+
+            for (final Counter counter : COUNTERS) {
+                values.put(counter.name(), snapshot.getCount(counter));
+            }
+            return values;
+        }
+
+        @Override
+        public Map<String, Long> getGauges() {
+
+            final Snapshot snapshot = snapshot();
+            final Map<String, Long> values = new LinkedHashMap<>();
+
+            for (final Gauge gauge : GAUGES) {
+                values.put(gauge.name(), snapshot.getGauge(gauge));
+            }
+            return values;
+        }
+
+        private Map<String, Double> getTimes(final ToDoubleFunction<LatencyHistogram.Snapshot> nanos) {
+
+            final Snapshot snapshot = snapshot();
+            final Map<String, Double> values = new LinkedHashMap<>();
+
+            for (final Timer timer : TIMERS) {
+                values.put(timer.name(), nanos.applyAsDouble(snapshot.getTimer(timer)) / NANOS_PER_MILLI);
+            }
+            return values;
+        }
+    }
+}
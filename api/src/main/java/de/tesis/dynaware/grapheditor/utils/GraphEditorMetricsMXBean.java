@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.utils;
+
+import java.util.Map;
+
+/**
+ * The JMX view of a {@link GraphEditorMetrics} instance.
+ *
+ * <p>
+ * Maps are keyed by the names of the {@link GraphEditorMetrics.Timer}, {@link GraphEditorMetrics.Counter} and
+ * {@link GraphEditorMetrics.Gauge} constants. Times are given in milliseconds.
+ * </p>
+ */
+public interface GraphEditorMetricsMXBean {
+
+    /**
+     * @return {@code true} if metrics are being recorded
+     */
+    boolean isEnabled();
+
+    /**
+     * Starts or stops recording metrics.
+     *
+     * @param enabled {@code true} to start recording metrics
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * Removes all recorded values.
+     */
+    void reset();
+
+    /**
+     * @return the number of values recorded by each timer
+     */
+    Map<String, Long> getSampleCounts();
+
+    /**
+     * @return the mean time recorded by each timer
+     */
+    Map<String, Double> getMeanTimes();
+
+    /**
+     * @return the 99th percentile of the times recorded by each timer
+     */
+    Map<String, Double> get99thPercentileTimes();
+
+    /**
+     * @return the longest time recorded by each timer
+     */
+    Map<String, Double> getMaxTimes();
+
+    /**
+     * @return the total of each counter
+     */
+    Map<String, Long> getCounts();
+
+    /**
+     * @return the current value of each gauge
+     */
+    Map<String, Long> getGauges();
+}
@@ -25,6 +25,11 @@ import javafx.collections.ObservableMap;
  * <p>
  * Also stores properties for whether the grid is visible and/or snap-to-grid is on.
  * </p>
+ *
+ * <p>
+ * The low-detail property is set by the {@code PanningWindow} the editor is displayed in, whenever the zoom level
+ * drops below the low-detail zoom threshold. The default skins then draw simplified versions of themselves.
+ * </p>
  */
 public class GraphEditorProperties {
 
@@ -34,6 +39,7 @@ public class GraphEditorProperties {
 
     public static final double DEFAULT_BOUND_VALUE = 15;
     public static final double DEFAULT_GRID_SPACING = 12;
+    public static final double DEFAULT_LOW_DETAIL_ZOOM_THRESHOLD = 0.75;
 
     // The distance from the editor edge at which the objects should stop when dragged / resized.
     private double northBoundValue = DEFAULT_BOUND_VALUE;
@@ -46,6 +52,10 @@ public class GraphEditorProperties {
     private final BooleanProperty snapToGrid = new SimpleBooleanProperty(this, "snapToGrid");
     private final DoubleProperty gridSpacing = new SimpleDoubleProperty(this, "gridSpacing", DEFAULT_GRID_SPACING);
     private final BooleanProperty readOnly = new SimpleBooleanProperty(this, "readOnly");
+
+    private final DoubleProperty lowDetailZoomThreshold = new SimpleDoubleProperty(this, "lowDetailZoomThreshold",
+            DEFAULT_LOW_DETAIL_ZOOM_THRESHOLD);
+    private final BooleanProperty lowDetail = new SimpleBooleanProperty(this, "lowDetail");
     
     private final ObservableMap<String, String> customProperties = FXCollections.observableHashMap();
     
@@ -78,6 +88,7 @@ public class GraphEditorProperties {
         gridSpacing.set(editorProperties.getGridSpacing());
         
         readOnly.set(editorProperties.isReadOnly());
+        lowDetailZoomThreshold.set(editorProperties.getLowDetailZoomThreshold());
         
         customProperties.putAll(editorProperties.getCustomProperties());
     }
@@ -266,6 +277,61 @@ public class GraphEditorProperties {
         this.readOnly.set(readOnly);
     }
 
+    /**
+     * Gets the zoom level below which the editor is drawn in low detail.
+     *
+     * @return the low-detail zoom threshold
+     */
+    public double getLowDetailZoomThreshold() {
+        return lowDetailZoomThreshold.get();
+    }
+
+    /**
+     * Sets the zoom level below which the editor should be drawn in low detail.
+     *
+     * <p>
+     * Set a value of 0 to always draw the editor in full detail.
+     * </p>
+     *
+     * @param lowDetailZoomThreshold the low-detail zoom threshold
+     */
+    public void setLowDetailZoomThreshold(final double lowDetailZoomThreshold) {
+        this.lowDetailZoomThreshold.set(lowDetailZoomThreshold);
+    }
+
+    /**
+     * Gets the low-detail zoom threshold property.
+     *
+     * @return the low-detail zoom threshold {@link DoubleProperty}
+     */
+    public DoubleProperty lowDetailZoomThresholdProperty() {
+        return lowDetailZoomThreshold;
+    }
+
+    /**
+     * Checks if the editor is currently drawn in low detail.
+     *
+     * @return {@code true} if the editor is drawn in low detail, {@code false} if in full detail
+     */
+    public boolean isLowDetail() {
+        return lowDetail.get();
+    }
+
+    /**
+     * Gets the low-detail property.
+     *
+     * <p>
+     * This is bound by the panning window the editor is displayed in and should usually only be observed. In low
+     * detail, nodes are drawn as plain rectangles, connectors are hidden and connections are drawn without gaps or
+     * detours. Skins are not recreated when this changes.
+     * </p>
+     *
+     * @return a {@link BooleanProperty} tracking whether the editor is drawn in low detail
+     */
+    public BooleanProperty lowDetailProperty() {
+        return lowDetail;
+    }
+
     /**
      * Additional properties that may be added and referred to in custom skin implementations.
      *
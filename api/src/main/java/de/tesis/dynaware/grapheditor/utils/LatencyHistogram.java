@@ -0,0 +1,216 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of durations in nanoseconds.
+ *
+ * <p>
+ * Values are counted in logarithmic buckets with 16 sub-buckets per power of two, so percentiles are accurate to
+ * within about 6%. Recording a value is a handful of atomic increments and never allocates, so it can be done from
+ * any thread on hot paths. Values above about 70 minutes are counted in the last bucket.
+ * </p>
+ *
+ * <p>
+ * A {@link Snapshot} can be taken at any time from any thread, but it is not atomic with respect to concurrent
+ * recording. The buckets, the total and the maximum are read one after another, so a value recorded meanwhile may be
+ * seen by some of them and not by others. The mean and the largest value of such a snapshot can then be slightly off.
+ * </p>
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 42;
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+    private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a single duration.
+     *
+     * @param nanos the duration in nanoseconds, negative values are counted as zero
+     */
+    public void record(final long nanos) {
+
+        final long value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+
+        buckets.incrementAndGet(getBucket(value));
+        total.add(value);
+
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * Removes all recorded values.
+     */
+    public void reset() {
+
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        total.reset();
+        max.set(0);
+    }
+
+    /**
+     * Takes a snapshot of the values recorded so far.
+     *
+     * @return an immutable {@link Snapshot}
+     */
+    public Snapshot snapshot() {
+
+        final long[] counts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+        }
+        return new Snapshot(counts, total.sum(), max.get());
+    }
+
+    /**
+     * Gets the bucket that a value is counted in.
+     */
+    private static int getBucket(final long value) {
+
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * Gets the smallest value that is counted in the given bucket.
+     */
+    private static long getLowerBound(final int bucket) {
+
+        if (bucket < SUB_BUCKET_COUNT) {
+            return bucket;
+        }
+
+        final int exponent = bucket / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+        final long subBucket = bucket % SUB_BUCKET_COUNT;
+
+        return (SUB_BUCKET_COUNT + subBucket) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    /**
+     * An immutable snapshot of a {@link LatencyHistogram}.
+     */
+    public static final class Snapshot {
+
+        private final long[] counts;
+        private final long count;
+        private final long total;
+        private final long max;
+
+        private Snapshot(final long[] counts, final long total, final long max) {
+
+            long count = 0;
+            for (final long bucketCount : counts) {
+                count += bucketCount;
+            }
+
+            this.counts = counts;
+            this.count = count;
+            this.total = total;
+            this.max = max;
+        }
+
+        /**
+         * Gets the values recorded between an earlier snapshot and this one.
+         *
+         * <p>
+         * The largest value of the interval is not known exactly. It is estimated as the upper bound of the highest
+         * bucket that received values, but never more than the largest value of this snapshot.
+         * </p>
+         *
+         * @param earlier an earlier snapshot of the same histogram
+         * @return a {@link Snapshot} of the values recorded in between
+         */
+        public Snapshot since(final Snapshot earlier) {
+
+            final long[] difference = new long[counts.length];
+            long intervalMax = 0;
+
+            for (int i = 0; i < counts.length; i++) {
+                difference[i] = Math.max(0, counts[i] - earlier.counts[i]);
+                if (difference[i] > 0) {
+                    intervalMax = i + 1 < counts.length ? Math.min(getLowerBound(i + 1) - 1, max) : max;
+                }
+            }
+            return new Snapshot(difference, Math.max(0, total - earlier.total), intervalMax);
+        }
+
+        /**
+         * @return the number of recorded values
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return the sum of all recorded values, in nanoseconds
+         */
+        public long getTotal() {
+            return total;
+        }
+
+        /**
+         * @return the mean of the recorded values in nanoseconds, or 0 if there are none
+         */
+        public double getMean() {
+            return count == 0 ? 0 : (double) total / count;
+        }
+
+        /**
+         * @return the largest recorded value in nanoseconds, or 0 if there are none
+         */
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * Gets the value below which the given percentage of the recorded values lie.
+         *
+         * <p>
+         * The result is the upper bound of the bucket containing the percentile, but never more than the largest
+         * recorded value.
+         * </p>
+         *
+         * @param percentile the percentile, between 0 and 100
+         * @return the value at the percentile in nanoseconds, or 0 if there are no values
+         */
+        public long getPercentile(final double percentile) {
+
+            if (count == 0) {
+                return 0;
+            }
+
+            final long rank = Math.max(1, (long) Math.ceil(count * Math.min(percentile, 100) / 100));
+            long seen = 0;
+
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return i + 1 < counts.length ? Math.min(getLowerBound(i + 1) - 1, max) : max;
+                }
+            }
+            return max;
+        }
+    }
+}
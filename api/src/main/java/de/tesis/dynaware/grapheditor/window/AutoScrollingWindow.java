@@ -1,8 +1,7 @@
 package de.tesis.dynaware.grapheditor.window;
 
-import javafx.animation.Animation;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
+import de.tesis.dynaware.grapheditor.utils.AnimationScheduler;
+import de.tesis.dynaware.grapheditor.utils.AnimationScheduler.FrameCallback;
 import javafx.geometry.Point2D;
 import javafx.scene.Node;
 import javafx.scene.input.MouseEvent;
@@ -25,7 +24,8 @@ public class AutoScrollingWindow extends PanningWindow {
     private double jumpAmountIncreasePerJump = 0.5;
     private double insetToBeginScroll = 1;
 
-    private Timeline timeline;
+    private final FrameCallback scrollCallback = this::scroll;
+    private long lastJump;
     private boolean isScrolling;
     private Point2D jumpDistance;
 
@@ -149,23 +149,50 @@ public class AutoScrollingWindow extends PanningWindow {
 
     /**
      * Starts the auto-scrolling.
+     *
+     * <p>
+     * Does nothing if it has already started, so the scroll callback is only registered once.
+     * </p>
      */
     private void startScrolling() {
 
+        if (isScrolling) {
+            return;
+        }
+
         isScrolling = true;
         jumpsTaken = 0;
+        lastJump = 0;
 
-        final KeyFrame frame = new KeyFrame(JUMP_PERIOD, event -> {
-            if (isScrolling && jumpDistance != null) {
+        AnimationScheduler.getInstance().add(scrollCallback);
+    }
+
+    /**
+     * Jumps once per jump period while scrolling. Run on each frame by the {@link AnimationScheduler}.
+     *
+     * @param now the timestamp of the current frame in nanoseconds
+     * @return {@code true} while scrolling should continue
+     */
+    private boolean scroll(final long now) {
+
+        if (!isScrolling) {
+            return false;
+        }
+
+        final long period = (long) (JUMP_PERIOD.toMillis() * 1_000_000);
+
+        if (lastJump == 0) {
+            lastJump = now;
+        } else if (now - lastJump >= period) {
+
+            lastJump += period * ((now - lastJump) / period);
+
+            if (jumpDistance != null) {
                 panBy(jumpDistance.getX(), jumpDistance.getY());
                 jumpsTaken++;
             }
-        });
-
-        timeline = new Timeline();
-        timeline.setCycleCount(Animation.INDEFINITE);
-        timeline.getKeyFrames().add(frame);
-        timeline.play();
+        }
+        return true;
     }
 
     /**
@@ -175,8 +202,6 @@ public class AutoScrollingWindow extends PanningWindow {
 
         isScrolling = false;
 
-        if (timeline != null) {
-            timeline.stop();
-        }
+        AnimationScheduler.getInstance().remove(scrollCallback);
     }
 }
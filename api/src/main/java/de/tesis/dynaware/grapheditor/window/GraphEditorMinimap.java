@@ -5,10 +5,6 @@ package de.tesis.dynaware.grapheditor.window;
 
 import java.util.function.Predicate;
 
-import org.eclipse.emf.common.command.CommandStackListener;
-import org.eclipse.emf.edit.domain.AdapterFactoryEditingDomain;
-import org.eclipse.emf.edit.domain.EditingDomain;
-
 import de.tesis.dynaware.grapheditor.SelectionManager;
 import de.tesis.dynaware.grapheditor.model.GConnection;
 import de.tesis.dynaware.grapheditor.model.GModel;
@@ -32,9 +28,6 @@ public class GraphEditorMinimap extends PanningWindowMinimap {
 
     private final MinimapNodeGroup minimapNodeGroup = new MinimapNodeGroup();
 
-    private GModel model;
-    private final CommandStackListener modelChangeListener = event -> minimapNodeGroup.draw();
-
     /**
      * Creates a new {@link GraphEditorMinimap} instance.
      *
@@ -89,6 +82,19 @@ public class GraphEditorMinimap extends PanningWindowMinimap {
         minimapNodeGroup.setConnectionFilter(connectionFilter);
     }
     
+    /**
+     * Sets whether the minimap should be rasterized on a background thread.
+     *
+     * <p>
+     * Recommended for very large models. Disabled by default.
+     * </p>
+     *
+     * @param backgroundRendering {@code true} to rasterize the minimap on a background thread
+     */
+    public void setBackgroundRendering(final boolean backgroundRendering) {
+        minimapNodeGroup.setBackgroundRendering(backgroundRendering);
+    }
+
     /**
      * Sets the selection manager instance currently in use by this graph editor.
      *
@@ -109,24 +115,7 @@ public class GraphEditorMinimap extends PanningWindowMinimap {
      */
     public void setModel(final GModel model) {
 
-        // First remove the listener from old model's command stack, if it exists.
-        if (this.model != null) {
-            final EditingDomain domain = AdapterFactoryEditingDomain.getEditingDomainFor(this.model);
-            if (domain != null) {
-                domain.getCommandStack().removeCommandStackListener(modelChangeListener);
-            }
-        }
-
-        this.model = model;
+        // The node group listens to the model itself and repaints only what changes.
         minimapNodeGroup.setModel(model);
-        minimapNodeGroup.draw();
-
-        // Now add the listener to the new model's command stack.
-        if (model != null) {
-            final EditingDomain domain = AdapterFactoryEditingDomain.getEditingDomainFor(model);
-            if (domain != null) {
-                domain.getCommandStack().addCommandStackListener(modelChangeListener);
-            }
-        }
     }
 }
@@ -0,0 +1,242 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.window;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+
+/**
+ * Keeps track of the regions of the minimap canvas that need to be repainted in the next layout pass.
+ *
+ * <p>
+ * Regions are expanded when they are marked, so that they also cover the stroke width of lines drawn along their
+ * border. If more than {@link #MAX_REGIONS} regions are marked before they are cleared, the whole canvas is marked
+ * instead.
+ * </p>
+ *
+ * <p>
+ * The elements to be repainted are found with {@link #bucket(List, List, Function)}, which visits every element once
+ * per frame no matter how many regions are dirty.
+ * </p>
+ */
+final class MinimapDirtyRegions {
+
+    /**
+     * The maximum number of separate dirty regions. Marking more than this marks the whole canvas.
+     */
+    static final int MAX_REGIONS = 64;
+
+    // The dirty regions are sorted into a coarse grid with this many cells per side, to find them quickly.
+    private static final int GRID_SIZE = 8;
+
+    private final List<Bounds> regions = new ArrayList<>();
+    private boolean all = true;
+
+    /**
+     * Marks the whole canvas as dirty.
+     */
+    void markAll() {
+        all = true;
+        regions.clear();
+    }
+
+    /**
+     * Marks the given region as dirty.
+     *
+     * @param bounds the region to be repainted, in minimap coordinates, or {@code null} to do nothing
+     */
+    void mark(final Bounds bounds) {
+
+        if (bounds == null || all) {
+            return;
+        }
+
+        if (regions.size() >= MAX_REGIONS) {
+            markAll();
+        } else {
+            regions.add(expand(bounds));
+        }
+    }
+
+    /**
+     * Clears all dirty regions, after they have been repainted.
+     */
+    void clear() {
+        all = false;
+        regions.clear();
+    }
+
+    /**
+     * @return {@code true} if the whole canvas is dirty
+     */
+    boolean isAll() {
+        return all;
+    }
+
+    /**
+     * @return {@code true} if nothing needs to be repainted
+     */
+    boolean isEmpty() {
+        return !all && regions.isEmpty();
+    }
+
+    /**
+     * Gets the regions to be repainted.
+     *
+     * @param width the width of the canvas
+     * @param height the height of the canvas
+     * @return the expanded dirty regions, or a single region covering the canvas if the whole canvas is dirty
+     */
+    List<Bounds> getRegions(final double width, final double height) {
+
+        if (all) {
+            return Collections.singletonList(new BoundingBox(0, 0, width, height));
+        } else {
+            return Collections.unmodifiableList(regions);
+        }
+    }
+
+    /**
+     * Sorts elements into the regions that they intersect.
+     *
+     * <p>
+     * Each element is visited once. Its bounds are only compared with the regions that share a cell of a coarse grid
+     * laid over the regions, so the cost grows with the number of elements rather than with the number of elements
+     * times the number of regions. An element that intersects several regions is added to each of them.
+     * </p>
+     *
+     * @param regions the regions to sort the elements into
+     * @param elements the elements, in the order they should be painted
+     * @param boundsOf a function returning the bounds of an element, or {@code null} if it is not drawn
+     * @return a list of elements for each region, in the same order as the given elements
+     */
+    static <T> List<List<T>> bucket(final List<Bounds> regions, final List<T> elements,
+            final Function<T, Bounds> boundsOf) {
+
+        final List<List<T>> buckets = new ArrayList<>(regions.size());
+        for (int i = 0; i < regions.size(); i++) {
+            buckets.add(new ArrayList<>());
+        }
+
+        if (regions.isEmpty()) {
+            return buckets;
+        }
+
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+
+        for (final Bounds region : regions) {
+            minX = Math.min(minX, region.getMinX());
+            minY = Math.min(minY, region.getMinY());
+            maxX = Math.max(maxX, region.getMaxX());
+            maxY = Math.max(maxY, region.getMaxY());
+        }
+
+        final Grid grid = new Grid(minX, minY, maxX, maxY);
+        for (int i = 0; i < regions.size(); i++) {
+            grid.add(regions.get(i), i);
+        }
+
+        // The element that each region was last compared with, so that no region is compared twice per element.
+        final int[] visited = new int[regions.size()];
+        final Bounds total = new BoundingBox(minX, minY, maxX - minX, maxY - minY);
+
+        for (int e = 0; e < elements.size(); e++) {
+
+            final T element = elements.get(e);
+            final Bounds bounds = boundsOf.apply(element);
+
+            if (bounds == null || !bounds.intersects(total)) {
+                continue;
+            }
+
+            final int stamp = e + 1;
+            final int firstColumn = grid.getColumn(bounds.getMinX());
+            final int lastColumn = grid.getColumn(bounds.getMaxX());
+
+            for (int row = grid.getRow(bounds.getMinY()); row <= grid.getRow(bounds.getMaxY()); row++) {
+                for (int column = firstColumn; column <= lastColumn; column++) {
+                    for (final int index : grid.getCell(column, row)) {
+                        if (visited[index] != stamp) {
+                            visited[index] = stamp;
+                            if (bounds.intersects(regions.get(index))) {
+                                buckets.get(index).add(element);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        return buckets;
+    }
+
+    /**
+     * Expands a dirty region so that it also covers the stroke width of lines drawn along its border.
+     *
+     * @param bounds a dirty region
+     * @return the expanded region, aligned to whole pixels
+     */
+    private static Bounds expand(final Bounds bounds) {
+
+        final double minX = Math.floor(bounds.getMinX()) - 1;
+        final double minY = Math.floor(bounds.getMinY()) - 1;
+        final double maxX = Math.ceil(bounds.getMaxX()) + 2;
+        final double maxY = Math.ceil(bounds.getMaxY()) + 2;
+
+        return new BoundingBox(minX, minY, maxX - minX, maxY - minY);
+    }
+
+    /**
+     * A uniform grid storing the indices of the regions that overlap each cell.
+     */
+    private static class Grid {
+
+        private final double minX;
+        private final double minY;
+        private final double cellWidth;
+        private final double cellHeight;
+
+        private final List<List<Integer>> cells = new ArrayList<>(GRID_SIZE * GRID_SIZE);
+
+        Grid(final double minX, final double minY, final double maxX, final double maxY) {
+
+            this.minX = minX;
+            this.minY = minY;
+            cellWidth = Math.max(1, (maxX - minX) / GRID_SIZE);
+            cellHeight = Math.max(1, (maxY - minY) / GRID_SIZE);
+
+            for (int i = 0; i < GRID_SIZE * GRID_SIZE; i++) {
+                cells.add(new ArrayList<>());
+            }
+        }
+
+        void add(final Bounds region, final int index) {
+            for (int row = getRow(region.getMinY()); row <= getRow(region.getMaxY()); row++) {
+                for (int column = getColumn(region.getMinX()); column <= getColumn(region.getMaxX()); column++) {
+                    getCell(column, row).add(index);
+                }
+            }
+        }
+
+        List<Integer> getCell(final int column, final int row) {
+            return cells.get(row * GRID_SIZE + column);
+        }
+
+        int getColumn(final double x) {
+            return Math.max(0, Math.min(GRID_SIZE - 1, (int) ((x - minX) / cellWidth)));
+        }
+
+        int getRow(final double y) {
+            return Math.max(0, Math.min(GRID_SIZE - 1, (int) ((y - minY) / cellHeight)));
+        }
+    }
+}
@@ -4,12 +4,18 @@
 package de.tesis.dynaware.grapheditor.window;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Predicate;
 
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+
 import de.tesis.dynaware.grapheditor.SelectionManager;
 import de.tesis.dynaware.grapheditor.model.GConnection;
 import de.tesis.dynaware.grapheditor.model.GConnector;
@@ -25,11 +31,16 @@ import javafx.css.StyleConverter;
 import javafx.css.Styleable;
 import javafx.css.StyleableObjectProperty;
 import javafx.css.StyleableProperty;
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+import javafx.scene.Group;
 import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.ImageView;
 import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
 import javafx.scene.shape.Rectangle;
 
 /**
@@ -40,12 +51,29 @@ import javafx.scene.shape.Rectangle;
  * {@link GModel}. This group of mini-nodes is then displayed inside the
  * {@link GraphEditorMinimap}.
  * </p>
+ *
+ * <p>
+ * Nodes and connections are painted onto a single {@link Canvas}, which acts as a cached image of the whole minimap.
+ * The group listens for changes to the model and only repaints the regions covered by the old and new bounds of the
+ * elements that changed. The canvas is only repainted completely if its size, the scale factor or the colors change.
+ * </p>
+ *
+ * <p>
+ * Node colors are styled via the {@code -node-color}, {@code -selected-node-color} and {@code -node-border-color}
+ * properties of the {@code minimap-node-group} style class. Rules for the {@code minimap-node} style class, optionally
+ * combined with the type of the node and the {@code :selected} pseudo-class, still work as they did when every node was
+ * a separate {@link Rectangle}. Their {@code -fx-fill} and {@code -fx-stroke} colors take precedence.
+ * </p>
  */
 public class MinimapNodeGroup extends Parent {
 
+    private static final String STYLE_CLASS = "minimap-node-group";
     private static final String STYLE_CLASS_NODE = "minimap-node";
     private static final PseudoClass PSEUDO_CLASS_SELECTED = PseudoClass.getPseudoClass("selected");
 
+    private static final Color DEFAULT_NODE_COLOR = Color.rgb(249, 247, 250);
+    private static final Color DEFAULT_SELECTED_NODE_COLOR = Color.rgb(236, 233, 238);
+
     private final InvalidationListener checkSelectionListener = obs -> checkSelection();
     private final InvalidationListener checkSelectionWeakListener = new WeakInvalidationListener(
             checkSelectionListener);
@@ -53,7 +81,25 @@ public class MinimapNodeGroup extends Parent {
     private SelectionManager selectionManager;
     private GModel model;
 
-    private final Map<GNode, Rectangle> nodes = new HashMap<>();
+    private final Map<GNode, Bounds> nodeBounds = new HashMap<>();
+    private final Map<GConnection, Bounds> connectionBounds = new HashMap<>();
+    private final Set<GNode> selectedNodes = new HashSet<>();
+
+    private final MinimapDirtyRegions dirtyRegions = new MinimapDirtyRegions();
+
+    // Hidden rectangles per node type, unselected and selected, that pick up rules for the old node style class.
+    private final Map<String, Rectangle[]> nodeStyles = new HashMap<>();
+    private final Group nodeStyleGroup = new Group();
+    private final InvalidationListener nodeStyleListener = obs -> repaintAll();
+
+    private final EContentAdapter modelChangeAdapter = new EContentAdapter() {
+
+        @Override
+        public void notifyChanged(final Notification notification) {
+            super.notifyChanged(notification);
+            handleModelChange(notification);
+        }
+    };
 
     private Predicate<GConnection> connectionFilter = c -> true;
     
@@ -62,6 +108,9 @@ public class MinimapNodeGroup extends Parent {
     private double scaleFactor = -1;
     private final Canvas canvas = new Canvas();
 
+    private final ImageView imageView = new ImageView();
+    private MinimapRasterizer rasterizer;
+
     private final StyleableObjectProperty<Color> connectionColor = new StyleableObjectProperty<Color>(Color.GRAY) {
 
         @Override
@@ -78,13 +127,137 @@ public class MinimapNodeGroup extends Parent {
         public CssMetaData<? extends Styleable, Color> getCssMetaData() {
             return StyleableProperties.CONNECTION_COLOR;
         }
+
+        @Override
+        protected void invalidated() {
+            repaintAll();
+        }
     };
-    
+
+    private final StyleableObjectProperty<Color> nodeColor = new StyleableObjectProperty<Color>(DEFAULT_NODE_COLOR) {
+
+        @Override
+        public String getName() {
+            return "nodeColor";
+        }
+
+        @Override
+        public Object getBean() {
+            return "GraphEditorMinimap";
+        }
+
+        @Override
+        public CssMetaData<? extends Styleable, Color> getCssMetaData() {
+            return StyleableProperties.NODE_COLOR;
+        }
+
+        @Override
+        protected void invalidated() {
+            repaintAll();
+        }
+    };
+
+    private final StyleableObjectProperty<Color> selectedNodeColor = new StyleableObjectProperty<Color>(
+            DEFAULT_SELECTED_NODE_COLOR) {
+
+        @Override
+        public String getName() {
+            return "selectedNodeColor";
+        }
+
+        @Override
+        public Object getBean() {
+            return "GraphEditorMinimap";
+        }
+
+        @Override
+        public CssMetaData<? extends Styleable, Color> getCssMetaData() {
+            return StyleableProperties.SELECTED_NODE_COLOR;
+        }
+
+        @Override
+        protected void invalidated() {
+            repaintAll();
+        }
+    };
+
+    private final StyleableObjectProperty<Color> nodeBorderColor = new StyleableObjectProperty<Color>(Color.GRAY) {
+
+        @Override
+        public String getName() {
+            return "nodeBorderColor";
+        }
+
+        @Override
+        public Object getBean() {
+            return "GraphEditorMinimap";
+        }
+
+        @Override
+        public CssMetaData<? extends Styleable, Color> getCssMetaData() {
+            return StyleableProperties.NODE_BORDER_COLOR;
+        }
+
+        @Override
+        protected void invalidated() {
+            repaintAll();
+        }
+    };
+
     /**
      * Default constructor
      */
     public MinimapNodeGroup() {
+        getStyleClass().add(STYLE_CLASS);
         getChildren().add(canvas);
+
+        imageView.setVisible(false);
+        getChildren().add(imageView);
+
+        nodeStyleGroup.setManaged(false);
+        nodeStyleGroup.setMouseTransparent(true);
+        nodeStyleGroup.setClip(new Rectangle());
+        getChildren().add(nodeStyleGroup);
+    }
+
+    /**
+     * Sets whether the minimap should be rasterized on a background thread.
+     *
+     * <p>
+     * When enabled, the geometry of the model is copied into primitive arrays
+     * on each change and rasterized into an image in the background, instead
+     * of being stroked onto the canvas on the JavaFX application thread. This
+     * is worthwhile for very large models. Changes made while a frame is being
+     * rendered are coalesced, so that only the latest state is rendered next.
+     * </p>
+     *
+     * @param backgroundRendering
+     *            {@code true} to rasterize the minimap on a background thread
+     */
+    public void setBackgroundRendering(final boolean backgroundRendering) {
+
+        if (backgroundRendering == isBackgroundRendering()) {
+            return;
+        }
+
+        if (backgroundRendering) {
+            rasterizer = new MinimapRasterizer(imageView);
+        } else {
+            rasterizer.dispose();
+            rasterizer = null;
+            imageView.setImage(null);
+        }
+
+        canvas.setVisible(!backgroundRendering);
+        imageView.setVisible(backgroundRendering);
+        repaintAll();
+    }
+
+    /**
+     * @return {@code true} if the minimap is rasterized on a background thread
+     */
+    public boolean isBackgroundRendering() {
+        return rasterizer != null;
     }
 
     /**
@@ -119,12 +292,34 @@ public class MinimapNodeGroup extends Parent {
      *            athe {@link GModel} whose nodes are to be drawn
      */
     public void setModel(final GModel model) {
+
+        if (this.model != null) {
+            this.model.eAdapters().remove(modelChangeAdapter);
+        }
+
         this.model = model;
+
+        if (model != null) {
+            model.eAdapters().add(modelChangeAdapter);
+        }
+        draw();
     }
 
     private void checkSelection() {
-        for (final Map.Entry<GNode, Rectangle> entry : nodes.entrySet()) {
-            entry.getValue().pseudoClassStateChanged(PSEUDO_CLASS_SELECTED, isSelected(entry.getKey()));
+
+        for (final GNode node : nodeBounds.keySet()) {
+
+            final boolean selected = isSelected(node);
+
+            if (selected != selectedNodes.contains(node)) {
+
+                if (selected) {
+                    selectedNodes.add(node);
+                } else {
+                    selectedNodes.remove(node);
+                }
+                markDirty(nodeBounds.get(node));
+            }
         }
     }
 
@@ -146,6 +341,7 @@ public class MinimapNodeGroup extends Parent {
      */
     public void setConnectionFilter(final Predicate<GConnection> connectionFilter) {
         this.connectionFilter = connectionFilter;
+        repaintAll();
     }
 
     /**
@@ -173,6 +369,30 @@ public class MinimapNodeGroup extends Parent {
     public ObjectProperty<Color> connectionColorProperty() {
         return connectionColor;
     }
+
+    /**
+     * @return {@link ObjectProperty} controlling the fill {@link Color} of
+     *         unselected nodes in the minimap
+     */
+    public ObjectProperty<Color> nodeColorProperty() {
+        return nodeColor;
+    }
+
+    /**
+     * @return {@link ObjectProperty} controlling the fill {@link Color} of
+     *         selected nodes in the minimap
+     */
+    public ObjectProperty<Color> selectedNodeColorProperty() {
+        return selectedNodeColor;
+    }
+
+    /**
+     * @return {@link ObjectProperty} controlling the border {@link Color} of
+     *         nodes in the minimap
+     */
+    public ObjectProperty<Color> nodeBorderColorProperty() {
+        return nodeBorderColor;
+    }
     
     @Override
     public boolean isResizable() {
@@ -184,7 +404,7 @@ public class MinimapNodeGroup extends Parent {
         if(this.width != width || this.height != height) {
             this.width = width;
             this.height = height;
-            redraw();
+            repaintAll();
         }
     }
     
@@ -196,122 +416,518 @@ public class MinimapNodeGroup extends Parent {
     public void setScaleFactor(final double scaleFactor) {
         if(this.scaleFactor != scaleFactor) {
             this.scaleFactor = scaleFactor;
-            redraw();
+            draw();
         }
     }
     
-    private void redraw() {
-        if(nodes.isEmpty()) {
-            draw();
+    /**
+     * Draws the model's nodes at a scaled-down size to be displayed in the
+     * minimap.
+     *
+     * <p>
+     * This recalculates the bounds of all nodes and connections and repaints
+     * the whole canvas. Individual changes to the model are picked up
+     * automatically and only cause the affected regions to be repainted.
+     * </p>
+     */
+    public void draw() {
+
+        nodeBounds.clear();
+        connectionBounds.clear();
+        selectedNodes.clear();
+
+        if (model != null && scaleFactor > 0) {
+
+            for (int i = 0; i < model.getNodes().size(); i++) {
+                final GNode node = model.getNodes().get(i);
+                nodeBounds.put(node, calculateBounds(node));
+                getNodeStyles(node);
+                if (isSelected(node)) {
+                    selectedNodes.add(node);
+                }
+            }
+
+            for (int i = 0; i < model.getConnections().size(); i++) {
+                final GConnection connection = model.getConnections().get(i);
+                if (connection.getSource() != null && connection.getTarget() != null) {
+                    connectionBounds.put(connection, calculateBounds(connection));
+                }
+            }
         }
-        else {
+
+        repaintAll();
+    }
+
+    /**
+     * Marks the whole canvas to be repainted in the next layout pass.
+     */
+    private void repaintAll() {
+        dirtyRegions.markAll();
+        requestLayout();
+    }
+
+    /**
+     * Marks the given region of the canvas to be repainted in the next layout
+     * pass.
+     *
+     * @param bounds the region to be repainted, in minimap coordinates
+     */
+    private void markDirty(final Bounds bounds) {
+
+        if (bounds != null) {
+            dirtyRegions.mark(bounds);
             requestLayout();
         }
     }
 
     /**
-     * Draws the model's nodes at a scaled-down size to be displayed in the
-     * minimap.
+     * @return the regions of the canvas that will be repainted in the next layout pass
      */
-    public void draw() {
+    MinimapDirtyRegions getDirtyRegions() {
+        return dirtyRegions;
+    }
+
+    /**
+     * Handles a change anywhere inside the model by updating the bounds of the
+     * affected nodes and connections.
+     *
+     * @param notification the EMF {@link Notification} describing the change
+     */
+    private void handleModelChange(final Notification notification) {
+
+        if (notification.isTouch() || scaleFactor <= 0) {
+            return;
+        }
+
+        final Object notifier = notification.getNotifier();
+
+        if (notifier instanceof GNode) {
+            updateNode((GNode) notifier);
+        } else if (notifier instanceof GConnector) {
+            updateConnections(((GConnector) notifier).getConnections());
+        } else if (notifier instanceof GJoint) {
+            updateConnection(((GJoint) notifier).getConnection());
+        } else if (notifier instanceof GConnection) {
+            updateConnection((GConnection) notifier);
+        }
+
+        updateChangedValue(notification.getOldValue());
+        updateChangedValue(notification.getNewValue());
+    }
+
+    /**
+     * Updates the bounds of nodes or connections that were added or removed.
+     *
+     * @param value the old or new value of a {@link Notification}
+     */
+    private void updateChangedValue(final Object value) {
+
+        if (value instanceof GNode) {
+            updateNode((GNode) value);
+        } else if (value instanceof GConnection) {
+            updateConnection((GConnection) value);
+        } else if (value instanceof Collection) {
+            for (final Object element : (Collection<?>) value) {
+                updateChangedValue(element);
+            }
+        }
+    }
+
+    /**
+     * Recalculates the bounds of the given node and of all connections
+     * attached to it, and marks the old and new bounds as dirty.
+     *
+     * @param node a {@link GNode} that changed
+     */
+    private void updateNode(final GNode node) {
+
+        markDirty(nodeBounds.remove(node));
+
+        if (model != null && node.eContainer() == model) {
+
+            final Bounds bounds = calculateBounds(node);
+            nodeBounds.put(node, bounds);
+            markDirty(bounds);
+            getNodeStyles(node);
+
+            if (isSelected(node)) {
+                selectedNodes.add(node);
+            }
+        } else {
+            selectedNodes.remove(node);
+        }
+
+        for (final GConnector connector : node.getConnectors()) {
+            updateConnections(connector.getConnections());
+        }
+    }
 
-        nodes.clear();
-        if(getChildren().size() > 1) {
-            getChildren().remove(1, getChildren().size());
+    private void updateConnections(final List<GConnection> connections) {
+        for (int i = 0; i < connections.size(); i++) {
+            updateConnection(connections.get(i));
         }
-        
-        if(width == -1 || height == -1 || scaleFactor == -1) {
+    }
+
+    /**
+     * Recalculates the bounds of the given connection and marks the old and
+     * new bounds as dirty.
+     *
+     * @param connection a {@link GConnection} that changed
+     */
+    private void updateConnection(final GConnection connection) {
+
+        if (connection == null) {
             return;
         }
-        
-        if (model != null) {
-            for (int i = 0; i < model.getNodes().size(); i++) {
-                final GNode node = model.getNodes().get(i);
-                final Rectangle minimapNode = new Rectangle();
-                minimapNode.getStyleClass().addAll(STYLE_CLASS_NODE, node.getType());
-                getChildren().add(minimapNode);
-                nodes.put(node, minimapNode);
+
+        markDirty(connectionBounds.remove(connection));
+
+        if (model != null && connection.eContainer() == model && connection.getSource() != null
+                && connection.getTarget() != null) {
+
+            final Bounds bounds = calculateBounds(connection);
+            connectionBounds.put(connection, bounds);
+            markDirty(bounds);
+        }
+    }
+
+    private Bounds calculateBounds(final GNode node) {
+
+        final double x = Math.round(node.getX() * scaleFactor);
+        final double y = Math.round(node.getY() * scaleFactor);
+        final double width = Math.round(node.getWidth() * scaleFactor);
+        final double height = Math.round(node.getHeight() * scaleFactor);
+
+        return new BoundingBox(x, y, width, height);
+    }
+
+    private Bounds calculateBounds(final GConnection connection) {
+
+        final GConnector source = connection.getSource();
+        final GConnector target = connection.getTarget();
+
+        double minX = scaleSharp(source.getX() + source.getParent().getX() - 10, scaleFactor);
+        double minY = scaleSharp(source.getY() + source.getParent().getY(), scaleFactor);
+        double maxX = minX;
+        double maxY = minY;
+
+        for (int j = 0; j <= connection.getJoints().size(); j++) {
+
+            final double x;
+            final double y;
+            if (j < connection.getJoints().size()) {
+                final GJoint joint = connection.getJoints().get(j);
+                x = scaleSharp(joint.getX(), scaleFactor);
+                y = scaleSharp(joint.getY(), scaleFactor);
+            } else {
+                x = scaleSharp(target.getX() + target.getParent().getX(), scaleFactor);
+                y = scaleSharp(target.getY() + target.getParent().getY(), scaleFactor);
             }
-            checkSelection();
+
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
         }
-        
-        requestLayout();
+
+        return new BoundingBox(minX, minY, maxX - minX, maxY - minY);
     }
-    
+
     @Override
     protected void layoutChildren() {
 
-        if(width < 1 || height < 1) {
+        if (width < 1 || height < 1) {
+            return;
+        }
+
+        if (rasterizer != null) {
+
+            if (!dirtyRegions.isEmpty()) {
+                rasterizer.submit(createSnapshot());
+            }
+
+            dirtyRegions.clear();
             return;
         }
-        
+
+        if (canvas.getWidth() != width || canvas.getHeight() != height) {
+            canvas.setWidth(width);
+            canvas.setHeight(height);
+            dirtyRegions.markAll();
+        }
+
+        if (dirtyRegions.isEmpty()) {
+            return;
+        }
+
         final GraphicsContext gc = canvas.getGraphicsContext2D();
-        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
-        
-        canvas.setWidth(width);
-        canvas.setHeight(height);
-        
-        
+        final List<Bounds> regions = dirtyRegions.getRegions(canvas.getWidth(), canvas.getHeight());
+
+        if (model == null) {
+            for (final Bounds region : regions) {
+                paintRegion(gc, region, Collections.emptyList(), Collections.emptyList());
+            }
+        } else {
+
+            final List<List<GConnection>> connections = MinimapDirtyRegions.bucket(regions,
+                    model.getConnections(), connectionBounds::get);
+            final List<List<GNode>> nodes = MinimapDirtyRegions.bucket(regions, model.getNodes(), nodeBounds::get);
+
+            for (int i = 0; i < regions.size(); i++) {
+                paintRegion(gc, regions.get(i), connections.get(i), nodes.get(i));
+            }
+        }
+
+        dirtyRegions.clear();
+    }
+
+    /**
+     * Clears the given region of the canvas and repaints the given connections and nodes.
+     *
+     * @param gc the canvas {@link GraphicsContext}
+     * @param region the region to be repainted
+     * @param connections the connections that intersect the region, in model order
+     * @param nodes the nodes that intersect the region, in model order
+     */
+    private void paintRegion(final GraphicsContext gc, final Bounds region, final List<GConnection> connections,
+            final List<GNode> nodes) {
+
+        gc.save();
+
         gc.beginPath();
+        gc.rect(region.getMinX(), region.getMinY(), region.getWidth(), region.getHeight());
+        gc.clip();
+        gc.clearRect(region.getMinX(), region.getMinY(), region.getWidth(), region.getHeight());
+
         gc.setStroke(connectionColor.get());
         gc.setLineWidth(1);
 
+        for (int i = 0; i < connections.size(); i++) {
+
+            final GConnection conn = connections.get(i);
+
+            if (connectionFilter == null || connectionFilter.test(conn)) {
+                strokeConnection(gc, conn);
+            }
+        }
+
+        for (int i = 0; i < nodes.size(); i++) {
+            final GNode node = nodes.get(i);
+            fillNode(gc, node, nodeBounds.get(node), selectedNodes.contains(node));
+        }
+
+        gc.restore();
+    }
+
+    /**
+     * Copies the current geometry of the minimap into a snapshot that can be
+     * rasterized on a background thread.
+     *
+     * @return a new {@link MinimapRasterizer.Snapshot}
+     */
+    private MinimapRasterizer.Snapshot createSnapshot() {
+
+        final MinimapRasterizer.SnapshotBuilder builder = new MinimapRasterizer.SnapshotBuilder((int) width,
+                (int) height);
+        builder.connectionColor(connectionColor.get());
+
         if (model != null) {
 
+            final PathSink sink = new PathSink() {
+
+                @Override
+                public void moveTo(final double x, final double y) {
+                    builder.moveTo(x, y);
+                }
+
+                @Override
+                public void lineTo(final double x, final double y) {
+                    builder.lineTo(x, y);
+                }
+            };
+
             for (int i = 0; i < model.getConnections().size(); i++) {
 
                 final GConnection conn = model.getConnections().get(i);
-                if (connectionFilter != null && !connectionFilter.test(conn)) {
+
+                if (!connectionBounds.containsKey(conn)) {
+                    continue;
+                } else if (connectionFilter != null && !connectionFilter.test(conn)) {
                     continue;
                 }
 
-                final GConnector source = conn.getSource();
-                final GNode parentSource = source.getParent();
-                
-                double x = scaleSharp(source.getX() + parentSource.getX() - 10, scaleFactor),
-                        y = scaleSharp(source.getY() + parentSource.getY(), scaleFactor);
-                gc.moveTo(x, y);
+                traceConnection(conn, sink);
+            }
+
+            for (int i = 0; i < model.getNodes().size(); i++) {
 
-                for (int j = 0; j <= conn.getJoints().size(); j++) {
-                    
-                    final double newX;
-                    final double newY;
-                    if (j < conn.getJoints().size()) {
-                        final GJoint joint = conn.getJoints().get(j);
-                        newX = scaleSharp(joint.getX(), scaleFactor);
-                        newY = scaleSharp(joint.getY(), scaleFactor);
-                    } else {
-                        final GConnector target = conn.getTarget();
-                        final GNode parentTarget = target.getParent();
-                        newX = scaleSharp(target.getX() + parentTarget.getX(), scaleFactor);
-                        newY = scaleSharp(target.getY() + parentTarget.getY(), scaleFactor);
-                    }
-                    
-                    // only draw direct rectangular and sharp lines:
-                    if(Math.abs(newX - x) < Math.abs(newY - y)) {
-                        gc.lineTo(x, newY);
-                    }
-                    else {
-                        gc.lineTo(newX, y);
-                    }
-                    
-                    x = newX;
-                    y = newY;
+                final GNode node = model.getNodes().get(i);
+                final Bounds bounds = nodeBounds.get(node);
+
+                if (bounds != null) {
+                    final boolean selected = selectedNodes.contains(node);
+                    builder.addNode(bounds.getMinX(), bounds.getMinY(), bounds.getWidth(), bounds.getHeight(),
+                            getFill(node, selected), getBorder(node, selected));
                 }
+            }
+        }
+
+        return builder.build();
+    }
 
-                gc.stroke();
+    /**
+     * Strokes a connection onto the canvas.
+     *
+     * @param gc the canvas {@link GraphicsContext}
+     * @param conn the {@link GConnection} to be drawn
+     */
+    private void strokeConnection(final GraphicsContext gc, final GConnection conn) {
+
+        gc.beginPath();
+
+        traceConnection(conn, new PathSink() {
+
+            @Override
+            public void moveTo(final double x, final double y) {
+                gc.moveTo(x, y);
+            }
+
+            @Override
+            public void lineTo(final double x, final double y) {
+                gc.lineTo(x, y);
             }
+        });
+
+        gc.stroke();
+    }
 
-            for (final Map.Entry<GNode, Rectangle> entry : nodes.entrySet()) {
+    /**
+     * Traces a connection using only direct rectangular and sharp lines.
+     *
+     * @param conn the {@link GConnection} to be traced
+     * @param sink the {@link PathSink} receiving the points of the connection
+     */
+    private void traceConnection(final GConnection conn, final PathSink sink) {
 
-                final GNode node = entry.getKey();
-                final Rectangle minimapNode = entry.getValue();
-                minimapNode.setX(Math.round(node.getX() * scaleFactor));
-                minimapNode.setY(Math.round(node.getY() * scaleFactor));
-                minimapNode.setWidth(Math.round(node.getWidth() * scaleFactor));
-                minimapNode.setHeight(Math.round(node.getHeight() * scaleFactor));
+        final GConnector source = conn.getSource();
+        final GNode parentSource = source.getParent();
+
+        double x = scaleSharp(source.getX() + parentSource.getX() - 10, scaleFactor),
+                y = scaleSharp(source.getY() + parentSource.getY(), scaleFactor);
+
+        sink.moveTo(x, y);
+
+        for (int j = 0; j <= conn.getJoints().size(); j++) {
+
+            final double newX;
+            final double newY;
+            if (j < conn.getJoints().size()) {
+                final GJoint joint = conn.getJoints().get(j);
+                newX = scaleSharp(joint.getX(), scaleFactor);
+                newY = scaleSharp(joint.getY(), scaleFactor);
+            } else {
+                final GConnector target = conn.getTarget();
+                final GNode parentTarget = target.getParent();
+                newX = scaleSharp(target.getX() + parentTarget.getX(), scaleFactor);
+                newY = scaleSharp(target.getY() + parentTarget.getY(), scaleFactor);
+            }
+
+            // only draw direct rectangular and sharp lines:
+            if (Math.abs(newX - x) < Math.abs(newY - y)) {
+                sink.lineTo(x, newY);
+            } else {
+                sink.lineTo(newX, y);
             }
+
+            x = newX;
+            y = newY;
+        }
+    }
+
+    private void fillNode(final GraphicsContext gc, final GNode node, final Bounds bounds, final boolean selected) {
+
+        gc.setFill(getFill(node, selected));
+        gc.fillRect(bounds.getMinX(), bounds.getMinY(), bounds.getWidth(), bounds.getHeight());
+
+        if (bounds.getWidth() >= 1 && bounds.getHeight() >= 1) {
+            gc.setStroke(getBorder(node, selected));
+            gc.strokeRect(bounds.getMinX() + 0.5, bounds.getMinY() + 0.5, bounds.getWidth() - 1,
+                    bounds.getHeight() - 1);
+        }
+        gc.setStroke(connectionColor.get());
+    }
+
+    /**
+     * Gets the fill color of a node, from a rule for the node style class if there is one.
+     *
+     * @param node a {@link GNode} instance
+     * @param selected {@code true} if the node is selected
+     * @return the fill {@link Color} of the node in the minimap
+     */
+    private Color getFill(final GNode node, final boolean selected) {
+
+        final Paint fill = getNodeStyles(node)[selected ? 1 : 0].getFill();
+        if (fill instanceof Color) {
+            return (Color) fill;
+        }
+        return selected ? selectedNodeColor.get() : nodeColor.get();
+    }
+
+    /**
+     * Gets the border color of a node, from a rule for the node style class if there is one.
+     *
+     * @param node a {@link GNode} instance
+     * @param selected {@code true} if the node is selected
+     * @return the border {@link Color} of the node in the minimap
+     */
+    private Color getBorder(final GNode node, final boolean selected) {
+
+        final Paint stroke = getNodeStyles(node)[selected ? 1 : 0].getStroke();
+        if (stroke instanceof Color) {
+            return (Color) stroke;
+        }
+        return nodeBorderColor.get();
+    }
+
+    /**
+     * Gets the hidden rectangles that pick up rules for the node style class, creating them for new node types.
+     *
+     * <p>
+     * The rectangles are created without a fill or stroke, so these are only set if a stylesheet contains a matching
+     * rule. The canvas is repainted whenever they change.
+     * </p>
+     *
+     * @param node a {@link GNode} instance
+     * @return the rectangles for the type of the node, first unselected and then selected
+     */
+    private Rectangle[] getNodeStyles(final GNode node) {
+
+        Rectangle[] styles = nodeStyles.get(node.getType());
+
+        if (styles == null) {
+            styles = new Rectangle[] { createNodeStyle(node.getType(), false), createNodeStyle(node.getType(), true) };
+            nodeStyles.put(node.getType(), styles);
+        }
+        return styles;
+    }
+
+    private Rectangle createNodeStyle(final String type, final boolean selected) {
+
+        final Rectangle style = new Rectangle();
+        style.setFill(null);
+        style.setStroke(null);
+
+        style.getStyleClass().add(STYLE_CLASS_NODE);
+        if (type != null) {
+            style.getStyleClass().add(type);
         }
+        style.pseudoClassStateChanged(PSEUDO_CLASS_SELECTED, selected);
+
+        style.fillProperty().addListener(nodeStyleListener);
+        style.strokeProperty().addListener(nodeStyleListener);
+
+        nodeStyleGroup.getChildren().add(style);
+        return style;
     }
 
     @Override
@@ -327,6 +943,16 @@ public class MinimapNodeGroup extends Parent {
         return StyleableProperties.STYLEABLES;
     }
 
+    /**
+     * Receives the points of a connection as it is traced.
+     */
+    private interface PathSink {
+
+        void moveTo(double x, double y);
+
+        void lineTo(double x, double y);
+    }
+
     private static class StyleableProperties {
 
         static final CssMetaData<MinimapNodeGroup, Color> CONNECTION_COLOR = new CssMetaData<MinimapNodeGroup, Color>(
@@ -343,11 +969,56 @@ public class MinimapNodeGroup extends Parent {
             }
         };
 
+        static final CssMetaData<MinimapNodeGroup, Color> NODE_COLOR = new CssMetaData<MinimapNodeGroup, Color>(
+                "-node-color", StyleConverter.getColorConverter(), DEFAULT_NODE_COLOR) {
+
+            @Override
+            public boolean isSettable(final MinimapNodeGroup node) {
+                return !node.nodeColor.isBound();
+            }
+
+            @Override
+            public StyleableProperty<Color> getStyleableProperty(MinimapNodeGroup node) {
+                return node.nodeColor;
+            }
+        };
+
+        static final CssMetaData<MinimapNodeGroup, Color> SELECTED_NODE_COLOR = new CssMetaData<MinimapNodeGroup, Color>(
+                "-selected-node-color", StyleConverter.getColorConverter(), DEFAULT_SELECTED_NODE_COLOR) {
+
+            @Override
+            public boolean isSettable(final MinimapNodeGroup node) {
+                return !node.selectedNodeColor.isBound();
+            }
+
+            @Override
+            public StyleableProperty<Color> getStyleableProperty(MinimapNodeGroup node) {
+                return node.selectedNodeColor;
+            }
+        };
+
+        static final CssMetaData<MinimapNodeGroup, Color> NODE_BORDER_COLOR = new CssMetaData<MinimapNodeGroup, Color>(
+                "-node-border-color", StyleConverter.getColorConverter(), Color.GRAY) {
+
+            @Override
+            public boolean isSettable(final MinimapNodeGroup node) {
+                return !node.nodeBorderColor.isBound();
+            }
+
+            @Override
+            public StyleableProperty<Color> getStyleableProperty(MinimapNodeGroup node) {
+                return node.nodeBorderColor;
+            }
+        };
+
         static final List<CssMetaData<? extends Styleable, ?>> STYLEABLES;
         static {
 
             final List<CssMetaData<? extends Styleable, ?>> styleables = new ArrayList<>(Node.getClassCssMetaData());
             styleables.add(CONNECTION_COLOR);
+            styleables.add(NODE_COLOR);
+            styleables.add(SELECTED_NODE_COLOR);
+            styleables.add(NODE_BORDER_COLOR);
             STYLEABLES = Collections.unmodifiableList(styleables);
         }
     }
@@ -0,0 +1,399 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.window;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javafx.application.Platform;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+/**
+ * Rasterizes the minimap into an ARGB buffer on a background thread.
+ *
+ * <p>
+ * The geometry to be drawn is captured on the JavaFX application thread in a {@link Snapshot}, which only contains
+ * primitive arrays and so can safely be handed to another thread. Snapshots are coalesced, i.e. if several are
+ * submitted while one is being rendered, only the latest is rendered next.
+ * </p>
+ *
+ * <p>
+ * Finished buffers are written to a {@link WritableImage} via its pixel writer back on the JavaFX application thread,
+ * and the image is shown in the given {@link ImageView}.
+ * </p>
+ */
+public class MinimapRasterizer {
+
+    private static final String THREAD_NAME = "minimap-rasterizer";
+
+    private final ImageView imageView;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, THREAD_NAME);
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicReference<Snapshot> pending = new AtomicReference<>();
+    private final AtomicReference<int[]> spareBuffer = new AtomicReference<>();
+
+    private volatile boolean disposed;
+
+    /**
+     * Creates a new minimap rasterizer.
+     *
+     * @param imageView the {@link ImageView} in which rendered images will be shown
+     */
+    public MinimapRasterizer(final ImageView imageView) {
+        this.imageView = imageView;
+    }
+
+    /**
+     * Submits a snapshot to be rendered.
+     *
+     * <p>
+     * If an earlier snapshot is still waiting to be rendered, it is replaced by this one.
+     * </p>
+     *
+     * @param snapshot the {@link Snapshot} to be rendered
+     */
+    public void submit(final Snapshot snapshot) {
+
+        if (!disposed && pending.getAndSet(snapshot) == null) {
+            executor.execute(this::renderPending);
+        }
+    }
+
+    /**
+     * Stops the background thread. Snapshots submitted afterwards are ignored.
+     */
+    public void dispose() {
+        disposed = true;
+        pending.set(null);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Renders snapshots until no more are pending.
+     */
+    private void renderPending() {
+
+        Snapshot snapshot;
+        while ((snapshot = pending.getAndSet(null)) != null && !disposed) {
+
+            final int size = snapshot.width * snapshot.height;
+
+            int[] buffer = spareBuffer.getAndSet(null);
+            if (buffer == null || buffer.length != size) {
+                buffer = new int[size];
+            } else {
+                Arrays.fill(buffer, 0);
+            }
+
+            render(snapshot, buffer);
+            publish(snapshot.width, snapshot.height, buffer);
+        }
+    }
+
+    /**
+     * Writes the given buffer into the image view on the JavaFX application thread.
+     *
+     * @param width the width of the buffer in pixels
+     * @param height the height of the buffer in pixels
+     * @param buffer the rendered ARGB pixels
+     */
+    private void publish(final int width, final int height, final int[] buffer) {
+
+        Platform.runLater(() -> {
+
+            if (disposed) {
+                return;
+            }
+
+            WritableImage image = (WritableImage) imageView.getImage();
+            if (image == null || image.getWidth() != width || image.getHeight() != height) {
+                image = new WritableImage(width, height);
+                imageView.setImage(image);
+            }
+
+            image.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), buffer, 0, width);
+
+            // The buffer has been copied into the image and can be reused for the next frame.
+            spareBuffer.set(buffer);
+        });
+    }
+
+    /**
+     * Rasterizes a snapshot into an ARGB buffer.
+     *
+     * @param snapshot the {@link Snapshot} to be rendered
+     * @param buffer a buffer of size width * height, initially transparent
+     */
+    static void render(final Snapshot snapshot, final int[] buffer) {
+
+        final int[] offsets = snapshot.connectionOffsets;
+        final double[] points = snapshot.connectionPoints;
+
+        for (int c = 0; c < snapshot.connectionCount; c++) {
+
+            final int start = offsets[c];
+            final int end = offsets[c + 1];
+
+            for (int i = start; i + 3 < end; i += 2) {
+                drawLine(snapshot, buffer, (int) points[i], (int) points[i + 1], (int) points[i + 2],
+                        (int) points[i + 3], snapshot.connectionColor);
+            }
+        }
+
+        final double[] nodes = snapshot.nodes;
+
+        for (int n = 0; n < snapshot.nodeCount; n++) {
+
+            final int x = (int) nodes[4 * n];
+            final int y = (int) nodes[4 * n + 1];
+            final int width = (int) nodes[4 * n + 2];
+            final int height = (int) nodes[4 * n + 3];
+
+            final int border = snapshot.nodeBorders[n];
+            fillRect(snapshot, buffer, x, y, width, height, snapshot.nodeFills[n]);
+
+            if (width >= 1 && height >= 1) {
+                drawLine(snapshot, buffer, x, y, x + width - 1, y, border);
+                drawLine(snapshot, buffer, x, y + height - 1, x + width - 1, y + height - 1, border);
+                drawLine(snapshot, buffer, x, y, x, y + height - 1, border);
+                drawLine(snapshot, buffer, x + width - 1, y, x + width - 1, y + height - 1, border);
+            }
+        }
+    }
+
+    private static void fillRect(final Snapshot snapshot, final int[] buffer, final int x, final int y,
+            final int width, final int height, final int argb) {
+
+        final int minX = Math.max(0, x);
+        final int minY = Math.max(0, y);
+        final int maxX = Math.min(snapshot.width, x + width);
+        final int maxY = Math.min(snapshot.height, y + height);
+
+        for (int j = minY; j < maxY; j++) {
+            final int row = j * snapshot.width;
+            for (int i = minX; i < maxX; i++) {
+                buffer[row + i] = argb;
+            }
+        }
+    }
+
+    /**
+     * Draws a one-pixel line using Bresenham's algorithm, clipped to the buffer.
+     */
+    private static void drawLine(final Snapshot snapshot, final int[] buffer, final int x0, final int y0,
+            final int x1, final int y1, final int argb) {
+
+        final int dx = Math.abs(x1 - x0);
+        final int dy = -Math.abs(y1 - y0);
+        final int stepX = x0 < x1 ? 1 : -1;
+        final int stepY = y0 < y1 ? 1 : -1;
+
+        int x = x0;
+        int y = y0;
+        int error = dx + dy;
+
+        while (true) {
+
+            if (x >= 0 && y >= 0 && x < snapshot.width && y < snapshot.height) {
+                buffer[y * snapshot.width + x] = argb;
+            }
+
+            if (x == x1 && y == y1) {
+                break;
+            }
+
+            final int doubled = 2 * error;
+            if (doubled >= dy) {
+                error += dy;
+                x += stepX;
+            }
+            if (doubled <= dx) {
+                error += dx;
+                y += stepY;
+            }
+        }
+    }
+
+    /**
+     * Converts a color to a non-premultiplied ARGB integer.
+     *
+     * @param color a {@link Color}
+     * @return the color as an ARGB integer
+     */
+    static int toArgb(final Color color) {
+
+        final int a = (int) Math.round(color.getOpacity() * 255);
+        final int r = (int) Math.round(color.getRed() * 255);
+        final int g = (int) Math.round(color.getGreen() * 255);
+        final int b = (int) Math.round(color.getBlue() * 255);
+
+        return a << 24 | r << 16 | g << 8 | b;
+    }
+
+    /**
+     * Immutable geometry of the minimap, stored in primitive arrays.
+     *
+     * <p>
+     * Created on the JavaFX application thread using a {@link SnapshotBuilder}.
+     * </p>
+     */
+    public static final class Snapshot {
+
+        private final int width;
+        private final int height;
+
+        private final int nodeCount;
+        private final double[] nodes;
+        private final int[] nodeFills;
+        private final int[] nodeBorders;
+
+        private final int connectionCount;
+        private final double[] connectionPoints;
+        private final int[] connectionOffsets;
+
+        private final int connectionColor;
+
+        private Snapshot(final SnapshotBuilder builder) {
+
+            width = builder.width;
+            height = builder.height;
+
+            nodeCount = builder.nodeCount;
+            nodes = Arrays.copyOf(builder.nodes, 4 * nodeCount);
+            nodeFills = Arrays.copyOf(builder.nodeFills, nodeCount);
+            nodeBorders = Arrays.copyOf(builder.nodeBorders, nodeCount);
+
+            connectionCount = builder.connectionCount;
+            connectionPoints = Arrays.copyOf(builder.connectionPoints, builder.pointCount);
+            connectionOffsets = Arrays.copyOf(builder.connectionOffsets, connectionCount + 1);
+            connectionOffsets[connectionCount] = builder.pointCount;
+
+            connectionColor = builder.connectionColor;
+        }
+
+        /**
+         * @return the width of the snapshot in pixels
+         */
+        public int getWidth() {
+            return width;
+        }
+
+        /**
+         * @return the height of the snapshot in pixels
+         */
+        public int getHeight() {
+            return height;
+        }
+    }
+
+    /**
+     * Collects minimap geometry into growable primitive arrays and creates a {@link Snapshot} from them.
+     */
+    public static final class SnapshotBuilder {
+
+        private final int width;
+        private final int height;
+
+        private int nodeCount;
+        private double[] nodes = new double[64];
+        private int[] nodeFills = new int[16];
+        private int[] nodeBorders = new int[16];
+
+        private int connectionCount;
+        private int pointCount;
+        private double[] connectionPoints = new double[64];
+        private int[] connectionOffsets = new int[16];
+
+        private int connectionColor;
+
+        /**
+         * Creates a new snapshot builder.
+         *
+         * @param width the width of the minimap in pixels
+         * @param height the height of the minimap in pixels
+         */
+        public SnapshotBuilder(final int width, final int height) {
+            this.width = width;
+            this.height = height;
+        }
+
+        /**
+         * Sets the color used to render connections.
+         *
+         * @param connection the connection color
+         * @return this builder
+         */
+        public SnapshotBuilder connectionColor(final Color connection) {
+            connectionColor = toArgb(connection);
+            return this;
+        }
+
+        /**
+         * Adds a node rectangle, in minimap pixel coordinates.
+         *
+         * @param fill the fill color of the node
+         * @param border the border color of the node
+         */
+        public void addNode(final double x, final double y, final double width, final double height,
+                final Color fill, final Color border) {
+
+            if (4 * nodeCount + 4 > nodes.length) {
+                nodes = Arrays.copyOf(nodes, 2 * nodes.length);
+            }
+            if (nodeCount + 1 > nodeFills.length) {
+                nodeFills = Arrays.copyOf(nodeFills, 2 * nodeFills.length);
+                nodeBorders = Arrays.copyOf(nodeBorders, 2 * nodeBorders.length);
+            }
+
+            nodes[4 * nodeCount] = x;
+            nodes[4 * nodeCount + 1] = y;
+            nodes[4 * nodeCount + 2] = width;
+            nodes[4 * nodeCount + 3] = height;
+            nodeFills[nodeCount] = toArgb(fill);
+            nodeBorders[nodeCount] = toArgb(border);
+            nodeCount++;
+        }
+
+        /**
+         * Starts a new connection at the given point, in minimap pixel coordinates.
+         */
+        public void moveTo(final double x, final double y) {
+
+            if (connectionCount + 2 > connectionOffsets.length) {
+                connectionOffsets = Arrays.copyOf(connectionOffsets, 2 * connectionOffsets.length);
+            }
+            connectionOffsets[connectionCount++] = pointCount;
+            lineTo(x, y);
+        }
+
+        /**
+         * Adds a point to the current connection, in minimap pixel coordinates.
+         */
+        public void lineTo(final double x, final double y) {
+
+            if (pointCount + 2 > connectionPoints.length) {
+                connectionPoints = Arrays.copyOf(connectionPoints, 2 * connectionPoints.length);
+            }
+            connectionPoints[pointCount++] = x;
+            connectionPoints[pointCount++] = y;
+        }
+
+        /**
+         * @return a new immutable {@link Snapshot} of the collected geometry
+         */
+        public Snapshot build() {
+            return new Snapshot(this);
+        }
+    }
+}
@@ -85,6 +85,8 @@ public class PanningWindow extends Region {
         
         if(this.editorProperties != null) {
             this.editorProperties.getGraphEventManager().inputModeProperty().removeListener(inputModeListener);
+            this.editorProperties.lowDetailProperty().unbind();
+            this.editorProperties.lowDetailProperty().set(false);
         }
         
         this.editorProperties = editorProperties;
@@ -92,6 +94,7 @@ public class PanningWindow extends Region {
         if(editorProperties != null) {
             editorProperties.getGraphEventManager().inputModeProperty().addListener(inputModeListener);
             setPanningEnabled(editorProperties.getGraphEventManager().getInputMode() == GraphInputMode.NAVIGATION);
+            editorProperties.lowDetailProperty().bind(zoom.lessThan(editorProperties.lowDetailZoomThresholdProperty()));
         }
     }
     
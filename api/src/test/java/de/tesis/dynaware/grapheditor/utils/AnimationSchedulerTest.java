@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import de.tesis.dynaware.grapheditor.utils.AnimationScheduler.FrameCallback;
+
+public class AnimationSchedulerTest {
+
+    @ClassRule
+    public static JavaFXThreadingRule javaFXThreadingRule = new JavaFXThreadingRule();
+
+    private static final long FRAME_PERIOD = TimeUnit.SECONDS.toNanos(1) / 60;
+
+    private final AnimationScheduler scheduler = new AnimationScheduler();
+    private final List<String> calls = new ArrayList<>();
+
+    private final List<FrameCallback> added = new ArrayList<>();
+
+    @After
+    public void tearDown() {
+        added.forEach(scheduler::remove);
+    }
+
+    @Test
+    public void testRunsUntilCallbackReturnsFalse() {
+
+        final int[] frames = new int[1];
+        add(now -> ++frames[0] < 2);
+
+        assertTrue(scheduler.isRunning());
+
+        scheduler.pulse(FRAME_PERIOD);
+        assertTrue(scheduler.isRunning());
+
+        scheduler.pulse(2 * FRAME_PERIOD);
+        assertFalse(scheduler.isRunning());
+
+        scheduler.pulse(3 * FRAME_PERIOD);
+        assertEquals(2, frames[0]);
+    }
+
+    @Test
+    public void testAddTwiceRunsOnce() {
+
+        final FrameCallback callback = record("a");
+        add(callback);
+        add(callback);
+
+        scheduler.pulse(FRAME_PERIOD);
+        assertEquals(Arrays.asList("a"), calls);
+
+        scheduler.remove(callback);
+        assertFalse(scheduler.isRunning());
+    }
+
+    @Test
+    public void testRemoveDuringPulse() {
+
+        final FrameCallback second = record("b");
+
+        add(now -> {
+            calls.add("a");
+            scheduler.remove(second);
+            return true;
+        });
+        add(second);
+
+        scheduler.pulse(FRAME_PERIOD);
+        scheduler.pulse(2 * FRAME_PERIOD);
+
+        assertEquals(Arrays.asList("a", "a"), calls);
+    }
+
+    @Test
+    public void testReAddAfterReturningFalse() {
+
+        final FrameCallback callback = now -> {
+            calls.add("a");
+            return false;
+        };
+
+        add(callback);
+        scheduler.pulse(FRAME_PERIOD);
+        assertFalse(scheduler.isRunning());
+
+        add(callback);
+        scheduler.pulse(2 * FRAME_PERIOD);
+
+        assertEquals(Arrays.asList("a", "a"), calls);
+    }
+
+    @Test
+    public void testDeferredCallbacksRunFirst() {
+
+        scheduler.setFrameBudget(0);
+
+        add(now -> {
+            calls.add("a");
+            // Make sure that the budget is used up.
+            final long start = System.nanoTime();
+            while (System.nanoTime() == start) {
+                Thread.yield();
+            }
+            return true;
+        });
+        add(record("b"));
+        add(record("c"));
+
+        scheduler.pulse(FRAME_PERIOD);
+        assertEquals(Arrays.asList("a"), calls);
+
+        scheduler.setFrameBudget(TimeUnit.SECONDS.toNanos(1));
+        scheduler.pulse(2 * FRAME_PERIOD);
+        assertEquals(Arrays.asList("a", "b", "c", "a"), calls);
+
+        final AnimationScheduler.FrameStatistics statistics = scheduler.getStatistics();
+        assertEquals(2, statistics.getFrameCount());
+        assertEquals(1, statistics.getOverBudgetFrameCount());
+        assertEquals(2, statistics.getDeferredCallbackCount());
+    }
+
+    @Test
+    public void testStatistics() {
+
+        add(record("a"));
+
+        scheduler.pulse(FRAME_PERIOD);
+        scheduler.pulse(2 * FRAME_PERIOD);
+        scheduler.pulse(6 * FRAME_PERIOD);
+
+        final AnimationScheduler.FrameStatistics statistics = scheduler.getStatistics();
+        assertEquals(3, statistics.getFrameCount());
+        assertEquals(3, statistics.getDroppedFrameCount());
+        assertEquals(0, statistics.getOverBudgetFrameCount());
+        assertTrue(statistics.getMaxFrameTime() >= statistics.getAverageFrameTime());
+
+        scheduler.resetStatistics();
+        assertEquals(0, scheduler.getStatistics().getFrameCount());
+        assertEquals(0, scheduler.getStatistics().getDroppedFrameCount());
+    }
+
+    private void add(final FrameCallback callback) {
+        added.add(callback);
+        scheduler.add(callback);
+    }
+
+    private FrameCallback record(final String name) {
+        return now -> calls.add(name);
+    }
+}
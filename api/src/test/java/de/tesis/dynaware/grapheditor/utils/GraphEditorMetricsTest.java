@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import de.tesis.dynaware.grapheditor.utils.GraphEditorMetrics.Counter;
+import de.tesis.dynaware.grapheditor.utils.GraphEditorMetrics.Timer;
+
+public class GraphEditorMetricsTest {
+
+    @ClassRule
+    public static JavaFXThreadingRule javaFXThreadingRule = new JavaFXThreadingRule();
+
+    private static final long FRAME_PERIOD = TimeUnit.SECONDS.toNanos(1) / 60;
+
+    private final GraphEditorMetrics metrics = new GraphEditorMetrics();
+
+    private long frameTime;
+
+    @Before
+    public void setUp() {
+
+        frameTime = System.nanoTime();
+        metrics.setEnabled(true);
+
+        // The first frame only marks the start of the first pulse.
+        pulse();
+    }
+
+    @After
+    public void tearDown() {
+
+        // Lets the frame callback remove itself from the shared scheduler.
+        metrics.setEnabled(false);
+        pulse();
+    }
+
+    @Test
+    public void testNestedTimersAreCountedOnceInPulse() {
+
+        final long outer = metrics.start();
+        final long inner = metrics.start();
+        metrics.stop(Timer.CONNECTION_REDRAW, inner);
+        metrics.stop(Timer.LAYOUT_CHILDREN, outer);
+
+        final long next = metrics.start();
+        metrics.stop(Timer.COMMAND_EXECUTION, next);
+
+        pulse();
+
+        final GraphEditorMetrics.Snapshot snapshot = metrics.snapshot();
+        final LatencyHistogram.Snapshot layout = snapshot.getTimer(Timer.LAYOUT_CHILDREN);
+        final LatencyHistogram.Snapshot redraw = snapshot.getTimer(Timer.CONNECTION_REDRAW);
+        final LatencyHistogram.Snapshot command = snapshot.getTimer(Timer.COMMAND_EXECUTION);
+        final LatencyHistogram.Snapshot pulse = snapshot.getTimer(Timer.PULSE);
+
+        assertEquals(1, layout.getCount());
+        assertEquals(1, redraw.getCount());
+        assertEquals(1, command.getCount());
+        assertTrue(redraw.getTotal() <= layout.getTotal());
+
+        // Only the outermost timings add up to the pulse time.
+        assertEquals(1, pulse.getCount());
+        assertEquals(layout.getTotal() + command.getTotal(), pulse.getTotal());
+
+        final LatencyHistogram.Snapshot interval = snapshot.getTimer(Timer.FRAME_INTERVAL);
+        assertEquals(1, interval.getCount());
+        assertEquals(FRAME_PERIOD, interval.getMax());
+    }
+
+    @Test
+    public void testPulseTimeIsResetEachFrame() {
+
+        final long start = metrics.start();
+        metrics.stop(Timer.LAYOUT_CHILDREN, start);
+
+        pulse();
+        pulse();
+
+        final LatencyHistogram.Snapshot pulse = metrics.snapshot().getTimer(Timer.PULSE);
+        final LatencyHistogram.Snapshot layout = metrics.snapshot().getTimer(Timer.LAYOUT_CHILDREN);
+
+        assertEquals(2, pulse.getCount());
+        assertEquals(layout.getTotal(), pulse.getTotal());
+        assertEquals(0, pulse.getPercentile(50));
+    }
+
+    @Test
+    public void testLastPulseCounts() {
+
+        increment(Counter.NODE_SKINS_CREATED, 3);
+        increment(Counter.CONNECTIONS_REDRAWN, 2);
+
+        // Not yet visible until the pulse ends.
+        assertEquals(0, metrics.snapshot().getLastPulseCount(Counter.NODE_SKINS_CREATED));
+
+        pulse();
+
+        GraphEditorMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(3, snapshot.getLastPulseCount(Counter.NODE_SKINS_CREATED));
+        assertEquals(2, snapshot.getLastPulseCount(Counter.CONNECTIONS_REDRAWN));
+
+        increment(Counter.NODE_SKINS_CREATED, 1);
+        pulse();
+
+        snapshot = metrics.snapshot();
+        assertEquals(1, snapshot.getLastPulseCount(Counter.NODE_SKINS_CREATED));
+        assertEquals(0, snapshot.getLastPulseCount(Counter.CONNECTIONS_REDRAWN));
+        assertEquals(4, snapshot.getCount(Counter.NODE_SKINS_CREATED));
+        assertEquals(2, snapshot.getCount(Counter.CONNECTIONS_REDRAWN));
+    }
+
+    @Test
+    public void testResetStartsNewPulse() {
+
+        increment(Counter.JOINT_SKINS_CREATED, 5);
+        metrics.reset();
+
+        increment(Counter.JOINT_SKINS_CREATED, 2);
+        pulse();
+
+        final GraphEditorMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(2, snapshot.getCount(Counter.JOINT_SKINS_CREATED));
+        assertEquals(2, snapshot.getLastPulseCount(Counter.JOINT_SKINS_CREATED));
+
+        // The reset also forgets the last frame, so this pulse is not recorded.
+        assertEquals(0, snapshot.getTimer(Timer.PULSE).getCount());
+    }
+
+    @Test
+    public void testDisabledRecordsNothing() {
+
+        metrics.setEnabled(false);
+
+        final long start = metrics.start();
+        assertEquals(0, start);
+        metrics.stop(Timer.LAYOUT_CHILDREN, start);
+        increment(Counter.NODE_SKINS_CREATED, 1);
+
+        pulse();
+
+        final GraphEditorMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(0, snapshot.getTimer(Timer.LAYOUT_CHILDREN).getCount());
+        assertEquals(0, snapshot.getTimer(Timer.PULSE).getCount());
+        assertEquals(0, snapshot.getCount(Counter.NODE_SKINS_CREATED));
+    }
+
+    private void increment(final Counter counter, final int times) {
+        for (int i = 0; i < times; i++) {
+            metrics.increment(counter);
+        }
+    }
+
+    /**
+     * Runs a frame of the shared scheduler, one frame period after the previous one.
+     */
+    private void pulse() {
+        frameTime += FRAME_PERIOD;
+        AnimationScheduler.getInstance().pulse(frameTime);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+    private static final int VALUE_COUNT = 1000;
+    private static final double RELATIVE_ERROR = 1.0 / 16;
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    @Test
+    public void testSmallValuesAreExact() {
+
+        for (int i = 0; i < 10; i++) {
+            histogram.record(i);
+        }
+
+        final LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(10, snapshot.getCount());
+        assertEquals(4, snapshot.getPercentile(50));
+        assertEquals(9, snapshot.getPercentile(100));
+        assertEquals(9, snapshot.getMax());
+    }
+
+    @Test
+    public void testPercentiles() {
+
+        for (int i = 1; i <= VALUE_COUNT; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        final LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(VALUE_COUNT, snapshot.getCount());
+        assertEquals(500500, snapshot.getMean(), 0);
+        assertEquals(VALUE_COUNT * 1000L, snapshot.getMax());
+
+        assertWithinError(500000, snapshot.getPercentile(50));
+        assertWithinError(990000, snapshot.getPercentile(99));
+        assertEquals(snapshot.getMax(), snapshot.getPercentile(100));
+    }
+
+    @Test
+    public void testExtremeValues() {
+
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        final LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(2, snapshot.getCount());
+        assertEquals(0, snapshot.getPercentile(50));
+        assertEquals(snapshot.getMax(), snapshot.getPercentile(100));
+    }
+
+    @Test
+    public void testSince() {
+
+        histogram.record(1000);
+        final LatencyHistogram.Snapshot earlier = histogram.snapshot();
+
+        histogram.record(10);
+        histogram.record(12);
+        final LatencyHistogram.Snapshot interval = histogram.snapshot().since(earlier);
+
+        assertEquals(2, interval.getCount());
+        assertEquals(22, interval.getTotal());
+        assertEquals(12, interval.getMax());
+        assertEquals(12, interval.getPercentile(100));
+    }
+
+    @Test
+    public void testReset() {
+
+        histogram.record(1000);
+        histogram.reset();
+
+        final LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getMax());
+        assertEquals(0, snapshot.getPercentile(99));
+    }
+
+    private static void assertWithinError(final long expected, final long actual) {
+        assertTrue(actual + " is not close to " + expected, Math.abs(actual - expected) <= expected * RELATIVE_ERROR);
+    }
+}
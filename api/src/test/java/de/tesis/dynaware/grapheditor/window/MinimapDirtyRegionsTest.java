@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.window;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+
+import org.junit.Test;
+
+public class MinimapDirtyRegionsTest {
+
+    private final MinimapDirtyRegions dirtyRegions = new MinimapDirtyRegions();
+
+    @Test
+    public void testInitiallyAllDirty() {
+
+        assertTrue(dirtyRegions.isAll());
+        assertFalse(dirtyRegions.isEmpty());
+        assertEquals(Collections.singletonList(new BoundingBox(0, 0, 100, 50)), dirtyRegions.getRegions(100, 50));
+    }
+
+    @Test
+    public void testMarkExpandsRegion() {
+
+        dirtyRegions.clear();
+        assertTrue(dirtyRegions.isEmpty());
+
+        dirtyRegions.mark(new BoundingBox(10.5, 20.2, 5, 5));
+        dirtyRegions.mark(null);
+
+        assertFalse(dirtyRegions.isAll());
+        assertEquals(Collections.singletonList(new BoundingBox(9, 19, 9, 9)), dirtyRegions.getRegions(100, 50));
+    }
+
+    @Test
+    public void testTooManyRegionsMarksAll() {
+
+        dirtyRegions.clear();
+
+        for (int i = 0; i < MinimapDirtyRegions.MAX_REGIONS; i++) {
+            dirtyRegions.mark(new BoundingBox(i, i, 1, 1));
+        }
+        assertFalse(dirtyRegions.isAll());
+        assertEquals(MinimapDirtyRegions.MAX_REGIONS, dirtyRegions.getRegions(100, 50).size());
+
+        dirtyRegions.mark(new BoundingBox(0, 0, 1, 1));
+        assertTrue(dirtyRegions.isAll());
+        assertEquals(1, dirtyRegions.getRegions(100, 50).size());
+
+        dirtyRegions.clear();
+        assertTrue(dirtyRegions.isEmpty());
+    }
+
+    @Test
+    public void testBucket() {
+
+        final List<Bounds> regions = Arrays.asList(new BoundingBox(0, 0, 10, 10), new BoundingBox(50, 0, 10, 10));
+        final List<Bounds> elements = Arrays.asList(new BoundingBox(55, 5, 2, 2), new BoundingBox(5, 5, 50, 2),
+                new BoundingBox(20, 20, 5, 5), null, new BoundingBox(2, 2, 2, 2));
+
+        final List<List<Bounds>> buckets = MinimapDirtyRegions.bucket(regions, elements, e -> e);
+
+        // Elements keep their order, may be in several regions and are left out if they intersect none.
+        assertEquals(Arrays.asList(elements.get(1), elements.get(4)), buckets.get(0));
+        assertEquals(Arrays.asList(elements.get(0), elements.get(1)), buckets.get(1));
+    }
+
+    @Test
+    public void testBucketMatchesComparingEveryRegion() {
+
+        final Random random = new Random(0);
+
+        final List<Bounds> regions = new ArrayList<>();
+        for (int i = 0; i < MinimapDirtyRegions.MAX_REGIONS; i++) {
+            regions.add(createRandomBounds(random, 20));
+        }
+
+        final List<Bounds> elements = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            elements.add(createRandomBounds(random, 60));
+        }
+
+        final List<List<Bounds>> buckets = MinimapDirtyRegions.bucket(regions, elements, e -> e);
+
+        for (int i = 0; i < regions.size(); i++) {
+
+            final List<Bounds> expected = new ArrayList<>();
+            for (final Bounds element : elements) {
+                if (element.intersects(regions.get(i))) {
+                    expected.add(element);
+                }
+            }
+            assertEquals(expected, buckets.get(i));
+        }
+    }
+
+    private static Bounds createRandomBounds(final Random random, final double maxSize) {
+        return new BoundingBox(random.nextInt(500), random.nextInt(300), random.nextDouble() * maxSize,
+                random.nextDouble() * maxSize);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.window;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import javafx.geometry.BoundingBox;
+import javafx.scene.paint.Color;
+
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import de.tesis.dynaware.grapheditor.model.GModel;
+import de.tesis.dynaware.grapheditor.model.GNode;
+import de.tesis.dynaware.grapheditor.model.GraphFactory;
+import de.tesis.dynaware.grapheditor.utils.JavaFXThreadingRule;
+
+public class MinimapNodeGroupTest {
+
+    @ClassRule
+    public static JavaFXThreadingRule javaFXThreadingRule = new JavaFXThreadingRule();
+
+    private static final double SCALE_FACTOR = 0.1;
+
+    private final MinimapNodeGroup group = new MinimapNodeGroup();
+    private final GModel model = GraphFactory.eINSTANCE.createGModel();
+
+    private GNode node;
+
+    @Before
+    public void setUp() {
+
+        node = createNode(100, 100);
+
+        group.setScaleFactor(SCALE_FACTOR);
+        group.setModel(model);
+        group.resize(200, 100);
+
+        // Paints the whole canvas, after which nothing is dirty.
+        group.layout();
+        assertTrue(group.getDirtyRegions().isEmpty());
+    }
+
+    @Test
+    public void testMovedNodeMarksOldAndNewBounds() {
+
+        node.setX(500);
+
+        // The node is 10 x 8 pixels in the minimap, and regions are expanded to cover the border.
+        assertEquals(Arrays.asList(new BoundingBox(9, 9, 13, 11), new BoundingBox(49, 9, 13, 11)),
+                group.getDirtyRegions().getRegions(200, 100));
+
+        group.layout();
+        assertTrue(group.getDirtyRegions().isEmpty());
+    }
+
+    @Test
+    public void testRemovedNodeMarksOldBounds() {
+
+        model.getNodes().remove(node);
+
+        assertEquals(Collections.singletonList(new BoundingBox(9, 9, 13, 11)),
+                group.getDirtyRegions().getRegions(200, 100));
+    }
+
+    @Test
+    public void testManyChangesMarkAll() {
+
+        for (int i = 0; i <= MinimapDirtyRegions.MAX_REGIONS; i++) {
+            createNode(10 * i, 0);
+        }
+
+        assertTrue(group.getDirtyRegions().isAll());
+    }
+
+    @Test
+    public void testColorChangeMarksAll() {
+
+        group.nodeColorProperty().set(Color.RED);
+
+        assertTrue(group.getDirtyRegions().isAll());
+    }
+
+    private GNode createNode(final double x, final double y) {
+
+        final GNode node = GraphFactory.eINSTANCE.createGNode();
+
+        node.setX(x);
+        node.setY(y);
+        node.setWidth(100);
+        node.setHeight(80);
+
+        model.getNodes().add(node);
+        return node;
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.window;
+
+import static org.junit.Assert.assertEquals;
+
+import javafx.scene.paint.Color;
+
+import org.junit.Test;
+
+public class MinimapRasterizerTest {
+
+    private static final int WIDTH = 10;
+    private static final int HEIGHT = 8;
+
+    private static final int RED = 0xFFFF0000;
+    private static final int GREEN = 0xFF00FF00;
+    private static final int BLUE = 0xFF0000FF;
+
+    @Test
+    public void testToArgb() {
+
+        assertEquals(0xFF0A141E, MinimapRasterizer.toArgb(Color.rgb(10, 20, 30)));
+        assertEquals(0x80FFFFFF, MinimapRasterizer.toArgb(Color.rgb(255, 255, 255, 0.5)));
+        assertEquals(0, MinimapRasterizer.toArgb(Color.TRANSPARENT));
+    }
+
+    @Test
+    public void testRenderNode() {
+
+        final MinimapRasterizer.SnapshotBuilder builder = new MinimapRasterizer.SnapshotBuilder(WIDTH, HEIGHT);
+        builder.addNode(2, 1, 4, 3, Color.RED, Color.BLUE);
+
+        final int[] buffer = render(builder);
+
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+
+                final boolean inside = x >= 2 && x <= 5 && y >= 1 && y <= 3;
+                final boolean border = inside && (x == 2 || x == 5 || y == 1 || y == 3);
+
+                final int expected = border ? BLUE : inside ? RED : 0;
+                assertEquals("Pixel " + x + ", " + y, expected, buffer[y * WIDTH + x]);
+            }
+        }
+    }
+
+    @Test
+    public void testRenderConnection() {
+
+        final MinimapRasterizer.SnapshotBuilder builder = new MinimapRasterizer.SnapshotBuilder(WIDTH, HEIGHT);
+        builder.connectionColor(Color.LIME);
+        builder.moveTo(0, 2);
+        builder.lineTo(6, 2);
+        builder.lineTo(6, 7);
+
+        final int[] buffer = render(builder);
+
+        int count = 0;
+        for (int i = 0; i < buffer.length; i++) {
+            if (buffer[i] != 0) {
+                assertEquals(GREEN, buffer[i]);
+                count++;
+            }
+        }
+
+        assertEquals(12, count);
+        assertEquals(GREEN, buffer[2 * WIDTH]);
+        assertEquals(GREEN, buffer[2 * WIDTH + 6]);
+        assertEquals(GREEN, buffer[7 * WIDTH + 6]);
+    }
+
+    @Test
+    public void testNodesAreDrawnOverConnections() {
+
+        final MinimapRasterizer.SnapshotBuilder builder = new MinimapRasterizer.SnapshotBuilder(WIDTH, HEIGHT);
+        builder.connectionColor(Color.LIME);
+        builder.moveTo(0, 4);
+        builder.lineTo(9, 4);
+        builder.addNode(3, 2, 4, 5, Color.RED, Color.BLUE);
+
+        final int[] buffer = render(builder);
+
+        assertEquals(GREEN, buffer[4 * WIDTH + 1]);
+        assertEquals(BLUE, buffer[4 * WIDTH + 3]);
+        assertEquals(RED, buffer[4 * WIDTH + 4]);
+        assertEquals(GREEN, buffer[4 * WIDTH + 8]);
+    }
+
+    @Test
+    public void testRenderIsClippedToBuffer() {
+
+        final MinimapRasterizer.SnapshotBuilder builder = new MinimapRasterizer.SnapshotBuilder(WIDTH, HEIGHT);
+        builder.connectionColor(Color.LIME);
+        builder.moveTo(-5, -5);
+        builder.lineTo(20, 20);
+        builder.addNode(-3, 6, 6, 6, Color.RED, Color.BLUE);
+
+        final int[] buffer = render(builder);
+
+        assertEquals(GREEN, buffer[0]);
+        assertEquals(BLUE, buffer[6 * WIDTH]);
+        assertEquals(RED, buffer[7 * WIDTH + 1]);
+    }
+
+    @Test
+    public void testManyElements() {
+
+        final MinimapRasterizer.SnapshotBuilder builder = new MinimapRasterizer.SnapshotBuilder(WIDTH, HEIGHT);
+
+        // Enough elements to make the builder grow its arrays several times.
+        for (int i = 0; i < 100; i++) {
+            builder.moveTo(i % WIDTH, 0);
+            builder.lineTo(i % WIDTH, HEIGHT - 1);
+            builder.addNode(i % WIDTH, i % HEIGHT, 1, 1, Color.RED, Color.RED);
+        }
+
+        final MinimapRasterizer.Snapshot snapshot = builder.build();
+
+        assertEquals(WIDTH, snapshot.getWidth());
+        assertEquals(HEIGHT, snapshot.getHeight());
+        MinimapRasterizer.render(snapshot, new int[WIDTH * HEIGHT]);
+    }
+
+    private static int[] render(final MinimapRasterizer.SnapshotBuilder builder) {
+
+        final int[] buffer = new int[WIDTH * HEIGHT];
+        MinimapRasterizer.render(builder.build(), buffer);
+        return buffer;
+    }
+}
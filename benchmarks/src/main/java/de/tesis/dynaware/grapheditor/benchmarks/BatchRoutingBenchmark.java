@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.emf.edit.domain.AdapterFactoryEditingDomain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.tesis.dynaware.grapheditor.GraphEditor;
+import de.tesis.dynaware.grapheditor.benchmarks.generator.ModelGenerator;
+import de.tesis.dynaware.grapheditor.core.DefaultGraphEditor;
+import de.tesis.dynaware.grapheditor.core.connections.BatchConnectionRouter;
+import de.tesis.dynaware.grapheditor.model.GModel;
+import javafx.scene.Scene;
+import javafx.scene.layout.Region;
+
+/**
+ * Measures the throughput of {@link BatchConnectionRouter#reroute(GModel)} on a mesh with about 10k connections.
+ *
+ * <p>
+ * The score is in connections per second. Each invocation routes every connection of the mesh and executes the result
+ * as one command. The command stack is flushed after each iteration, so that old commands do not pile up.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BatchRoutingBenchmark {
+
+    private static final int ROWS = 50;
+    private static final int COLUMNS = 51;
+
+    // Neighbouring nodes of the mesh are connected in both directions.
+    private static final int CONNECTION_COUNT = 2 * (ROWS * (COLUMNS - 1) + COLUMNS * (ROWS - 1));
+
+    private static final double SCENE_WIDTH = 1600;
+    private static final double SCENE_HEIGHT = 1200;
+
+    private GraphEditor graphEditor;
+    private GModel model;
+    private BatchConnectionRouter router;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+
+        HeadlessToolkit.start();
+
+        model = ModelGenerator.createMesh(ROWS, COLUMNS, false);
+
+        graphEditor = HeadlessToolkit.callAndWait(() -> {
+
+            final GraphEditor editor = new DefaultGraphEditor();
+            editor.setModel(model);
+
+            final Region view = editor.getView();
+            new Scene(view, SCENE_WIDTH, SCENE_HEIGHT);
+            view.applyCss();
+            view.layout();
+
+            return editor;
+        });
+
+        router = new BatchConnectionRouter(graphEditor.getSkinLookup());
+    }
+
+    @TearDown(Level.Iteration)
+    public void flushCommandStack() throws Exception {
+        HeadlessToolkit.runAndWait(() -> AdapterFactoryEditingDomain.getEditingDomainFor(model).getCommandStack()
+                .flush());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        HeadlessToolkit.runAndWait(() -> graphEditor.setModel(null));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONNECTION_COUNT)
+    public BatchConnectionRouter.Result reroute() throws Exception {
+        return HeadlessToolkit.callAndWait(() -> router.reroute(model));
+    }
+}
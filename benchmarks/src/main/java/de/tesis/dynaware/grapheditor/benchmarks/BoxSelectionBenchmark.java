@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.tesis.dynaware.grapheditor.GraphEditor;
+import javafx.event.Event;
+import javafx.event.EventType;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.Region;
+
+/**
+ * Measures the time taken to select nodes and joints by dragging a selection box over the view.
+ *
+ * <p>
+ * Each invocation fires a mouse-pressed event at the top-left corner of the content, then a mouse-dragged event at its
+ * center, then a mouse-released event. The selection box therefore covers a quarter of the model, and the selection
+ * creator checks every node and joint against it.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BoxSelectionBenchmark {
+
+    private GraphEditor graphEditor;
+    private Region view;
+    private double endX;
+    private double endY;
+
+    @Setup
+    public void setUp(final EditorState editorState) {
+
+        graphEditor = editorState.graphEditor;
+        view = graphEditor.getView();
+        endX = editorState.model.getContentWidth() / 2;
+        endY = editorState.model.getContentHeight() / 2;
+    }
+
+    @Benchmark
+    public int selectQuarter() throws Exception {
+
+        return HeadlessToolkit.callAndWait(() -> {
+
+            fire(MouseEvent.MOUSE_PRESSED, 0, 0);
+            fire(MouseEvent.MOUSE_DRAGGED, endX, endY);
+            fire(MouseEvent.MOUSE_RELEASED, endX, endY);
+
+            return graphEditor.getSelectionManager().getSelectedItems().size();
+        });
+    }
+
+    private void fire(final EventType<MouseEvent> type, final double x, final double y) {
+
+        final MouseEvent event = new MouseEvent(type, x, y, x, y, MouseButton.PRIMARY, 1, false, false, false, false,
+                true, false, false, false, false, false, null);
+        Event.fireEvent(view, event);
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.tesis.dynaware.grapheditor.core.view.DefaultConnectionLayouter;
+
+/**
+ * Measures the time taken by {@link DefaultConnectionLayouter#redraw()}, which draws every connection skin.
+ *
+ * <p>
+ * The redraw runs on the JavaFX thread, because it updates the scene graph.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ConnectionLayouterBenchmark {
+
+    private DefaultConnectionLayouter connectionLayouter;
+
+    @Setup
+    public void setUp(final EditorState editorState) throws Exception {
+
+        connectionLayouter = new DefaultConnectionLayouter(editorState.graphEditor.getSkinLookup());
+        HeadlessToolkit.runAndWait(() -> connectionLayouter.initialize(editorState.model));
+    }
+
+    @Benchmark
+    public void redraw() throws Exception {
+        HeadlessToolkit.runAndWait(connectionLayouter::redraw);
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import de.tesis.dynaware.grapheditor.GraphEditor;
+import de.tesis.dynaware.grapheditor.benchmarks.generator.ModelGenerator;
+import de.tesis.dynaware.grapheditor.core.DefaultGraphEditor;
+import de.tesis.dynaware.grapheditor.model.GModel;
+import javafx.scene.Scene;
+import javafx.scene.layout.Region;
+
+/**
+ * A {@link DefaultGraphEditor} showing a mesh from the {@link ModelGenerator}, for benchmarks that need skins.
+ *
+ * <p>
+ * The editor view is put into a scene and laid out once, so that all skins have their real sizes and positions. The
+ * scene is never shown. Everything that touches the skins must run on the JavaFX thread, via
+ * {@link HeadlessToolkit#callAndWait(java.util.concurrent.Callable)}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+public class EditorState {
+
+    private static final double SCENE_WIDTH = 1600;
+    private static final double SCENE_HEIGHT = 1200;
+
+    @Param({ "100", "1000", "5000" })
+    public int nodeCount;
+
+    public GraphEditor graphEditor;
+    public GModel model;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+
+        HeadlessToolkit.start();
+
+        model = ModelGenerator.createMesh(nodeCount);
+
+        graphEditor = HeadlessToolkit.callAndWait(() -> {
+
+            final GraphEditor editor = new DefaultGraphEditor();
+            editor.setModel(model);
+
+            final Region view = editor.getView();
+            new Scene(view, SCENE_WIDTH, SCENE_HEIGHT);
+            view.applyCss();
+            view.layout();
+
+            return editor;
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        HeadlessToolkit.runAndWait(() -> graphEditor.setModel(null));
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.benchmarks;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import com.sun.javafx.application.PlatformImpl;
+
+import javafx.application.Platform;
+
+/**
+ * Starts the JavaFX toolkit without a display, for benchmarks that need skins.
+ *
+ * <p>
+ * The Monocle headless platform and the software renderer are used, unless other values are passed as system
+ * properties on the command line. The toolkit is started at most once per JVM.
+ * </p>
+ */
+public class HeadlessToolkit {
+
+    private static boolean started;
+
+    /**
+     * Static class, not to be instantiated.
+     */
+    private HeadlessToolkit() {
+    }
+
+    /**
+     * Starts the JavaFX toolkit, if it wasn't started already.
+     *
+     * @throws InterruptedException if interrupted while waiting for the toolkit to start
+     */
+    public static synchronized void start() throws InterruptedException {
+
+        if (started) {
+            return;
+        }
+
+        setIfAbsent("glass.platform", "Monocle");
+        setIfAbsent("monocle.platform", "Headless");
+        setIfAbsent("prism.order", "sw");
+        setIfAbsent("prism.text", "t2k");
+        setIfAbsent("java.awt.headless", "true");
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        PlatformImpl.startup(latch::countDown);
+        latch.await();
+
+        // Benchmarks create and dispose many editors without ever showing a window.
+        Platform.setImplicitExit(false);
+        started = true;
+    }
+
+    /**
+     * Runs the given task on the JavaFX thread and waits for its result.
+     *
+     * @param task the task to run
+     * @return the result of the task
+     * @throws Exception if the task threw an exception
+     */
+    public static <T> T callAndWait(final Callable<T> task) throws Exception {
+
+        if (Platform.isFxApplicationThread()) {
+            return task.call();
+        }
+
+        final FutureTask<T> future = new FutureTask<>(task);
+        Platform.runLater(future);
+
+        try {
+            return future.get();
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Runs the given task on the JavaFX thread and waits for it to finish.
+     *
+     * @param task the task to run
+     * @throws Exception if the task threw an exception
+     */
+    public static void runAndWait(final Runnable task) throws Exception {
+        callAndWait(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    private static void setIfAbsent(final String key, final String value) {
+        if (System.getProperty(key) == null) {
+            System.setProperty(key, value);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.tesis.dynaware.grapheditor.SkinLookup;
+import de.tesis.dynaware.grapheditor.core.skins.defaults.connection.IntersectionFinder;
+import de.tesis.dynaware.grapheditor.model.GConnection;
+import de.tesis.dynaware.grapheditor.utils.GeometryUtils;
+import javafx.geometry.Point2D;
+
+/**
+ * Measures the time taken by {@link IntersectionFinder#find(Map, boolean)} for every connection of a model.
+ *
+ * <p>
+ * This is what the default connection skins do on every redraw. The points of all connections are computed once on
+ * the JavaFX thread. Finding intersections only reads them, so it runs on the benchmark thread.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class IntersectionFinderBenchmark {
+
+    private final List<IntersectionFinder> finders = new ArrayList<>();
+    private Map<GConnection, List<Point2D>> allPoints;
+
+    @Setup
+    public void setUp(final EditorState editorState) throws Exception {
+
+        final SkinLookup skinLookup = editorState.graphEditor.getSkinLookup();
+
+        allPoints = HeadlessToolkit.callAndWait(() -> {
+
+            final Map<GConnection, List<Point2D>> points = new HashMap<>();
+            for (final GConnection connection : editorState.model.getConnections()) {
+
+                final List<Point2D> connectionPoints = GeometryUtils.getJointPositions(connection, skinLookup);
+                connectionPoints.add(0, GeometryUtils.getConnectorPosition(connection.getSource(), skinLookup));
+                connectionPoints.add(GeometryUtils.getConnectorPosition(connection.getTarget(), skinLookup));
+                points.put(connection, connectionPoints);
+            }
+            return points;
+        });
+
+        for (final GConnection connection : editorState.model.getConnections()) {
+            final IntersectionFinder finder = new IntersectionFinder(connection);
+            finder.setSkinLookup(skinLookup);
+            finders.add(finder);
+        }
+    }
+
+    @Benchmark
+    public int findAll() {
+
+        int intersectionCount = 0;
+        for (final IntersectionFinder finder : finders) {
+            intersectionCount += finder.find(allPoints, true).size();
+        }
+        return intersectionCount;
+    }
+}
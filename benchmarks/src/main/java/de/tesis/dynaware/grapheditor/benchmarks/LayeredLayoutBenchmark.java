@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.tesis.dynaware.grapheditor.benchmarks.generator.ModelGenerator;
+import de.tesis.dynaware.grapheditor.core.layout.LayeredLayout;
+import de.tesis.dynaware.grapheditor.core.layout.LayoutGraph;
+import de.tesis.dynaware.grapheditor.core.layout.LayoutResult;
+
+/**
+ * Measures the time taken by the {@link LayeredLayout} for generated directed acyclic graphs.
+ *
+ * <p>
+ * The graph snapshot is taken without skins, so only the layout calculation itself is measured.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LayeredLayoutBenchmark {
+
+    @Param({ "100", "1000", "10000" })
+    public int nodeCount;
+
+    @Param({ "2" })
+    public int connectionsPerNode;
+
+    private LayoutGraph graph;
+
+    @Setup
+    public void setUp() {
+        graph = LayoutGraph.create(ModelGenerator.createDag(nodeCount, connectionsPerNode, 0), null);
+    }
+
+    @Benchmark
+    public LayoutResult layout() {
+        return new LayeredLayout().layout(graph);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.tesis.dynaware.grapheditor.benchmarks.generator.ModelGenerator;
+import de.tesis.dynaware.grapheditor.core.model.ModelMemory;
+import de.tesis.dynaware.grapheditor.model.GModel;
+import de.tesis.dynaware.grapheditor.model.GNode;
+import de.tesis.dynaware.grapheditor.model.GraphFactory;
+
+/**
+ * Measures the time taken by {@link ModelMemory#setNewModelState(GModel)}.
+ *
+ * <p>
+ * The first benchmark compares the model to an empty memory, as happens when a model is loaded. The second compares it
+ * to a memory of the same model with one node more or less, as happens after a typical command.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ModelMemoryBenchmark {
+
+    @Param({ "100", "1000", "10000" })
+    private int nodeCount;
+
+    private final ModelMemory modelMemory = new ModelMemory();
+    private final GNode extraNode = GraphFactory.eINSTANCE.createGNode();
+
+    private GModel model;
+
+    @Setup
+    public void setUp() {
+        model = ModelGenerator.createMesh(nodeCount);
+        modelMemory.setNewModelState(model);
+    }
+
+    @Benchmark
+    public ModelMemory loadModel() {
+
+        modelMemory.wipe();
+        modelMemory.setNewModelState(model);
+        return modelMemory;
+    }
+
+    @Benchmark
+    public ModelMemory singleEdit() {
+
+        if (!model.getNodes().remove(extraNode)) {
+            model.getNodes().add(extraNode);
+        }
+
+        modelMemory.setNewModelState(model);
+        return modelMemory;
+    }
+}
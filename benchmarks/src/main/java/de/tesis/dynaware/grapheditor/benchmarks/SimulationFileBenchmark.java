@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.tesis.dynaware.grapheditor.benchmarks.generator.TraceGenerator;
+import de.tesis.dynaware.grapheditor.demo.animation.SimulationFile;
+import de.tesis.dynaware.grapheditor.demo.animation.SimulationSequence;
+import de.tesis.dynaware.grapheditor.demo.customskins.DefaultSkinController;
+
+/**
+ * Measures the time taken to read a simulation trace and build its sequences with {@link SimulationFile}.
+ *
+ * <p>
+ * The trace is written by the {@link TraceGenerator} for the model of the {@link EditorState}. Each event sends a task
+ * along a random connection, as an output event followed by the matching input event. Ten events happen at each time
+ * step.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SimulationFileBenchmark {
+
+    private static final int EVENTS_PER_TIME_STEP = 10;
+
+    @Param({ "1000", "10000" })
+    private int eventCount;
+
+    private DefaultSkinController skinController;
+    private Path traceFile;
+
+    @Setup
+    public void setUp(final EditorState editorState) throws IOException {
+
+        skinController = new DefaultSkinController(editorState.graphEditor, null);
+        traceFile = Files.createTempFile("benchmark", ".txt");
+
+        new TraceGenerator(editorState.model, 0).write(traceFile, EVENTS_PER_TIME_STEP, eventCount, Long.MAX_VALUE);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(traceFile);
+    }
+
+    @Benchmark
+    public TreeMap<Double, SimulationSequence> readAndBuild() {
+
+        final SimulationFile simulationFile = new SimulationFile(skinController, traceFile.toString());
+        simulationFile.readSimulationFile();
+        simulationFile.buildSequences();
+        return simulationFile.getSequences();
+    }
+}
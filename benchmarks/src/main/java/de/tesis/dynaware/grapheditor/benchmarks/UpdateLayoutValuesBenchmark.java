@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.emf.common.command.CompoundCommand;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.tesis.dynaware.grapheditor.Commands;
+import de.tesis.dynaware.grapheditor.SkinLookup;
+import de.tesis.dynaware.grapheditor.model.GModel;
+import de.tesis.dynaware.grapheditor.model.GNode;
+import javafx.scene.layout.Region;
+
+/**
+ * Measures the time taken by {@link Commands#updateLayoutValues(CompoundCommand, GModel, SkinLookup)}.
+ *
+ * <p>
+ * Every tenth node skin is moved without updating the model, as if it had been dragged. Each invocation compares all
+ * skins to the model and builds, but does not execute, the command that writes the moved positions back.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class UpdateLayoutValuesBenchmark {
+
+    private static final int MOVED_NODE_INTERVAL = 10;
+    private static final double MOVE_DISTANCE = 20;
+
+    private EditorState editorState;
+
+    @Setup
+    public void setUp(final EditorState editorState) throws Exception {
+
+        this.editorState = editorState;
+
+        HeadlessToolkit.runAndWait(() -> {
+
+            final SkinLookup skinLookup = editorState.graphEditor.getSkinLookup();
+
+            for (int i = 0; i < editorState.model.getNodes().size(); i += MOVED_NODE_INTERVAL) {
+                final GNode node = editorState.model.getNodes().get(i);
+                final Region root = skinLookup.lookupNode(node).getRoot();
+                root.setLayoutX(root.getLayoutX() + MOVE_DISTANCE);
+            }
+        });
+    }
+
+    @Benchmark
+    public CompoundCommand updateLayoutValues() throws Exception {
+
+        return HeadlessToolkit.callAndWait(() -> {
+
+            final CompoundCommand command = new CompoundCommand();
+            Commands.updateLayoutValues(command, editorState.model, editorState.graphEditor.getSkinLookup());
+            return command;
+        });
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceFactoryImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.tesis.dynaware.grapheditor.benchmarks.generator.ModelGenerator;
+import de.tesis.dynaware.grapheditor.model.GModel;
+import de.tesis.dynaware.grapheditor.model.GraphPackage;
+
+/**
+ * Measures the time taken to save a model as XMI and to load it again, as the demo does with <b>.graph</b> files.
+ *
+ * <p>
+ * Streams in memory are used, so that the benchmark does not depend on the file system.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class XmiBenchmark {
+
+    private static final URI MODEL_URI = URI.createURI("benchmark.graph");
+
+    @Param({ "100", "1000", "10000" })
+    private int nodeCount;
+
+    private final XMIResourceFactoryImpl resourceFactory = new XMIResourceFactoryImpl();
+
+    private Resource resource;
+    private byte[] bytes;
+
+    @Setup
+    public void setUp() throws IOException {
+
+        // Make sure the graph package is registered before anything is loaded.
+        GraphPackage.eINSTANCE.eClass();
+
+        final GModel model = ModelGenerator.createMesh(nodeCount);
+
+        resource = resourceFactory.createResource(MODEL_URI);
+        resource.getContents().add(model);
+
+        bytes = save().toByteArray();
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream save() throws IOException {
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream(bytes == null ? 32 : bytes.length);
+        resource.save(output, Collections.emptyMap());
+        return output;
+    }
+
+    @Benchmark
+    public Resource load() throws IOException {
+
+        final Resource loaded = resourceFactory.createResource(MODEL_URI);
+        loaded.load(new ByteArrayInputStream(bytes), Collections.emptyMap());
+        return loaded;
+    }
+}
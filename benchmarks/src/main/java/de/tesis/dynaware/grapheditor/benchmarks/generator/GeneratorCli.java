@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.benchmarks.generator;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceFactoryImpl;
+
+import de.tesis.dynaware.grapheditor.model.GModel;
+import de.tesis.dynaware.grapheditor.model.GraphPackage;
+
+/**
+ * Command-line entry point for the {@link ModelGenerator} and {@link TraceGenerator}.
+ *
+ * <p>
+ * Writes a <b>.graph</b> file that can be opened in the demo, and optionally a matching simulation trace. Run without
+ * arguments to print the available options.
+ * </p>
+ */
+public class GeneratorCli {
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: GeneratorCli <dag|tree|mesh|torus|dense> [options] <output.graph>", //
+            "  --nodes N          number of nodes (dag, tree, dense; default 1000)", //
+            "  --rows N           number of rows (mesh, torus; default 8)", //
+            "  --columns N        number of columns (mesh, torus; default 8)", //
+            "  --branching N      children per node (tree; default 3)", //
+            "  --connections N    connections per node (dag, dense; default 2)", //
+            "  --seed N           random seed (default 0)", //
+            "  --trace FILE       also write a simulation trace to FILE", //
+            "  --events N         maximum number of trace events (default 100000)", //
+            "  --rate N           trace events per time step (default 10)", //
+            "  --max-bytes N[kmg] maximum size of the trace (default unlimited)");
+
+    /**
+     * Static class, not to be instantiated.
+     */
+    private GeneratorCli() {
+    }
+
+    /**
+     * Generates a model, and optionally a trace, as described by the given arguments.
+     *
+     * @param args the command-line arguments
+     * @throws IOException if a file cannot be written
+     */
+    public static void main(final String[] args) throws IOException {
+
+        if (args.length < 2 || args.length % 2 != 0) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        final String topology = args[0];
+        final Path output = Paths.get(args[args.length - 1]);
+        final Map<String, String> options = new HashMap<>();
+
+        for (int i = 1; i < args.length - 1; i += 2) {
+            options.put(args[i], args[i + 1]);
+        }
+
+        final long seed = Long.parseLong(options.getOrDefault("--seed", "0"));
+        final int nodes = Integer.parseInt(options.getOrDefault("--nodes", "1000"));
+        final int rows = Integer.parseInt(options.getOrDefault("--rows", "8"));
+        final int columns = Integer.parseInt(options.getOrDefault("--columns", "8"));
+        final int branching = Integer.parseInt(options.getOrDefault("--branching", "3"));
+        final int connections = Integer.parseInt(options.getOrDefault("--connections", "2"));
+
+        final GModel model;
+
+        switch (topology) {
+        case "dag":
+            model = ModelGenerator.createDag(nodes, connections, seed);
+            break;
+        case "tree":
+            model = ModelGenerator.createTree(nodes, branching);
+            break;
+        case "mesh":
+            model = ModelGenerator.createMesh(rows, columns, false);
+            break;
+        case "torus":
+            model = ModelGenerator.createMesh(rows, columns, true);
+            break;
+        case "dense":
+            model = ModelGenerator.createDense(nodes, connections, seed);
+            break;
+        default:
+            System.err.println("Unknown topology: " + topology);
+            System.err.println(USAGE);
+            System.exit(1);
+            return;
+        }
+
+        save(model, output);
+        System.out.println("Wrote " + model.getNodes().size() + " nodes and " + model.getConnections().size()
+                + " connections to " + output);
+
+        final String trace = options.get("--trace");
+        if (trace != null) {
+
+            final long maxEvents = Long.parseLong(options.getOrDefault("--events", "100000"));
+            final int rate = Integer.parseInt(options.getOrDefault("--rate", "10"));
+            final long maxBytes = parseSize(options.getOrDefault("--max-bytes", String.valueOf(Long.MAX_VALUE)));
+
+            final long events = new TraceGenerator(model, seed).write(Paths.get(trace), rate, maxEvents, maxBytes);
+            System.out.println("Wrote " + events + " events to " + trace);
+        }
+    }
+
+    /**
+     * Saves the model as XMI, in the same way as the demo.
+     */
+    private static void save(final GModel model, final Path file) throws IOException {
+
+        // Make sure the graph package is registered before anything is saved.
+        GraphPackage.eINSTANCE.eClass();
+
+        final URI fileUri = URI.createFileURI(file.toAbsolutePath().toString());
+        final Resource resource = new XMIResourceFactoryImpl().createResource(fileUri);
+
+        resource.getContents().add(model);
+        resource.save(Collections.emptyMap());
+    }
+
+    /**
+     * Parses a size in bytes, with an optional <b>k</b>, <b>m</b> or <b>g</b> suffix.
+     */
+    private static long parseSize(final String size) {
+
+        final String value = size.trim().toLowerCase(Locale.ROOT);
+
+        switch (value.charAt(value.length() - 1)) {
+        case 'k':
+            return Long.parseLong(value.substring(0, value.length() - 1)) << 10;
+        case 'm':
+            return Long.parseLong(value.substring(0, value.length() - 1)) << 20;
+        case 'g':
+            return Long.parseLong(value.substring(0, value.length() - 1)) << 30;
+        default:
+            return Long.parseLong(value);
+        }
+    }
+}
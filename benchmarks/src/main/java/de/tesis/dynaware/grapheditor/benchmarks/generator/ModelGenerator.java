@@ -0,0 +1,410 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.benchmarks.generator;
+
+import java.util.Random;
+
+import javafx.geometry.Point2D;
+import javafx.geometry.Side;
+
+import de.tesis.dynaware.grapheditor.core.layout.LayeredLayout;
+import de.tesis.dynaware.grapheditor.core.layout.LayoutAlgorithm;
+import de.tesis.dynaware.grapheditor.core.layout.LayoutGraph;
+import de.tesis.dynaware.grapheditor.core.layout.LayoutResult;
+import de.tesis.dynaware.grapheditor.core.layout.MeshLayout;
+import de.tesis.dynaware.grapheditor.core.layout.TreeLayout;
+import de.tesis.dynaware.grapheditor.core.skins.defaults.utils.ConnectorLayoutUtils;
+import de.tesis.dynaware.grapheditor.core.skins.defaults.utils.DefaultConnectorTypes;
+import de.tesis.dynaware.grapheditor.model.GConnection;
+import de.tesis.dynaware.grapheditor.model.GConnector;
+import de.tesis.dynaware.grapheditor.model.GJoint;
+import de.tesis.dynaware.grapheditor.model.GModel;
+import de.tesis.dynaware.grapheditor.model.GNode;
+import de.tesis.dynaware.grapheditor.model.GraphFactory;
+
+/**
+ * Creates large {@link GModel} instances with parameterised topologies.
+ *
+ * <p>
+ * Random DAGs, trees and meshes are laid out with the editor's own {@link LayoutAlgorithm} implementations, without
+ * any skins, so the models look as they would after pressing the layout button in the demo. Dense models are placed
+ * on a tight grid and routed directly, so that their connections cross as often as possible.
+ * </p>
+ *
+ * <p>
+ * All connectors use the default connector types, so every model can be shown with the default skins. Node ids follow
+ * the naming scheme of DEVS simulation traces: <b>NODE[row][column]</b> for meshes and tori, and <b>NODE[index]</b>
+ * for everything else. The same seed always gives the same model.
+ * </p>
+ */
+public class ModelGenerator {
+
+    private static final double NODE_WIDTH = 120;
+    private static final double NODE_HEIGHT = 80;
+    private static final double DENSE_SPACING = 40;
+
+    // The size of the default connector skin.
+    private static final double CONNECTOR_SIZE = 25;
+
+    /**
+     * Static class, not to be instantiated.
+     */
+    private ModelGenerator() {
+    }
+
+    /**
+     * Creates a random directed acyclic graph.
+     *
+     * <p>
+     * Every node except the first is the target of up to the given number of connections from earlier nodes. Each
+     * connection gets its own right-side output and left-side input connector.
+     * </p>
+     *
+     * @param nodeCount the number of nodes
+     * @param connectionsPerNode the maximum number of incoming connections per node
+     * @param seed the seed for the random number generator
+     * @return a new {@link GModel} laid out with a {@link LayeredLayout}
+     */
+    public static GModel createDag(final int nodeCount, final int connectionsPerNode, final long seed) {
+
+        final Random random = new Random(seed);
+        final GModel model = GraphFactory.eINSTANCE.createGModel();
+
+        for (int i = 0; i < nodeCount; i++) {
+            model.getNodes().add(createNode(getNodeId(i)));
+        }
+
+        for (int i = 1; i < nodeCount; i++) {
+
+            final GNode target = model.getNodes().get(i);
+            final int count = 1 + random.nextInt(connectionsPerNode);
+
+            for (int j = 0; j < count; j++) {
+                final GNode source = model.getNodes().get(random.nextInt(i));
+                connect(model, source, DefaultConnectorTypes.RIGHT_OUTPUT, target, DefaultConnectorTypes.LEFT_INPUT);
+            }
+        }
+
+        applyLayout(model, new LayeredLayout());
+        return model;
+    }
+
+    /**
+     * Creates a complete tree, filled level by level.
+     *
+     * @param nodeCount the number of nodes
+     * @param branching the number of children of each inner node
+     * @return a new {@link GModel} laid out with a {@link TreeLayout}
+     */
+    public static GModel createTree(final int nodeCount, final int branching) {
+
+        final GModel model = GraphFactory.eINSTANCE.createGModel();
+
+        for (int i = 0; i < nodeCount; i++) {
+
+            final GNode node = createNode(getNodeId(i));
+            model.getNodes().add(node);
+
+            if (i > 0) {
+                final GNode parent = model.getNodes().get((i - 1) / branching);
+                connect(model, parent, DefaultConnectorTypes.BOTTOM_OUTPUT, node, DefaultConnectorTypes.TOP_INPUT);
+            }
+        }
+
+        applyLayout(model, new TreeLayout());
+        return model;
+    }
+
+    /**
+     * Creates a 2D mesh or torus, as used for network-on-chip models.
+     *
+     * <p>
+     * Each node has an input and an output connector on each of its four sides, named after the north, east, south
+     * and west ports of a router. Neighbouring nodes are connected in both directions. In a torus, the nodes at the
+     * edges are also connected to the nodes at the opposite edge.
+     * </p>
+     *
+     * <p>
+     * The connectors on opposite sides are in mirrored order, e.g. the east output faces the west input of the next
+     * node. Connections between neighbouring nodes are therefore straight.
+     * </p>
+     *
+     * @param rows the number of rows
+     * @param columns the number of columns
+     * @param torus {@code true} to connect opposite edges
+     * @return a new {@link GModel} laid out with a {@link MeshLayout}
+     */
+    public static GModel createMesh(final int rows, final int columns, final boolean torus) {
+
+        final GModel model = GraphFactory.eINSTANCE.createGModel();
+        final GNode[][] grid = new GNode[rows][columns];
+
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+
+                final GNode node = createNode(getNodeId(row, column));
+
+                addConnector(node, DefaultConnectorTypes.TOP_INPUT);
+                addConnector(node, DefaultConnectorTypes.TOP_OUTPUT);
+                addConnector(node, DefaultConnectorTypes.RIGHT_OUTPUT);
+                addConnector(node, DefaultConnectorTypes.RIGHT_INPUT);
+                addConnector(node, DefaultConnectorTypes.BOTTOM_OUTPUT);
+                addConnector(node, DefaultConnectorTypes.BOTTOM_INPUT);
+                addConnector(node, DefaultConnectorTypes.LEFT_INPUT);
+                addConnector(node, DefaultConnectorTypes.LEFT_OUTPUT);
+
+                grid[row][column] = node;
+                model.getNodes().add(node);
+            }
+        }
+
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+
+                final GNode node = grid[row][column];
+
+                if (column + 1 < columns || (torus && columns > 2)) {
+                    final GNode east = grid[row][(column + 1) % columns];
+                    connect(model, node.getConnectors().get(2), east.getConnectors().get(6));
+                    connect(model, east.getConnectors().get(7), node.getConnectors().get(3));
+                }
+
+                if (row + 1 < rows || (torus && rows > 2)) {
+                    final GNode south = grid[(row + 1) % rows][column];
+                    connect(model, node.getConnectors().get(4), south.getConnectors().get(0));
+                    connect(model, south.getConnectors().get(1), node.getConnectors().get(5));
+                }
+            }
+        }
+
+        applyLayout(model, new MeshLayout());
+        return model;
+    }
+
+    /**
+     * Creates a 2D mesh with about the given number of nodes, which is as close to square as possible.
+     *
+     * <p>
+     * Only full rows are created, so the mesh may have slightly fewer nodes than requested.
+     * </p>
+     *
+     * @param nodeCount the requested number of nodes
+     * @return a new {@link GModel} laid out with a {@link MeshLayout}
+     */
+    public static GModel createMesh(final int nodeCount) {
+
+        final int columns = Math.max(1, (int) Math.ceil(Math.sqrt(nodeCount)));
+        return createMesh(Math.max(1, nodeCount / columns), columns, false);
+    }
+
+    /**
+     * Creates a dense model whose connections cross each other as often as possible.
+     *
+     * <p>
+     * The nodes are placed on a tight square grid. Each node is the source of the given number of connections to
+     * random nodes anywhere in the grid, routed through the gap to the right of the source.
+     * </p>
+     *
+     * @param nodeCount the number of nodes
+     * @param connectionsPerNode the number of outgoing connections per node
+     * @param seed the seed for the random number generator
+     * @return a new {@link GModel}
+     */
+    public static GModel createDense(final int nodeCount, final int connectionsPerNode, final long seed) {
+
+        final Random random = new Random(seed);
+        final GModel model = GraphFactory.eINSTANCE.createGModel();
+        final int columns = Math.max(1, (int) Math.ceil(Math.sqrt(nodeCount)));
+
+        for (int i = 0; i < nodeCount; i++) {
+
+            final GNode node = createNode(getNodeId(i));
+            node.setX(DENSE_SPACING + i % columns * (NODE_WIDTH + DENSE_SPACING));
+            node.setY(DENSE_SPACING + i / columns * (NODE_HEIGHT + DENSE_SPACING));
+            model.getNodes().add(node);
+        }
+
+        for (final GNode source : model.getNodes()) {
+            for (int j = 0; j < connectionsPerNode && nodeCount > 1; j++) {
+
+                GNode target = source;
+                while (target == source) {
+                    target = model.getNodes().get(random.nextInt(nodeCount));
+                }
+
+                connect(model, source, DefaultConnectorTypes.RIGHT_OUTPUT, target, DefaultConnectorTypes.LEFT_INPUT);
+            }
+        }
+
+        for (final GNode node : model.getNodes()) {
+            layoutConnectors(node);
+        }
+
+        for (int i = 0; i < model.getConnections().size(); i++) {
+
+            final GConnection connection = model.getConnections().get(i);
+            final GConnector source = connection.getSource();
+            final GConnector target = connection.getTarget();
+
+            // Spread the vertical segments over the gap, so that they don't all overlap.
+            final int slot = i % connectionsPerNode;
+            final double offset = DENSE_SPACING * (slot + 1) / (connectionsPerNode + 1);
+            final double x = source.getParent().getX() + NODE_WIDTH + offset;
+
+            addJoint(connection, x, source.getParent().getY() + source.getY());
+            addJoint(connection, x, target.getParent().getY() + target.getY());
+        }
+
+        final int rows = (nodeCount + columns - 1) / columns;
+        model.setContentWidth(DENSE_SPACING + columns * (NODE_WIDTH + DENSE_SPACING));
+        model.setContentHeight(DENSE_SPACING + rows * (NODE_HEIGHT + DENSE_SPACING));
+
+        return model;
+    }
+
+    /**
+     * Gets the id of the node with the given index, for all topologies except meshes.
+     *
+     * @param index the index of the node
+     * @return the id of the node
+     */
+    public static String getNodeId(final int index) {
+        return "NODE[" + index + "]";
+    }
+
+    /**
+     * Gets the id of the node at the given position in a mesh.
+     *
+     * @param row the row of the node
+     * @param column the column of the node
+     * @return the id of the node
+     */
+    public static String getNodeId(final int row, final int column) {
+        return "NODE[" + row + "][" + column + "]";
+    }
+
+    private static GNode createNode(final String id) {
+
+        final GNode node = GraphFactory.eINSTANCE.createGNode();
+        node.setId(id);
+        node.setWidth(NODE_WIDTH);
+        node.setHeight(NODE_HEIGHT);
+        return node;
+    }
+
+    /**
+     * Adds a connector of the given type. Its position is set by {@link #layoutConnectors(GNode)}.
+     */
+    private static GConnector addConnector(final GNode node, final String type) {
+
+        final GConnector connector = GraphFactory.eINSTANCE.createGConnector();
+        connector.setType(type);
+
+        node.getConnectors().add(connector);
+        return connector;
+    }
+
+    /**
+     * Spreads the connectors of a node evenly along their sides, in the same way as the default node skin does.
+     */
+    private static void layoutConnectors(final GNode node) {
+
+        final int[] counts = new int[Side.values().length];
+        for (final GConnector connector : node.getConnectors()) {
+            counts[DefaultConnectorTypes.getSide(connector.getType()).ordinal()]++;
+        }
+
+        final int[] indices = new int[counts.length];
+        for (final GConnector connector : node.getConnectors()) {
+
+            final String type = connector.getType();
+            final int side = DefaultConnectorTypes.getSide(type).ordinal();
+
+            final Point2D layout = ConnectorLayoutUtils.getLayoutPosition(type, indices[side]++, counts[side],
+                    node.getWidth(), node.getHeight(), CONNECTOR_SIZE, CONNECTOR_SIZE);
+            final Point2D position = ConnectorLayoutUtils.getConnectionPosition(type, layout.getX(), layout.getY(),
+                    node.getWidth(), node.getHeight(), CONNECTOR_SIZE, CONNECTOR_SIZE);
+
+            connector.setX(position.getX());
+            connector.setY(position.getY());
+        }
+    }
+
+    /**
+     * Connects two nodes via new connectors of the given types.
+     */
+    private static GConnection connect(final GModel model, final GNode source, final String sourceType,
+            final GNode target, final String targetType) {
+        return connect(model, addConnector(source, sourceType), addConnector(target, targetType));
+    }
+
+    private static GConnection connect(final GModel model, final GConnector source, final GConnector target) {
+
+        final GConnection connection = GraphFactory.eINSTANCE.createGConnection();
+        connection.setSource(source);
+        connection.setTarget(target);
+
+        source.getConnections().add(connection);
+        target.getConnections().add(connection);
+        model.getConnections().add(connection);
+
+        return connection;
+    }
+
+    private static void addJoint(final GConnection connection, final double x, final double y) {
+
+        final GJoint joint = GraphFactory.eINSTANCE.createGJoint();
+        joint.setX(x);
+        joint.setY(y);
+        connection.getJoints().add(joint);
+    }
+
+    /**
+     * Lays out the model with the given algorithm and writes the result straight into the model.
+     *
+     * <p>
+     * The model is not being edited yet, so no commands are needed.
+     * </p>
+     */
+    private static void applyLayout(final GModel model, final LayoutAlgorithm algorithm) {
+
+        for (final GNode node : model.getNodes()) {
+            layoutConnectors(node);
+        }
+
+        final LayoutGraph graph = LayoutGraph.create(model, null);
+        final LayoutResult result = algorithm.layout(graph);
+
+        double maxX = 0;
+        double maxY = 0;
+
+        for (int i = 0; i < graph.getNodeCount(); i++) {
+
+            final GNode node = graph.getNode(i);
+            node.setX(result.getNodeX(i));
+            node.setY(result.getNodeY(i));
+
+            maxX = Math.max(maxX, node.getX() + node.getWidth());
+            maxY = Math.max(maxY, node.getY() + node.getHeight());
+        }
+
+        for (int e = 0; e < graph.getConnectionCount(); e++) {
+
+            final double[] joints = result.getJoints(e);
+            if (joints == null) {
+                continue;
+            }
+
+            final GConnection connection = graph.getConnection(e);
+            connection.getJoints().clear();
+
+            for (int j = 0; j + 1 < joints.length; j += 2) {
+                addJoint(connection, joints[j], joints[j + 1]);
+            }
+        }
+
+        model.setContentWidth(maxX + NODE_WIDTH);
+        model.setContentHeight(maxY + NODE_HEIGHT);
+    }
+}
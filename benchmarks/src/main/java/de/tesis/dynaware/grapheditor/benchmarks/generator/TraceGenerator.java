@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.benchmarks.generator;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import de.tesis.dynaware.grapheditor.core.skins.defaults.utils.DefaultConnectorTypes;
+import de.tesis.dynaware.grapheditor.model.GConnection;
+import de.tesis.dynaware.grapheditor.model.GConnector;
+import de.tesis.dynaware.grapheditor.model.GModel;
+
+/**
+ * Writes DEVS simulation traces for a {@link GModel}, in the format read by the demo's <b>SimulationFile</b>.
+ *
+ * <p>
+ * Each event sends a task along a random connection of the model, and is written as an output event on the source
+ * node followed by the matching input event on the target node:
+ * </p>
+ *
+ * <pre>
+ * time: 0.0
+ * --NODE[0][0](out_EAST = {TASK-0, dest: [0][1], size: 1})
+ * --NODE[0][1](in_WEST = {TASK-0, dest: [0][1], size: 1})
+ * </pre>
+ *
+ * <p>
+ * Port names are derived from the connector types, so the trace can be animated on any model made of default
+ * connectors. Node ids must follow the <b>NODE[...]</b> scheme used by {@link ModelGenerator}.
+ * </p>
+ *
+ * <p>
+ * The trace is streamed straight to disk, so arbitrarily long traces can be written in constant memory.
+ * </p>
+ */
+public class TraceGenerator {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final String NODE_PREFIX = "NODE";
+
+    private final List<String[]> connections = new ArrayList<>();
+    private final Random random;
+
+    /**
+     * Creates a new trace generator for the given model.
+     *
+     * @param model the {@link GModel} whose connections the tasks are sent along
+     * @param seed the seed for the random number generator
+     */
+    public TraceGenerator(final GModel model, final long seed) {
+
+        random = new Random(seed);
+
+        for (final GConnection connection : model.getConnections()) {
+
+            final GConnector source = connection.getSource();
+            final GConnector target = connection.getTarget();
+
+            final String targetId = target.getParent().getId();
+            final String tail = ", dest: " + targetId.substring(NODE_PREFIX.length()) + ", size: 1})";
+
+            final String output = "--" + source.getParent().getId() + "(" + getPortName(source) + " = {TASK-";
+            final String input = "--" + targetId + "(" + getPortName(target) + " = {TASK-";
+
+            connections.add(new String[] { output, input, tail });
+        }
+    }
+
+    /**
+     * Writes a trace to the given file, overwriting it if it exists.
+     *
+     * <p>
+     * Writing stops as soon as either limit is reached. Each event is written in full, so the file may be slightly
+     * larger than the given number of bytes.
+     * </p>
+     *
+     * @param file the file to write to
+     * @param eventsPerTimeStep the number of events at each time step
+     * @param maxEvents the maximum number of events to write
+     * @param maxBytes the maximum size of the file in bytes
+     * @return the number of events written
+     * @throws IOException if the file cannot be written
+     */
+    public long write(final Path file, final int eventsPerTimeStep, final long maxEvents, final long maxBytes)
+            throws IOException {
+
+        if (connections.isEmpty() || eventsPerTimeStep <= 0) {
+            Files.deleteIfExists(file);
+            Files.createFile(file);
+            return 0;
+        }
+
+        long events = 0;
+        long bytes = 0;
+
+        try (final Writer writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file),
+                StandardCharsets.US_ASCII), BUFFER_SIZE)) {
+
+            final StringBuilder builder = new StringBuilder(256);
+
+            while (events < maxEvents && bytes < maxBytes) {
+
+                builder.setLength(0);
+
+                if (events % eventsPerTimeStep == 0) {
+                    builder.append("time: ").append(events / eventsPerTimeStep).append(".0\n");
+                }
+
+                // Task numbers are parsed as integers, so they wrap around for very long traces.
+                final int task = (int) (events % Integer.MAX_VALUE);
+                final String[] connection = connections.get(random.nextInt(connections.size()));
+
+                builder.append(connection[0]).append(task).append(connection[2]).append('\n');
+                builder.append(connection[1]).append(task).append(connection[2]).append('\n');
+
+                writer.append(builder);
+                bytes += builder.length();
+                events++;
+            }
+        }
+
+        return events;
+    }
+
+    /**
+     * Gets the DEVS port name of a connector, e.g. <b>out_EAST</b> for a right-side output.
+     *
+     * <p>
+     * Connectors that are not of one of the {@link DefaultConnectorTypes} are named by their id.
+     * </p>
+     */
+    private static String getPortName(final GConnector connector) {
+
+        final String type = connector.getType();
+        if (!DefaultConnectorTypes.isValid(type)) {
+            return connector.getId();
+        }
+
+        final String prefix = DefaultConnectorTypes.isInput(type) ? "in_" : "out_";
+
+        switch (DefaultConnectorTypes.getSide(type)) {
+        case TOP:
+            return prefix + "NORTH";
+        case RIGHT:
+            return prefix + "EAST";
+        case BOTTOM:
+            return prefix + "SOUTH";
+        default:
+            return prefix + "WEST";
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.benchmarks.generator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import de.tesis.dynaware.grapheditor.GraphEditor;
+import de.tesis.dynaware.grapheditor.core.DefaultGraphEditor;
+import de.tesis.dynaware.grapheditor.core.skins.defaults.utils.DefaultConnectorTypes;
+import de.tesis.dynaware.grapheditor.model.GConnection;
+import de.tesis.dynaware.grapheditor.model.GConnector;
+import de.tesis.dynaware.grapheditor.model.GModel;
+import de.tesis.dynaware.grapheditor.model.GNode;
+
+/**
+ * Checks that generated models can be shown with the default skins.
+ */
+public class ModelGeneratorTest {
+
+    @Test
+    public void meshCanBeShownWithDefaultSkins() {
+
+        final GModel model = ModelGenerator.createMesh(3, 4, true);
+
+        for (final GNode node : model.getNodes()) {
+
+            final Set<String> positions = new HashSet<>();
+            for (final GConnector connector : node.getConnectors()) {
+                positions.add(connector.getX() + "," + connector.getY());
+            }
+            assertEquals("Connectors must not overlap.", node.getConnectors().size(), positions.size());
+        }
+
+        for (final GConnection connection : model.getConnections()) {
+
+            final int jointCount = connection.getJoints().size();
+            final boolean sourceHorizontal = isHorizontal(connection.getSource());
+            final boolean targetHorizontal = isHorizontal(connection.getTarget());
+
+            assertTrue(jointCount >= 2);
+            assertEquals(sourceHorizontal == targetHorizontal, jointCount % 2 == 0);
+        }
+
+        final GraphEditor graphEditor = new DefaultGraphEditor();
+        graphEditor.setModel(model);
+    }
+
+    /**
+     * Checks whether connections leave the connector horizontally, i.e. whether it is on the left or right.
+     */
+    private static boolean isHorizontal(final GConnector connector) {
+
+        final String type = connector.getType();
+        return DefaultConnectorTypes.isLeft(type) || DefaultConnectorTypes.isRight(type);
+    }
+}
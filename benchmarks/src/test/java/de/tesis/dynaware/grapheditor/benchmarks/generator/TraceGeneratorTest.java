@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.benchmarks.generator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.TreeMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.tesis.dynaware.grapheditor.GraphEditor;
+import de.tesis.dynaware.grapheditor.core.DefaultGraphEditor;
+import de.tesis.dynaware.grapheditor.core.skins.defaults.utils.DefaultConnectorTypes;
+import de.tesis.dynaware.grapheditor.demo.animation.SimulationFile;
+import de.tesis.dynaware.grapheditor.demo.animation.SimulationRecord;
+import de.tesis.dynaware.grapheditor.demo.animation.SimulationSequence;
+import de.tesis.dynaware.grapheditor.demo.customskins.DefaultSkinController;
+import de.tesis.dynaware.grapheditor.model.GConnection;
+import de.tesis.dynaware.grapheditor.model.GConnector;
+import de.tesis.dynaware.grapheditor.model.GModel;
+
+/**
+ * Checks that a generated trace can be read back by the demo's {@link SimulationFile}.
+ */
+public class TraceGeneratorTest {
+
+    private static final int EVENTS_PER_TIME_STEP = 5;
+    private static final int EVENT_COUNT = 50;
+
+    private Path traceFile;
+
+    @Before
+    public void setUp() throws IOException {
+        traceFile = Files.createTempFile("trace", ".txt");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(traceFile);
+    }
+
+    @Test
+    public void traceRoundTripsThroughSimulationFile() throws IOException {
+
+        final GModel model = ModelGenerator.createMesh(3, 4, false);
+
+        final long written = new TraceGenerator(model, 0).write(traceFile, EVENTS_PER_TIME_STEP, EVENT_COUNT,
+                Long.MAX_VALUE);
+        assertEquals(EVENT_COUNT, written);
+
+        final GraphEditor graphEditor = new DefaultGraphEditor();
+        graphEditor.setModel(model);
+
+        final SimulationFile simulationFile = new SimulationFile(new DefaultSkinController(graphEditor, null),
+                traceFile.toString());
+        simulationFile.readSimulationFile();
+        simulationFile.buildSequences();
+
+        final TreeMap<Double, SimulationSequence> sequences = simulationFile.getSequences();
+        assertEquals(EVENT_COUNT / EVENTS_PER_TIME_STEP, sequences.size());
+        assertEquals(0.0, sequences.firstKey(), 0);
+
+        for (final SimulationSequence sequence : sequences.values()) {
+
+            final List<SimulationRecord> records = sequence.getSequence();
+            assertEquals(2 * EVENTS_PER_TIME_STEP, records.size());
+
+            for (int i = 0; i < records.size(); i += 2) {
+                assertEvent(records.get(i), records.get(i + 1));
+            }
+        }
+    }
+
+    /**
+     * Checks that an output and an input event belong to the same task, sent along a connection of the model.
+     */
+    private static void assertEvent(final SimulationRecord output, final SimulationRecord input) {
+
+        assertFalse(output.isInputEvent());
+        assertTrue(input.isInputEvent());
+        assertEquals(output.getTaskNumber(), input.getTaskNumber());
+
+        final GConnector source = output.getInputConnector();
+        final GConnector target = input.getInputConnector();
+
+        assertNotNull(source);
+        assertNotNull(target);
+        assertEquals(output.getElement(), source.getParent());
+        assertEquals(input.getElement(), target.getParent());
+        assertTrue(DefaultConnectorTypes.isOutput(source.getType()));
+        assertTrue(DefaultConnectorTypes.isInput(target.getType()));
+
+        assertEquals(1, source.getConnections().size());
+        final GConnection connection = source.getConnections().get(0);
+        assertEquals(target, connection.getTarget());
+
+        assertEquals(input.getElement(), output.getTaskTargetNode());
+        assertEquals(input.getElement(), input.getTaskTargetNode());
+    }
+}
@@ -7,6 +7,7 @@ import java.util.function.BiConsumer;
 
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.ObservableList;
 import javafx.scene.layout.Region;
 
 import org.eclipse.emf.common.command.CompoundCommand;
@@ -20,6 +21,7 @@ import de.tesis.dynaware.grapheditor.GTailSkin;
 import de.tesis.dynaware.grapheditor.GraphEditor;
 import de.tesis.dynaware.grapheditor.SelectionManager;
 import de.tesis.dynaware.grapheditor.SkinLookup;
+import de.tesis.dynaware.grapheditor.ValidationIssue;
 import de.tesis.dynaware.grapheditor.core.connections.ConnectionEventManager;
 import de.tesis.dynaware.grapheditor.core.skins.SkinManager;
 import de.tesis.dynaware.grapheditor.model.GConnection;
@@ -27,6 +29,7 @@ import de.tesis.dynaware.grapheditor.model.GConnector;
 import de.tesis.dynaware.grapheditor.model.GJoint;
 import de.tesis.dynaware.grapheditor.model.GModel;
 import de.tesis.dynaware.grapheditor.model.GNode;
+import de.tesis.dynaware.grapheditor.utils.GraphEditorMetrics;
 import de.tesis.dynaware.grapheditor.utils.GraphEditorProperties;
 import javafx.util.Callback;
 
@@ -35,6 +38,7 @@ import javafx.util.Callback;
  */
 public class DefaultGraphEditor implements GraphEditor {
 
+    private final GraphEditorMetrics metrics = new GraphEditorMetrics();
     private final SkinManager skinManager;
     private final ConnectionEventManager connectionEventManager = new ConnectionEventManager();
     private final GraphEditorController controller;
@@ -56,7 +60,9 @@ public class DefaultGraphEditor implements GraphEditor {
         // Skin manager needs 'this' reference so users can access GraphEditor inside their custom skins.
         skinManager = new SkinManager(this);
 
-        controller = new GraphEditorController(skinManager, connectionEventManager);
+        controller = new GraphEditorController(skinManager, connectionEventManager, metrics);
+
+        metrics.setGauge(GraphEditorMetrics.Gauge.LIVE_SKINS, skinManager::getSkinCount);
 
         // Create some default layout properties in case the user never sets any.
         setProperties(new GraphEditorProperties());
@@ -146,4 +152,19 @@ public class DefaultGraphEditor implements GraphEditor {
     public void setOnConnectionRemoved(final BiConsumer<GConnection, CompoundCommand> consumer) {
         connectionEventManager.setOnConnectionRemoved(consumer);
     }
+
+    @Override
+    public ObservableList<ValidationIssue> getValidationIssues() {
+        return controller.getValidationIssues();
+    }
+
+    @Override
+    public void validate() {
+        controller.validate();
+    }
+
+    @Override
+    public GraphEditorMetrics getMetrics() {
+        return metrics;
+    }
 }
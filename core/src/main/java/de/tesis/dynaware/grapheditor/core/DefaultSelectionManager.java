@@ -22,6 +22,8 @@ import de.tesis.dynaware.grapheditor.model.GConnector;
 import de.tesis.dynaware.grapheditor.model.GJoint;
 import de.tesis.dynaware.grapheditor.model.GModel;
 import de.tesis.dynaware.grapheditor.model.GNode;
+import de.tesis.dynaware.grapheditor.utils.GraphEditorMetrics;
+import de.tesis.dynaware.grapheditor.utils.GraphEditorMetrics.Timer;
 import de.tesis.dynaware.grapheditor.utils.GraphEditorProperties;
 import de.tesis.dynaware.grapheditor.utils.GraphInputMode;
 import javafx.collections.ObservableSet;
@@ -51,6 +53,7 @@ public class DefaultSelectionManager implements SelectionManager {
     private final SelectionDragManager selectionDragManager;
     private final SelectionDeleter selectionDeleter;
     private final SelectionTracker selectionTracker;
+    private final GraphEditorMetrics metrics;
 
     private GraphEditorProperties editorProperties;
     private GModel model;
@@ -61,9 +64,12 @@ public class DefaultSelectionManager implements SelectionManager {
      * @param skinLookup the {@link SkinLookup} instance in use
      * @param view the {@link GraphEditorView} instance in use
      * @param modelEditingManager the {@link ModelEditingManager} in use
+     * @param metrics the {@link GraphEditorMetrics} that selection changes are recorded in
      */
     public DefaultSelectionManager(final SkinLookup skinLookup, final GraphEditorView view,
-            final ModelEditingManager modelEditingManager) {
+            final ModelEditingManager modelEditingManager, final GraphEditorMetrics metrics) {
+
+        this.metrics = metrics;
 
         selectionDragManager = new SelectionDragManager(skinLookup, view, this);
         selectionDeleter = new SelectionDeleter(skinLookup, modelEditingManager);
@@ -137,12 +143,24 @@ public class DefaultSelectionManager implements SelectionManager {
     
     @Override
     public void select(final EObject object) {
-		getSelectedItems().add(object);
+
+        final long start = metrics.start();
+        try {
+            getSelectedItems().add(object);
+        } finally {
+            metrics.stop(Timer.SELECTION_CHANGE, start);
+        }
     }
     
     @Override
     public void clearSelection(final EObject object) {
-    	getSelectedItems().remove(object);
+
+        final long start = metrics.start();
+        try {
+            getSelectedItems().remove(object);
+        } finally {
+            metrics.stop(Timer.SELECTION_CHANGE, start);
+        }
     }
     
     @Override
@@ -167,14 +185,20 @@ public class DefaultSelectionManager implements SelectionManager {
 
     @Override
     public void clearSelection() {
-    	if(!getSelectedItems().isEmpty()) {
-    		// copy to prevent ConcurrentModificationException
-    		// (removal triggers update notification which in turn could modify the selection)
-	    	final EObject[] selectedItems = getSelectedItems().toArray(new EObject[getSelectedItems().size()]);
-	    	for(final EObject remove : selectedItems) {
-	    		getSelectedItems().remove(remove);
-	    	}
-    	}
+        if (!getSelectedItems().isEmpty()) {
+
+            final long start = metrics.start();
+            try {
+                // copy to prevent ConcurrentModificationException
+                // (removal triggers update notification which in turn could modify the selection)
+                final EObject[] selectedItems = getSelectedItems().toArray(new EObject[getSelectedItems().size()]);
+                for (final EObject remove : selectedItems) {
+                    getSelectedItems().remove(remove);
+                }
+            } finally {
+                metrics.stop(Timer.SELECTION_CHANGE, start);
+            }
+        }
     }
 
     @Override
@@ -188,16 +212,22 @@ public class DefaultSelectionManager implements SelectionManager {
     }
 
     @Override
-	public void selectAll() {
-		if (model != null) {
-			getSelectedItems().addAll(model.getNodes());
-			for (final GConnection connection : model.getConnections()) {
-				getSelectedItems().add(connection);
-
-				for (final GJoint joint : connection.getJoints()) {
-					getSelectedItems().add(joint);
-				}
-			}
-		}
-	}
+    public void selectAll() {
+        if (model != null) {
+
+            final long start = metrics.start();
+            try {
+                getSelectedItems().addAll(model.getNodes());
+                for (final GConnection connection : model.getConnections()) {
+                    getSelectedItems().add(connection);
+
+                    for (final GJoint joint : connection.getJoints()) {
+                        getSelectedItems().add(joint);
+                    }
+                }
+            } finally {
+                metrics.stop(Timer.SELECTION_CHANGE, start);
+            }
+        }
+    }
 }
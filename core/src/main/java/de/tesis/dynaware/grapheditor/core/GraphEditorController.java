@@ -4,6 +4,7 @@
 package de.tesis.dynaware.grapheditor.core;
 
 import java.util.List;
+import java.util.Map;
 
 import org.eclipse.emf.common.command.CommandStackListener;
 
@@ -12,6 +13,7 @@ import de.tesis.dynaware.grapheditor.GConnectorValidator;
 import de.tesis.dynaware.grapheditor.GJointSkin;
 import de.tesis.dynaware.grapheditor.GNodeSkin;
 import de.tesis.dynaware.grapheditor.SelectionManager;
+import de.tesis.dynaware.grapheditor.ValidationIssue;
 import de.tesis.dynaware.grapheditor.core.connections.ConnectionEventManager;
 import de.tesis.dynaware.grapheditor.core.connections.ConnectorDragManager;
 import de.tesis.dynaware.grapheditor.core.model.ModelEditingManager;
@@ -27,7 +29,10 @@ import de.tesis.dynaware.grapheditor.model.GConnector;
 import de.tesis.dynaware.grapheditor.model.GJoint;
 import de.tesis.dynaware.grapheditor.model.GModel;
 import de.tesis.dynaware.grapheditor.model.GNode;
+import de.tesis.dynaware.grapheditor.utils.GraphEditorMetrics;
+import de.tesis.dynaware.grapheditor.utils.GraphEditorMetrics.Timer;
 import de.tesis.dynaware.grapheditor.utils.GraphEditorProperties;
+import javafx.collections.ObservableList;
 import javafx.scene.layout.Region;
 
 /**
@@ -40,18 +45,24 @@ import javafx.scene.layout.Region;
  *
  * <p>
  * Also responsible for creating all secondary managers like the {@link ConnectorDragManager} and reinitializing them
- * when the model changes.
+ * when the model changes. When a new model is set, every manager is initialized from scratch. After a command on the
+ * same model, only the elements that the {@link ModelMemory} reports as added, removed or changed are passed on to the
+ * managers and the skin manager. Some work after a command still covers the whole model: the {@link ModelMemory}
+ * compares every element with its old state, the skins are moved to their positions in the model, and all
+ * connections are redrawn.
  * </p>
  */
 public class GraphEditorController {
 
     private final SkinManager skinManager;
     private final GraphEditorView view;
+    private final GraphEditorMetrics metrics;
 
     private final CommandStackListener commandStackListener = event -> initializeAll();
     private final ModelEditingManager modelEditingManager;
     private final ModelLayoutUpdater modelLayoutUpdater;
     private final ModelMemory modelMemory;
+    private final ModelSanityChecker modelSanityChecker = new ModelSanityChecker();
 
     private final ConnectionLayouter connectionLayouter;
     private final ConnectorDragManager connectorDragManager;
@@ -59,25 +70,29 @@ public class GraphEditorController {
     private final DefaultSelectionManager selectionManager;
 
     private GModel model;
+    private GModel initializedModel;
 
     /**
      * Creates a new controller instance. Only one instance should exist per {@link DefaultGraphEditor} instance.
      *
      * @param skinManager the {@link SkinManager} instance
      * @param connectionEventManager the {@link ConnectionEventManager} instance
+     * @param metrics the {@link GraphEditorMetrics} of the graph editor
      */
-	public GraphEditorController(final SkinManager skinManager, final ConnectionEventManager connectionEventManager) {
+	public GraphEditorController(final SkinManager skinManager, final ConnectionEventManager connectionEventManager,
+			final GraphEditorMetrics metrics) {
 
 		this.skinManager = skinManager;
+		this.metrics = metrics;
 
-		view = new GraphEditorView();
+		view = new GraphEditorView(metrics);
 
-		modelEditingManager = new ModelEditingManager(commandStackListener);
+		modelEditingManager = new ModelEditingManager(commandStackListener, metrics);
 		modelLayoutUpdater = new ModelLayoutUpdater(skinManager, modelEditingManager, view::getEditorProperties);
 		modelMemory = new ModelMemory();
-		connectionLayouter = new DefaultConnectionLayouter(skinManager);
+		connectionLayouter = new DefaultConnectionLayouter(skinManager, metrics);
 		connectorDragManager = new ConnectorDragManager(skinManager, connectionEventManager, view);
-		selectionManager = new DefaultSelectionManager(skinManager, view, modelEditingManager);
+		selectionManager = new DefaultSelectionManager(skinManager, view, modelEditingManager, metrics);
 
 		view.setConnectionLayouter(connectionLayouter);
 	}
@@ -99,13 +114,17 @@ public class GraphEditorController {
     public void setModel(final GModel model) {
 
         this.model = model;
+        initializedModel = null;
 
         modelMemory.wipe();
         view.clear();
+        skinManager.clear();
 
         // Perform single null check here. All secondary managers can assume that the model is not null.
         if (model != null) {
             initializeAll();
+        } else {
+            modelSanityChecker.initialize(null);
         }
     }
 
@@ -144,21 +163,72 @@ public class GraphEditorController {
         return selectionManager;
     }
 
+    /**
+     * Gets the problems found in the current model.
+     *
+     * @return a read-only observable list of {@link ValidationIssue} instances
+     */
+    public ObservableList<ValidationIssue> getValidationIssues() {
+        return modelSanityChecker.getIssues();
+    }
+
+    /**
+     * Validates the whole current model in the background.
+     */
+    public void validate() {
+        modelSanityChecker.validateAll();
+    }
+
     /**
      * Initializes everything for the current model.
+     *
+     * <p>
+     * If the managers were already initialized for this model, only the changes since the last call are applied.
+     * </p>
      */
     public void initializeAll() {
 
-        ModelSanityChecker.validate(model);
+        final long start = metrics.start();
+        try {
+            modelSanityChecker.initialize(model);
+
+            final long diffStart = metrics.start();
+            try {
+                modelMemory.setNewModelState(model);
+            } finally {
+                metrics.stop(Timer.MODEL_DIFF, diffStart);
+            }
+
+            if (model != initializedModel) {
 
-        modelMemory.setNewModelState(model);
-        reloadView();
+                reloadView();
 
-        modelEditingManager.initialize(model);
-        modelLayoutUpdater.initialize(model);
-        connectionLayouter.initialize(model);
-        connectorDragManager.initialize(model);
-        selectionManager.initialize(model);
+                final long additionStart = metrics.start();
+                try {
+                    modelEditingManager.initialize(model);
+                    modelLayoutUpdater.initialize(model);
+                    connectionLayouter.initialize(model);
+                    connectorDragManager.initialize(model);
+                    selectionManager.initialize(model);
+                } finally {
+                    metrics.stop(Timer.MANAGER_ADDITION, additionStart);
+                }
+
+                initializedModel = model;
+
+            } else {
+
+                // Elements must be removed from the managers while their skins can still be looked up.
+                removeFromManagers();
+                reloadView();
+                addToManagers();
+
+                connectionLayouter.redraw();
+                selectionManager.clearSelection();
+            }
+        } finally {
+            metrics.stop(Timer.INITIALIZE_ALL, start);
+        }
     }
 
     /**
@@ -179,21 +249,26 @@ public class GraphEditorController {
      */
     private void reloadView() {
 
-        cleanUpView();
-        updateSkinManager();
+        final long start = metrics.start();
+        try {
+            cleanUpView();
+            updateSkinManager();
 
-        for (final GNode node : modelMemory.getNodesToAdd()) {
-            view.add(skinManager.lookupNode(node));
-        }
+            for (final GNode node : modelMemory.getNodesToAdd()) {
+                view.add(skinManager.lookupNode(node));
+            }
 
-        for (final GConnection connection : modelMemory.getConnectionsToAdd()) {
-            view.add(skinManager.lookupConnection(connection));
-        }
+            for (final GConnection connection : modelMemory.getConnectionsToAdd()) {
+                view.add(skinManager.lookupConnection(connection));
+            }
 
-        for (final List<GJoint> joints : modelMemory.getJointsToAdd().values()) {
-            for (final GJoint joint : joints) {
-                view.add(skinManager.lookupJoint(joint));
+            for (final List<GJoint> joints : modelMemory.getJointsToAdd().values()) {
+                for (final GJoint joint : joints) {
+                    view.add(skinManager.lookupJoint(joint));
+                }
             }
+        } finally {
+            metrics.stop(Timer.VIEW_RELOAD, start);
         }
     }
 
@@ -228,8 +303,83 @@ public class GraphEditorController {
         }
     }
 
+    /**
+     * Removes the elements that the {@link ModelMemory} tells us to remove from all managers.
+     *
+     * <p>
+     * Connectors of updated nodes are removed too, because the skin manager creates new skins for them.
+     * </p>
+     */
+    private void removeFromManagers() {
+
+        final long start = metrics.start();
+        try {
+            for (final GNode node : modelMemory.getNodesToRemove()) {
+                modelLayoutUpdater.removeNode(node);
+                selectionManager.removeNode(node);
+                node.getConnectors().forEach(connectorDragManager::removeConnector);
+            }
+
+            for (final GConnector connector : modelMemory.getConnectorsToRemove()) {
+                selectionManager.removeConnector(connector);
+                connectorDragManager.removeConnector(connector);
+            }
+
+            for (final GNode node : modelMemory.getNodesToUpdate()) {
+                node.getConnectors().forEach(selectionManager::removeConnector);
+            }
+
+            for (final GConnection connection : modelMemory.getConnectionsToRemove()) {
+                selectionManager.removeConnection(connection);
+            }
+
+            for (final List<GJoint> joints : modelMemory.getJointsToRemove().values()) {
+                for (final GJoint joint : joints) {
+                    modelLayoutUpdater.removeJoint(joint);
+                    selectionManager.removeJoint(joint);
+                }
+            }
+        } finally {
+            metrics.stop(Timer.MANAGER_REMOVAL, start);
+        }
+    }
+
+    /**
+     * Adds the elements that the {@link ModelMemory} tells us to add to all managers.
+     */
+    private void addToManagers() {
+
+        final long start = metrics.start();
+        try {
+            for (final GNode node : modelMemory.getNodesToAdd()) {
+                modelLayoutUpdater.addNode(node);
+                selectionManager.addNode(node);
+            }
+
+            for (final GNode node : modelMemory.getNodesToUpdate()) {
+                node.getConnectors().forEach(selectionManager::addConnector);
+            }
+
+            for (final GConnection connection : modelMemory.getConnectionsToAdd()) {
+                selectionManager.addConnection(connection);
+            }
+
+            // The skins of these connections may have added joint handlers that must run before the model is updated.
+            for (final Map.Entry<GConnection, List<GJoint>> entry : modelMemory.getJointsToAdd().entrySet()) {
+                modelLayoutUpdater.updateJoints(entry.getKey().getJoints());
+                entry.getValue().forEach(selectionManager::addJoint);
+            }
+        } finally {
+            metrics.stop(Timer.MANAGER_ADDITION, start);
+        }
+    }
+
     /**
      * Updates the skin manager, adding and removing skin instances according to what the {@link ModelMemory} specifies.
+     *
+     * <p>
+     * Joint skins are only set again for connections whose list of joints changed.
+     * </p>
      */
     private void updateSkinManager() {
 
@@ -0,0 +1,269 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.connections;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import javafx.geometry.Point2D;
+import javafx.geometry.Side;
+
+import org.eclipse.emf.common.command.CompoundCommand;
+import org.eclipse.emf.edit.domain.AdapterFactoryEditingDomain;
+import org.eclipse.emf.edit.domain.EditingDomain;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.tesis.dynaware.grapheditor.SkinLookup;
+import de.tesis.dynaware.grapheditor.core.skins.defaults.connection.JointCommands;
+import de.tesis.dynaware.grapheditor.core.skins.defaults.tail.ObstacleIndex;
+import de.tesis.dynaware.grapheditor.core.skins.defaults.tail.OrthogonalRouter;
+import de.tesis.dynaware.grapheditor.core.skins.defaults.tail.RectangularPathCreator;
+import de.tesis.dynaware.grapheditor.core.skins.defaults.utils.DefaultConnectorTypes;
+import de.tesis.dynaware.grapheditor.core.utils.LogMessages;
+import de.tesis.dynaware.grapheditor.model.GConnection;
+import de.tesis.dynaware.grapheditor.model.GModel;
+import de.tesis.dynaware.grapheditor.model.GNode;
+import de.tesis.dynaware.grapheditor.utils.GeometryUtils;
+
+/**
+ * Recalculates the joints of many connections at once, e.g. after a layout or a large paste.
+ *
+ * <p>
+ * Connector positions are read from the skins on the calling thread, which must be the JavaFX application thread. The
+ * routes are then calculated in parallel on the common fork-join pool. All worker threads share one
+ * {@link ObstacleIndex} containing the nodes of the model, which is not modified while routing. Each worker thread
+ * has its own {@link OrthogonalRouter}, since routers keep per-request state.
+ * </p>
+ *
+ * <p>
+ * The new joints of all connections are set in a single {@link CompoundCommand}, so the whole batch is undone in one
+ * step. Only connections whose connectors have one of the types in {@link DefaultConnectorTypes} are routed.
+ * </p>
+ */
+public class BatchConnectionRouter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchConnectionRouter.class);
+
+    private final SkinLookup skinLookup;
+
+    /**
+     * Creates a new batch connection router.
+     *
+     * @param skinLookup the {@link SkinLookup} used to find connector positions
+     */
+    public BatchConnectionRouter(final SkinLookup skinLookup) {
+        this.skinLookup = skinLookup;
+    }
+
+    /**
+     * Recalculates the joints of all connections in the model.
+     *
+     * @param model the {@link GModel} whose connections should be routed
+     * @return a {@link Result} describing the routing job
+     */
+    public Result reroute(final GModel model) {
+        return reroute(model, model.getConnections());
+    }
+
+    /**
+     * Recalculates the joints of the given connections and sets them in a single command.
+     *
+     * @param model the {@link GModel} containing the connections
+     * @param connections the connections to be routed
+     * @return a {@link Result} describing the routing job
+     */
+    public Result reroute(final GModel model, final Collection<GConnection> connections) {
+
+        final ObstacleIndex obstacles = new ObstacleIndex();
+        for (final GNode node : model.getNodes()) {
+            obstacles.update(node, node.getX(), node.getY(), node.getWidth(), node.getHeight());
+        }
+
+        final List<Request> requests = createRequests(connections);
+
+        // Each worker only sets its own elements, so the list is not structurally modified while routing.
+        final List<List<Point2D>> routes = new ArrayList<>(Collections.nCopies(requests.size(), null));
+
+        final long start = System.nanoTime();
+
+        // One router per worker thread. The shared index is only read from here on.
+        final ThreadLocal<OrthogonalRouter> routers = ThreadLocal.withInitial(() -> new OrthogonalRouter(obstacles));
+
+        IntStream.range(0, requests.size()).parallel().forEach(i -> {
+            final Request request = requests.get(i);
+            routes.set(i, routers.get().route(request.start, request.end, request.startSide, request.endSide));
+        });
+
+        final long routingTime = System.nanoTime() - start;
+
+        final int routed = commit(model, requests, routes);
+        final Result result = new Result(connections.size(), routed, requests.size() - routed, routingTime);
+
+        LOGGER.info(LogMessages.CONNECTIONS_ROUTED, result.getRoutedCount(), result.getConnectionCount(),
+                String.format("%.0f", result.getConnectionsPerSecond()));
+
+        return result;
+    }
+
+    /**
+     * Captures the start and end positions and sides of all connections that can be routed.
+     */
+    private List<Request> createRequests(final Collection<GConnection> connections) {
+
+        final List<Request> requests = new ArrayList<>();
+
+        for (final GConnection connection : connections) {
+
+            if (connection.getSource() == null || connection.getTarget() == null) {
+                continue;
+            }
+
+            final String sourceType = connection.getSource().getType();
+            final String targetType = connection.getTarget().getType();
+
+            if (!DefaultConnectorTypes.isValid(sourceType) || !DefaultConnectorTypes.isValid(targetType)) {
+                continue;
+            }
+
+            final Point2D start = GeometryUtils.getConnectorPosition(connection.getSource(), skinLookup);
+            final Point2D end = GeometryUtils.getConnectorPosition(connection.getTarget(), skinLookup);
+
+            if (start != null && end != null) {
+                requests.add(new Request(connection, start, end, DefaultConnectorTypes.getSide(sourceType),
+                        DefaultConnectorTypes.getSide(targetType)));
+            }
+        }
+        return requests;
+    }
+
+    /**
+     * Sets the new joints of all routed connections in one command.
+     *
+     * @return the number of connections for which a route was found
+     */
+    private int commit(final GModel model, final List<Request> requests, final List<List<Point2D>> routes) {
+
+        final EditingDomain editingDomain = AdapterFactoryEditingDomain.getEditingDomainFor(model);
+        if (editingDomain == null) {
+            return 0;
+        }
+
+        final CompoundCommand command = new CompoundCommand();
+        int routed = 0;
+
+        for (int i = 0; i < requests.size(); i++) {
+
+            final Request request = requests.get(i);
+
+            List<Point2D> route = routes.get(i);
+            if (route == null) {
+                continue;
+            } else if (route.isEmpty()) {
+                route = RectangularPathCreator.createPath(request.start, request.end, request.startSide,
+                        request.endSide);
+            }
+
+            final List<Point2D> jointPositions = new ArrayList<>();
+            for (final Point2D point : route) {
+                jointPositions.add(new Point2D(GeometryUtils.moveOnPixel(point.getX()),
+                        GeometryUtils.moveOnPixel(point.getY())));
+            }
+
+            JointCommands.appendSetNewJoints(command, jointPositions, request.connection);
+            routed++;
+        }
+
+        if (!command.isEmpty() && command.canExecute()) {
+            editingDomain.getCommandStack().execute(command);
+            return routed;
+        }
+        return 0;
+    }
+
+    /**
+     * The positions and sides of a connection, captured on the JavaFX application thread.
+     */
+    private static class Request {
+
+        private final GConnection connection;
+        private final Point2D start;
+        private final Point2D end;
+        private final Side startSide;
+        private final Side endSide;
+
+        Request(final GConnection connection, final Point2D start, final Point2D end, final Side startSide,
+                final Side endSide) {
+
+            this.connection = connection;
+            this.start = start;
+            this.end = end;
+            this.startSide = startSide;
+            this.endSide = endSide;
+        }
+    }
+
+    /**
+     * The outcome of a routing job.
+     */
+    public static class Result {
+
+        private final int connectionCount;
+        private final int routedCount;
+        private final int failedCount;
+        private final long routingTime;
+
+        private Result(final int connectionCount, final int routedCount, final int failedCount,
+                final long routingTime) {
+
+            this.connectionCount = connectionCount;
+            this.routedCount = routedCount;
+            this.failedCount = failedCount;
+            this.routingTime = routingTime;
+        }
+
+        /**
+         * @return the number of connections passed to the job
+         */
+        public int getConnectionCount() {
+            return connectionCount;
+        }
+
+        /**
+         * @return the number of connections whose joints were updated
+         */
+        public int getRoutedCount() {
+            return routedCount;
+        }
+
+        /**
+         * @return the number of routable connections for which no route was found
+         */
+        public int getFailedCount() {
+            return failedCount;
+        }
+
+        /**
+         * @return the time spent calculating routes, in nanoseconds
+         */
+        public long getRoutingTime() {
+            return routingTime;
+        }
+
+        /**
+         * @return the number of connections routed per second of routing time
+         */
+        public double getConnectionsPerSecond() {
+
+            if (routingTime == 0) {
+                return 0;
+            }
+            return routedCount * (double) TimeUnit.SECONDS.toNanos(1) / routingTime;
+        }
+    }
+}
@@ -4,10 +4,7 @@
 package de.tesis.dynaware.grapheditor.core.connections;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 
 import org.eclipse.emf.common.command.CompoundCommand;
 
@@ -16,7 +13,7 @@ import de.tesis.dynaware.grapheditor.GConnectorStyle;
 import de.tesis.dynaware.grapheditor.GConnectorValidator;
 import de.tesis.dynaware.grapheditor.SkinLookup;
 import de.tesis.dynaware.grapheditor.core.DefaultGraphEditor;
-import de.tesis.dynaware.grapheditor.core.utils.EventUtils;
+import de.tesis.dynaware.grapheditor.core.skins.SkinManager;
 import de.tesis.dynaware.grapheditor.core.view.GraphEditorView;
 import de.tesis.dynaware.grapheditor.model.GConnection;
 import de.tesis.dynaware.grapheditor.model.GConnector;
@@ -24,9 +21,7 @@ import de.tesis.dynaware.grapheditor.model.GJoint;
 import de.tesis.dynaware.grapheditor.model.GModel;
 import de.tesis.dynaware.grapheditor.model.GNode;
 import de.tesis.dynaware.grapheditor.model.GraphFactory;
-import javafx.event.Event;
-import javafx.event.EventHandler;
-import javafx.event.EventType;
+import javafx.event.EventTarget;
 import javafx.geometry.Point2D;
 import javafx.scene.Node;
 import javafx.scene.input.MouseButton;
@@ -39,6 +34,20 @@ import javafx.scene.input.MouseEvent;
  * <p>
  * Namely, the creation, removal, and repositioning of connections.
  * </p>
+ *
+ * <p>
+ * A single set of event filters is added to the {@link GraphEditorView}. The connector an event belongs to is
+ * resolved from the event target via {@link SkinManager#findConnector(Node)}, so no handlers have to be added to or
+ * removed from individual connector skins when the model changes.
+ * </p>
+ *
+ * <p>
+ * Because filters on the view run before any handler or filter of a connector skin, an event consumed here never
+ * reaches the skin. Only events the manager acts on are consumed: a primary-button press on a connector that a
+ * connection can be dragged from, the drag-detected event that starts such a drag, and the released and mouse-drag
+ * events of a drag in progress. All other connector events, e.g. entered and exited events or presses with other
+ * buttons, reach connector skins and their nodes unchanged.
+ * </p>
  */
 public class ConnectorDragManager {
 
@@ -50,23 +59,6 @@ public class ConnectorDragManager {
 
     private GModel model;
 
-    private final EventHandler<MouseEvent> mouseExitedHandler = this::handleMouseExited;
-    /**
-     * Consume the Event so the parent container (ResizableBox/DraggableBox) does
-     * not move on connection detach
-     */
-    private final EventHandler<MouseEvent> mousePressedHandler = Event::consume;
-    
-    private final List<Node> managedConnectorSkins = new ArrayList<>();
-    
-    private final Map<Node, EventHandler<MouseEvent>> mouseEnteredHandlers = new HashMap<>();
-    private final Map<Node, EventHandler<MouseEvent>> mouseReleasedHandlers = new HashMap<>();
-    private final Map<Node, EventHandler<MouseEvent>> dragDetectedHandlers = new HashMap<>();
-    private final Map<Node, EventHandler<MouseEvent>> mouseDraggedHandlers = new HashMap<>();
-    private final Map<Node, EventHandler<MouseDragEvent>> mouseDragEnteredHandlers = new HashMap<>();
-    private final Map<Node, EventHandler<MouseDragEvent>> mouseDragExitedHandlers = new HashMap<>();
-    private final Map<Node, EventHandler<MouseDragEvent>> mouseDragReleasedHandlers = new HashMap<>();
-
     private GConnectorValidator validator = new DefaultConnectorValidator();
 
     private GConnector hoveredConnector;
@@ -100,6 +92,8 @@ public class ConnectorDragManager {
         this.connectionEventManager = connectionEventManager;
 
         tailManager = new TailManager(skinLookup, view);
+
+        addEventFilters();
     }
 
     /**
@@ -111,8 +105,8 @@ public class ConnectorDragManager {
     public void initialize(final GModel model) {
 
         this.model = model;
+        tailManager.initialize(model);
         clearTrackingParameters();
-        setHandlers();
     }
 
     /**
@@ -142,123 +136,133 @@ public class ConnectorDragManager {
         repositionAllowed = true;
     }
 
-    public void addConnector(final GConnector connector) {
-        addMouseHandlers(connector);
-    }
-
+    /**
+     * Notifies the drag manager that a connector was removed.
+     *
+     * <p>
+     * If the connector was part of a drag gesture in progress, the gesture is
+     * cleaned up.
+     * </p>
+     *
+     * @param connector
+     *            the removed {@link GConnector}
+     */
     public void removeConnector(final GConnector connector) {
-        
-        final GConnectorSkin connectorSkin = skinLookup.lookupConnector(connector);
-        if (connectorSkin != null) {
-            final Node root = connectorSkin.getRoot();
-            if (root != null) {
-
-                removeSingleEventHandler(root, mouseEnteredHandlers, MouseEvent.MOUSE_ENTERED);
-                removeSingleEventHandler(root, mouseReleasedHandlers, MouseEvent.MOUSE_RELEASED);
-                removeSingleEventHandler(root, dragDetectedHandlers, MouseEvent.DRAG_DETECTED);
-                removeSingleEventHandler(root, mouseDraggedHandlers, MouseEvent.MOUSE_DRAGGED);
-                removeSingleEventHandler(root, mouseDragEnteredHandlers, MouseDragEvent.MOUSE_DRAG_ENTERED);
-                removeSingleEventHandler(root, mouseDragExitedHandlers, MouseDragEvent.MOUSE_DRAG_EXITED);
-                removeSingleEventHandler(root, mouseDragReleasedHandlers, MouseDragEvent.MOUSE_DRAG_RELEASED);
-
-                removeGeneralEventHandlers(root);
-                managedConnectorSkins.remove(root);
-            }
-        }
-        
+
         // the connector's tail we are dragging around has been removed..
         if(sourceConnector == connector || targetConnector == connector) {
             clearTrackingParameters();
         }
     }
-    
-    private void removeGeneralEventHandlers(final Node node) {
-        node.removeEventHandler(MouseEvent.MOUSE_PRESSED, mousePressedHandler);
-        node.removeEventHandler(MouseEvent.MOUSE_EXITED, mousePressedHandler);
-    }
-    
-    private <T extends Event> void removeSingleEventHandler(final Node node, final Map<Node, EventHandler<T>> eventHandlerMap,
-            final EventType<T> eventType) {
-        final EventHandler<T> handler = eventHandlerMap.remove(node);
-        if (handler != null) {
-            node.removeEventHandler(eventType, handler);
-        }
-    }
 
     /**
-     * Sets all mouse and mouse-drag handlers for all connectors in the current
-     * model.
+     * Adds the event filters that handle all connector mouse and mouse-drag
+     * events to the view.
+     *
+     * <p>
+     * Filters are used so that a press on a connector can be consumed before
+     * the node skin containing the connector starts to move. Events are only
+     * consumed if they are part of a connection drag. Entered and exited
+     * events only bubble as their <b>_TARGET</b> variants, and are only
+     * handled if their target is the connector root itself.
+     * </p>
      */
-    private void setHandlers() {
-
-        EventUtils.removeEventHandlers(mouseEnteredHandlers, MouseEvent.MOUSE_ENTERED);
-        EventUtils.removeEventHandlers(mouseReleasedHandlers, MouseEvent.MOUSE_RELEASED);
-        EventUtils.removeEventHandlers(dragDetectedHandlers, MouseEvent.DRAG_DETECTED);
-        EventUtils.removeEventHandlers(mouseDraggedHandlers, MouseEvent.MOUSE_DRAGGED);
-        EventUtils.removeEventHandlers(mouseDragEnteredHandlers, MouseDragEvent.MOUSE_DRAG_ENTERED);
-        EventUtils.removeEventHandlers(mouseDragExitedHandlers, MouseDragEvent.MOUSE_DRAG_EXITED);
-        EventUtils.removeEventHandlers(mouseDragReleasedHandlers, MouseDragEvent.MOUSE_DRAG_RELEASED);
-
-        for (final Iterator<Node> iter = managedConnectorSkins.iterator(); iter.hasNext();) {
-            final Node next = iter.next();
-            removeGeneralEventHandlers(next);
-            iter.remove();
-        }
-        
-        for (final GNode node : model.getNodes()) {
-            for (final GConnector connector : node.getConnectors()) {
-                addMouseHandlers(connector);
+    private void addEventFilters() {
+
+        view.addEventFilter(MouseEvent.MOUSE_ENTERED_TARGET, event -> {
+            final GConnectorSkin skin = lookupRootSkin(event.getTarget());
+            if (skin != null) {
+                handleMouseEntered(event, skin.getItem());
             }
-        }
+        });
+
+        view.addEventFilter(MouseEvent.MOUSE_EXITED_TARGET, event -> {
+            if (lookupRootSkin(event.getTarget()) != null) {
+                handleMouseExited(event);
+            }
+        });
+
+        // Consume the Event so the parent container (ResizableBox/DraggableBox) does not move on connection detach.
+        view.addEventFilter(MouseEvent.MOUSE_PRESSED, event -> {
+            final GConnectorSkin skin = lookupSkin(event.getTarget());
+            if (skin != null) {
+                handleMousePressed(event, skin.getItem());
+            }
+        });
+
+        view.addEventFilter(MouseEvent.MOUSE_RELEASED, event -> {
+            if (lookupSkin(event.getTarget()) != null) {
+                handleMouseReleased(event);
+            }
+        });
+
+        view.addEventFilter(MouseEvent.DRAG_DETECTED, event -> {
+            final GConnectorSkin skin = lookupSkin(event.getTarget());
+            if (skin != null) {
+                handleDragDetected(event, skin);
+            }
+        });
+
+        view.addEventFilter(MouseEvent.MOUSE_DRAGGED, event -> {
+            final GConnectorSkin skin = lookupSkin(event.getTarget());
+            if (skin != null) {
+                handleMouseDragged(event, skin.getItem());
+            }
+        });
+
+        view.addEventFilter(MouseDragEvent.MOUSE_DRAG_ENTERED_TARGET, event -> {
+            final GConnectorSkin skin = lookupRootSkin(event.getTarget());
+            if (skin != null) {
+                handleDragEntered(event, skin);
+            }
+        });
+
+        view.addEventFilter(MouseDragEvent.MOUSE_DRAG_EXITED_TARGET, event -> {
+            final GConnectorSkin skin = lookupRootSkin(event.getTarget());
+            if (skin != null) {
+                handleDragExited(event, skin);
+            }
+        });
+
+        view.addEventFilter(MouseDragEvent.MOUSE_DRAG_RELEASED, event -> {
+            final GConnectorSkin skin = lookupSkin(event.getTarget());
+            if (skin != null) {
+                handleDragReleased(event, skin);
+            }
+        });
     }
 
     /**
-     * Adds mouse handlers to a particular connector.
+     * Looks up the skin of the connector that the given event target belongs
+     * to.
      *
-     * @param connector
-     *            the {@link GConnector} to which mouse handlers should be added
+     * @param target
+     *            the target of a mouse event
+     * @return the {@link GConnectorSkin} containing the target, or
+     *         {@code null} if the target is not part of a connector
      */
-    private void addMouseHandlers(final GConnector connector) {
-
-        final GConnectorSkin connectorSkin = skinLookup.lookupConnector(connector);
-        if (connectorSkin != null) {
+    private GConnectorSkin lookupSkin(final EventTarget target) {
 
-            final Node root = skinLookup.lookupConnector(connector).getRoot();
-            if(root == null || mouseEnteredHandlers.containsKey(root)) {
-                return;
-            }
-            
-            final EventHandler<MouseEvent> newMouseEnteredHandler = event -> handleMouseEntered(event, connector);
-            final EventHandler<MouseEvent> newMouseReleasedHandler = event -> handleMouseReleased(event);
-            
-            final EventHandler<MouseEvent> newDragDetectedHandler = event -> handleDragDetected(event, connectorSkin);
-            final EventHandler<MouseEvent> newMouseDraggedHandler = event -> handleMouseDragged(event, connector);
-            final EventHandler<MouseDragEvent> newMouseDragEnteredHandler = event -> handleDragEntered(event, connectorSkin);
-            final EventHandler<MouseDragEvent> newMouseDragExitedHandler = event -> handleDragExited(event, connectorSkin);
-            final EventHandler<MouseDragEvent> newMouseDragReleasedHandler = event -> handleDragReleased(event, connectorSkin);
-
-            root.addEventHandler(MouseEvent.MOUSE_ENTERED, newMouseEnteredHandler);
-            root.addEventHandler(MouseEvent.MOUSE_EXITED, mouseExitedHandler);
-            root.addEventHandler(MouseEvent.MOUSE_PRESSED, mousePressedHandler);
-            root.addEventHandler(MouseEvent.MOUSE_RELEASED, newMouseReleasedHandler);
-            
-            root.addEventHandler(MouseEvent.DRAG_DETECTED, newDragDetectedHandler);
-            root.addEventHandler(MouseEvent.MOUSE_DRAGGED, newMouseDraggedHandler);
-            root.addEventHandler(MouseDragEvent.MOUSE_DRAG_ENTERED, newMouseDragEnteredHandler);
-            root.addEventHandler(MouseDragEvent.MOUSE_DRAG_EXITED, newMouseDragExitedHandler);
-            root.addEventHandler(MouseDragEvent.MOUSE_DRAG_RELEASED, newMouseDragReleasedHandler);
-            
-            managedConnectorSkins.add(root);
-            
-            mouseEnteredHandlers.put(root, newMouseEnteredHandler);
-            mouseReleasedHandlers.put(root, newMouseReleasedHandler);
-            
-            dragDetectedHandlers.put(root, newDragDetectedHandler);
-            mouseDraggedHandlers.put(root, newMouseDraggedHandler);
-            mouseDragEnteredHandlers.put(root, newMouseDragEnteredHandler);
-            mouseDragExitedHandlers.put(root, newMouseDragExitedHandler);
-            mouseDragReleasedHandlers.put(root, newMouseDragReleasedHandler);
+        if (model == null || !(target instanceof Node)) {
+            return null;
         }
+
+        final GConnector connector = SkinManager.findConnector((Node) target);
+        return connector == null ? null : skinLookup.lookupConnector(connector);
+    }
+
+    /**
+     * Looks up the connector skin whose root is the given event target.
+     *
+     * @param target
+     *            the target of a mouse event
+     * @return the {@link GConnectorSkin} whose root is the target, or
+     *         {@code null} if the target is not a connector root
+     */
+    private GConnectorSkin lookupRootSkin(final EventTarget target) {
+
+        final GConnectorSkin skin = lookupSkin(target);
+        return skin != null && skin.getRoot() == target ? skin : null;
     }
 
     /**
@@ -268,9 +272,7 @@ public class ConnectorDragManager {
      * @param connector the {@link GConnector} on which this event occurred
      */
     private void handleMouseEntered(final MouseEvent event, final GConnector connector) {
-
         hoveredConnector = connector;
-        event.consume();
     }
     
     /**
@@ -279,9 +281,28 @@ public class ConnectorDragManager {
      * @param event a mouse-exited event
      */
     private void handleMouseExited(final MouseEvent event) {
-
         hoveredConnector = null;
-        event.consume();
+    }
+
+    /**
+     * Handles mouse-pressed events on the given connector.
+     *
+     * <p>
+     * The event is consumed if a connection can be dragged from the connector,
+     * so that the node does not move or get selected instead.
+     * </p>
+     *
+     * @param event
+     *            a mouse-pressed event
+     * @param connector
+     *            the {@link GConnector} on which this event occurred
+     */
+    private void handleMousePressed(final MouseEvent event, final GConnector connector) {
+
+        if (event.getButton().equals(MouseButton.PRIMARY)
+                && (checkCreatable(connector) || checkRemovable(connector))) {
+            event.consume();
+        }
     }
 
 
@@ -293,6 +314,8 @@ public class ConnectorDragManager {
      */
     private void handleMouseReleased(final MouseEvent event) {
 
+        final boolean dragging = sourceConnector != null || removalConnector != null || dragInProgress;
+
         final GConnectorSkin targetConnectorSkin;
         if (targetConnector != null && (targetConnectorSkin = skinLookup.lookupConnector(targetConnector)) != null) {
             targetConnectorSkin.applyStyle(GConnectorStyle.DEFAULT);
@@ -301,10 +324,13 @@ public class ConnectorDragManager {
         sourceConnector = null;
         removalConnector = null;
         repositionAllowed = true;
+        dragInProgress = false;
 
         tailManager.cleanUp();
 
-        event.consume();
+        if (dragging) {
+            event.consume();
+        }
     }
 
     /**
@@ -336,8 +362,10 @@ public class ConnectorDragManager {
             connectorSkin.getRoot().startFullDrag();
             dragInProgress = true;
         }
-        
-        event.consume();
+
+        if (dragInProgress) {
+            event.consume();
+        }
     }
 
     /**
@@ -391,9 +419,9 @@ public class ConnectorDragManager {
             } else {
                 connectorSkin.applyStyle(GConnectorStyle.DRAG_OVER_FORBIDDEN);
             }
-        }
 
-        event.consume();
+            event.consume();
+        }
     }
 
     /**
@@ -406,6 +434,10 @@ public class ConnectorDragManager {
      */
     private void handleDragExited(final MouseEvent event, final GConnectorSkin connectorSkin) {
 
+        if (!dragInProgress) {
+            return;
+        }
+
         connectorSkin.applyStyle(GConnectorStyle.DEFAULT);
         repositionAllowed = true;
 
@@ -424,7 +456,7 @@ public class ConnectorDragManager {
      */
     private void handleDragReleased(final MouseEvent event, final GConnectorSkin connectorSkin) {
 
-        if (event.isConsumed()) {
+        if (!dragInProgress || event.isConsumed()) {
             return;
         }
 
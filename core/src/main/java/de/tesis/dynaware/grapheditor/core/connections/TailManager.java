@@ -1,25 +1,39 @@
 package de.tesis.dynaware.grapheditor.core.connections;
 
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 
 import de.tesis.dynaware.grapheditor.GTailSkin;
 import de.tesis.dynaware.grapheditor.SkinLookup;
+import de.tesis.dynaware.grapheditor.core.skins.defaults.DefaultTailSkin;
+import de.tesis.dynaware.grapheditor.core.skins.defaults.tail.ObstacleIndex;
+import de.tesis.dynaware.grapheditor.core.skins.defaults.tail.OrthogonalRouter;
 import de.tesis.dynaware.grapheditor.core.view.GraphEditorView;
 import de.tesis.dynaware.grapheditor.model.GConnection;
 import de.tesis.dynaware.grapheditor.model.GConnector;
+import de.tesis.dynaware.grapheditor.model.GModel;
+import de.tesis.dynaware.grapheditor.model.GNode;
 import de.tesis.dynaware.grapheditor.utils.GeometryUtils;
 import javafx.geometry.Point2D;
 import javafx.scene.input.MouseEvent;
 
 /**
  * Responsible for creating, drawing, and removing tails.
+ *
+ * <p>
+ * Keeps an {@link OrthogonalRouter} whose obstacles are the nodes of the current model, so that tails can be drawn
+ * around nodes. The obstacles are brought up to date whenever a tail is created. Only nodes that were added, removed,
+ * or moved since the last time are re-indexed.
+ * </p>
  */
 public class TailManager {
 
     private final SkinLookup skinLookup;
     private final GraphEditorView view;
+    private final OrthogonalRouter router = new OrthogonalRouter();
 
+    private GModel model;
     private GTailSkin tailSkin;
 
     private Point2D sourcePosition;
@@ -36,6 +50,15 @@ public class TailManager {
         this.view = view;
     }
 
+    /**
+     * Initializes the tail manager for the given model.
+     *
+     * @param model the {@link GModel} currently being edited
+     */
+    public void initialize(final GModel model) {
+        this.model = model;
+    }
+
     /**
      * Creates a new tail and adds it to the view.
      * 
@@ -48,6 +71,7 @@ public class TailManager {
         if (tailSkin == null) {
 
             tailSkin = skinLookup.lookupTail(connector);
+            setRouter(router);
 
             sourcePosition = GeometryUtils.getConnectorPosition(connector, skinLookup);
             final Point2D cursorPosition = getScaledPosition(GeometryUtils.getCursorPosition(event, view));
@@ -80,6 +104,7 @@ public class TailManager {
         }
 
         tailSkin = skinLookup.lookupTail(newSource);
+        setRouter(router);
 
         sourcePosition = GeometryUtils.getConnectorPosition(newSource, skinLookup);
         final Point2D cursorPosition = getScaledPosition(GeometryUtils.getCursorPosition(event, view));
@@ -143,11 +168,40 @@ public class TailManager {
         jointPositions = null;
 
         if (tailSkin != null) {
+            setRouter(null);
             view.remove(tailSkin);
             tailSkin = null;
         }
     }
 
+    /**
+     * Passes the router to the current tail skin, if it supports routing.
+     *
+     * <p>
+     * When a router is set, the obstacles are first updated from the nodes in the model.
+     * </p>
+     *
+     * @param router the {@link OrthogonalRouter} to use, or {@code null} to stop routing
+     */
+    private void setRouter(final OrthogonalRouter router) {
+
+        if (!(tailSkin instanceof DefaultTailSkin)) {
+            return;
+        }
+
+        if (router != null && model != null) {
+
+            final ObstacleIndex obstacles = router.getObstacles();
+            obstacles.retainAll(new HashSet<>(model.getNodes()));
+
+            for (final GNode node : model.getNodes()) {
+                obstacles.update(node, node.getX(), node.getY(), node.getWidth(), node.getHeight());
+            }
+        }
+
+        ((DefaultTailSkin) tailSkin).setRouter(router);
+    }
+
     /**
      * Corrects the cursor position in the case where scale transforms are applied.
      * 
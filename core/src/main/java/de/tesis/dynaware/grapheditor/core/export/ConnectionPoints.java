@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.export;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.geometry.Point2D;
+import de.tesis.dynaware.grapheditor.model.GConnection;
+
+/**
+ * The points of all connections in a model, stored in primitive arrays.
+ *
+ * <p>
+ * The points of each connection are created once by {@link ModelGeometry#createPoints(GConnection)}. They are then
+ * used for the bounds of the image, the {@link SegmentIndex} and the connection paths, without being created again.
+ * Storing them takes 16 bytes per point and no objects per connection.
+ * </p>
+ */
+final class ConnectionPoints {
+
+    // The index of the first point of each connection, plus the total point count at the end.
+    private final int[] firstPoints;
+    private final double[] xs;
+    private final double[] ys;
+
+    private final double minX;
+    private final double minY;
+    private final double maxX;
+    private final double maxY;
+
+    /**
+     * Creates the points of the given connections.
+     *
+     * @param connections the connections of a model, in model order
+     */
+    ConnectionPoints(final List<GConnection> connections) {
+
+        firstPoints = new int[connections.size() + 1];
+        for (int i = 0; i < connections.size(); i++) {
+            firstPoints[i + 1] = firstPoints[i] + ModelGeometry.getPointCount(connections.get(i));
+        }
+
+        final int pointCount = firstPoints[connections.size()];
+        xs = new double[pointCount];
+        ys = new double[pointCount];
+
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+
+        for (int i = 0; i < connections.size(); i++) {
+
+            final List<Point2D> points = ModelGeometry.createPoints(connections.get(i));
+            if (points == null) {
+                continue;
+            }
+
+            for (int j = 0; j < points.size(); j++) {
+
+                final double x = points.get(j).getX();
+                final double y = points.get(j).getY();
+
+                xs[firstPoints[i] + j] = x;
+                ys[firstPoints[i] + j] = y;
+
+                minX = Math.min(minX, x);
+                minY = Math.min(minY, y);
+                maxX = Math.max(maxX, x);
+                maxY = Math.max(maxY, y);
+            }
+        }
+
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+    }
+
+    /**
+     * @return the number of connections
+     */
+    int getConnectionCount() {
+        return firstPoints.length - 1;
+    }
+
+    /**
+     * @return the number of points of all connections
+     */
+    int getPointCount() {
+        return xs.length;
+    }
+
+    /**
+     * Gets the index of the first point of a connection.
+     *
+     * @param connection the index of the connection, or the connection count to get the total point count
+     * @return the index of the connection's first point
+     */
+    int getFirstPoint(final int connection) {
+        return firstPoints[connection];
+    }
+
+    /**
+     * Gets the number of points of a connection.
+     *
+     * @param connection the index of the connection
+     * @return the number of points of the connection, or 0 if it cannot be drawn
+     */
+    int getPointCount(final int connection) {
+        return firstPoints[connection + 1] - firstPoints[connection];
+    }
+
+    /**
+     * Gets the index of the connection that the given point belongs to.
+     *
+     * @param point the index of a point
+     * @return the index of the connection
+     */
+    int getConnection(final int point) {
+
+        int low = 0;
+        int high = firstPoints.length - 2;
+
+        while (low < high) {
+            final int middle = (low + high + 1) >>> 1;
+            if (firstPoints[middle] <= point) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param point the index of a point
+     * @return the x-position of the point
+     */
+    double getX(final int point) {
+        return xs[point];
+    }
+
+    /**
+     * @param point the index of a point
+     * @return the y-position of the point
+     */
+    double getY(final int point) {
+        return ys[point];
+    }
+
+    /**
+     * Creates the list of points of a connection.
+     *
+     * @param connection the index of the connection
+     * @return the points of the connection, empty if it cannot be drawn
+     */
+    List<Point2D> getPoints(final int connection) {
+
+        final List<Point2D> points = new ArrayList<>(getPointCount(connection));
+
+        for (int i = firstPoints[connection]; i < firstPoints[connection + 1]; i++) {
+            points.add(new Point2D(xs[i], ys[i]));
+        }
+        return points;
+    }
+
+    /**
+     * @return the smallest x-position of all points, or positive infinity if there are none
+     */
+    double getMinX() {
+        return minX;
+    }
+
+    /**
+     * @return the smallest y-position of all points, or positive infinity if there are none
+     */
+    double getMinY() {
+        return minY;
+    }
+
+    /**
+     * @return the largest x-position of all points, or negative infinity if there are none
+     */
+    double getMaxX() {
+        return maxX;
+    }
+
+    /**
+     * @return the largest y-position of all points, or negative infinity if there are none
+     */
+    double getMaxY() {
+        return maxY;
+    }
+}
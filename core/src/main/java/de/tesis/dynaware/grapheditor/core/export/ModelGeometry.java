@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.export;
+
+import java.util.List;
+
+import javafx.geometry.Point2D;
+import javafx.geometry.Side;
+import de.tesis.dynaware.grapheditor.core.skins.defaults.DefaultConnectorSkin;
+import de.tesis.dynaware.grapheditor.core.skins.defaults.DefaultNodeSkin;
+import de.tesis.dynaware.grapheditor.core.skins.defaults.connection.SimpleConnectionSkin;
+import de.tesis.dynaware.grapheditor.core.skins.defaults.utils.ConnectorLayoutUtils;
+import de.tesis.dynaware.grapheditor.core.skins.defaults.utils.DefaultConnectorTypes;
+import de.tesis.dynaware.grapheditor.core.skins.defaults.utils.RectangularConnectionUtils;
+import de.tesis.dynaware.grapheditor.core.view.DefaultConnectionLayouter;
+import de.tesis.dynaware.grapheditor.model.GConnection;
+import de.tesis.dynaware.grapheditor.model.GConnector;
+import de.tesis.dynaware.grapheditor.model.GNode;
+import de.tesis.dynaware.grapheditor.utils.GeometryUtils;
+
+/**
+ * Computes the geometry of the default skins directly from the model, without creating any skins.
+ *
+ * <p>
+ * Connectors are laid out with the same {@link ConnectorLayoutUtils} as the {@link DefaultNodeSkin} uses for its
+ * {@link DefaultConnectorSkin} instances. Connection points are created like in {@link DefaultConnectionLayouter}, with
+ * the first and last joints aligned to their connectors by the same {@link RectangularConnectionUtils} as in the
+ * {@link SimpleConnectionSkin}.
+ * </p>
+ */
+final class ModelGeometry {
+
+    /**
+     * The width and height of a {@link DefaultConnectorSkin}.
+     */
+    static final double CONNECTOR_SIZE = 25;
+
+    /**
+     * Static class, not to be instantiated.
+     */
+    private ModelGeometry() {
+    }
+
+    /**
+     * Checks whether the given connection can be drawn, i.e. whether both its connectors belong to a node.
+     *
+     * @param connection a {@link GConnection} instance
+     * @return {@code true} if the connection has a source and a target inside a node
+     */
+    static boolean isDrawable(final GConnection connection) {
+
+        final GConnector source = connection.getSource();
+        final GConnector target = connection.getTarget();
+
+        return source != null && target != null && source.getParent() != null && target.getParent() != null;
+    }
+
+    /**
+     * Gets the number of points that {@link #createPoints(GConnection)} returns for the given connection.
+     *
+     * @param connection a {@link GConnection} instance
+     * @return the number of points of the connection, or 0 if it cannot be drawn
+     */
+    static int getPointCount(final GConnection connection) {
+        return isDrawable(connection) ? connection.getJoints().size() + 2 : 0;
+    }
+
+    /**
+     * Creates the list of points for the given connection.
+     *
+     * <p>
+     * The points are the source position, the joint positions and the target position, in that order.
+     * </p>
+     *
+     * @param connection a {@link GConnection} instance
+     * @return a list of the given connection's points, or {@code null} if it cannot be drawn
+     */
+    static List<Point2D> createPoints(final GConnection connection) {
+
+        if (!isDrawable(connection)) {
+            return null;
+        }
+
+        // Middle: joint positions
+        final List<Point2D> points = GeometryUtils.getJointPositions(connection);
+
+        // Start: Source position
+        points.add(0, getConnectorPosition(connection.getSource()));
+
+        // End: Target position
+        points.add(getConnectorPosition(connection.getTarget()));
+
+        if (points.size() > 2) {
+            final int last = points.size() - 2;
+            final boolean firstHorizontal = RectangularConnectionUtils.isSegmentHorizontal(connection, 0);
+            final boolean lastHorizontal = RectangularConnectionUtils.isSegmentHorizontal(connection, last);
+
+            RectangularConnectionUtils.alignJoint(points, firstHorizontal, true);
+            RectangularConnectionUtils.alignJoint(points, lastHorizontal, false);
+        }
+
+        return points;
+    }
+
+    /**
+     * Gets the position where connections are attached to the given connector.
+     *
+     * @param connector a {@link GConnector} inside a node
+     * @return the position of the connector, in the same coordinates as the node
+     */
+    static Point2D getConnectorPosition(final GConnector connector) {
+
+        final GNode node = connector.getParent();
+        final Point2D layout = getConnectorLayoutPosition(connector);
+        final Point2D position = ConnectorLayoutUtils.getConnectionPosition(getType(connector), layout.getX(),
+                layout.getY(), node.getWidth(), node.getHeight(), CONNECTOR_SIZE, CONNECTOR_SIZE);
+
+        return new Point2D(GeometryUtils.moveOnPixel(node.getX() + position.getX()),
+                GeometryUtils.moveOnPixel(node.getY() + position.getY()));
+    }
+
+    /**
+     * Gets the position of the top-left corner of the given connector's graphic, relative to its node.
+     *
+     * @param connector a {@link GConnector} inside a node
+     * @return the layout position of the connector inside its node
+     */
+    static Point2D getConnectorLayoutPosition(final GConnector connector) {
+
+        final GNode node = connector.getParent();
+        final Side side = getSide(connector);
+
+        int count = 0;
+        int index = 0;
+
+        for (final GConnector other : node.getConnectors()) {
+            if (other == connector) {
+                index = count;
+            }
+            if (getSide(other).equals(side)) {
+                count++;
+            }
+        }
+
+        return ConnectorLayoutUtils.getLayoutPosition(getType(connector), index, count, node.getWidth(),
+                node.getHeight(), CONNECTOR_SIZE, CONNECTOR_SIZE);
+    }
+
+    /**
+     * Gets the type of the given connector as the {@link DefaultNodeSkin} treats it.
+     *
+     * <p>
+     * The node skin replaces unsupported types with {@link DefaultConnectorTypes#LEFT_INPUT}. The model is not changed
+     * here, the connector is only treated as if it had been.
+     * </p>
+     *
+     * @param connector a {@link GConnector} instance
+     * @return one of the {@link DefaultConnectorTypes}
+     */
+    static String getType(final GConnector connector) {
+
+        final String type = connector.getType();
+        return DefaultConnectorTypes.isValid(type) ? type : DefaultConnectorTypes.LEFT_INPUT;
+    }
+
+    /**
+     * Gets the side of the node that the given connector is on.
+     */
+    private static Side getSide(final GConnector connector) {
+        return DefaultConnectorTypes.getSide(getType(connector));
+    }
+}
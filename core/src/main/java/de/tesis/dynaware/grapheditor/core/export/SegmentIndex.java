@@ -0,0 +1,320 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.export;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import de.tesis.dynaware.grapheditor.core.skins.defaults.connection.IntersectionFinder;
+
+/**
+ * A spatial index of the segments of all connections in a model, used to find intersections without skins.
+ *
+ * <p>
+ * Finds the same intersections as the {@link IntersectionFinder}, but instead of comparing every segment with every
+ * other one it only compares segments that share a cell of a uniform grid. The points are shared with the exporter
+ * via {@link ConnectionPoints} and the grid cells are stored as offsets into a single array of segment indices, so the
+ * index takes a few dozen bytes per segment and no objects per connection.
+ * </p>
+ *
+ * <p>
+ * Connections are stacked in the order they appear in the model, which is also the order their skins are added to the
+ * view. A connection is therefore <b>behind</b> all connections that come after it in the model.
+ * </p>
+ */
+final class SegmentIndex {
+
+    private static final int MAX_CELLS_PER_SIDE = 1024;
+    private static final int MAX_CELLS_PER_SEGMENT = 4;
+
+    private final ConnectionPoints points;
+
+    private final double minX;
+    private final double minY;
+    private final double cellWidth;
+    private final double cellHeight;
+    private final int columns;
+    private final int rows;
+
+    // Segments with a vertical extent, which horizontal segments can cross. Keyed by their start x.
+    private final int[] verticalCellStarts;
+    private final int[] verticalSegments;
+
+    // Segments with a horizontal extent, which vertical segments can cross. Keyed by their start y.
+    private final int[] horizontalCellStarts;
+    private final int[] horizontalSegments;
+
+    /**
+     * Creates an index of the segments of the given connection points.
+     *
+     * @param points the points of all connections of a model, in model order
+     */
+    SegmentIndex(final ConnectionPoints points) {
+
+        this.points = points;
+
+        final int pointCount = points.getPointCount();
+
+        final double width = pointCount == 0 ? 0 : points.getMaxX() - points.getMinX();
+        final double height = pointCount == 0 ? 0 : points.getMaxY() - points.getMinY();
+        final int side = getCellsPerSide(pointCount, width, height);
+
+        minX = pointCount == 0 ? 0 : points.getMinX();
+        minY = pointCount == 0 ? 0 : points.getMinY();
+        columns = side;
+        rows = side;
+        cellWidth = Math.max(1, width / columns);
+        cellHeight = Math.max(1, height / rows);
+
+        verticalCellStarts = new int[columns * rows + 1];
+        verticalSegments = fillCells(verticalCellStarts, true);
+
+        horizontalCellStarts = new int[columns * rows + 1];
+        horizontalSegments = fillCells(horizontalCellStarts, false);
+    }
+
+    /**
+     * Finds the intersection points of other connections with a particular connection segment.
+     *
+     * <p>
+     * Works exactly like {@link IntersectionFinder#find(java.util.Map, boolean)} does for a single segment. The result
+     * is sorted in the direction of the segment.
+     * </p>
+     *
+     * @param connection the index of the connection in the model
+     * @param index the index of the connection segment
+     * @param isHorizontal {@code true} if the connection segment is horizontal
+     * @param behind {@code true} to find intersections with the connections that are behind
+     * @return a list of positions along the segment where intersections occur
+     */
+    List<Double> find(final int connection, final int index, final boolean isHorizontal, final boolean behind) {
+
+        final List<Double> intersections = new ArrayList<>();
+
+        final int start = points.getFirstPoint(connection) + index;
+        final int end = start + 1;
+
+        final boolean isDecreasing;
+
+        if (isHorizontal) {
+
+            final int row = getRow(points.getY(start));
+            final int firstColumn = getColumn(Math.min(points.getX(start), points.getX(end)));
+            final int lastColumn = getColumn(Math.max(points.getX(start), points.getX(end)));
+
+            for (int column = firstColumn; column <= lastColumn; column++) {
+
+                final int cell = row * columns + column;
+
+                for (int i = verticalCellStarts[cell]; i < verticalCellStarts[cell + 1]; i++) {
+
+                    final int other = verticalSegments[i];
+
+                    if (filterSegment(connection, index, other, behind)
+                            && checkIntersection(start, end, other, other + 1)) {
+                        intersections.add(points.getX(other));
+                    }
+                }
+            }
+
+            isDecreasing = points.getX(end) < points.getX(start);
+
+        } else {
+
+            final int column = getColumn(points.getX(start));
+            final int firstRow = getRow(Math.min(points.getY(start), points.getY(end)));
+            final int lastRow = getRow(Math.max(points.getY(start), points.getY(end)));
+
+            for (int row = firstRow; row <= lastRow; row++) {
+
+                final int cell = row * columns + column;
+
+                for (int i = horizontalCellStarts[cell]; i < horizontalCellStarts[cell + 1]; i++) {
+
+                    final int other = horizontalSegments[i];
+
+                    if (filterSegment(connection, index, other, behind)
+                            && checkIntersection(other, other + 1, start, end)) {
+                        intersections.add(points.getY(other));
+                    }
+                }
+            }
+
+            isDecreasing = points.getY(end) < points.getY(start);
+        }
+
+        Collections.sort(intersections);
+        if (isDecreasing) {
+            Collections.reverse(intersections);
+        }
+
+        return intersections;
+    }
+
+    /**
+     * Gets the number of grid cells along each side.
+     *
+     * <p>
+     * Aims for about one point per cell, but uses fewer cells if the segments are so long that they would be stored in
+     * more than a few cells each on average. This keeps the size of the index proportional to the number of segments
+     * even for models where most connections cross the whole diagram.
+     * </p>
+     */
+    private int getCellsPerSide(final int pointCount, final double width, final double height) {
+
+        int segmentCount = 0;
+        double relativeLength = 0;
+
+        for (int connection = 0; connection < points.getConnectionCount(); connection++) {
+            for (int p = points.getFirstPoint(connection); p < points.getFirstPoint(connection + 1) - 1; p++) {
+                segmentCount++;
+                relativeLength += width == 0 ? 0 : Math.abs(points.getX(p + 1) - points.getX(p)) / width;
+                relativeLength += height == 0 ? 0 : Math.abs(points.getY(p + 1) - points.getY(p)) / height;
+            }
+        }
+
+        double side = Math.ceil(Math.sqrt(pointCount));
+        if (relativeLength > 0) {
+            side = Math.min(side, MAX_CELLS_PER_SEGMENT * segmentCount / relativeLength);
+        }
+        return (int) Math.max(1, Math.min(MAX_CELLS_PER_SIDE, side));
+    }
+
+    /**
+     * Fills the grid cells with the segments that can be crossed in one direction.
+     *
+     * <p>
+     * A segment is identified by the index of its start point. The segments of cell {@code c} are stored between
+     * {@code cellStarts[c]} and {@code cellStarts[c + 1]} in the returned array.
+     * </p>
+     *
+     * @param cellStarts the array to store the start of each cell in
+     * @param vertical {@code true} for segments with a vertical extent, {@code false} for a horizontal extent
+     * @return the segments of all cells
+     */
+    private int[] fillCells(final int[] cellStarts, final boolean vertical) {
+
+        for (int connection = 0; connection < points.getConnectionCount(); connection++) {
+            for (int p = points.getFirstPoint(connection); p < points.getFirstPoint(connection + 1) - 1; p++) {
+                if (hasExtent(p, vertical)) {
+                    forEachCell(p, vertical, cell -> cellStarts[cell + 1]++);
+                }
+            }
+        }
+
+        for (int cell = 0; cell < cellStarts.length - 1; cell++) {
+            cellStarts[cell + 1] += cellStarts[cell];
+        }
+
+        final int[] segments = new int[cellStarts[cellStarts.length - 1]];
+        final int[] next = Arrays.copyOf(cellStarts, cellStarts.length - 1);
+
+        for (int connection = 0; connection < points.getConnectionCount(); connection++) {
+            for (int p = points.getFirstPoint(connection); p < points.getFirstPoint(connection + 1) - 1; p++) {
+                if (hasExtent(p, vertical)) {
+                    final int segment = p;
+                    forEachCell(p, vertical, cell -> segments[next[cell]++] = segment);
+                }
+            }
+        }
+
+        return segments;
+    }
+
+    /**
+     * Checks whether the segment starting at the given point can be crossed in the given direction.
+     */
+    private boolean hasExtent(final int point, final boolean vertical) {
+        if (vertical) {
+            return points.getY(point) != points.getY(point + 1);
+        } else {
+            return points.getX(point) != points.getX(point + 1);
+        }
+    }
+
+    /**
+     * Calls the given consumer for each cell the segment starting at the given point is stored in.
+     */
+    private void forEachCell(final int point, final boolean vertical, final IntConsumer consumer) {
+
+        if (vertical) {
+
+            final int column = getColumn(points.getX(point));
+            final int firstRow = getRow(Math.min(points.getY(point), points.getY(point + 1)));
+            final int lastRow = getRow(Math.max(points.getY(point), points.getY(point + 1)));
+
+            for (int row = firstRow; row <= lastRow; row++) {
+                consumer.accept(row * columns + column);
+            }
+
+        } else {
+
+            final int row = getRow(points.getY(point));
+            final int firstColumn = getColumn(Math.min(points.getX(point), points.getX(point + 1)));
+            final int lastColumn = getColumn(Math.max(points.getX(point), points.getX(point + 1)));
+
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                consumer.accept(row * columns + column);
+            }
+        }
+    }
+
+    /**
+     * Checks if the other segment should be taken into account, like the {@link IntersectionFinder} does.
+     *
+     * <p>
+     * A connection only takes into account its own later segments if looking in front, or its own earlier segments if
+     * looking behind.
+     * </p>
+     */
+    private boolean filterSegment(final int connection, final int index, final int otherStart, final boolean behind) {
+
+        final int otherConnection = points.getConnection(otherStart);
+
+        if (otherConnection == connection) {
+            final int otherIndex = otherStart - points.getFirstPoint(connection);
+            return !(index > otherIndex ^ behind);
+        } else if (behind) {
+            return otherConnection < connection;
+        } else {
+            return otherConnection > connection;
+        }
+    }
+
+    /**
+     * Checks if the horizontal segment AB crosses the vertical segment CD, like
+     * {@link de.tesis.dynaware.grapheditor.utils.GeometryUtils#checkIntersection} does.
+     */
+    private boolean checkIntersection(final int a, final int b, final int c, final int d) {
+
+        final double ax = points.getX(a);
+        final double bx = points.getX(b);
+        final double cx = points.getX(c);
+
+        if (!(cx > ax && cx < bx) && !(cx > bx && cx < ax)) {
+            return false;
+        }
+
+        final double ay = points.getY(a);
+        final double cy = points.getY(c);
+        final double dy = points.getY(d);
+
+        if (!(ay > cy && ay < dy) && !(ay > dy && ay < cy)) {
+            return false;
+        }
+
+        return true;
+    }
+
+    private int getColumn(final double x) {
+        return Math.max(0, Math.min(columns - 1, (int) ((x - minX) / cellWidth)));
+    }
+
+    private int getRow(final double y) {
+        return Math.max(0, Math.min(rows - 1, (int) ((y - minY) / cellHeight)));
+    }
+}
@@ -0,0 +1,386 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.geometry.Point2D;
+import javafx.scene.shape.ArcTo;
+import javafx.scene.shape.HLineTo;
+import javafx.scene.shape.LineTo;
+import javafx.scene.shape.MoveTo;
+import javafx.scene.shape.PathElement;
+import javafx.scene.shape.VLineTo;
+import de.tesis.dynaware.grapheditor.core.skins.defaults.connection.SimpleConnectionSkin;
+import de.tesis.dynaware.grapheditor.core.skins.defaults.connection.segment.ConnectionSegment;
+import de.tesis.dynaware.grapheditor.core.skins.defaults.connection.segment.DetouredConnectionSegment;
+import de.tesis.dynaware.grapheditor.core.skins.defaults.connection.segment.GappedConnectionSegment;
+import de.tesis.dynaware.grapheditor.core.skins.defaults.utils.DefaultConnectorTypes;
+import de.tesis.dynaware.grapheditor.core.skins.defaults.utils.RectangularConnectionUtils;
+import de.tesis.dynaware.grapheditor.model.GConnection;
+import de.tesis.dynaware.grapheditor.model.GConnector;
+import de.tesis.dynaware.grapheditor.model.GModel;
+import de.tesis.dynaware.grapheditor.model.GNode;
+import de.tesis.dynaware.grapheditor.utils.GeometryUtils;
+
+/**
+ * Exports a whole {@link GModel} as an SVG image, the way the default skins would show it.
+ *
+ * <p>
+ * The geometry is computed directly from the model and the connections are drawn with the same
+ * {@link GappedConnectionSegment gaps} or {@link DetouredConnectionSegment detours} as the
+ * {@link SimpleConnectionSkin}. No skins are created and the JavaFX toolkit is not needed, so the export also works in
+ * a headless build.
+ * </p>
+ *
+ * <p>
+ * The image is streamed, one element at a time. Apart from the model itself, memory use only grows with compact
+ * arrays of the connection points. They are computed once and used for the size of the image, to find intersections
+ * and to draw the connections. The grid used to find intersections is only created if intersections are shown.
+ * </p>
+ *
+ * <p>
+ * For example:
+ * </p>
+ *
+ * <pre>
+ * try (OutputStream output = Files.newOutputStream(path)) {
+ *     new SvgExporter().export(model, output);
+ * }
+ * </pre>
+ */
+public class SvgExporter {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final double MARGIN = 20;
+    private static final double NODE_CORNER_RADIUS = 3;
+
+    private static final double SIZE = ModelGeometry.CONNECTOR_SIZE;
+
+    private static final double[] POINTING_RIGHT = { 0, 0, SIZE, SIZE / 2, 0, SIZE };
+    private static final double[] POINTING_LEFT = { SIZE, 0, SIZE, SIZE, 0, SIZE / 2 };
+    private static final double[] POINTING_UP = { SIZE / 2, 0, SIZE, SIZE, 0, SIZE };
+    private static final double[] POINTING_DOWN = { 0, 0, SIZE, 0, SIZE / 2, SIZE };
+
+    private static final String STYLE = String.join("\n", //
+            "<style type=\"text/css\">", //
+            ".default-node { fill: rgb(249,247,250); fill-opacity: 0.9; stroke: darkslategrey; stroke-width: 1; }", //
+            ".default-connector { fill: rgb(199,197,200); stroke: darkslategrey; stroke-width: 1; }", //
+            ".default-connection { fill: none; stroke: darkslategrey; stroke-width: 1; }", //
+            "</style>", //
+            "");
+
+    private boolean showIntersections = true;
+    private boolean showDetours;
+
+    /**
+     * Sets whether a graphical effect is drawn where connections intersect.
+     *
+     * <p>
+     * Defaults to {@code true}.
+     * </p>
+     *
+     * @param showIntersections {@code true} to draw gaps or detours at intersections
+     */
+    public void setShowIntersections(final boolean showIntersections) {
+        this.showIntersections = showIntersections;
+    }
+
+    /**
+     * Sets whether detours are drawn at intersections instead of gaps.
+     *
+     * <p>
+     * Corresponds to the {@link SimpleConnectionSkin#SHOW_DETOURS_KEY} property. Defaults to {@code false}.
+     * </p>
+     *
+     * @param showDetours {@code true} to draw detours, {@code false} to draw gaps
+     */
+    public void setShowDetours(final boolean showDetours) {
+        this.showDetours = showDetours;
+    }
+
+    /**
+     * Writes the given model as an SVG image to the given stream.
+     *
+     * <p>
+     * The stream is flushed but not closed.
+     * </p>
+     *
+     * @param model the {@link GModel} to export
+     * @param output the stream to write the UTF-8 encoded image to
+     * @throws IOException if the image cannot be written
+     */
+    public void export(final GModel model, final OutputStream output) throws IOException {
+
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+        final ConnectionPoints points = new ConnectionPoints(model.getConnections());
+        final SegmentIndex index = showIntersections ? new SegmentIndex(points) : null;
+
+        writeHeader(writer, model, points);
+
+        // Connections are drawn first, so that they appear underneath the nodes like in the editor.
+        writer.write("<g class=\"connection-layer\">\n");
+        for (int i = 0; i < model.getConnections().size(); i++) {
+            writeConnection(writer, model.getConnections().get(i), i, points, index);
+        }
+        writer.write("</g>\n");
+
+        writer.write("<g class=\"node-layer\">\n");
+        for (final GNode node : model.getNodes()) {
+            writeNode(writer, node);
+        }
+        writer.write("</g>\n");
+
+        writer.write("</svg>\n");
+        writer.flush();
+    }
+
+    /**
+     * Writes the start of the SVG document, sized to fit all nodes and connections of the model.
+     */
+    private void writeHeader(final Writer writer, final GModel model, final ConnectionPoints points)
+            throws IOException {
+
+        double minX = points.getMinX();
+        double minY = points.getMinY();
+        double maxX = points.getMaxX();
+        double maxY = points.getMaxY();
+
+        for (final GNode node : model.getNodes()) {
+            minX = Math.min(minX, node.getX());
+            minY = Math.min(minY, node.getY());
+            maxX = Math.max(maxX, node.getX() + node.getWidth());
+            maxY = Math.max(maxY, node.getY() + node.getHeight());
+        }
+
+        if (minX > maxX) {
+            minX = minY = maxX = maxY = 0;
+        }
+
+        final double x = Math.floor(minX - MARGIN);
+        final double y = Math.floor(minY - MARGIN);
+        final double width = Math.ceil(maxX + MARGIN) - x;
+        final double height = Math.ceil(maxY + MARGIN) - y;
+
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        writer.write("<svg xmlns=\"http://www.w3.org/2000/svg\" version=\"1.1\" width=\"");
+        writeNumber(writer, width);
+        writer.write("\" height=\"");
+        writeNumber(writer, height);
+        writer.write("\" viewBox=\"");
+        writeNumbers(writer, x, y, width, height);
+        writer.write("\">\n");
+        writer.write(STYLE);
+    }
+
+    /**
+     * Writes a single connection as a path made of gapped or detoured segments.
+     */
+    private void writeConnection(final Writer writer, final GConnection connection, final int connectionIndex,
+            final ConnectionPoints connectionPoints, final SegmentIndex index) throws IOException {
+
+        if (connectionPoints.getPointCount(connectionIndex) == 0) {
+            return;
+        }
+
+        final List<Point2D> points = connectionPoints.getPoints(connectionIndex);
+
+        writer.write("<path class=\"default-connection\" d=\"M");
+        writeNumbers(writer, GeometryUtils.moveOffPixel(points.get(0).getX()),
+                GeometryUtils.moveOffPixel(points.get(0).getY()));
+
+        for (int i = 0; i < points.size() - 1; i++) {
+
+            final List<Double> intersections;
+            if (index != null) {
+                final boolean horizontal = RectangularConnectionUtils.isSegmentHorizontal(connection, i);
+                intersections = index.find(connectionIndex, i, horizontal, showDetours);
+            } else {
+                intersections = new ArrayList<>();
+            }
+
+            final ConnectionSegment segment;
+            if (showDetours) {
+                segment = new DetouredConnectionSegment(points.get(i), points.get(i + 1), intersections);
+            } else {
+                segment = new GappedConnectionSegment(points.get(i), points.get(i + 1), intersections);
+            }
+
+            segment.draw();
+
+            for (final PathElement element : segment.getPathElements()) {
+                writePathElement(writer, element);
+            }
+        }
+
+        writer.write("\"/>\n");
+    }
+
+    /**
+     * Writes a single node, with a triangle for each of its connectors.
+     */
+    private void writeNode(final Writer writer, final GNode node) throws IOException {
+
+        writer.write("<g class=\"default-node\">");
+
+        if (node.getId() != null) {
+            writer.write("<title>");
+            writeEscaped(writer, node.getId());
+            writer.write("</title>");
+        }
+
+        writer.write("<rect x=\"");
+        writeNumber(writer, GeometryUtils.moveOffPixel(node.getX()));
+        writer.write("\" y=\"");
+        writeNumber(writer, GeometryUtils.moveOffPixel(node.getY()));
+        writer.write("\" width=\"");
+        writeNumber(writer, Math.max(0, node.getWidth() - 1));
+        writer.write("\" height=\"");
+        writeNumber(writer, Math.max(0, node.getHeight() - 1));
+        writer.write("\" rx=\"");
+        writeNumber(writer, NODE_CORNER_RADIUS);
+        writer.write("\"/>");
+
+        for (final GConnector connector : node.getConnectors()) {
+
+            final Point2D layout = ModelGeometry.getConnectorLayoutPosition(connector);
+            final double[] triangle = getTriangle(ModelGeometry.getType(connector));
+
+            writer.write("<polygon class=\"default-connector\" points=\"");
+            for (int i = 0; i < triangle.length; i += 2) {
+                if (i > 0) {
+                    writer.write(' ');
+                }
+                writeNumber(writer, node.getX() + layout.getX() + triangle[i]);
+                writer.write(',');
+                writeNumber(writer, node.getY() + layout.getY() + triangle[i + 1]);
+            }
+            writer.write("\"/>");
+        }
+
+        writer.write("</g>\n");
+    }
+
+    /**
+     * Writes a path element created by a {@link ConnectionSegment} as SVG path data.
+     */
+    private static void writePathElement(final Writer writer, final PathElement element) throws IOException {
+
+        if (element instanceof HLineTo) {
+
+            writer.write(" H");
+            writeNumber(writer, ((HLineTo) element).getX());
+
+        } else if (element instanceof VLineTo) {
+
+            writer.write(" V");
+            writeNumber(writer, ((VLineTo) element).getY());
+
+        } else if (element instanceof MoveTo) {
+
+            final MoveTo moveTo = (MoveTo) element;
+            writer.write(" M");
+            writeNumbers(writer, moveTo.getX(), moveTo.getY());
+
+        } else if (element instanceof LineTo) {
+
+            final LineTo lineTo = (LineTo) element;
+            writer.write(" L");
+            writeNumbers(writer, lineTo.getX(), lineTo.getY());
+
+        } else if (element instanceof ArcTo) {
+
+            final ArcTo arcTo = (ArcTo) element;
+            writer.write(" A");
+            writeNumbers(writer, arcTo.getRadiusX(), arcTo.getRadiusY(), arcTo.getXAxisRotation());
+            writer.write(arcTo.isLargeArcFlag() ? " 1" : " 0");
+            writer.write(arcTo.isSweepFlag() ? " 1 " : " 0 ");
+            writeNumbers(writer, arcTo.getX(), arcTo.getY());
+        }
+    }
+
+    /**
+     * Gets the triangle that the default connector skin draws for the given connector type.
+     */
+    private static double[] getTriangle(final String type) {
+
+        switch (type) {
+
+        case DefaultConnectorTypes.TOP_INPUT:
+        case DefaultConnectorTypes.BOTTOM_OUTPUT:
+            return POINTING_DOWN;
+
+        case DefaultConnectorTypes.TOP_OUTPUT:
+        case DefaultConnectorTypes.BOTTOM_INPUT:
+            return POINTING_UP;
+
+        case DefaultConnectorTypes.RIGHT_INPUT:
+        case DefaultConnectorTypes.LEFT_OUTPUT:
+            return POINTING_LEFT;
+
+        default:
+            return POINTING_RIGHT;
+        }
+    }
+
+    /**
+     * Writes the given numbers, separated by spaces.
+     */
+    private static void writeNumbers(final Writer writer, final double... values) throws IOException {
+
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(' ');
+            }
+            writeNumber(writer, values[i]);
+        }
+    }
+
+    /**
+     * Writes a number without a fraction if it is a whole number.
+     */
+    private static void writeNumber(final Writer writer, final double value) throws IOException {
+
+        if (value == Math.rint(value) && Math.abs(value) < Long.MAX_VALUE) {
+            writer.write(Long.toString((long) value));
+        } else {
+            writer.write(Double.toString(value));
+        }
+    }
+
+    /**
+     * Writes the given text with the XML special characters escaped.
+     */
+    private static void writeEscaped(final Writer writer, final String text) throws IOException {
+
+        for (int i = 0; i < text.length(); i++) {
+
+            final char c = text.charAt(i);
+
+            switch (c) {
+            case '<':
+                writer.write("&lt;");
+                break;
+            case '>':
+                writer.write("&gt;");
+                break;
+            case '&':
+                writer.write("&amp;");
+                break;
+            case '"':
+                writer.write("&quot;");
+                break;
+            default:
+                writer.write(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,474 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.layout;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * A force-directed layout, for graphs without a natural direction or lattice structure.
+ *
+ * <p>
+ * Nodes repel each other and connections pull their nodes together like springs, as in the Fruchterman-Reingold
+ * algorithm. A weak gravity towards the center of the graph keeps unconnected parts from drifting apart. The maximum
+ * distance a node may move in one iteration decreases linearly, so the layout settles down.
+ * </p>
+ *
+ * <p>
+ * Repulsion is approximated with a Barnes-Hut quadtree, so an iteration takes O(n log n) time instead of O(n^2). The
+ * forces on the nodes are calculated in parallel on the common fork/join pool. All positions are kept in primitive
+ * arrays, and intermediate positions are published to the {@link LayoutMonitor} after every iteration.
+ * </p>
+ *
+ * <p>
+ * Connections get the default rectangular path for the final node positions.
+ * </p>
+ */
+public class ForceDirectedLayout implements LayoutAlgorithm {
+
+    private static final double MARGIN = 40;
+    private static final double SPACING = 80;
+    private static final double GRAVITY = 2;
+    private static final double MIN_DISTANCE_SQUARED = 1;
+
+    private static final int DEFAULT_ITERATIONS = 300;
+
+    private final int iterations;
+
+    /**
+     * Creates a new force-directed layout with the default number of iterations.
+     */
+    public ForceDirectedLayout() {
+        this(DEFAULT_ITERATIONS);
+    }
+
+    /**
+     * Creates a new force-directed layout.
+     *
+     * @param iterations the number of iterations to run
+     */
+    public ForceDirectedLayout(final int iterations) {
+        this.iterations = iterations;
+    }
+
+    @Override
+    public LayoutResult layout(final LayoutGraph graph) {
+        return layout(graph, null);
+    }
+
+    @Override
+    public LayoutResult layout(final LayoutGraph graph, final LayoutMonitor monitor) {
+
+        final LayoutResult result = new LayoutResult(graph);
+        final int nodeCount = graph.getNodeCount();
+
+        if (nodeCount == 0) {
+            return result;
+        }
+
+        final double[] x = new double[nodeCount];
+        final double[] y = new double[nodeCount];
+        final double idealDistance = getIdealDistance(graph);
+
+        initializePositions(graph, x, y, idealDistance);
+
+        final int[] adjacencyStart = new int[nodeCount + 1];
+        final int[] adjacency = createAdjacency(graph, adjacencyStart);
+
+        final double[] forceX = new double[nodeCount];
+        final double[] forceY = new double[nodeCount];
+        final double[] positions = new double[2 * nodeCount];
+
+        final QuadTree tree = new QuadTree(nodeCount);
+        final double strength = idealDistance * idealDistance;
+        final double startTemperature = idealDistance * Math.sqrt(nodeCount) / 4;
+        final double endTemperature = idealDistance / 50;
+
+        for (int iteration = 0; iteration < iterations; iteration++) {
+
+            if (monitor != null && monitor.isCancelled()) {
+                break;
+            }
+
+            tree.build(x, y);
+
+            final double centerX = tree.getCenterX();
+            final double centerY = tree.getCenterY();
+
+            IntStream.range(0, nodeCount).parallel().forEach(i -> {
+
+                tree.calculateRepulsion(i, x[i], y[i], strength, forceX, forceY);
+
+                for (int j = adjacencyStart[i]; j < adjacencyStart[i + 1]; j++) {
+
+                    final double dx = x[i] - x[adjacency[j]];
+                    final double dy = y[i] - y[adjacency[j]];
+                    final double distance = Math.sqrt(dx * dx + dy * dy);
+
+                    forceX[i] -= dx * distance / idealDistance;
+                    forceY[i] -= dy * distance / idealDistance;
+                }
+
+                forceX[i] -= GRAVITY * (x[i] - centerX);
+                forceY[i] -= GRAVITY * (y[i] - centerY);
+            });
+
+            final double progress = (double) iteration / iterations;
+            final double temperature = startTemperature * (1 - progress) + endTemperature * progress;
+
+            IntStream.range(0, nodeCount).parallel().forEach(i -> {
+
+                final double length = Math.sqrt(forceX[i] * forceX[i] + forceY[i] * forceY[i]);
+                if (length > 0) {
+                    final double step = Math.min(length, temperature) / length;
+                    x[i] += forceX[i] * step;
+                    y[i] += forceY[i] * step;
+                }
+            });
+
+            if (monitor != null) {
+                getTopLeftPositions(graph, x, y, positions);
+                monitor.publish(positions);
+            }
+        }
+
+        getTopLeftPositions(graph, x, y, positions);
+
+        double minX = Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE;
+        for (int i = 0; i < nodeCount; i++) {
+            minX = Math.min(minX, positions[2 * i]);
+            minY = Math.min(minY, positions[2 * i + 1]);
+        }
+
+        for (int i = 0; i < nodeCount; i++) {
+            final double nodeX = positions[2 * i] - minX + MARGIN;
+            final double nodeY = positions[2 * i + 1] - minY + MARGIN;
+            result.setNodePosition(i, Math.round(nodeX), Math.round(nodeY));
+        }
+
+        for (int e = 0; e < graph.getConnectionCount(); e++) {
+            result.setJoints(e, LayoutPaths.createRectangularPath(graph, result, e));
+        }
+
+        return result;
+    }
+
+    /**
+     * Gets the distance connected nodes should have, based on the average node size.
+     */
+    private static double getIdealDistance(final LayoutGraph graph) {
+
+        double diagonals = 0;
+        for (int i = 0; i < graph.getNodeCount(); i++) {
+            diagonals += Math.hypot(graph.getNodeWidth(i), graph.getNodeHeight(i));
+        }
+        return diagonals / graph.getNodeCount() + SPACING;
+    }
+
+    /**
+     * Initializes the node centers from the current node positions.
+     *
+     * <p>
+     * If many nodes share a position, e.g. because they were created without one, all nodes are instead scattered
+     * randomly, with a fixed seed so that the layout is reproducible.
+     * </p>
+     */
+    private static void initializePositions(final LayoutGraph graph, final double[] x, final double[] y,
+            final double idealDistance) {
+
+        final int nodeCount = graph.getNodeCount();
+        final long[] keys = new long[nodeCount];
+
+        for (int i = 0; i < nodeCount; i++) {
+            x[i] = graph.getNodeX(i) + graph.getNodeWidth(i) / 2;
+            y[i] = graph.getNodeY(i) + graph.getNodeHeight(i) / 2;
+            keys[i] = (long) Float.floatToIntBits((float) x[i]) << 32
+                    | Float.floatToIntBits((float) y[i]) & 0xFFFFFFFFL;
+        }
+
+        Arrays.sort(keys);
+        int duplicates = 0;
+        for (int i = 1; i < nodeCount; i++) {
+            if (keys[i] == keys[i - 1]) {
+                duplicates++;
+            }
+        }
+
+        final Random random = new Random(0);
+
+        if (2 * duplicates > nodeCount) {
+            final double size = idealDistance * Math.sqrt(nodeCount);
+            for (int i = 0; i < nodeCount; i++) {
+                x[i] = random.nextDouble() * size;
+                y[i] = random.nextDouble() * size;
+            }
+        } else if (duplicates > 0) {
+            for (int i = 0; i < nodeCount; i++) {
+                x[i] += random.nextDouble();
+                y[i] += random.nextDouble();
+            }
+        }
+    }
+
+    /**
+     * Creates undirected adjacency lists in compressed form, ignoring connections from a node to itself.
+     *
+     * @param start filled with the index of the first neighbor of each node, plus the total length at the end
+     * @return the neighbors of all nodes
+     */
+    private static int[] createAdjacency(final LayoutGraph graph, final int[] start) {
+
+        final int connectionCount = graph.getConnectionCount();
+
+        for (int e = 0; e < connectionCount; e++) {
+            if (graph.getSource(e) != graph.getTarget(e)) {
+                start[graph.getSource(e) + 1]++;
+                start[graph.getTarget(e) + 1]++;
+            }
+        }
+        for (int i = 1; i < start.length; i++) {
+            start[i] += start[i - 1];
+        }
+
+        final int[] adjacency = new int[start[start.length - 1]];
+        final int[] fill = Arrays.copyOf(start, start.length - 1);
+
+        for (int e = 0; e < connectionCount; e++) {
+
+            final int source = graph.getSource(e);
+            final int target = graph.getTarget(e);
+
+            if (source != target) {
+                adjacency[fill[source]++] = target;
+                adjacency[fill[target]++] = source;
+            }
+        }
+        return adjacency;
+    }
+
+    private static void getTopLeftPositions(final LayoutGraph graph, final double[] x, final double[] y,
+            final double[] positions) {
+
+        for (int i = 0; i < x.length; i++) {
+            positions[2 * i] = x[i] - graph.getNodeWidth(i) / 2;
+            positions[2 * i + 1] = y[i] - graph.getNodeHeight(i) / 2;
+        }
+    }
+
+    /**
+     * A Barnes-Hut quadtree stored in flat arrays, so that it can be rebuilt every iteration without allocation.
+     *
+     * <p>
+     * Every cell stores the sum of the positions and the number of nodes it contains. A cell far enough away from a
+     * node, relative to its size, acts on it as a single body at its center of mass.
+     * </p>
+     */
+    private static final class QuadTree {
+
+        private static final double THETA = 0.8;
+        private static final int MAX_DEPTH = 48;
+        private static final int STACK_SIZE = 3 * MAX_DEPTH + 4;
+
+        private double[] cellX;
+        private double[] cellY;
+        private double[] cellSize;
+        private double[] sumX;
+        private double[] sumY;
+        private int[] counts;
+        private int[] bodies;
+        private int[] depths;
+        private int[] children;
+        private boolean[] leaves;
+
+        private int cellCount;
+
+        private QuadTree(final int nodeCount) {
+            allocate(2 * nodeCount + 1);
+        }
+
+        private void build(final double[] x, final double[] y) {
+
+            double minX = Double.MAX_VALUE;
+            double minY = Double.MAX_VALUE;
+            double maxX = -Double.MAX_VALUE;
+            double maxY = -Double.MAX_VALUE;
+
+            for (int i = 0; i < x.length; i++) {
+                minX = Math.min(minX, x[i]);
+                minY = Math.min(minY, y[i]);
+                maxX = Math.max(maxX, x[i]);
+                maxY = Math.max(maxY, y[i]);
+            }
+
+            cellCount = 0;
+            createCell(minX, minY, Math.max(maxX - minX, maxY - minY) + 1, 0);
+
+            for (int i = 0; i < x.length; i++) {
+                insert(i, x, y);
+            }
+        }
+
+        private double getCenterX() {
+            return sumX[0] / counts[0];
+        }
+
+        private double getCenterY() {
+            return sumY[0] / counts[0];
+        }
+
+        /**
+         * Calculates the repulsion on the given node and stores it at the node's index in the given arrays.
+         *
+         * <p>
+         * Only reads the tree, so it can be called for different nodes in parallel.
+         * </p>
+         */
+        private void calculateRepulsion(final int node, final double nodeX, final double nodeY, final double strength,
+                final double[] forceX, final double[] forceY) {
+
+            final int[] stack = new int[STACK_SIZE];
+            int size = 0;
+            stack[size++] = 0;
+
+            double fx = 0;
+            double fy = 0;
+
+            while (size > 0) {
+
+                final int cell = stack[--size];
+                if (counts[cell] == 0 || bodies[cell] == node) {
+                    continue;
+                }
+
+                final double dx = nodeX - sumX[cell] / counts[cell];
+                final double dy = nodeY - sumY[cell] / counts[cell];
+                final double distanceSquared = Math.max(dx * dx + dy * dy, MIN_DISTANCE_SQUARED);
+
+                if (leaves[cell] || cellSize[cell] * cellSize[cell] < THETA * THETA * distanceSquared) {
+                    final double force = strength * counts[cell] / distanceSquared;
+                    fx += dx * force;
+                    fy += dy * force;
+                } else {
+                    for (int quadrant = 0; quadrant < 4; quadrant++) {
+                        final int child = children[4 * cell + quadrant];
+                        if (child >= 0) {
+                            stack[size++] = child;
+                        }
+                    }
+                }
+            }
+
+            forceX[node] = fx;
+            forceY[node] = fy;
+        }
+
+        private void insert(final int node, final double[] x, final double[] y) {
+
+            int cell = 0;
+
+            while (true) {
+
+                sumX[cell] += x[node];
+                sumY[cell] += y[node];
+                counts[cell]++;
+
+                if (counts[cell] == 1) {
+                    bodies[cell] = node;
+                    return;
+                }
+
+                if (leaves[cell]) {
+
+                    final int existing = bodies[cell];
+                    bodies[cell] = -1;
+
+                    // Nodes at (almost) the same position are kept together in one leaf.
+                    if (depths[cell] >= MAX_DEPTH) {
+                        return;
+                    }
+
+                    leaves[cell] = false;
+
+                    final int child = getChild(cell, x[existing], y[existing]);
+                    sumX[child] = x[existing];
+                    sumY[child] = y[existing];
+                    counts[child] = 1;
+                    bodies[child] = existing;
+                }
+
+                cell = getChild(cell, x[node], y[node]);
+            }
+        }
+
+        /**
+         * Gets the child of the given cell containing the given position, creating it if necessary.
+         */
+        private int getChild(final int cell, final double positionX, final double positionY) {
+
+            final double half = cellSize[cell] / 2;
+            final boolean right = positionX >= cellX[cell] + half;
+            final boolean bottom = positionY >= cellY[cell] + half;
+            final int index = 4 * cell + (right ? 1 : 0) + (bottom ? 2 : 0);
+
+            if (children[index] < 0) {
+                final double childX = right ? cellX[cell] + half : cellX[cell];
+                final double childY = bottom ? cellY[cell] + half : cellY[cell];
+                final int child = createCell(childX, childY, half, depths[cell] + 1);
+                children[index] = child;
+            }
+            return children[index];
+        }
+
+        private int createCell(final double x, final double y, final double size, final int depth) {
+
+            if (cellCount == counts.length) {
+                allocate(2 * cellCount);
+            }
+
+            final int cell = cellCount++;
+
+            cellX[cell] = x;
+            cellY[cell] = y;
+            cellSize[cell] = size;
+            sumX[cell] = 0;
+            sumY[cell] = 0;
+            counts[cell] = 0;
+            bodies[cell] = -1;
+            depths[cell] = depth;
+            leaves[cell] = true;
+            Arrays.fill(children, 4 * cell, 4 * cell + 4, -1);
+
+            return cell;
+        }
+
+        private void allocate(final int capacity) {
+
+            if (counts == null) {
+                cellX = new double[capacity];
+                cellY = new double[capacity];
+                cellSize = new double[capacity];
+                sumX = new double[capacity];
+                sumY = new double[capacity];
+                counts = new int[capacity];
+                bodies = new int[capacity];
+                depths = new int[capacity];
+                children = new int[4 * capacity];
+                leaves = new boolean[capacity];
+            } else {
+                cellX = Arrays.copyOf(cellX, capacity);
+                cellY = Arrays.copyOf(cellY, capacity);
+                cellSize = Arrays.copyOf(cellSize, capacity);
+                sumX = Arrays.copyOf(sumX, capacity);
+                sumY = Arrays.copyOf(sumY, capacity);
+                counts = Arrays.copyOf(counts, capacity);
+                bodies = Arrays.copyOf(bodies, capacity);
+                depths = Arrays.copyOf(depths, capacity);
+                children = Arrays.copyOf(children, 4 * capacity);
+                leaves = Arrays.copyOf(leaves, capacity);
+            }
+        }
+    }
+}
@@ -0,0 +1,304 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.layout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javafx.application.Platform;
+import javafx.geometry.Point2D;
+
+import org.eclipse.emf.common.command.CompoundCommand;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.edit.command.SetCommand;
+import org.eclipse.emf.edit.domain.AdapterFactoryEditingDomain;
+import org.eclipse.emf.edit.domain.EditingDomain;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.tesis.dynaware.grapheditor.GNodeSkin;
+import de.tesis.dynaware.grapheditor.SkinLookup;
+import de.tesis.dynaware.grapheditor.core.skins.defaults.connection.JointCommands;
+import de.tesis.dynaware.grapheditor.core.utils.LogMessages;
+import de.tesis.dynaware.grapheditor.model.GConnection;
+import de.tesis.dynaware.grapheditor.model.GModel;
+import de.tesis.dynaware.grapheditor.model.GNode;
+import de.tesis.dynaware.grapheditor.model.GraphPackage;
+
+/**
+ * Runs a {@link LayoutAlgorithm} on a model in the background and applies the result as a single command.
+ *
+ * <p>
+ * A {@link LayoutGraph} snapshot of the model is taken on the JavaFX application thread. The layout is then calculated
+ * on a background thread, so the editor stays responsive for large graphs. Finally, the new node positions and joints
+ * are set back on the JavaFX application thread in one {@link CompoundCommand}, so the whole layout is undone in one
+ * step.
+ * </p>
+ *
+ * <p>
+ * Intermediate positions published by the algorithm via its {@link LayoutMonitor} are shown at a throttled rate by
+ * moving the node skins directly, without changing the model. If the layout is cancelled, the skins are moved back to
+ * the positions stored in the model.
+ * </p>
+ *
+ * <p>
+ * Nodes and connections that were removed from the model while the layout was being calculated are ignored.
+ * </p>
+ */
+public class GraphLayouter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GraphLayouter.class);
+
+    private static final String THREAD_NAME = "graph-layouter";
+
+    private static final long PREVIEW_INTERVAL = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private static final EAttribute NODE_X = GraphPackage.Literals.GNODE__X;
+    private static final EAttribute NODE_Y = GraphPackage.Literals.GNODE__Y;
+
+    private final SkinLookup skinLookup;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, THREAD_NAME);
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Creates a new graph layouter.
+     *
+     * @param skinLookup the {@link SkinLookup} used to find connector positions, or {@code null} to use the connector
+     *            positions stored in the model
+     */
+    public GraphLayouter(final SkinLookup skinLookup) {
+        this.skinLookup = skinLookup;
+    }
+
+    /**
+     * Lays out the given model in the background.
+     *
+     * <p>
+     * Must be called on the JavaFX application thread. The returned future is completed on the JavaFX application
+     * thread after the layout has been applied. If it is cancelled before then, the layout is not applied, and an
+     * algorithm that checks its {@link LayoutMonitor} stops early.
+     * </p>
+     *
+     * @param model the {@link GModel} to be laid out
+     * @param algorithm the {@link LayoutAlgorithm} to use
+     * @return a future for the {@link LayoutResult}
+     */
+    public CompletableFuture<LayoutResult> layout(final GModel model, final LayoutAlgorithm algorithm) {
+
+        final LayoutGraph graph = LayoutGraph.create(model, skinLookup);
+        final CompletableFuture<LayoutResult> future = new CompletableFuture<>();
+        final PreviewMonitor monitor = new PreviewMonitor(model, graph, future);
+
+        executor.execute(() -> {
+
+            if (future.isDone()) {
+                return;
+            }
+
+            final long start = System.nanoTime();
+            final LayoutResult result;
+
+            try {
+                result = algorithm.layout(graph, monitor);
+            } catch (final RuntimeException e) {
+                LOGGER.error(LogMessages.LAYOUT_FAILED, e);
+                future.completeExceptionally(e);
+                Platform.runLater(monitor::restore);
+                return;
+            }
+
+            if (future.isDone()) {
+                Platform.runLater(monitor::restore);
+                return;
+            }
+
+            LOGGER.info(LogMessages.LAYOUT_CALCULATED, algorithm.getClass().getSimpleName(), graph.getNodeCount(),
+                    graph.getConnectionCount(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+            Platform.runLater(() -> {
+                if (!future.isDone()) {
+                    monitor.restore();
+                    apply(model, graph, result);
+                    future.complete(result);
+                } else {
+                    monitor.restore();
+                }
+            });
+        });
+
+        return future;
+    }
+
+    /**
+     * Stops the background thread. Layouts that have not yet been calculated are not applied.
+     */
+    public void dispose() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Sets the node positions and joints of a layout result in a single command.
+     *
+     * <p>
+     * Must be called on the JavaFX application thread.
+     * </p>
+     *
+     * @param model the {@link GModel} the graph snapshot was taken from
+     * @param graph the {@link LayoutGraph} that was laid out
+     * @param result the {@link LayoutResult} to be applied
+     * @return {@code true} if a command was executed
+     */
+    public static boolean apply(final GModel model, final LayoutGraph graph, final LayoutResult result) {
+
+        final EditingDomain editingDomain = AdapterFactoryEditingDomain.getEditingDomainFor(model);
+        if (editingDomain == null || !graph.hasModelElements()) {
+            return false;
+        }
+
+        final CompoundCommand command = new CompoundCommand();
+
+        for (int i = 0; i < graph.getNodeCount(); i++) {
+
+            final GNode node = graph.getNode(i);
+            if (node.eContainer() != model) {
+                continue;
+            }
+
+            if (node.getX() != result.getNodeX(i)) {
+                command.append(SetCommand.create(editingDomain, node, NODE_X, result.getNodeX(i)));
+            }
+            if (node.getY() != result.getNodeY(i)) {
+                command.append(SetCommand.create(editingDomain, node, NODE_Y, result.getNodeY(i)));
+            }
+        }
+
+        for (int e = 0; e < graph.getConnectionCount(); e++) {
+
+            final GConnection connection = graph.getConnection(e);
+            final double[] joints = result.getJoints(e);
+
+            if (joints == null || connection.eContainer() != model) {
+                continue;
+            }
+
+            final List<Point2D> positions = new ArrayList<>(joints.length / 2);
+            for (int j = 0; j + 1 < joints.length; j += 2) {
+                positions.add(new Point2D(joints[j], joints[j + 1]));
+            }
+
+            JointCommands.appendSetNewJoints(command, positions, connection);
+        }
+
+        if (!command.isEmpty() && command.canExecute()) {
+            editingDomain.getCommandStack().execute(command);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Shows intermediate layout positions by moving the node skins, at most once per {@link #PREVIEW_INTERVAL}.
+     *
+     * <p>
+     * Positions are handed to the JavaFX application thread via an atomic reference, so that a slow JavaFX
+     * application thread only ever sees the latest positions and the layout thread never waits for it.
+     * </p>
+     */
+    private class PreviewMonitor implements LayoutMonitor {
+
+        private final GModel model;
+        private final LayoutGraph graph;
+        private final CompletableFuture<LayoutResult> future;
+
+        private final AtomicReference<double[]> pending = new AtomicReference<>();
+
+        private long lastPublished = System.nanoTime();
+        private boolean previewShown;
+
+        private PreviewMonitor(final GModel model, final LayoutGraph graph,
+                final CompletableFuture<LayoutResult> future) {
+
+            this.model = model;
+            this.graph = graph;
+            this.future = future;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return future.isDone();
+        }
+
+        @Override
+        public void publish(final double[] positions) {
+
+            final long now = System.nanoTime();
+            if (skinLookup == null || !graph.hasModelElements() || now - lastPublished < PREVIEW_INTERVAL) {
+                return;
+            }
+            lastPublished = now;
+
+            if (pending.getAndSet(positions.clone()) == null) {
+                Platform.runLater(this::show);
+            }
+        }
+
+        /**
+         * Moves the node skins to the latest published positions. Called on the JavaFX application thread.
+         */
+        private void show() {
+
+            final double[] positions = pending.getAndSet(null);
+            if (positions == null || future.isDone()) {
+                return;
+            }
+
+            for (int i = 0; i < graph.getNodeCount(); i++) {
+
+                final GNodeSkin skin = lookupSkin(i);
+                if (skin != null) {
+                    skin.getRoot().setLayoutX(Math.round(positions[2 * i]));
+                    skin.getRoot().setLayoutY(Math.round(positions[2 * i + 1]));
+                }
+            }
+            previewShown = true;
+        }
+
+        /**
+         * Moves the node skins back to the positions stored in the model. Called on the JavaFX application thread.
+         */
+        private void restore() {
+
+            pending.set(null);
+
+            if (!previewShown) {
+                return;
+            }
+
+            for (int i = 0; i < graph.getNodeCount(); i++) {
+
+                final GNodeSkin skin = lookupSkin(i);
+                if (skin != null) {
+                    skin.getRoot().setLayoutX(graph.getNode(i).getX());
+                    skin.getRoot().setLayoutY(graph.getNode(i).getY());
+                }
+            }
+            previewShown = false;
+        }
+
+        private GNodeSkin lookupSkin(final int index) {
+
+            final GNode node = graph.getNode(index);
+            return node != null && node.eContainer() == model ? skinLookup.lookupNode(node) : null;
+        }
+    }
+}
@@ -0,0 +1,689 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.layout;
+
+import java.util.Arrays;
+
+import javafx.geometry.Side;
+
+import de.tesis.dynaware.grapheditor.core.skins.defaults.tail.RectangularPathCreator;
+import de.tesis.dynaware.grapheditor.utils.GeometryUtils;
+
+/**
+ * A layered (Sugiyama-style) layout, in which connections flow from left to right.
+ *
+ * <p>
+ * The layout is calculated in the following phases, each of which runs in close to linear time:
+ * <ol>
+ * <li>Cycles are broken by reversing the back edges found in a depth-first search.</li>
+ * <li>Nodes are assigned to layers using the longest path from the sources. Nodes with more outgoing than incoming
+ * edges, such as sources, are then moved as close as possible to their successors.</li>
+ * <li>Connections spanning more than one layer are split by inserting a dummy vertex in every layer they cross.</li>
+ * <li>Crossings are reduced by sorting the layers by the barycenter of their neighbors, sweeping alternately forwards
+ * and backwards a fixed number of times.</li>
+ * <li>Vertices are moved vertically towards the average position of their neighbors, while keeping their order and a
+ * minimum spacing within their layer.</li>
+ * </ol>
+ * </p>
+ *
+ * <p>
+ * Connections from a right-side connector to a left-side connector further along get orthogonal joints passing
+ * through their dummy vertices, with each vertical segment in its own track between the layers. Other connections
+ * between {@link de.tesis.dynaware.grapheditor.core.skins.defaults.utils.DefaultConnectorTypes default connector types}
+ * get a path from the {@link RectangularPathCreator}. Connections between other connector types keep their joints.
+ * </p>
+ *
+ * <p>
+ * All intermediate data is stored in primitive arrays, so graphs with tens of thousands of nodes are laid out in well
+ * under a second.
+ * </p>
+ */
+public class LayeredLayout implements LayoutAlgorithm {
+
+    private static final double MARGIN = 40;
+    private static final double NODE_SPACING = 40;
+    private static final double DUMMY_SPACING = 20;
+    private static final double LAYER_SPACING = 80;
+    private static final double MAX_LAYER_SPACING = 400;
+    private static final double TRACK_SPACING = 8;
+
+    private static final int ORDERING_SWEEPS = 8;
+    private static final int POSITIONING_SWEEPS = 8;
+
+    @Override
+    public LayoutResult layout(final LayoutGraph graph) {
+
+        final LayoutResult result = new LayoutResult(graph);
+
+        if (graph.getNodeCount() > 0) {
+            new Run(graph, result).execute();
+        }
+        return result;
+    }
+
+    /**
+     * The state of a single layout calculation.
+     *
+     * <p>
+     * Vertices 0 to n - 1 are the nodes of the graph, and the remaining vertices are dummies. A segment is the part of
+     * a connection between two adjacent layers.
+     * </p>
+     */
+    private static final class Run {
+
+        private final LayoutGraph graph;
+        private final LayoutResult result;
+
+        private final int nodeCount;
+        private final int edgeCount;
+
+        private final boolean[] reversed;
+
+        private int vertexCount;
+        private int layerCount;
+        private int[] layers;
+
+        // The vertices of connection e are chain[chainStart[e]] to chain[chainStart[e + 1] - 1], in layer order.
+        private int[] chainStart;
+        private int[] chain;
+
+        private int[] upStart;
+        private int[] up;
+        private int[] downStart;
+        private int[] down;
+
+        private int[] layerStart;
+        private int[] order;
+        private int[] positions;
+
+        private double[] sizes;
+        private double[] centers;
+
+        Run(final LayoutGraph graph, final LayoutResult result) {
+
+            this.graph = graph;
+            this.result = result;
+
+            nodeCount = graph.getNodeCount();
+            edgeCount = graph.getConnectionCount();
+            reversed = new boolean[edgeCount];
+        }
+
+        void execute() {
+
+            breakCycles();
+            assignLayers();
+            insertDummies();
+            orderLayers();
+            assignVerticalPositions();
+            assignHorizontalPositions();
+        }
+
+        private int getFrom(final int edge) {
+            return reversed[edge] ? graph.getTarget(edge) : graph.getSource(edge);
+        }
+
+        private int getTo(final int edge) {
+            return reversed[edge] ? graph.getSource(edge) : graph.getTarget(edge);
+        }
+
+        private boolean isSelfLoop(final int edge) {
+            return graph.getSource(edge) == graph.getTarget(edge);
+        }
+
+        /**
+         * Reverses every edge that points back to a node on the current depth-first search path.
+         */
+        private void breakCycles() {
+
+            final int[] outStart = new int[nodeCount + 1];
+            final int[] inDegrees = new int[nodeCount];
+
+            for (int e = 0; e < edgeCount; e++) {
+                if (!isSelfLoop(e)) {
+                    outStart[graph.getSource(e) + 1]++;
+                    inDegrees[graph.getTarget(e)]++;
+                }
+            }
+            for (int v = 0; v < nodeCount; v++) {
+                outStart[v + 1] += outStart[v];
+            }
+
+            final int[] outEdges = new int[outStart[nodeCount]];
+            final int[] fill = Arrays.copyOf(outStart, nodeCount);
+
+            for (int e = 0; e < edgeCount; e++) {
+                if (!isSelfLoop(e)) {
+                    outEdges[fill[graph.getSource(e)]++] = e;
+                }
+            }
+
+            // 0 = unvisited, 1 = on the search path, 2 = finished.
+            final byte[] states = new byte[nodeCount];
+            final int[] stack = new int[nodeCount];
+            final int[] next = new int[nodeCount];
+
+            // Start from the sources first, so that edges leaving them are kept.
+            for (int pass = 0; pass < 2; pass++) {
+                for (int root = 0; root < nodeCount; root++) {
+
+                    if (states[root] != 0 || (pass == 0 && inDegrees[root] > 0)) {
+                        continue;
+                    }
+
+                    int depth = 0;
+                    stack[depth] = root;
+                    next[depth++] = outStart[root];
+                    states[root] = 1;
+
+                    while (depth > 0) {
+
+                        final int vertex = stack[depth - 1];
+
+                        if (next[depth - 1] < outStart[vertex + 1]) {
+
+                            final int edge = outEdges[next[depth - 1]++];
+                            final int target = graph.getTarget(edge);
+
+                            if (states[target] == 1) {
+                                reversed[edge] = true;
+                            } else if (states[target] == 0) {
+                                states[target] = 1;
+                                stack[depth] = target;
+                                next[depth++] = outStart[target];
+                            }
+                        } else {
+                            states[vertex] = 2;
+                            depth--;
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Assigns every node to the layer given by the longest path from a source, then moves nodes with more outgoing
+         * than incoming edges up to their successors.
+         */
+        private void assignLayers() {
+
+            final int[] outStart = new int[nodeCount + 1];
+            final int[] inDegrees = new int[nodeCount];
+
+            for (int e = 0; e < edgeCount; e++) {
+                if (!isSelfLoop(e)) {
+                    outStart[getFrom(e) + 1]++;
+                    inDegrees[getTo(e)]++;
+                }
+            }
+            for (int v = 0; v < nodeCount; v++) {
+                outStart[v + 1] += outStart[v];
+            }
+
+            final int[] successors = new int[outStart[nodeCount]];
+            final int[] fill = Arrays.copyOf(outStart, nodeCount);
+
+            for (int e = 0; e < edgeCount; e++) {
+                if (!isSelfLoop(e)) {
+                    successors[fill[getFrom(e)]++] = getTo(e);
+                }
+            }
+
+            layers = new int[nodeCount];
+
+            final int[] remaining = Arrays.copyOf(inDegrees, nodeCount);
+            final int[] topologicalOrder = new int[nodeCount];
+            int head = 0;
+            int tail = 0;
+
+            for (int v = 0; v < nodeCount; v++) {
+                if (remaining[v] == 0) {
+                    topologicalOrder[tail++] = v;
+                }
+            }
+
+            while (head < tail) {
+
+                final int vertex = topologicalOrder[head++];
+
+                for (int i = outStart[vertex]; i < outStart[vertex + 1]; i++) {
+
+                    final int successor = successors[i];
+                    layers[successor] = Math.max(layers[successor], layers[vertex] + 1);
+
+                    if (--remaining[successor] == 0) {
+                        topologicalOrder[tail++] = successor;
+                    }
+                }
+            }
+
+            // Nodes with more outgoing than incoming edges get shorter edges in the latest layer their successors allow.
+            for (int i = nodeCount - 1; i >= 0; i--) {
+
+                final int vertex = topologicalOrder[i];
+                final int outDegree = outStart[vertex + 1] - outStart[vertex];
+
+                if (outDegree == 0 || outDegree <= inDegrees[vertex]) {
+                    continue;
+                }
+
+                int layer = Integer.MAX_VALUE;
+                for (int j = outStart[vertex]; j < outStart[vertex + 1]; j++) {
+                    layer = Math.min(layer, layers[successors[j]] - 1);
+                }
+                layers[vertex] = layer;
+            }
+
+            for (int v = 0; v < nodeCount; v++) {
+                layerCount = Math.max(layerCount, layers[v] + 1);
+            }
+        }
+
+        /**
+         * Splits long edges with dummy vertices and builds the adjacency lists between neighboring layers.
+         */
+        private void insertDummies() {
+
+            chainStart = new int[edgeCount + 1];
+            int dummyCount = 0;
+
+            for (int e = 0; e < edgeCount; e++) {
+
+                final int span = isSelfLoop(e) ? 0 : layers[getTo(e)] - layers[getFrom(e)];
+                chainStart[e + 1] = chainStart[e] + (span > 0 ? span + 1 : 0);
+                dummyCount += Math.max(0, span - 1);
+            }
+
+            vertexCount = nodeCount + dummyCount;
+            layers = Arrays.copyOf(layers, vertexCount);
+            chain = new int[chainStart[edgeCount]];
+
+            sizes = new double[vertexCount];
+            for (int v = 0; v < nodeCount; v++) {
+                sizes[v] = graph.getNodeHeight(v);
+            }
+
+            int dummy = nodeCount;
+
+            for (int e = 0; e < edgeCount; e++) {
+
+                final int start = chainStart[e];
+                final int end = chainStart[e + 1];
+
+                if (start == end) {
+                    continue;
+                }
+
+                chain[start] = getFrom(e);
+                chain[end - 1] = getTo(e);
+
+                for (int i = start + 1; i < end - 1; i++) {
+                    layers[dummy] = layers[chain[i - 1]] + 1;
+                    chain[i] = dummy++;
+                }
+            }
+
+            upStart = new int[vertexCount + 1];
+            downStart = new int[vertexCount + 1];
+
+            for (int e = 0; e < edgeCount; e++) {
+                for (int i = chainStart[e]; i + 1 < chainStart[e + 1]; i++) {
+                    downStart[chain[i] + 1]++;
+                    upStart[chain[i + 1] + 1]++;
+                }
+            }
+            for (int v = 0; v < vertexCount; v++) {
+                downStart[v + 1] += downStart[v];
+                upStart[v + 1] += upStart[v];
+            }
+
+            up = new int[upStart[vertexCount]];
+            down = new int[downStart[vertexCount]];
+
+            final int[] upFill = Arrays.copyOf(upStart, vertexCount);
+            final int[] downFill = Arrays.copyOf(downStart, vertexCount);
+
+            for (int e = 0; e < edgeCount; e++) {
+                for (int i = chainStart[e]; i + 1 < chainStart[e + 1]; i++) {
+                    down[downFill[chain[i]]++] = chain[i + 1];
+                    up[upFill[chain[i + 1]]++] = chain[i];
+                }
+            }
+        }
+
+        /**
+         * Orders the vertices within each layer using the barycenter heuristic.
+         */
+        private void orderLayers() {
+
+            layerStart = new int[layerCount + 1];
+            for (int v = 0; v < vertexCount; v++) {
+                layerStart[layers[v] + 1]++;
+            }
+            for (int l = 0; l < layerCount; l++) {
+                layerStart[l + 1] += layerStart[l];
+            }
+
+            order = new int[vertexCount];
+            positions = new int[vertexCount];
+
+            final int[] fill = Arrays.copyOf(layerStart, layerCount);
+            for (int v = 0; v < vertexCount; v++) {
+                final int index = fill[layers[v]]++;
+                order[index] = v;
+                positions[v] = index - layerStart[layers[v]];
+            }
+
+            final long[] keys = new long[getMaxLayerSize()];
+            final int[] sorted = new int[keys.length];
+
+            for (int sweep = 0; sweep < ORDERING_SWEEPS; sweep++) {
+                if (sweep % 2 == 0) {
+                    for (int l = 1; l < layerCount; l++) {
+                        sortLayer(l, upStart, up, keys, sorted);
+                    }
+                } else {
+                    for (int l = layerCount - 2; l >= 0; l--) {
+                        sortLayer(l, downStart, down, keys, sorted);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Sorts a layer by the average position of each vertex's neighbors in the given adjacency lists.
+         *
+         * <p>
+         * Vertices without neighbors keep their position. Ties are broken by the current position, so the sort is
+         * stable.
+         * </p>
+         */
+        private void sortLayer(final int layer, final int[] neighborStart, final int[] neighbors, final long[] keys,
+                final int[] sorted) {
+
+            final int start = layerStart[layer];
+            final int size = layerStart[layer + 1] - start;
+
+            for (int i = 0; i < size; i++) {
+
+                final int vertex = order[start + i];
+                final int count = neighborStart[vertex + 1] - neighborStart[vertex];
+
+                float barycenter = i;
+                if (count > 0) {
+                    long sum = 0;
+                    for (int j = neighborStart[vertex]; j < neighborStart[vertex + 1]; j++) {
+                        sum += positions[neighbors[j]];
+                    }
+                    barycenter = (float) sum / count;
+                }
+
+                // Non-negative floats compare in the same order as their bit patterns.
+                keys[i] = (long) Float.floatToIntBits(barycenter) << 32 | i;
+            }
+
+            Arrays.sort(keys, 0, size);
+
+            for (int i = 0; i < size; i++) {
+                sorted[i] = order[start + (int) keys[i]];
+            }
+            for (int i = 0; i < size; i++) {
+                order[start + i] = sorted[i];
+                positions[sorted[i]] = i;
+            }
+        }
+
+        /**
+         * Calculates the vertical center of every vertex.
+         *
+         * <p>
+         * In each sweep, the vertices of a layer are placed as close as possible to the average position of their
+         * neighbors in the previous layer, without changing their order. This is done by packing the layer once
+         * downwards and once upwards from the desired positions and averaging the two, which keeps the minimum spacing.
+         * </p>
+         */
+        private void assignVerticalPositions() {
+
+            centers = new double[vertexCount];
+
+            for (int l = 0; l < layerCount; l++) {
+
+                double position = 0;
+                for (int i = layerStart[l]; i < layerStart[l + 1]; i++) {
+                    if (i > layerStart[l]) {
+                        position += getSpacing(order[i - 1], order[i]);
+                    }
+                    centers[order[i]] = position;
+                }
+
+                // Center each layer around zero.
+                for (int i = layerStart[l]; i < layerStart[l + 1]; i++) {
+                    centers[order[i]] -= position / 2;
+                }
+            }
+
+            final int maxLayerSize = getMaxLayerSize();
+            final double[] downwards = new double[maxLayerSize];
+            final double[] upwards = new double[maxLayerSize];
+
+            for (int sweep = 0; sweep < POSITIONING_SWEEPS; sweep++) {
+                if (sweep % 2 == 0) {
+                    for (int l = 1; l < layerCount; l++) {
+                        alignLayer(l, upStart, up, downwards, upwards);
+                    }
+                } else {
+                    for (int l = layerCount - 2; l >= 0; l--) {
+                        alignLayer(l, downStart, down, downwards, upwards);
+                    }
+                }
+            }
+
+            double minY = Double.MAX_VALUE;
+            for (int v = 0; v < vertexCount; v++) {
+                minY = Math.min(minY, centers[v] - sizes[v] / 2);
+            }
+            for (int v = 0; v < vertexCount; v++) {
+                centers[v] += MARGIN - minY;
+            }
+
+            for (int v = 0; v < nodeCount; v++) {
+                result.setNodePosition(v, 0, Math.round(centers[v] - sizes[v] / 2));
+            }
+        }
+
+        private void alignLayer(final int layer, final int[] neighborStart, final int[] neighbors,
+                final double[] downwards, final double[] upwards) {
+
+            final int start = layerStart[layer];
+            final int size = layerStart[layer + 1] - start;
+
+            for (int i = 0; i < size; i++) {
+
+                final int vertex = order[start + i];
+                final int count = neighborStart[vertex + 1] - neighborStart[vertex];
+
+                double desired = centers[vertex];
+                if (count > 0) {
+                    double sum = 0;
+                    for (int j = neighborStart[vertex]; j < neighborStart[vertex + 1]; j++) {
+                        sum += centers[neighbors[j]];
+                    }
+                    desired = sum / count;
+                }
+                downwards[i] = desired;
+                upwards[i] = desired;
+            }
+
+            for (int i = 1; i < size; i++) {
+                final double spacing = getSpacing(order[start + i - 1], order[start + i]);
+                downwards[i] = Math.max(downwards[i], downwards[i - 1] + spacing);
+            }
+            for (int i = size - 2; i >= 0; i--) {
+                final double spacing = getSpacing(order[start + i], order[start + i + 1]);
+                upwards[i] = Math.min(upwards[i], upwards[i + 1] - spacing);
+            }
+
+            for (int i = 0; i < size; i++) {
+                centers[order[start + i]] = (downwards[i] + upwards[i]) / 2;
+            }
+        }
+
+        /**
+         * Gets the minimum distance between the centers of two adjacent vertices in a layer.
+         */
+        private double getSpacing(final int first, final int second) {
+
+            final boolean dummy = first >= nodeCount || second >= nodeCount;
+            return (sizes[first] + sizes[second]) / 2 + (dummy ? DUMMY_SPACING : NODE_SPACING);
+        }
+
+        /**
+         * Assigns the x positions of the layers, with enough space between them for the vertical segments of the
+         * joints, then sets the x positions of the nodes and the joints of all connections.
+         */
+        private void assignHorizontalPositions() {
+
+            final double[] layerWidths = new double[layerCount];
+            for (int v = 0; v < nodeCount; v++) {
+                layerWidths[layers[v]] = Math.max(layerWidths[layers[v]], graph.getNodeWidth(v));
+            }
+
+            // The pixel-aligned y values of every vertex in every chain, using connector positions at the ends.
+            final double[] chainY = new double[chain.length];
+            final boolean[] routed = new boolean[edgeCount];
+
+            for (int e = 0; e < edgeCount; e++) {
+
+                routed[e] = isLeftToRight(e);
+                if (!routed[e]) {
+                    continue;
+                }
+
+                final int start = chainStart[e];
+                final int end = chainStart[e + 1];
+
+                for (int i = start + 1; i < end - 1; i++) {
+                    chainY[i] = GeometryUtils.moveOnPixel(centers[chain[i]]);
+                }
+                chainY[start] = GeometryUtils.moveOnPixel(result.getNodeY(chain[start]) + graph.getSourceOffsetY(e));
+                chainY[end - 1] = GeometryUtils.moveOnPixel(result.getNodeY(chain[end - 1])
+                        + graph.getTargetOffsetY(e));
+            }
+
+            // Every chain index i whose segment from i to i + 1 needs a vertical part gets a track in its gap.
+            final int[] gapStart = new int[layerCount + 1];
+            for (int e = 0; e < edgeCount; e++) {
+                for (int i = chainStart[e]; routed[e] && i + 1 < chainStart[e + 1]; i++) {
+                    if (chainY[i] != chainY[i + 1]) {
+                        gapStart[layers[chain[i]] + 1]++;
+                    }
+                }
+            }
+            for (int l = 0; l < layerCount; l++) {
+                gapStart[l + 1] += gapStart[l];
+            }
+
+            final long[] gapSegments = new long[gapStart[layerCount]];
+            final int[] fill = Arrays.copyOf(gapStart, layerCount);
+
+            for (int e = 0; e < edgeCount; e++) {
+                for (int i = chainStart[e]; routed[e] && i + 1 < chainStart[e + 1]; i++) {
+                    if (chainY[i] != chainY[i + 1]) {
+                        final long key = Math.max(0, Math.round(Math.min(chainY[i], chainY[i + 1])));
+                        gapSegments[fill[layers[chain[i]]]++] = key << 32 | i;
+                    }
+                }
+            }
+
+            final double[] layerX = new double[layerCount];
+            final double[] trackX = new double[chain.length];
+
+            double x = MARGIN;
+            for (int l = 0; l < layerCount; l++) {
+
+                layerX[l] = x;
+                x += layerWidths[l];
+
+                final int tracks = gapStart[l + 1] - gapStart[l];
+                final double gapWidth = Math.min(MAX_LAYER_SPACING,
+                        Math.max(LAYER_SPACING, (tracks + 1) * TRACK_SPACING));
+
+                // Sort by the upper end of the vertical part, so that tracks are assigned from top to bottom.
+                Arrays.sort(gapSegments, gapStart[l], gapStart[l + 1]);
+
+                for (int t = 0; t < tracks; t++) {
+                    final int index = (int) gapSegments[gapStart[l] + t];
+                    trackX[index] = GeometryUtils.moveOnPixel(x + gapWidth * (t + 1) / (tracks + 1));
+                }
+
+                x += gapWidth;
+            }
+
+            for (int v = 0; v < nodeCount; v++) {
+                final double nodeX = layerX[layers[v]] + (layerWidths[layers[v]] - graph.getNodeWidth(v)) / 2;
+                result.setNodePosition(v, Math.round(nodeX), result.getNodeY(v));
+            }
+
+            for (int e = 0; e < edgeCount; e++) {
+                if (routed[e]) {
+                    result.setJoints(e, createChainJoints(e, chainY, trackX));
+                } else {
+                    result.setJoints(e, LayoutPaths.createRectangularPath(graph, result, e));
+                }
+            }
+        }
+
+        /**
+         * Checks whether a connection goes from a right-side connector to a left-side connector in a later layer.
+         */
+        private boolean isLeftToRight(final int edge) {
+
+            return !reversed[edge] && chainStart[edge + 1] > chainStart[edge]
+                    && Side.RIGHT.equals(graph.getSourceSide(edge)) && Side.LEFT.equals(graph.getTargetSide(edge));
+        }
+
+        /**
+         * Creates joints that follow the chain of a connection, with two joints in each gap where it changes height.
+         *
+         * <p>
+         * A chain that stays at one height gets two aligned joints instead, so it is drawn as a straight line.
+         * </p>
+         */
+        private double[] createChainJoints(final int edge, final double[] chainY, final double[] trackX) {
+
+            int count = 0;
+            for (int i = chainStart[edge]; i + 1 < chainStart[edge + 1]; i++) {
+                if (chainY[i] != chainY[i + 1]) {
+                    count++;
+                }
+            }
+
+            if (count == 0) {
+                return LayoutPaths.createStraightPath(graph, result, edge);
+            }
+
+            final double[] joints = new double[4 * count];
+            int index = 0;
+
+            for (int i = chainStart[edge]; i + 1 < chainStart[edge + 1]; i++) {
+                if (chainY[i] != chainY[i + 1]) {
+                    joints[index++] = trackX[i];
+                    joints[index++] = chainY[i];
+                    joints[index++] = trackX[i];
+                    joints[index++] = chainY[i + 1];
+                }
+            }
+            return joints;
+        }
+
+        private int getMaxLayerSize() {
+
+            int max = 0;
+            for (int l = 0; l < layerCount; l++) {
+                max = Math.max(max, layerStart[l + 1] - layerStart[l]);
+            }
+            return max;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.layout;
+
+/**
+ * Calculates new node positions and joints for a graph.
+ *
+ * <p>
+ * Implementations only work on the primitive data of a {@link LayoutGraph} and must not access the model or any
+ * skins, since they are run on a background thread by the {@link GraphLayouter}.
+ * </p>
+ */
+public interface LayoutAlgorithm {
+
+    /**
+     * Calculates a layout for the given graph.
+     *
+     * @param graph the {@link LayoutGraph} to be laid out
+     * @return a {@link LayoutResult} containing the new node positions and joints
+     */
+    LayoutResult layout(LayoutGraph graph);
+
+    /**
+     * Calculates a layout for the given graph, reporting progress to the given monitor.
+     *
+     * <p>
+     * The default implementation ignores the monitor. Iterative algorithms should override it to publish intermediate
+     * positions and to stop early when cancelled.
+     * </p>
+     *
+     * @param graph the {@link LayoutGraph} to be laid out
+     * @param monitor a {@link LayoutMonitor}
+     * @return a {@link LayoutResult} containing the new node positions and joints
+     */
+    default LayoutResult layout(final LayoutGraph graph, final LayoutMonitor monitor) {
+        return layout(graph);
+    }
+}
@@ -0,0 +1,315 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.layout;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javafx.geometry.Point2D;
+import javafx.geometry.Side;
+
+import de.tesis.dynaware.grapheditor.GConnectorSkin;
+import de.tesis.dynaware.grapheditor.GNodeSkin;
+import de.tesis.dynaware.grapheditor.SkinLookup;
+import de.tesis.dynaware.grapheditor.core.skins.defaults.utils.DefaultConnectorTypes;
+import de.tesis.dynaware.grapheditor.model.GConnection;
+import de.tesis.dynaware.grapheditor.model.GConnector;
+import de.tesis.dynaware.grapheditor.model.GModel;
+import de.tesis.dynaware.grapheditor.model.GNode;
+
+/**
+ * An immutable snapshot of the geometry and topology of a {@link GModel}, used as the input of a
+ * {@link LayoutAlgorithm}.
+ *
+ * <p>
+ * Nodes and connections are identified by their index. All values are stored in primitive arrays, so a snapshot can
+ * safely be handed to a background thread while the model continues to be edited on the JavaFX application thread.
+ * </p>
+ *
+ * <p>
+ * Connector positions are stored relative to their node, so that they can be moved along with the node when the layout
+ * is applied. Connections whose source or target is not a node in the model are left out.
+ * </p>
+ */
+public final class LayoutGraph {
+
+    private final List<GNode> nodes;
+    private final List<GConnection> connections;
+
+    private final double[] nodeBounds;
+
+    private final int[] sources;
+    private final int[] targets;
+    private final double[] connectorOffsets;
+    private final Side[] sides;
+
+    /**
+     * Creates a new layout graph.
+     *
+     * @param nodes the nodes of the graph, or an empty list if the graph does not belong to a model
+     * @param connections the connections of the graph, or an empty list if the graph does not belong to a model
+     * @param nodeBounds the x, y, width, and height of each node
+     * @param sources the index of the source node of each connection
+     * @param targets the index of the target node of each connection
+     * @param connectorOffsets the source x, source y, target x, and target y offsets of each connection
+     * @param sides the source and target sides of each connection, with {@code null} for unknown sides
+     */
+    LayoutGraph(final List<GNode> nodes, final List<GConnection> connections, final double[] nodeBounds,
+            final int[] sources, final int[] targets, final double[] connectorOffsets, final Side[] sides) {
+
+        this.nodes = nodes;
+        this.connections = connections;
+        this.nodeBounds = nodeBounds;
+        this.sources = sources;
+        this.targets = targets;
+        this.connectorOffsets = connectorOffsets;
+        this.sides = sides;
+    }
+
+    /**
+     * Creates a snapshot of the given model.
+     *
+     * <p>
+     * Must be called on the JavaFX application thread. If a skin lookup is given, connector positions are taken from
+     * the skins, otherwise from the x and y values of the connectors in the model.
+     * </p>
+     *
+     * @param model the {@link GModel} to be laid out
+     * @param skinLookup the {@link SkinLookup} of the graph editor showing the model, or {@code null}
+     * @return a new {@link LayoutGraph}
+     */
+    public static LayoutGraph create(final GModel model, final SkinLookup skinLookup) {
+
+        final List<GNode> nodes = new ArrayList<>(model.getNodes());
+        final Map<GNode, Integer> indices = new IdentityHashMap<>(nodes.size());
+
+        final double[] nodeBounds = new double[4 * nodes.size()];
+
+        for (int i = 0; i < nodes.size(); i++) {
+
+            final GNode node = nodes.get(i);
+            indices.put(node, i);
+
+            nodeBounds[4 * i] = node.getX();
+            nodeBounds[4 * i + 1] = node.getY();
+            nodeBounds[4 * i + 2] = node.getWidth();
+            nodeBounds[4 * i + 3] = node.getHeight();
+        }
+
+        final List<GConnection> connections = new ArrayList<>(model.getConnections().size());
+        final List<Integer> endpoints = new ArrayList<>(2 * model.getConnections().size());
+
+        for (final GConnection connection : model.getConnections()) {
+
+            if (connection.getSource() == null || connection.getTarget() == null) {
+                continue;
+            }
+
+            final Integer source = indices.get(connection.getSource().getParent());
+            final Integer target = indices.get(connection.getTarget().getParent());
+
+            if (source != null && target != null) {
+                connections.add(connection);
+                endpoints.add(source);
+                endpoints.add(target);
+            }
+        }
+
+        final int[] sources = new int[connections.size()];
+        final int[] targets = new int[connections.size()];
+        final double[] connectorOffsets = new double[4 * connections.size()];
+        final Side[] sides = new Side[2 * connections.size()];
+
+        for (int e = 0; e < connections.size(); e++) {
+
+            final GConnection connection = connections.get(e);
+
+            sources[e] = endpoints.get(2 * e);
+            targets[e] = endpoints.get(2 * e + 1);
+
+            setConnectorOffset(connectorOffsets, 4 * e, connection.getSource(), skinLookup);
+            setConnectorOffset(connectorOffsets, 4 * e + 2, connection.getTarget(), skinLookup);
+
+            sides[2 * e] = getSide(connection.getSource());
+            sides[2 * e + 1] = getSide(connection.getTarget());
+        }
+
+        return new LayoutGraph(Collections.unmodifiableList(nodes), Collections.unmodifiableList(connections),
+                nodeBounds, sources, targets, connectorOffsets, sides);
+    }
+
+    /**
+     * Gets the number of nodes in the graph.
+     *
+     * @return the number of nodes
+     */
+    public int getNodeCount() {
+        return nodeBounds.length / 4;
+    }
+
+    /**
+     * Gets the number of connections in the graph.
+     *
+     * @return the number of connections
+     */
+    public int getConnectionCount() {
+        return sources.length;
+    }
+
+    /**
+     * @param node the index of a node
+     * @return the x position of the node when the snapshot was taken
+     */
+    public double getNodeX(final int node) {
+        return nodeBounds[4 * node];
+    }
+
+    /**
+     * @param node the index of a node
+     * @return the y position of the node when the snapshot was taken
+     */
+    public double getNodeY(final int node) {
+        return nodeBounds[4 * node + 1];
+    }
+
+    /**
+     * @param node the index of a node
+     * @return the width of the node
+     */
+    public double getNodeWidth(final int node) {
+        return nodeBounds[4 * node + 2];
+    }
+
+    /**
+     * @param node the index of a node
+     * @return the height of the node
+     */
+    public double getNodeHeight(final int node) {
+        return nodeBounds[4 * node + 3];
+    }
+
+    /**
+     * @param connection the index of a connection
+     * @return the index of the node containing the source connector of the connection
+     */
+    public int getSource(final int connection) {
+        return sources[connection];
+    }
+
+    /**
+     * @param connection the index of a connection
+     * @return the index of the node containing the target connector of the connection
+     */
+    public int getTarget(final int connection) {
+        return targets[connection];
+    }
+
+    /**
+     * @param connection the index of a connection
+     * @return the x position of the source connector, relative to its node
+     */
+    public double getSourceOffsetX(final int connection) {
+        return connectorOffsets[4 * connection];
+    }
+
+    /**
+     * @param connection the index of a connection
+     * @return the y position of the source connector, relative to its node
+     */
+    public double getSourceOffsetY(final int connection) {
+        return connectorOffsets[4 * connection + 1];
+    }
+
+    /**
+     * @param connection the index of a connection
+     * @return the x position of the target connector, relative to its node
+     */
+    public double getTargetOffsetX(final int connection) {
+        return connectorOffsets[4 * connection + 2];
+    }
+
+    /**
+     * @param connection the index of a connection
+     * @return the y position of the target connector, relative to its node
+     */
+    public double getTargetOffsetY(final int connection) {
+        return connectorOffsets[4 * connection + 3];
+    }
+
+    /**
+     * @param connection the index of a connection
+     * @return the side of the source connector, or {@code null} if its type is not a {@link DefaultConnectorTypes} type
+     */
+    public Side getSourceSide(final int connection) {
+        return sides[2 * connection];
+    }
+
+    /**
+     * @param connection the index of a connection
+     * @return the side of the target connector, or {@code null} if its type is not a {@link DefaultConnectorTypes} type
+     */
+    public Side getTargetSide(final int connection) {
+        return sides[2 * connection + 1];
+    }
+
+    /**
+     * Gets the model element of a node. Should only be used on the JavaFX application thread.
+     *
+     * @param node the index of a node
+     * @return the {@link GNode} the snapshot was taken from
+     */
+    public GNode getNode(final int node) {
+        return nodes.get(node);
+    }
+
+    /**
+     * Gets the model element of a connection. Should only be used on the JavaFX application thread.
+     *
+     * @param connection the index of a connection
+     * @return the {@link GConnection} the snapshot was taken from
+     */
+    public GConnection getConnection(final int connection) {
+        return connections.get(connection);
+    }
+
+    /**
+     * Checks whether the snapshot was taken from a model.
+     *
+     * @return {@code true} if the nodes and connections of the graph belong to a {@link GModel}
+     */
+    boolean hasModelElements() {
+        return nodes.size() == getNodeCount() && connections.size() == getConnectionCount();
+    }
+
+    /**
+     * Writes the position of the given connector relative to its parent node into the given array.
+     */
+    private static void setConnectorOffset(final double[] offsets, final int index, final GConnector connector,
+            final SkinLookup skinLookup) {
+
+        final GNodeSkin nodeSkin = skinLookup == null ? null : skinLookup.lookupNode(connector.getParent());
+        final GConnectorSkin connectorSkin = skinLookup == null ? null : skinLookup.lookupConnector(connector);
+
+        if (nodeSkin != null && connectorSkin != null) {
+
+            nodeSkin.layoutConnectors();
+
+            final Point2D position = nodeSkin.getConnectorPosition(connectorSkin);
+            offsets[index] = position.getX();
+            offsets[index + 1] = position.getY();
+
+        } else {
+            offsets[index] = connector.getX();
+            offsets[index + 1] = connector.getY();
+        }
+    }
+
+    private static Side getSide(final GConnector connector) {
+        return DefaultConnectorTypes.isValid(connector.getType()) ? DefaultConnectorTypes.getSide(connector.getType())
+                : null;
+    }
+}
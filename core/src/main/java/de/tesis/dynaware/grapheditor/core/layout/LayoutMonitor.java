@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.layout;
+
+/**
+ * Lets a long-running {@link LayoutAlgorithm} report intermediate node positions and check for cancellation.
+ *
+ * <p>
+ * Both methods are called on the thread running the layout.
+ * </p>
+ */
+public interface LayoutMonitor {
+
+    /**
+     * Checks whether the layout has been cancelled. Algorithms should return as soon as possible if it has.
+     *
+     * @return {@code true} if the result of the layout is no longer needed
+     */
+    boolean isCancelled();
+
+    /**
+     * Reports the current node positions.
+     *
+     * <p>
+     * May be called as often as the algorithm likes, e.g. once per iteration. The monitor decides whether to use the
+     * positions, and copies them if it does, so the algorithm may keep modifying the array afterwards.
+     * </p>
+     *
+     * @param positions alternating x and y positions of all nodes, in node index order
+     */
+    void publish(double[] positions);
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.layout;
+
+import java.util.List;
+
+import javafx.geometry.Point2D;
+import javafx.geometry.Side;
+
+import de.tesis.dynaware.grapheditor.core.skins.defaults.tail.RectangularPathCreator;
+import de.tesis.dynaware.grapheditor.utils.GeometryUtils;
+
+/**
+ * Helper methods for creating the joints of connections in a {@link LayoutResult}.
+ */
+final class LayoutPaths {
+
+    /**
+     * Static class.
+     */
+    private LayoutPaths() {
+    }
+
+    /**
+     * Creates the default rectangular path for a connection, based on the new positions of its nodes.
+     *
+     * @param graph the {@link LayoutGraph} being laid out
+     * @param result the {@link LayoutResult} containing the new node positions
+     * @param connection the index of the connection
+     * @return alternating x and y positions of the joints, or {@code null} to keep the existing joints if a connector
+     *         side is unknown
+     */
+    static double[] createRectangularPath(final LayoutGraph graph, final LayoutResult result, final int connection) {
+
+        final Side sourceSide = graph.getSourceSide(connection);
+        final Side targetSide = graph.getTargetSide(connection);
+
+        if (sourceSide == null || targetSide == null) {
+            return null;
+        }
+
+        final Point2D start = getSourcePosition(graph, result, connection);
+        final Point2D end = getTargetPosition(graph, result, connection);
+
+        return toJoints(RectangularPathCreator.createPath(start, end, sourceSide, targetSide));
+    }
+
+    /**
+     * Creates a path with two joints halfway between the connectors of a connection.
+     *
+     * <p>
+     * If the connectors face each other at the same height or position, the joints coincide and the connection is
+     * drawn as a straight line.
+     * </p>
+     *
+     * @param graph the {@link LayoutGraph} being laid out
+     * @param result the {@link LayoutResult} containing the new node positions
+     * @param connection the index of the connection, whose source side must be known
+     * @return alternating x and y positions of the two joints
+     */
+    static double[] createStraightPath(final LayoutGraph graph, final LayoutResult result, final int connection) {
+
+        final Point2D start = getSourcePosition(graph, result, connection);
+        final Point2D end = getTargetPosition(graph, result, connection);
+
+        return toJoints(RectangularPathCreator.createStraightPath(start, end, graph.getSourceSide(connection)));
+    }
+
+    /**
+     * Gets the position of the source connector of a connection, based on the new position of its node.
+     *
+     * @param graph the {@link LayoutGraph} being laid out
+     * @param result the {@link LayoutResult} containing the new node positions
+     * @param connection the index of the connection
+     * @return the pixel-aligned position of the source connector
+     */
+    static Point2D getSourcePosition(final LayoutGraph graph, final LayoutResult result, final int connection) {
+
+        final int source = graph.getSource(connection);
+        return new Point2D(GeometryUtils.moveOnPixel(result.getNodeX(source) + graph.getSourceOffsetX(connection)),
+                GeometryUtils.moveOnPixel(result.getNodeY(source) + graph.getSourceOffsetY(connection)));
+    }
+
+    /**
+     * Gets the position of the target connector of a connection, based on the new position of its node.
+     *
+     * @param graph the {@link LayoutGraph} being laid out
+     * @param result the {@link LayoutResult} containing the new node positions
+     * @param connection the index of the connection
+     * @return the pixel-aligned position of the target connector
+     */
+    static Point2D getTargetPosition(final LayoutGraph graph, final LayoutResult result, final int connection) {
+
+        final int target = graph.getTarget(connection);
+        return new Point2D(GeometryUtils.moveOnPixel(result.getNodeX(target) + graph.getTargetOffsetX(connection)),
+                GeometryUtils.moveOnPixel(result.getNodeY(target) + graph.getTargetOffsetY(connection)));
+    }
+
+    /**
+     * Converts a path into pixel-aligned alternating x and y positions.
+     */
+    private static double[] toJoints(final List<Point2D> path) {
+
+        final double[] joints = new double[2 * path.size()];
+        for (int i = 0; i < path.size(); i++) {
+            joints[2 * i] = GeometryUtils.moveOnPixel(path.get(i).getX());
+            joints[2 * i + 1] = GeometryUtils.moveOnPixel(path.get(i).getY());
+        }
+        return joints;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.layout;
+
+/**
+ * The output of a {@link LayoutAlgorithm}, i.e. a new position for every node and optionally new joints for every
+ * connection of a {@link LayoutGraph}.
+ *
+ * <p>
+ * Initially, every node is at the position it had when the snapshot was taken, and every connection keeps its joints.
+ * </p>
+ */
+public final class LayoutResult {
+
+    private final double[] nodePositions;
+    private final double[][] joints;
+
+    /**
+     * Creates a new layout result for the given graph.
+     *
+     * @param graph the {@link LayoutGraph} that is being laid out
+     */
+    public LayoutResult(final LayoutGraph graph) {
+
+        nodePositions = new double[2 * graph.getNodeCount()];
+        joints = new double[graph.getConnectionCount()][];
+
+        for (int i = 0; i < graph.getNodeCount(); i++) {
+            nodePositions[2 * i] = graph.getNodeX(i);
+            nodePositions[2 * i + 1] = graph.getNodeY(i);
+        }
+    }
+
+    /**
+     * Sets the new position of a node.
+     *
+     * @param node the index of the node
+     * @param x the new x position of the node
+     * @param y the new y position of the node
+     */
+    public void setNodePosition(final int node, final double x, final double y) {
+        nodePositions[2 * node] = x;
+        nodePositions[2 * node + 1] = y;
+    }
+
+    /**
+     * @param node the index of a node
+     * @return the new x position of the node
+     */
+    public double getNodeX(final int node) {
+        return nodePositions[2 * node];
+    }
+
+    /**
+     * @param node the index of a node
+     * @return the new y position of the node
+     */
+    public double getNodeY(final int node) {
+        return nodePositions[2 * node + 1];
+    }
+
+    /**
+     * Sets the new joints of a connection.
+     *
+     * @param connection the index of the connection
+     * @param positions alternating x and y positions of the new joints, or {@code null} to keep the existing joints
+     */
+    public void setJoints(final int connection, final double[] positions) {
+        joints[connection] = positions;
+    }
+
+    /**
+     * @param connection the index of a connection
+     * @return alternating x and y positions of the new joints, or {@code null} if the joints should not be changed
+     */
+    public double[] getJoints(final int connection) {
+        return joints[connection];
+    }
+}
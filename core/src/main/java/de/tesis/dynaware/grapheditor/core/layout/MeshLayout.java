@@ -0,0 +1,327 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.layout;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import javafx.geometry.Side;
+
+/**
+ * A layout for 2D mesh and torus topologies, such as network-on-chip models.
+ *
+ * <p>
+ * The row and column of every node are inferred from its connectors. A connection from a right-side connector to a
+ * left-side connector means that its target is east of its source, a connection from a bottom-side connector to a
+ * top-side connector means that its target is south of its source, and so on. The coordinates are propagated from a
+ * corner node in a breadth-first search, so the layout takes linear time.
+ * </p>
+ *
+ * <p>
+ * If walking east or south from the corner leads back to it, the graph is a torus in that direction and coordinates
+ * wrap around. Wrap-around connections and connections that do not fit the lattice get the default rectangular path.
+ * All other connections join neighboring nodes and get two aligned joints, so they are drawn as straight lines.
+ * </p>
+ *
+ * <p>
+ * Each connected component is laid out as its own lattice, below the previous one. Unconnected nodes and nodes that
+ * collide with another node in their lattice are placed in rows below all lattices.
+ * </p>
+ */
+public class MeshLayout implements LayoutAlgorithm {
+
+    private static final double MARGIN = 40;
+    private static final double SPACING = 60;
+
+    private static final int NORTH = 0;
+    private static final int EAST = 1;
+    private static final int SOUTH = 2;
+    private static final int WEST = 3;
+
+    private static final int[] ROW_STEPS = { -1, 0, 1, 0 };
+    private static final int[] COLUMN_STEPS = { 0, 1, 0, -1 };
+
+    @Override
+    public LayoutResult layout(final LayoutGraph graph) {
+
+        final LayoutResult result = new LayoutResult(graph);
+        final int nodeCount = graph.getNodeCount();
+
+        final int[] neighbors = findNeighbors(graph);
+
+        final int[] rows = new int[nodeCount];
+        final int[] columns = new int[nodeCount];
+        final boolean[] placed = new boolean[nodeCount];
+        final boolean[] visited = new boolean[nodeCount];
+
+        final int[] component = new int[nodeCount];
+        final int[] queue = new int[nodeCount];
+        final int[] overflow = new int[nodeCount];
+        int overflowCount = 0;
+
+        double top = MARGIN;
+
+        for (int start = 0; start < nodeCount; start++) {
+
+            if (visited[start]) {
+                continue;
+            }
+
+            final int size = collectComponent(start, neighbors, visited, component);
+
+            if (size == 1) {
+                overflow[overflowCount++] = start;
+                continue;
+            }
+
+            final int origin = findOrigin(component, size, neighbors);
+
+            final int width = findPeriod(origin, EAST, neighbors, size);
+            final int height = findPeriod(origin, SOUTH, neighbors, size);
+
+            assignCoordinates(origin, neighbors, width, height, rows, columns, placed, queue);
+
+            int minRow = Integer.MAX_VALUE;
+            int minColumn = Integer.MAX_VALUE;
+            double cellWidth = 0;
+            double cellHeight = 0;
+
+            for (int i = 0; i < size; i++) {
+                final int node = component[i];
+                minRow = Math.min(minRow, rows[node]);
+                minColumn = Math.min(minColumn, columns[node]);
+                cellWidth = Math.max(cellWidth, graph.getNodeWidth(node));
+                cellHeight = Math.max(cellHeight, graph.getNodeHeight(node));
+            }
+
+            final Map<Long, Integer> cells = new HashMap<>(2 * size);
+            int maxRow = 0;
+
+            for (int i = 0; i < size; i++) {
+
+                final int node = component[i];
+                final int row = rows[node] - minRow;
+                final int column = columns[node] - minColumn;
+
+                rows[node] = row;
+                columns[node] = column;
+
+                if (cells.putIfAbsent((long) row << 32 | column, node) != null) {
+                    placed[node] = false;
+                    overflow[overflowCount++] = node;
+                    continue;
+                }
+
+                maxRow = Math.max(maxRow, row);
+
+                final double x = MARGIN + column * (cellWidth + SPACING) + (cellWidth - graph.getNodeWidth(node)) / 2;
+                final double y = top + row * (cellHeight + SPACING) + (cellHeight - graph.getNodeHeight(node)) / 2;
+                result.setNodePosition(node, Math.round(x), Math.round(y));
+            }
+
+            top += (maxRow + 1) * (cellHeight + SPACING);
+        }
+
+        placeInRows(graph, result, overflow, overflowCount, top);
+
+        for (int e = 0; e < graph.getConnectionCount(); e++) {
+
+            final int direction = getDirection(graph.getSourceSide(e), graph.getTargetSide(e));
+            final int source = graph.getSource(e);
+            final int target = graph.getTarget(e);
+
+            final boolean adjacent = direction >= 0 && placed[source] && placed[target]
+                    && rows[target] - rows[source] == ROW_STEPS[direction]
+                    && columns[target] - columns[source] == COLUMN_STEPS[direction];
+
+            if (adjacent) {
+                result.setJoints(e, LayoutPaths.createStraightPath(graph, result, e));
+            } else {
+                result.setJoints(e, LayoutPaths.createRectangularPath(graph, result, e));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Places the given nodes in rows of roughly equal length, starting at the given y position.
+     */
+    private static void placeInRows(final LayoutGraph graph, final LayoutResult result, final int[] nodes,
+            final int count, final double top) {
+
+        final int perRow = (int) Math.ceil(Math.sqrt(count));
+
+        double x = MARGIN;
+        double y = top;
+        double rowHeight = 0;
+
+        for (int i = 0; i < count; i++) {
+
+            if (i > 0 && i % perRow == 0) {
+                x = MARGIN;
+                y += rowHeight + SPACING;
+                rowHeight = 0;
+            }
+
+            result.setNodePosition(nodes[i], Math.round(x), Math.round(y));
+
+            x += graph.getNodeWidth(nodes[i]) + SPACING;
+            rowHeight = Math.max(rowHeight, graph.getNodeHeight(nodes[i]));
+        }
+    }
+
+    /**
+     * Finds the north, east, south, and west neighbor of every node.
+     *
+     * @return an array containing the neighbors of node i at indices 4i to 4i + 3, or -1 if there is no neighbor
+     */
+    private static int[] findNeighbors(final LayoutGraph graph) {
+
+        final int[] neighbors = new int[4 * graph.getNodeCount()];
+        Arrays.fill(neighbors, -1);
+
+        for (int e = 0; e < graph.getConnectionCount(); e++) {
+
+            final int direction = getDirection(graph.getSourceSide(e), graph.getTargetSide(e));
+            final int source = graph.getSource(e);
+            final int target = graph.getTarget(e);
+
+            if (direction < 0 || source == target) {
+                continue;
+            }
+
+            if (neighbors[4 * source + direction] < 0) {
+                neighbors[4 * source + direction] = target;
+            }
+            if (neighbors[4 * target + (direction + 2) % 4] < 0) {
+                neighbors[4 * target + (direction + 2) % 4] = source;
+            }
+        }
+        return neighbors;
+    }
+
+    /**
+     * Gets the direction from the source to the target of a connection between the given sides.
+     *
+     * @return {@link #NORTH}, {@link #EAST}, {@link #SOUTH}, or {@link #WEST}, or -1 if the sides are not opposite
+     */
+    private static int getDirection(final Side sourceSide, final Side targetSide) {
+
+        if (Side.RIGHT.equals(sourceSide) && Side.LEFT.equals(targetSide)) {
+            return EAST;
+        } else if (Side.LEFT.equals(sourceSide) && Side.RIGHT.equals(targetSide)) {
+            return WEST;
+        } else if (Side.BOTTOM.equals(sourceSide) && Side.TOP.equals(targetSide)) {
+            return SOUTH;
+        } else if (Side.TOP.equals(sourceSide) && Side.BOTTOM.equals(targetSide)) {
+            return NORTH;
+        }
+        return -1;
+    }
+
+    /**
+     * Collects all nodes connected to the given node via neighbor links.
+     *
+     * @return the number of nodes written into the component array
+     */
+    private static int collectComponent(final int start, final int[] neighbors, final boolean[] visited,
+            final int[] component) {
+
+        int head = 0;
+        int tail = 0;
+
+        component[tail++] = start;
+        visited[start] = true;
+
+        while (head < tail) {
+
+            final int node = component[head++];
+
+            for (int direction = 0; direction < 4; direction++) {
+
+                final int neighbor = neighbors[4 * node + direction];
+                if (neighbor >= 0 && !visited[neighbor]) {
+                    visited[neighbor] = true;
+                    component[tail++] = neighbor;
+                }
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * Finds a node without north and west neighbors, or the first node of the component if there is none.
+     */
+    private static int findOrigin(final int[] component, final int size, final int[] neighbors) {
+
+        for (int i = 0; i < size; i++) {
+            final int node = component[i];
+            if (neighbors[4 * node + NORTH] < 0 && neighbors[4 * node + WEST] < 0) {
+                return node;
+            }
+        }
+        return component[0];
+    }
+
+    /**
+     * Walks from the origin in the given direction.
+     *
+     * @return the number of steps it takes to get back to the origin, or 0 if the walk does not lead back to it
+     */
+    private static int findPeriod(final int origin, final int direction, final int[] neighbors, final int limit) {
+
+        int node = neighbors[4 * origin + direction];
+        int steps = 1;
+
+        while (node >= 0 && node != origin && steps <= limit) {
+            node = neighbors[4 * node + direction];
+            steps++;
+        }
+        return node == origin ? steps : 0;
+    }
+
+    /**
+     * Propagates row and column values from the origin in a breadth-first search.
+     *
+     * <p>
+     * In a direction with a period, values are taken modulo the period, so that wrap-around links do not shift the
+     * lattice.
+     * </p>
+     */
+    private static void assignCoordinates(final int origin, final int[] neighbors, final int width, final int height,
+            final int[] rows, final int[] columns, final boolean[] placed, final int[] queue) {
+
+        int head = 0;
+        int tail = 0;
+
+        queue[tail++] = origin;
+        rows[origin] = 0;
+        columns[origin] = 0;
+        placed[origin] = true;
+
+        while (head < tail) {
+
+            final int node = queue[head++];
+
+            for (int direction = 0; direction < 4; direction++) {
+
+                final int neighbor = neighbors[4 * node + direction];
+                if (neighbor < 0 || placed[neighbor]) {
+                    continue;
+                }
+
+                rows[neighbor] = wrap(rows[node] + ROW_STEPS[direction], height);
+                columns[neighbor] = wrap(columns[node] + COLUMN_STEPS[direction], width);
+                placed[neighbor] = true;
+                queue[tail++] = neighbor;
+            }
+        }
+    }
+
+    private static int wrap(final int value, final int period) {
+        return period > 0 ? Math.floorMod(value, period) : value;
+    }
+}
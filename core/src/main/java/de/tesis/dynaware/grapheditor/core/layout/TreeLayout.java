@@ -0,0 +1,433 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.layout;
+
+import java.util.Arrays;
+
+/**
+ * A tidy tree layout, with the root at the top and children below their parents.
+ *
+ * <p>
+ * Uses the algorithm of Buchheim, Juenger and Leipert, an improvement of Reingold and Tilford's algorithm that runs in
+ * linear time for trees of any degree. Subtrees are placed as close together as possible without overlapping, parents
+ * are centered above their children, and identical subtrees are drawn identically. Both tree walks are iterative, so
+ * trees of any depth can be laid out.
+ * </p>
+ *
+ * <p>
+ * The tree is a spanning forest of the graph, found by a breadth-first search along connections from their source to
+ * their target. Nodes without incoming connections are the roots; nodes in cycles unreachable from any root start
+ * trees of their own. Siblings keep the left-to-right order of their current positions, and the trees of the forest
+ * are placed side by side.
+ * </p>
+ *
+ * <p>
+ * Connections between connectors of the default types get the default rectangular path. All other connections, e.g.
+ * those of the tree skins, keep their joints.
+ * </p>
+ */
+public class TreeLayout implements LayoutAlgorithm {
+
+    private static final double MARGIN = 40;
+    private static final double NODE_SPACING = 40;
+    private static final double LEVEL_SPACING = 80;
+
+    @Override
+    public LayoutResult layout(final LayoutGraph graph) {
+
+        final LayoutResult result = new LayoutResult(graph);
+
+        if (graph.getNodeCount() > 0) {
+            new Run(graph).placeNodes(result);
+        }
+
+        for (int e = 0; e < graph.getConnectionCount(); e++) {
+            result.setJoints(e, LayoutPaths.createRectangularPath(graph, result, e));
+        }
+
+        return result;
+    }
+
+    /**
+     * The state of a single layout run. A virtual root with index n is the parent of the roots of all trees.
+     */
+    private static final class Run {
+
+        private final LayoutGraph graph;
+        private final int root;
+
+        private final int[] parents;
+        private final int[] childStart;
+        private final int[] children;
+        private final int[] numbers;
+        private final int[] order;
+        private final int[] depths;
+
+        private final double[] prelims;
+        private final double[] mods;
+        private final double[] shifts;
+        private final double[] changes;
+        private final double[] midpoints;
+        private final int[] threads;
+        private final int[] ancestors;
+
+        private Run(final LayoutGraph graph) {
+
+            this.graph = graph;
+
+            final int count = graph.getNodeCount() + 1;
+            root = count - 1;
+
+            parents = findParents();
+            childStart = new int[count + 1];
+            children = new int[count - 1];
+            numbers = new int[count];
+            order = new int[count];
+            depths = new int[count];
+
+            prelims = new double[count];
+            mods = new double[count];
+            shifts = new double[count];
+            changes = new double[count];
+            midpoints = new double[count];
+            threads = new int[count];
+            ancestors = new int[count];
+
+            Arrays.fill(threads, -1);
+            for (int v = 0; v < count; v++) {
+                ancestors[v] = v;
+            }
+
+            createChildLists();
+            findBreadthFirstOrder();
+        }
+
+        /**
+         * Calculates the node positions and writes them into the given result.
+         */
+        private void placeNodes(final LayoutResult result) {
+
+            for (int i = order.length - 1; i >= 0; i--) {
+                firstWalk(order[i]);
+            }
+
+            final double[] x = secondWalk();
+
+            final int maxDepth = depths[order[order.length - 1]];
+            final double[] levelTops = new double[maxDepth + 2];
+
+            for (int v = 0; v < root; v++) {
+                levelTops[depths[v] + 1] = Math.max(levelTops[depths[v] + 1], graph.getNodeHeight(v));
+            }
+
+            double top = MARGIN;
+            for (int depth = 1; depth < levelTops.length; depth++) {
+                final double height = levelTops[depth];
+                levelTops[depth] = top;
+                top += height + LEVEL_SPACING;
+            }
+
+            double minLeft = Double.MAX_VALUE;
+            for (int v = 0; v < root; v++) {
+                minLeft = Math.min(minLeft, x[v] - graph.getNodeWidth(v) / 2);
+            }
+
+            for (int v = 0; v < root; v++) {
+                final double left = x[v] - graph.getNodeWidth(v) / 2 - minLeft + MARGIN;
+                result.setNodePosition(v, Math.round(left), Math.round(levelTops[depths[v] + 1]));
+            }
+        }
+
+        /**
+         * Finds the parent of every node in a breadth-first search along connections.
+         *
+         * @return the parent of each node, the virtual root for the roots of the trees, and -1 for the virtual root
+         */
+        private int[] findParents() {
+
+            final int nodeCount = graph.getNodeCount();
+            final int connectionCount = graph.getConnectionCount();
+
+            final int[] start = new int[nodeCount + 1];
+            final boolean[] hasIncoming = new boolean[nodeCount];
+
+            for (int e = 0; e < connectionCount; e++) {
+                if (graph.getSource(e) != graph.getTarget(e)) {
+                    start[graph.getSource(e) + 1]++;
+                    hasIncoming[graph.getTarget(e)] = true;
+                }
+            }
+            for (int v = 1; v <= nodeCount; v++) {
+                start[v] += start[v - 1];
+            }
+
+            final int[] targets = new int[start[nodeCount]];
+            final int[] fill = Arrays.copyOf(start, nodeCount);
+
+            for (int e = 0; e < connectionCount; e++) {
+                if (graph.getSource(e) != graph.getTarget(e)) {
+                    targets[fill[graph.getSource(e)]++] = graph.getTarget(e);
+                }
+            }
+
+            final int[] result = new int[nodeCount];
+            Arrays.fill(result, -1);
+
+            final int[] queue = new int[nodeCount];
+            int tail = 0;
+
+            // Nodes without incoming connections first, then any nodes left over in cycles.
+            for (int pass = 0; pass < 2; pass++) {
+                for (int v = 0; v < nodeCount; v++) {
+
+                    if (result[v] >= 0 || pass == 0 && hasIncoming[v]) {
+                        continue;
+                    }
+
+                    result[v] = nodeCount;
+                    int head = tail;
+                    queue[tail++] = v;
+
+                    while (head < tail) {
+
+                        final int u = queue[head++];
+
+                        for (int j = start[u]; j < start[u + 1]; j++) {
+                            if (result[targets[j]] < 0) {
+                                result[targets[j]] = u;
+                                queue[tail++] = targets[j];
+                            }
+                        }
+                    }
+                }
+            }
+
+            final int[] parentsWithRoot = Arrays.copyOf(result, nodeCount + 1);
+            parentsWithRoot[nodeCount] = -1;
+            return parentsWithRoot;
+        }
+
+        /**
+         * Creates the child lists in compressed form, ordering siblings by their current x position.
+         */
+        private void createChildLists() {
+
+            final long[] keys = new long[root];
+            for (int v = 0; v < root; v++) {
+                final int bits = Float.floatToIntBits((float) graph.getNodeX(v));
+                // Flips the bits of negative values, so that the keys sort in the same order as the positions.
+                keys[v] = (long) (bits ^ bits >> 31 & Integer.MAX_VALUE) << 32 | v;
+            }
+            Arrays.sort(keys);
+
+            for (int v = 0; v < root; v++) {
+                childStart[parents[v] + 1]++;
+            }
+            for (int v = 1; v < childStart.length; v++) {
+                childStart[v] += childStart[v - 1];
+            }
+
+            final int[] fill = Arrays.copyOf(childStart, root + 1);
+
+            for (int i = 0; i < root; i++) {
+                final int v = (int) keys[i];
+                numbers[v] = fill[parents[v]] - childStart[parents[v]];
+                children[fill[parents[v]]++] = v;
+            }
+        }
+
+        private void findBreadthFirstOrder() {
+
+            int head = 0;
+            int tail = 0;
+
+            order[tail++] = root;
+            depths[root] = -1;
+
+            while (head < tail) {
+
+                final int v = order[head++];
+
+                for (int j = childStart[v]; j < childStart[v + 1]; j++) {
+                    depths[children[j]] = depths[v] + 1;
+                    order[tail++] = children[j];
+                }
+            }
+        }
+
+        /**
+         * Places the children of the given node relative to each other, once all their subtrees have been placed.
+         */
+        private void firstWalk(final int v) {
+
+            if (isLeaf(v)) {
+                return;
+            }
+
+            int defaultAncestor = children[childStart[v]];
+
+            for (int j = childStart[v]; j < childStart[v + 1]; j++) {
+
+                final int w = children[j];
+
+                if (j > childStart[v]) {
+                    final int left = children[j - 1];
+                    prelims[w] = prelims[left] + getDistance(left, w);
+                    if (!isLeaf(w)) {
+                        mods[w] = prelims[w] - midpoints[w];
+                    }
+                } else {
+                    prelims[w] = isLeaf(w) ? 0 : midpoints[w];
+                }
+
+                defaultAncestor = apportion(w, defaultAncestor);
+            }
+
+            executeShifts(v);
+
+            final int first = children[childStart[v]];
+            final int last = children[childStart[v + 1] - 1];
+            midpoints[v] = (prelims[first] + prelims[last]) / 2;
+
+            if (v == root) {
+                prelims[v] = midpoints[v];
+            }
+        }
+
+        /**
+         * Moves the subtree of the given node right until it no longer overlaps the subtrees of its left siblings.
+         */
+        private int apportion(final int v, final int defaultAncestor) {
+
+            final int first = children[childStart[parents[v]]];
+            if (v == first) {
+                return defaultAncestor;
+            }
+
+            int innerRight = v;
+            int outerRight = v;
+            int innerLeft = children[childStart[parents[v]] + numbers[v] - 1];
+            int outerLeft = first;
+
+            double innerRightMod = mods[innerRight];
+            double outerRightMod = mods[outerRight];
+            double innerLeftMod = mods[innerLeft];
+            double outerLeftMod = mods[outerLeft];
+
+            int ancestor = defaultAncestor;
+
+            while (nextRight(innerLeft) >= 0 && nextLeft(innerRight) >= 0) {
+
+                innerLeft = nextRight(innerLeft);
+                innerRight = nextLeft(innerRight);
+                outerLeft = nextLeft(outerLeft);
+                outerRight = nextRight(outerRight);
+
+                ancestors[outerRight] = v;
+
+                final double shift = prelims[innerLeft] + innerLeftMod - prelims[innerRight] - innerRightMod
+                        + getDistance(innerLeft, innerRight);
+
+                if (shift > 0) {
+                    final int left = parents[ancestors[innerLeft]] == parents[v] ? ancestors[innerLeft] : ancestor;
+                    moveSubtree(left, v, shift);
+                    innerRightMod += shift;
+                    outerRightMod += shift;
+                }
+
+                innerLeftMod += mods[innerLeft];
+                innerRightMod += mods[innerRight];
+                outerLeftMod += mods[outerLeft];
+                outerRightMod += mods[outerRight];
+            }
+
+            if (nextRight(innerLeft) >= 0 && nextRight(outerRight) < 0) {
+                threads[outerRight] = nextRight(innerLeft);
+                mods[outerRight] += innerLeftMod - outerRightMod;
+            }
+
+            if (nextLeft(innerRight) >= 0 && nextLeft(outerLeft) < 0) {
+                threads[outerLeft] = nextLeft(innerRight);
+                mods[outerLeft] += innerRightMod - outerLeftMod;
+                ancestor = v;
+            }
+
+            return ancestor;
+        }
+
+        /**
+         * Moves the subtree of the right node by the given amount, and spreads the shift over the siblings in between.
+         */
+        private void moveSubtree(final int left, final int right, final double shift) {
+
+            final double change = shift / (numbers[right] - numbers[left]);
+
+            changes[right] -= change;
+            shifts[right] += shift;
+            changes[left] += change;
+            prelims[right] += shift;
+            mods[right] += shift;
+        }
+
+        private void executeShifts(final int v) {
+
+            double shift = 0;
+            double change = 0;
+
+            for (int j = childStart[v + 1] - 1; j >= childStart[v]; j--) {
+
+                final int w = children[j];
+
+                prelims[w] += shift;
+                mods[w] += shift;
+                change += changes[w];
+                shift += shifts[w] + change;
+            }
+        }
+
+        /**
+         * Adds up the modifiers from the root downwards.
+         *
+         * @return the x position of the center of every node
+         */
+        private double[] secondWalk() {
+
+            final double[] modSums = new double[order.length];
+            final double[] x = new double[order.length];
+
+            for (final int v : order) {
+
+                x[v] = prelims[v] + modSums[v];
+
+                for (int j = childStart[v]; j < childStart[v + 1]; j++) {
+                    modSums[children[j]] = modSums[v] + mods[v];
+                }
+            }
+            return x;
+        }
+
+        private boolean isLeaf(final int v) {
+            return childStart[v] == childStart[v + 1];
+        }
+
+        private int nextLeft(final int v) {
+            return isLeaf(v) ? threads[v] : children[childStart[v]];
+        }
+
+        private int nextRight(final int v) {
+            return isLeaf(v) ? threads[v] : children[childStart[v + 1] - 1];
+        }
+
+        /**
+         * Gets the minimum distance between the centers of two nodes on the same level.
+         */
+        private double getDistance(final int left, final int right) {
+            return (getWidth(left) + getWidth(right)) / 2 + NODE_SPACING;
+        }
+
+        private double getWidth(final int v) {
+            return v == root ? 0 : graph.getNodeWidth(v);
+        }
+    }
+}
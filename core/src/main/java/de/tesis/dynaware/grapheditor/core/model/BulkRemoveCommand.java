@@ -0,0 +1,258 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.common.command.AbstractCommand;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.impl.ENotificationImpl;
+import org.eclipse.emf.ecore.util.InternalEList;
+
+/**
+ * A command that removes many objects from many lists in one go.
+ *
+ * <p>
+ * The EMF {@link org.eclipse.emf.edit.command.RemoveCommand} looks up the index of every removed object in its list,
+ * so removing thousands of elements in one command takes quadratic time, and one command per element is even worse.
+ * This command instead collects the objects to remove per list in a hash set and finds them in a single pass over each
+ * list. Undo information is one index array per list. Redo removes the objects by these indices, from the back of the
+ * list, so no list is ever searched for a removed object.
+ * </p>
+ *
+ * <p>
+ * Listeners get one notification per list when the command is executed or redone. When it is undone, they get one
+ * notification per run of objects that were next to each other in the list.
+ * </p>
+ *
+ * <p>
+ * Objects are added with {@link #remove(EObject, EReference, Object)} before the command is executed. Objects that
+ * are not in the given list when the command is executed are ignored.
+ * </p>
+ */
+public class BulkRemoveCommand extends AbstractCommand {
+
+    private static final String LABEL = "Remove";
+
+    private final Map<Owner, Set<Object>> toRemove = new LinkedHashMap<>();
+    private final List<Removal> removals = new ArrayList<>();
+
+    /**
+     * Creates a new, empty bulk-remove command.
+     */
+    public BulkRemoveCommand() {
+        super(LABEL);
+    }
+
+    /**
+     * Adds an object to be removed from the given many-valued reference of the given owner.
+     *
+     * @param owner the {@link EObject} that owns the list
+     * @param reference the many-valued {@link EReference} of the list
+     * @param object the object to remove from the list
+     */
+    public void remove(final EObject owner, final EReference reference, final Object object) {
+        toRemove.computeIfAbsent(new Owner(owner, reference), key -> new HashSet<>()).add(object);
+    }
+
+    /**
+     * Checks whether any objects were added to this command.
+     *
+     * @return {@code true} if executing this command would not remove anything
+     */
+    public boolean isEmpty() {
+        return toRemove.isEmpty();
+    }
+
+    @Override
+    protected boolean prepare() {
+        return !toRemove.isEmpty();
+    }
+
+    @Override
+    public void execute() {
+
+        removals.clear();
+
+        for (final Map.Entry<Owner, Set<Object>> entry : toRemove.entrySet()) {
+
+            final EList<Object> list = entry.getKey().getList();
+            final Set<Object> objects = entry.getValue();
+
+            final int[] indices = new int[Math.min(objects.size(), list.size())];
+            final Object[] removed = new Object[indices.length];
+            int count = 0;
+
+            for (int i = 0; i < list.size() && count < indices.length; i++) {
+                final Object object = list.get(i);
+                if (objects.contains(object)) {
+                    indices[count] = i;
+                    removed[count++] = object;
+                }
+            }
+
+            if (count > 0) {
+                removals.add(new Removal(entry.getKey(), list, indices, removed, count));
+            }
+        }
+
+        redo();
+    }
+
+    @Override
+    public void undo() {
+
+        for (int r = removals.size() - 1; r >= 0; r--) {
+
+            final Removal removal = removals.get(r);
+            final InternalEList<Object> list = (InternalEList<Object>) removal.list;
+
+            // Ascending order, so that each object goes back to exactly the index it was removed from. Each run of
+            // objects removed from consecutive indices is added back in one go, with a single notification.
+            int start = 0;
+            while (start < removal.count) {
+
+                int end = start + 1;
+                while (end < removal.count && removal.indices[end] == removal.indices[end - 1] + 1) {
+                    end++;
+                }
+
+                if (end - start == 1) {
+                    list.addUnique(removal.indices[start], removal.removed[start]);
+                } else {
+                    list.addAllUnique(removal.indices[start], removal.getRemoved(start, end));
+                }
+                start = end;
+            }
+        }
+    }
+
+    @Override
+    public void redo() {
+
+        for (final Removal removal : removals) {
+
+            if (removal.count == 1) {
+                removal.list.remove(removal.indices[0]);
+                continue;
+            }
+
+            final EObject owner = removal.owner.object;
+            final boolean deliver = owner.eDeliver();
+
+            // Descending order, so that the indices of the objects still to be removed stay valid. The notifications
+            // of the single removals are replaced by one for all objects removed from the list.
+            owner.eSetDeliver(false);
+            try {
+                for (int i = removal.count - 1; i >= 0; i--) {
+                    removal.list.remove(removal.indices[i]);
+                }
+            } finally {
+                owner.eSetDeliver(deliver);
+            }
+
+            if (owner.eNotificationRequired()) {
+                owner.eNotify(removal.createNotification());
+            }
+        }
+    }
+
+    @Override
+    public Collection<?> getResult() {
+        return getAffectedObjects();
+    }
+
+    @Override
+    public Collection<?> getAffectedObjects() {
+
+        final List<Object> affected = new ArrayList<>();
+        for (final Removal removal : removals) {
+            for (int i = 0; i < removal.count; i++) {
+                affected.add(removal.removed[i]);
+            }
+        }
+        return affected;
+    }
+
+    /**
+     * A list, identified by the object that owns it and the reference it belongs to.
+     */
+    private static class Owner {
+
+        private final EObject object;
+        private final EReference reference;
+
+        Owner(final EObject object, final EReference reference) {
+            this.object = object;
+            this.reference = reference;
+        }
+
+        @SuppressWarnings("unchecked")
+        EList<Object> getList() {
+            return (EList<Object>) object.eGet(reference);
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof Owner && ((Owner) other).object == object
+                    && ((Owner) other).reference == reference;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(object) + reference.hashCode();
+        }
+    }
+
+    /**
+     * The objects removed from one list and the indices they were removed from, in ascending order.
+     */
+    private static class Removal {
+
+        private final Owner owner;
+        private final EList<Object> list;
+        private final int[] indices;
+        private final Object[] removed;
+        private final int count;
+
+        Removal(final Owner owner, final EList<Object> list, final int[] indices, final Object[] removed,
+                final int count) {
+            this.owner = owner;
+            this.list = list;
+            this.indices = indices;
+            this.removed = removed;
+            this.count = count;
+        }
+
+        /**
+         * Gets the removed objects in the given range, in the order they had in the list.
+         */
+        List<Object> getRemoved(final int from, final int to) {
+            return Arrays.asList(removed).subList(from, to);
+        }
+
+        /**
+         * Creates the notification that the list sends when all objects are removed with one call.
+         */
+        Notification createNotification() {
+
+            final List<Object> oldValue = new ArrayList<>(getRemoved(0, count));
+            final int[] positions = Arrays.copyOf(indices, count);
+
+            return new ENotificationImpl((InternalEObject) owner.object, Notification.REMOVE_MANY, owner.reference,
+                    oldValue, positions, indices[0]);
+        }
+    }
+}
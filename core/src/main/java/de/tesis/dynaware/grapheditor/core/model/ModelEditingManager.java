@@ -3,9 +3,10 @@
  */
 package de.tesis.dynaware.grapheditor.core.model;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
-import org.eclipse.emf.common.command.BasicCommandStack;
 import org.eclipse.emf.common.command.CommandStackListener;
 import org.eclipse.emf.common.command.CompoundCommand;
 import org.eclipse.emf.common.notify.AdapterFactory;
@@ -13,7 +14,6 @@ import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EReference;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.xmi.impl.XMIResourceFactoryImpl;
-import org.eclipse.emf.edit.command.RemoveCommand;
 import org.eclipse.emf.edit.domain.AdapterFactoryEditingDomain;
 import org.eclipse.emf.edit.domain.EditingDomain;
 import org.eclipse.emf.edit.provider.ComposedAdapterFactory;
@@ -27,6 +27,7 @@ import de.tesis.dynaware.grapheditor.model.GConnector;
 import de.tesis.dynaware.grapheditor.model.GModel;
 import de.tesis.dynaware.grapheditor.model.GNode;
 import de.tesis.dynaware.grapheditor.model.GraphPackage;
+import de.tesis.dynaware.grapheditor.utils.GraphEditorMetrics;
 
 /**
  * Provides utility methods to edit the graph model via EMF commands.
@@ -40,6 +41,7 @@ public class ModelEditingManager {
     private static final URI DEFAULT_URI = URI.createFileURI("");
 
     private final CommandStackListener commandStackListener;
+    private final GraphEditorMetrics metrics;
 
     private EditingDomain editingDomain;
     private GModel model;
@@ -51,9 +53,13 @@ public class ModelEditingManager {
      * @param commandStackListener
      *            the {@link CommandStackListener} that listens for changes in
      *            the model
+     * @param metrics
+     *            the {@link GraphEditorMetrics} that command executions are
+     *            recorded in
      */
-    public ModelEditingManager(final CommandStackListener commandStackListener) {
+    public ModelEditingManager(final CommandStackListener commandStackListener, final GraphEditorMetrics metrics) {
         this.commandStackListener = commandStackListener;
+        this.metrics = metrics;
     }
 
     /**
@@ -99,7 +105,10 @@ public class ModelEditingManager {
      * compound command.
      *
      * <p>
-     * All references to the removed elements are also removed.
+     * All references to the removed elements are also removed. The removal is
+     * done by one {@link BulkRemoveCommand}, which never searches a list for a
+     * removed element. Deleting thousands of elements is therefore fast, and is
+     * undone in one step.
      * </p>
      *
      * @param nodesToRemove
@@ -110,26 +119,30 @@ public class ModelEditingManager {
     public CompoundCommand remove(final List<GNode> nodesToRemove, final List<GConnection> connectionsToRemove) {
 
         final CompoundCommand command = new CompoundCommand();
+        final BulkRemoveCommand bulkRemoveCommand = new BulkRemoveCommand();
+        final Set<GNode> removedNodes = new HashSet<>(nodesToRemove);
 
         for (final GNode node : nodesToRemove) {
-            command.append(RemoveCommand.create(editingDomain, model, NODES, node));
+            bulkRemoveCommand.remove(model, NODES, node);
         }
 
         for (final GConnection connection : connectionsToRemove) {
-            command.append(RemoveCommand.create(editingDomain, model, CONNECTIONS, connection));
+            bulkRemoveCommand.remove(model, CONNECTIONS, connection);
 
             final GConnector source = connection.getSource();
             final GConnector target = connection.getTarget();
 
-            if (!nodesToRemove.contains(source.getParent())) {
-                command.append(RemoveCommand.create(editingDomain, source, CONNECTOR_CONNECTIONS, connection));
+            if (!removedNodes.contains(source.getParent())) {
+                bulkRemoveCommand.remove(source, CONNECTOR_CONNECTIONS, connection);
             }
 
-            if (!nodesToRemove.contains(target.getParent())) {
-                command.append(RemoveCommand.create(editingDomain, target, CONNECTOR_CONNECTIONS, connection));
+            if (!removedNodes.contains(target.getParent())) {
+                bulkRemoveCommand.remove(target, CONNECTOR_CONNECTIONS, connection);
             }
         }
 
+        command.append(bulkRemoveCommand);
+
         if (command.canExecute()) {
             editingDomain.getCommandStack().execute(command);
         }
@@ -142,7 +155,9 @@ public class ModelEditingManager {
      *
      * <p>
      * If a resource and/or editing domain are already associated to this model,
-     * these will be used. Otherwise they will be created.
+     * these will be used. Otherwise they will be created, with a
+     * {@link TimedCommandStack} so that command executions show up in the
+     * editor's metrics.
      * </p>
      */
     private void initializeEditingDomain(final GModel oldModel, final GModel newModel) {
@@ -169,7 +184,7 @@ public class ModelEditingManager {
             final Registry registry = ComposedAdapterFactory.Descriptor.Registry.INSTANCE;
             final AdapterFactory adapterFactory = new ComposedAdapterFactory(registry);
 
-            editingDomain = new AdapterFactoryEditingDomain(adapterFactory, new BasicCommandStack());
+            editingDomain = new AdapterFactoryEditingDomain(adapterFactory, new TimedCommandStack(metrics));
             editingDomain.getResourceSet().getResources().add(newModel.eResource());
         }
 
@@ -3,8 +3,9 @@
  */
 package de.tesis.dynaware.grapheditor.core.model;
 
-import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Supplier;
 
 import de.tesis.dynaware.grapheditor.GJointSkin;
@@ -26,7 +27,7 @@ public class ModelLayoutUpdater {
 
     private final SkinLookup skinLookup;
     private final ModelEditingManager modelEditingManager;
-    private final List<Node> registeredElements = new ArrayList<>();
+    private final Set<Node> registeredElements = new HashSet<>();
     private final Supplier<GraphEditorProperties> properties;
     private final EventHandler<MouseEvent> mouseReleasedHandler = event -> elementMouseReleased();
 
@@ -94,9 +95,8 @@ public class ModelLayoutUpdater {
         final GNodeSkin nodeSkin = skinLookup.lookupNode(node);
         if (nodeSkin != null) {
             final Node root = nodeSkin.getRoot();
-            if (root != null) {
+            if (root != null && registeredElements.add(root)) {
                 root.addEventHandler(MouseEvent.MOUSE_RELEASED, mouseReleasedHandler);
-                registeredElements.add(root);
             }
         }
     }
@@ -106,8 +106,7 @@ public class ModelLayoutUpdater {
         final GNodeSkin nodeSkin = skinLookup.lookupNode(node);
         if (nodeSkin != null) {
             final Node root = nodeSkin.getRoot();
-            if (root != null) {
-                registeredElements.remove(root);
+            if (root != null && registeredElements.remove(root)) {
                 root.removeEventHandler(MouseEvent.MOUSE_RELEASED, mouseReleasedHandler);
             }
         }
@@ -125,9 +124,8 @@ public class ModelLayoutUpdater {
         final GJointSkin jointSkin = skinLookup.lookupJoint(joint);
         if (jointSkin != null) {
             final Node root = jointSkin.getRoot();
-            if (root != null) {
+            if (root != null && registeredElements.add(root)) {
                 root.addEventHandler(MouseEvent.MOUSE_RELEASED, mouseReleasedHandler);
-                registeredElements.add(root);
             }
         }
     }
@@ -137,13 +135,30 @@ public class ModelLayoutUpdater {
         final GJointSkin jointSkin = skinLookup.lookupJoint(joint);
         if (jointSkin != null) {
             final Node root = jointSkin.getRoot();
-            if (root != null) {
-                registeredElements.remove(root);
+            if (root != null && registeredElements.remove(root)) {
                 root.removeEventHandler(MouseEvent.MOUSE_RELEASED, mouseReleasedHandler);
             }
         }
     }
 
+    /**
+     * Adds the handlers for the joints of a connection whose joint skins were just set, so that they run last.
+     *
+     * <p>
+     * Connection skins may add their own mouse-released handlers to their joints whenever their joint skins are set,
+     * e.g. to clean up joints at the end of a drag. These handlers compare the joint positions in the skins to those in
+     * the model, so they must run before the model is updated. Handlers of the same type run in the order they were
+     * added, so the handlers of joints that are already registered are removed and added again.
+     * </p>
+     *
+     * @param joints
+     *            all joints of the connection, in any order
+     */
+    public void updateJoints(final List<GJoint> joints) {
+        joints.forEach(this::removeJoint);
+        joints.forEach(this::addJoint);
+    }
+
     private void elementMouseReleased() {
         if (canEdit()) {
             modelEditingManager.updateLayoutValues(skinLookup);
@@ -5,8 +5,10 @@ package de.tesis.dynaware.grapheditor.core.model;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import de.tesis.dynaware.grapheditor.model.GConnection;
 import de.tesis.dynaware.grapheditor.model.GConnector;
@@ -172,7 +174,8 @@ public class ModelMemory {
      *
      * <p>
      * The joints to be added are given for each connection, so the connection's list of joint skins can be updated
-     * accordingly.
+     * accordingly. Only connections whose list of joints changed are contained. The list for a connection may be empty,
+     * e.g. if joints were only removed from it.
      * </p>
      *
      * @return the map of {@link GJoint} instances to be added
@@ -184,6 +187,11 @@ public class ModelMemory {
     /**
      * Gets the map of joints to be removed.
      *
+     * <p>
+     * Like {@link #getJointsToAdd()}, only connections whose list of joints changed are contained, as well as all
+     * removed connections.
+     * </p>
+     *
      * @return the map of {@link GJoint} instances to be removed
      */
     public Map<GConnection, List<GJoint>> getJointsToRemove() {
@@ -212,11 +220,20 @@ public class ModelMemory {
      */
     private void findNodes(final GModel model) {
 
-        nodesToAdd.addAll(model.getNodes());
-        nodesToAdd.removeAll(oldNodes);
+        final Set<GNode> oldNodeSet = new HashSet<>(oldNodes);
+        final Set<GNode> newNodeSet = new HashSet<>(model.getNodes());
 
-        nodesToRemove.addAll(oldNodes);
-        nodesToRemove.removeAll(model.getNodes());
+        for (final GNode node : model.getNodes()) {
+            if (!oldNodeSet.contains(node)) {
+                nodesToAdd.add(node);
+            }
+        }
+
+        for (final GNode node : oldNodes) {
+            if (!newNodeSet.contains(node)) {
+                nodesToRemove.add(node);
+            }
+        }
     }
 
     /**
@@ -226,23 +243,31 @@ public class ModelMemory {
      */
     private void findConnectors(final GModel model) {
 
-        for (final GNode node : oldNodes) {
-            if (!nodesToRemove.contains(node)) {
-                connectorsToRemove.addAll(oldConnectors.get(node));
-            }
-        }
+        final Set<GNode> addedNodes = new HashSet<>(nodesToAdd);
+        final Set<GNode> removedNodes = new HashSet<>(nodesToRemove);
+        final Set<GConnector> newConnectors = new HashSet<>();
 
         for (final GNode node : model.getNodes()) {
 
-            connectorsToRemove.removeAll(node.getConnectors());
+            newConnectors.addAll(node.getConnectors());
 
-            final boolean addRemove = nodesToRemove.contains(node) || nodesToAdd.contains(node);
+            final boolean addRemove = removedNodes.contains(node) || addedNodes.contains(node);
             final boolean connectorsChanged = !node.getConnectors().equals(oldConnectors.get(node));
 
             if (!addRemove && connectorsChanged) {
                 nodesToUpdate.add(node);
             }
         }
+
+        for (final GNode node : oldNodes) {
+            if (!removedNodes.contains(node)) {
+                for (final GConnector connector : oldConnectors.get(node)) {
+                    if (!newConnectors.contains(connector)) {
+                        connectorsToRemove.add(connector);
+                    }
+                }
+            }
+        }
     }
 
     /**
@@ -252,11 +277,20 @@ public class ModelMemory {
      */
     private void findConnections(final GModel model) {
 
-        connectionsToAdd.addAll(model.getConnections());
-        connectionsToAdd.removeAll(oldConnections);
+        final Set<GConnection> oldConnectionSet = new HashSet<>(oldConnections);
+        final Set<GConnection> newConnectionSet = new HashSet<>(model.getConnections());
 
-        connectionsToRemove.addAll(oldConnections);
-        connectionsToRemove.removeAll(model.getConnections());
+        for (final GConnection connection : model.getConnections()) {
+            if (!oldConnectionSet.contains(connection)) {
+                connectionsToAdd.add(connection);
+            }
+        }
+
+        for (final GConnection connection : oldConnections) {
+            if (!newConnectionSet.contains(connection)) {
+                connectionsToRemove.add(connection);
+            }
+        }
     }
 
     /**
@@ -266,23 +300,41 @@ public class ModelMemory {
      */
     private void findJoints(final GModel model) {
 
-        for (final GConnection connection : oldConnections) {
+        for (final GConnection connection : connectionsToRemove) {
             jointsToRemove.put(connection, new ArrayList<>(oldJoints.get(connection)));
         }
 
         for (final GConnection connection : model.getConnections()) {
-            if (jointsToRemove.containsKey(connection)) {
-                jointsToRemove.get(connection).removeAll(connection.getJoints());
-            }
-        }
 
-        for (final GConnection connection : model.getConnections()) {
-            jointsToAdd.put(connection, new ArrayList<>(connection.getJoints()));
-        }
+            final List<GJoint> joints = connection.getJoints();
+            final List<GJoint> previousJoints = oldJoints.get(connection);
 
-        for (final GConnection connection : oldConnections) {
-            if (jointsToAdd.containsKey(connection)) {
-                jointsToAdd.get(connection).removeAll(oldJoints.get(connection));
+            if (previousJoints == null) {
+                if (!joints.isEmpty()) {
+                    jointsToAdd.put(connection, new ArrayList<>(joints));
+                }
+            } else if (!joints.equals(previousJoints)) {
+
+                final Set<GJoint> jointSet = new HashSet<>(joints);
+                final Set<GJoint> previousJointSet = new HashSet<>(previousJoints);
+
+                final List<GJoint> added = new ArrayList<>();
+                final List<GJoint> removed = new ArrayList<>();
+
+                for (final GJoint joint : joints) {
+                    if (!previousJointSet.contains(joint)) {
+                        added.add(joint);
+                    }
+                }
+
+                for (final GJoint joint : previousJoints) {
+                    if (!jointSet.contains(joint)) {
+                        removed.add(joint);
+                    }
+                }
+
+                jointsToAdd.put(connection, added);
+                jointsToRemove.put(connection, removed);
             }
         }
     }
@@ -3,31 +3,82 @@
  */
 package de.tesis.dynaware.grapheditor.core.model;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import org.eclipse.emf.common.notify.Adapter;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.ecore.EObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import de.tesis.dynaware.grapheditor.ValidationIssue;
 import de.tesis.dynaware.grapheditor.core.DefaultGraphEditor;
 import de.tesis.dynaware.grapheditor.core.utils.LogMessages;
 import de.tesis.dynaware.grapheditor.model.GConnection;
 import de.tesis.dynaware.grapheditor.model.GConnector;
 import de.tesis.dynaware.grapheditor.model.GModel;
 import de.tesis.dynaware.grapheditor.model.GNode;
+import de.tesis.dynaware.grapheditor.model.GraphPackage;
 
 /**
- * Provides a static validation method to check a {@link GModel} instance for errors.
+ * Checks a {@link GModel} instance for errors.
+ *
+ * <p>
+ * An instance of this class listens to the notifications of the model it was initialized with, and remembers which
+ * elements were changed. After each edit, only these elements are checked again. Changes that can't make the model
+ * invalid, like moving nodes or joints, are ignored.
+ * </p>
+ *
+ * <p>
+ * A full validation runs when a new model is set, or on demand via {@link #validateAll()}. It copies the values it
+ * needs into a snapshot on the JavaFX thread, and checks the snapshot on a background thread.
+ * </p>
+ *
+ * <p>
+ * The problems found are available as an observable list of {@link ValidationIssue} instances. New problems are also
+ * logged.
+ * </p>
  */
 public class ModelSanityChecker {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultGraphEditor.class);
 
-    /**
-     * Static class, private constructor.
-     */
-    private ModelSanityChecker() {
-    }
+    private static final String THREAD_NAME = "model-sanity-checker";
+
+    private final ObservableList<ValidationIssue> issues = FXCollections.observableArrayList();
+    private final ObservableList<ValidationIssue> readOnlyIssues = FXCollections.unmodifiableObservableList(issues);
+    private final Map<EObject, ValidationIssue> issuesByElement = new HashMap<>();
+
+    private final Set<EObject> changedElements = new LinkedHashSet<>();
+    private final Set<EObject> changedDuringFullValidation = new LinkedHashSet<>();
+    private final Adapter changeListener = new ChangeListener();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, THREAD_NAME);
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private GModel model;
+    private CompletableFuture<List<ValidationIssue>> fullValidation;
 
     /**
-     * Validates the given {@link GModel}.
+     * Validates the given {@link GModel} synchronously.
      *
      * @param model the {@link GModel} to be validated
      * @return {@code true} if the model is valid
@@ -36,62 +87,511 @@ public class ModelSanityChecker {
 
         boolean valid = true;
 
-        valid = validateSizes(model);
-        valid = valid && validateReferences(model);
+        final List<ValidationIssue> issues = new ArrayList<>();
+        addIfPresent(issues, checkSizes(model));
+
+        for (final GNode node : model.getNodes()) {
+            addIfPresent(issues, checkSizes(node));
+        }
+
+        for (final GConnection connection : model.getConnections()) {
+            addIfPresent(issues, checkReferences(connection));
+        }
+
+        for (final ValidationIssue issue : issues) {
+            LOGGER.error(issue.getMessage());
+            valid = false;
+        }
 
         return valid;
     }
 
     /**
-     * Performs a basic sanity check that width and height parameters are non-negative.
-     * 
-     * @param model the {@link GModel} to be validated
-     * @return {@code true} if the model width and height parameters are valid
+     * Initializes the sanity checker for the given model.
+     *
+     * <p>
+     * If the model is new, a full validation is started in the background. Otherwise, the elements changed since the
+     * last call are checked.
+     * </p>
+     *
+     * @param model the {@link GModel} currently being edited, or {@code null}
      */
-    private static boolean validateSizes(final GModel model) {
+    public void initialize(final GModel model) {
 
-        if (model.getContentWidth() < 0 || model.getContentHeight() < 0) {
-            LOGGER.error(LogMessages.MODEL_SIZES_INVALID);
-            return false;
+        if (model != this.model) {
+
+            if (this.model != null) {
+                stopListening(this.model);
+            }
+
+            this.model = model;
+
+            changedElements.clear();
+            changedDuringFullValidation.clear();
+            issuesByElement.clear();
+            issues.clear();
+
+            if (model != null) {
+                listen(model);
+                validateAll();
+            }
+
+        } else if (model != null) {
+            validateChanges();
         }
+    }
 
-        for (final GNode node : model.getNodes()) {
-            if (node.getWidth() < 0 || node.getHeight() < 0) {
-                LOGGER.error(LogMessages.MODEL_SIZES_INVALID);
-                return false;
+    /**
+     * Gets the problems found in the current model.
+     *
+     * @return a read-only observable list of {@link ValidationIssue} instances
+     */
+    public ObservableList<ValidationIssue> getIssues() {
+        return readOnlyIssues;
+    }
+
+    /**
+     * Validates the whole model in the background.
+     *
+     * <p>
+     * Must be called on the JavaFX thread. The issues are updated on the JavaFX thread when the validation is finished.
+     * </p>
+     *
+     * @return a future that completes with the issues found, or is cancelled if another validation starts first
+     */
+    public CompletableFuture<List<ValidationIssue>> validateAll() {
+
+        if (fullValidation != null) {
+            fullValidation.cancel(false);
+        }
+
+        if (model == null) {
+            return CompletableFuture.completedFuture(new ArrayList<>());
+        }
+
+        final GModel validatedModel = model;
+        final Snapshot snapshot = new Snapshot(validatedModel);
+        changedDuringFullValidation.clear();
+
+        final CompletableFuture<List<ValidationIssue>> future = CompletableFuture.supplyAsync(snapshot::validate,
+                executor);
+        fullValidation = future;
+
+        future.thenAccept(result -> Platform.runLater(() -> {
+            if (future == fullValidation && validatedModel == model) {
+                applyFullValidation(result);
+            }
+        }));
+
+        return future;
+    }
+
+    /**
+     * Checks all elements that were changed since the last check.
+     */
+    private void validateChanges() {
+
+        if (changedElements.isEmpty()) {
+            return;
+        }
+
+        final List<EObject> elements = new ArrayList<>(changedElements);
+        changedElements.clear();
+
+        for (final EObject element : elements) {
+            validateElement(element);
+        }
+    }
+
+    /**
+     * Replaces all issues with the result of a full validation, then checks the elements that were changed while it
+     * was running.
+     */
+    private void applyFullValidation(final List<ValidationIssue> result) {
+
+        fullValidation = null;
+
+        for (final ValidationIssue issue : result) {
+            if (!issuesByElement.containsKey(issue.getElement())) {
+                LOGGER.error(issue.getMessage());
             }
         }
 
-        return true;
+        issuesByElement.clear();
+        for (final ValidationIssue issue : result) {
+            issuesByElement.put(issue.getElement(), issue);
+        }
+        issues.setAll(result);
+
+        final List<EObject> elements = new ArrayList<>(changedDuringFullValidation);
+        changedDuringFullValidation.clear();
+
+        for (final EObject element : elements) {
+            validateElement(element);
+        }
     }
 
     /**
-     * Validates that the references between connectors and their connections make sense.
-     * 
-     * @param model the {@link GModel} to be validated
-     * @return {@code true} if the model references are valid
+     * Checks a single element and updates its issue.
      */
-    private static boolean validateReferences(final GModel model) {
+    private void validateElement(final EObject element) {
 
-        boolean valid = true;
+        if (element instanceof GConnector) {
+            for (final GConnection connection : ((GConnector) element).getConnections()) {
+                validateElement(connection);
+            }
+            return;
+        }
+
+        ValidationIssue issue = null;
+
+        if (element == model) {
+            issue = checkSizes(model);
+        } else if (element.eContainer() == model) {
+            if (element instanceof GNode) {
+                issue = checkSizes((GNode) element);
+            } else if (element instanceof GConnection) {
+                issue = checkReferences((GConnection) element);
+            }
+        }
+
+        setIssue(element, issue);
+    }
+
+    /**
+     * Sets or removes the issue of the given element.
+     */
+    private void setIssue(final EObject element, final ValidationIssue issue) {
+
+        final ValidationIssue oldIssue = issue != null ? issuesByElement.put(element, issue)
+                : issuesByElement.remove(element);
+
+        if (oldIssue != null) {
+            issues.remove(oldIssue);
+        }
+
+        if (issue != null) {
+            if (oldIssue == null) {
+                LOGGER.error(issue.getMessage());
+            }
+            issues.add(issue);
+        }
+    }
+
+    /**
+     * Remembers that the given element needs to be checked again.
+     */
+    private void markChanged(final Object element) {
+
+        if (element instanceof EObject) {
+            changedElements.add((EObject) element);
+            if (fullValidation != null) {
+                changedDuringFullValidation.add((EObject) element);
+            }
+        }
+    }
+
+    /**
+     * Starts listening to the given model and all elements in it that can become invalid.
+     */
+    private void listen(final GModel model) {
+
+        listen((EObject) model);
+
+        for (final GNode node : model.getNodes()) {
+            listen(node);
+        }
+
+        for (final GConnection connection : model.getConnections()) {
+            listen(connection);
+        }
+    }
+
+    /**
+     * Starts listening to the given element, and to the connectors if it's a node.
+     */
+    private void listen(final EObject element) {
+
+        if (!element.eAdapters().contains(changeListener)) {
+            element.eAdapters().add(changeListener);
+        }
+
+        if (element instanceof GNode) {
+            for (final GConnector connector : ((GNode) element).getConnectors()) {
+                listen(connector);
+            }
+        }
+    }
+
+    /**
+     * Stops listening to the given model and all elements in it.
+     */
+    private void stopListening(final GModel model) {
+
+        stopListening((EObject) model);
+
+        for (final GNode node : model.getNodes()) {
+            stopListening(node);
+        }
 
         for (final GConnection connection : model.getConnections()) {
+            stopListening(connection);
+        }
+    }
 
-            final GConnector source = connection.getSource();
-            final GConnector target = connection.getTarget();
+    /**
+     * Stops listening to the given element, and to the connectors if it's a node.
+     */
+    private void stopListening(final EObject element) {
 
-            if (source == null || target == null) {
-                LOGGER.error(LogMessages.CONNECTOR_MISSING);
-                valid = false;
-            } else if (source != null && !source.getConnections().contains(connection)) {
-                LOGGER.error(LogMessages.CONNECTION_REFERENCE_MISSING);
-                valid = false;
-            } else if (target != null && !target.getConnections().contains(connection)) {
-                LOGGER.error(LogMessages.CONNECTION_REFERENCE_MISSING);
-                valid = false;
+        element.eAdapters().remove(changeListener);
+
+        if (element instanceof GNode) {
+            for (final GConnector connector : ((GNode) element).getConnectors()) {
+                stopListening(connector);
             }
         }
+    }
 
-        return valid;
+    /**
+     * Checks that the content width and height of the given model are non-negative.
+     */
+    private static ValidationIssue checkSizes(final GModel model) {
+
+        if (model.getContentWidth() < 0 || model.getContentHeight() < 0) {
+            return new ValidationIssue(model, LogMessages.MODEL_SIZES_INVALID);
+        }
+        return null;
+    }
+
+    /**
+     * Checks that the width and height of the given node are non-negative.
+     */
+    private static ValidationIssue checkSizes(final GNode node) {
+
+        if (node.getWidth() < 0 || node.getHeight() < 0) {
+            return new ValidationIssue(node, LogMessages.MODEL_SIZES_INVALID);
+        }
+        return null;
+    }
+
+    /**
+     * Checks that the given connection has a source and target, and that both reference it.
+     */
+    private static ValidationIssue checkReferences(final GConnection connection) {
+
+        final GConnector source = connection.getSource();
+        final GConnector target = connection.getTarget();
+
+        if (source == null || target == null) {
+            return new ValidationIssue(connection, LogMessages.CONNECTOR_MISSING);
+        } else if (!source.getConnections().contains(connection) || !target.getConnections().contains(connection)) {
+            return new ValidationIssue(connection, LogMessages.CONNECTION_REFERENCE_MISSING);
+        }
+        return null;
+    }
+
+    private static void addIfPresent(final List<ValidationIssue> issues, final ValidationIssue issue) {
+        if (issue != null) {
+            issues.add(issue);
+        }
+    }
+
+    /**
+     * Records the elements affected by each notification of the model.
+     */
+    private class ChangeListener extends AdapterImpl {
+
+        @Override
+        public void notifyChanged(final Notification notification) {
+
+            if (notification.isTouch()) {
+                return;
+            }
+
+            final Object feature = notification.getFeature();
+
+            if (feature == GraphPackage.Literals.GMODEL__NODES || feature == GraphPackage.Literals.GNODE__CONNECTORS
+                    || feature == GraphPackage.Literals.GMODEL__CONNECTIONS
+                    || feature == GraphPackage.Literals.GCONNECTOR__CONNECTIONS) {
+
+                // Connections are listened to via the model, not via their connectors.
+                final boolean owned = feature != GraphPackage.Literals.GCONNECTOR__CONNECTIONS;
+
+                for (final Object added : getValues(notification.getEventType(), notification.getNewValue(), true)) {
+                    if (owned && added instanceof EObject) {
+                        listen((EObject) added);
+                    }
+                    markChanged(added);
+                }
+
+                for (final Object removed : getValues(notification.getEventType(), notification.getOldValue(), false)) {
+                    if (owned && removed instanceof EObject) {
+                        stopListening((EObject) removed);
+                    }
+                    markChanged(removed);
+                }
+
+                if (feature == GraphPackage.Literals.GCONNECTOR__CONNECTIONS) {
+                    markChanged(notification.getNotifier());
+                }
+
+            } else if (feature == GraphPackage.Literals.GMODEL__CONTENT_WIDTH
+                    || feature == GraphPackage.Literals.GMODEL__CONTENT_HEIGHT
+                    || feature == GraphPackage.Literals.GNODE__WIDTH || feature == GraphPackage.Literals.GNODE__HEIGHT
+                    || feature == GraphPackage.Literals.GCONNECTION__SOURCE
+                    || feature == GraphPackage.Literals.GCONNECTION__TARGET) {
+
+                markChanged(notification.getNotifier());
+            }
+        }
+
+        /**
+         * Gets the values added or removed by a list notification.
+         */
+        private Collection<?> getValues(final int eventType, final Object value, final boolean added) {
+
+            switch (eventType) {
+            case Notification.ADD:
+                return added ? singleton(value) : new ArrayList<>();
+            case Notification.REMOVE:
+                return added ? new ArrayList<>() : singleton(value);
+            case Notification.ADD_MANY:
+                return added ? (Collection<?>) value : new ArrayList<>();
+            case Notification.REMOVE_MANY:
+                return added ? new ArrayList<>() : (Collection<?>) value;
+            case Notification.SET:
+                return singleton(value);
+            default:
+                return new ArrayList<>();
+            }
+        }
+
+        private Collection<?> singleton(final Object value) {
+            final List<Object> values = new ArrayList<>();
+            if (value != null) {
+                values.add(value);
+            }
+            return values;
+        }
+    }
+
+    /**
+     * A copy of the values of a model that are needed to validate it, which can be checked on any thread.
+     *
+     * <p>
+     * Connectors are referenced by index into an array of connection-index lists, so that checking references needs
+     * no access to the model.
+     * </p>
+     */
+    private static class Snapshot {
+
+        private final GModel model;
+        private final boolean modelSizesValid;
+
+        private final GNode[] nodes;
+        private final double[] nodeSizes;
+
+        private final GConnection[] connections;
+        private final int[] sources;
+        private final int[] targets;
+        private final List<int[]> connectorConnections = new ArrayList<>();
+
+        Snapshot(final GModel model) {
+
+            this.model = model;
+            modelSizesValid = model.getContentWidth() >= 0 && model.getContentHeight() >= 0;
+
+            nodes = model.getNodes().toArray(new GNode[0]);
+            nodeSizes = new double[2 * nodes.length];
+
+            for (int i = 0; i < nodes.length; i++) {
+                nodeSizes[2 * i] = nodes[i].getWidth();
+                nodeSizes[2 * i + 1] = nodes[i].getHeight();
+            }
+
+            connections = model.getConnections().toArray(new GConnection[0]);
+            sources = new int[connections.length];
+            targets = new int[connections.length];
+
+            final Map<GConnection, Integer> connectionIndices = new IdentityHashMap<>();
+            for (int i = 0; i < connections.length; i++) {
+                connectionIndices.put(connections[i], i);
+            }
+
+            final Map<GConnector, Integer> connectorIndices = new IdentityHashMap<>();
+            for (int i = 0; i < connections.length; i++) {
+                sources[i] = indexOf(connections[i].getSource(), connectorIndices, connectionIndices);
+                targets[i] = indexOf(connections[i].getTarget(), connectorIndices, connectionIndices);
+            }
+        }
+
+        /**
+         * Gets the index of the given connector, copying its connections into the snapshot when it's first seen.
+         *
+         * @return the index of the connector, or -1 if it's {@code null}
+         */
+        private int indexOf(final GConnector connector, final Map<GConnector, Integer> connectorIndices,
+                final Map<GConnection, Integer> connectionIndices) {
+
+            if (connector == null) {
+                return -1;
+            }
+
+            final Integer existing = connectorIndices.get(connector);
+            if (existing != null) {
+                return existing;
+            }
+
+            final int[] indices = new int[connector.getConnections().size()];
+            for (int i = 0; i < indices.length; i++) {
+                final Integer index = connectionIndices.get(connector.getConnections().get(i));
+                indices[i] = index != null ? index : -1;
+            }
+
+            connectorConnections.add(indices);
+            connectorIndices.put(connector, connectorConnections.size() - 1);
+            return connectorConnections.size() - 1;
+        }
+
+        /**
+         * Validates the snapshot. Can be called on any thread.
+         *
+         * @return the issues found
+         */
+        List<ValidationIssue> validate() {
+
+            final List<ValidationIssue> issues = new ArrayList<>();
+
+            if (!modelSizesValid) {
+                issues.add(new ValidationIssue(model, LogMessages.MODEL_SIZES_INVALID));
+            }
+
+            for (int i = 0; i < nodes.length; i++) {
+                if (nodeSizes[2 * i] < 0 || nodeSizes[2 * i + 1] < 0) {
+                    issues.add(new ValidationIssue(nodes[i], LogMessages.MODEL_SIZES_INVALID));
+                }
+            }
+
+            for (int i = 0; i < connections.length; i++) {
+                if (sources[i] < 0 || targets[i] < 0) {
+                    issues.add(new ValidationIssue(connections[i], LogMessages.CONNECTOR_MISSING));
+                } else if (!contains(connectorConnections.get(sources[i]), i)
+                        || !contains(connectorConnections.get(targets[i]), i)) {
+                    issues.add(new ValidationIssue(connections[i], LogMessages.CONNECTION_REFERENCE_MISSING));
+                }
+            }
+
+            return issues;
+        }
+
+        private static boolean contains(final int[] values, final int value) {
+            for (final int current : values) {
+                if (current == value) {
+                    return true;
+                }
+            }
+            return false;
+        }
     }
 }
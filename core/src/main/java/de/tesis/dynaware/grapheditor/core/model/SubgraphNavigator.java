@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.model;
+
+import org.eclipse.emf.common.command.Command;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.edit.command.SetCommand;
+import org.eclipse.emf.edit.domain.AdapterFactoryEditingDomain;
+import org.eclipse.emf.edit.domain.EditingDomain;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.tesis.dynaware.grapheditor.GraphEditor;
+import de.tesis.dynaware.grapheditor.core.utils.LogMessages;
+import de.tesis.dynaware.grapheditor.model.GModel;
+import de.tesis.dynaware.grapheditor.model.GNode;
+import de.tesis.dynaware.grapheditor.model.GraphFactory;
+import de.tesis.dynaware.grapheditor.model.GraphPackage;
+
+/**
+ * Moves a graph editor up and down the hierarchy of nested subgraphs.
+ *
+ * <p>
+ * Only one level of the hierarchy is shown at a time. Drilling into a node loads its subgraph, if it is stored in a
+ * separate resource (see {@link SubgraphResources}), and sets it as the editor's model. Drilling out sets the parent
+ * model again, which releases the skins of the subgraph, and unloads the subgraph if it has not been modified.
+ * </p>
+ *
+ * <p>
+ * The command stack is flushed on every move, because commands of one level cannot be undone while another level is
+ * shown.
+ * </p>
+ */
+public class SubgraphNavigator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SubgraphNavigator.class);
+
+    private final GraphEditor graphEditor;
+
+    /**
+     * Creates a new subgraph navigator for the given graph editor.
+     *
+     * @param graphEditor the {@link GraphEditor} whose model will be changed
+     */
+    public SubgraphNavigator(final GraphEditor graphEditor) {
+        this.graphEditor = graphEditor;
+    }
+
+    /**
+     * Shows the subgraph of the given node in the graph editor, creating an empty subgraph if the node has none.
+     *
+     * @param node a {@link GNode} in the model currently being edited
+     * @return {@code true} if the subgraph is now being edited
+     */
+    public boolean drillInto(final GNode node) {
+
+        final GModel model = graphEditor.getModel();
+        if (model == null || !model.equals(node.eContainer())) {
+            return false;
+        }
+
+        final EditingDomain editingDomain = AdapterFactoryEditingDomain.getEditingDomainFor(model);
+        final Resource resource = model.eResource();
+
+        if (resource != null && resource.getResourceSet() != null) {
+            SubgraphResources.registerResourceFactory(resource.getResourceSet());
+        }
+
+        GModel subgraph = node.getSubgraph();
+
+        if (subgraph == null) {
+
+            subgraph = GraphFactory.eINSTANCE.createGModel();
+            subgraph.setContentWidth(model.getContentWidth());
+            subgraph.setContentHeight(model.getContentHeight());
+
+            final Command command = SetCommand.create(editingDomain, node, GraphPackage.Literals.GNODE__SUBGRAPH,
+                    subgraph);
+
+            if (!command.canExecute()) {
+                return false;
+            }
+            editingDomain.getCommandStack().execute(command);
+
+        } else if (subgraph.eIsProxy()) {
+            LOGGER.warn(LogMessages.SUBGRAPH_NOT_LOADED, ((InternalEObject) subgraph).eProxyURI());
+            return false;
+        }
+
+        SubgraphResources.trackModification(subgraph);
+
+        editingDomain.getCommandStack().flush();
+        graphEditor.setModel(subgraph);
+        return true;
+    }
+
+    /**
+     * Checks whether the model currently being edited is a subgraph.
+     *
+     * @return {@code true} if {@link #drillOut()} can be called
+     */
+    public boolean canDrillOut() {
+        final GModel model = graphEditor.getModel();
+        return model != null && model.getSupergraph() != null && model.getSupergraph().eContainer() != null;
+    }
+
+    /**
+     * Shows the model containing the subgraph currently being edited, and unloads the subgraph if possible.
+     *
+     * @return {@code true} if the parent model is now being edited
+     */
+    public boolean drillOut() {
+
+        if (!canDrillOut()) {
+            return false;
+        }
+
+        final GModel subgraph = graphEditor.getModel();
+        final GModel parent = (GModel) subgraph.getSupergraph().eContainer();
+
+        AdapterFactoryEditingDomain.getEditingDomainFor(subgraph).getCommandStack().flush();
+        graphEditor.setModel(parent);
+
+        SubgraphResources.unload(subgraph);
+        return true;
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.model;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceFactoryImpl;
+
+import de.tesis.dynaware.grapheditor.model.GModel;
+import de.tesis.dynaware.grapheditor.model.GNode;
+import de.tesis.dynaware.grapheditor.model.GraphPackage;
+
+/**
+ * Stores the subgraphs of a model in separate resources, so that they can be loaded and unloaded on demand.
+ *
+ * <p>
+ * The subgraph reference of a {@link GNode} supports containment proxies. When a model is saved with
+ * {@link #save(GModel, URI)}, every subgraph is saved to a file of its own next to the model file, and the model file
+ * only contains a reference to it. When the model file is loaded again, its subgraphs are not loaded until
+ * {@link GNode#getSubgraph()} is called for the first time. {@link #unload(GModel)} turns a subgraph back into a
+ * reference, releasing its EMF objects.
+ * </p>
+ *
+ * <p>
+ * Subgraph files are named after the model file and the position of their node, e.g. <b>model.3.graph</b> for the
+ * subgraph of the fourth node of <b>model.graph</b>, and <b>model.3.0.graph</b> for a subgraph inside it.
+ * </p>
+ */
+public class SubgraphResources {
+
+    private static final String SEPARATOR = ".";
+
+    /**
+     * Static class, private constructor.
+     */
+    private SubgraphResources() {
+    }
+
+    /**
+     * Checks whether the subgraph of the given node is loaded, without loading it.
+     *
+     * @param node a {@link GNode}
+     * @return {@code true} if the node has a subgraph and it is in memory
+     */
+    public static boolean isLoaded(final GNode node) {
+        final Object subgraph = ((InternalEObject) node).eGet(GraphPackage.Literals.GNODE__SUBGRAPH, false);
+        return subgraph != null && !((InternalEObject) subgraph).eIsProxy();
+    }
+
+    /**
+     * Saves the given model and all its loaded subgraphs, each subgraph in a resource of its own.
+     *
+     * <p>
+     * Subgraphs that are not loaded are already stored in their own files and are not touched, unless the model is
+     * saved to a new location. Then all subgraphs are loaded first, so that they can be saved next to the new file.
+     * </p>
+     *
+     * @param model the top-level {@link GModel}, which must be contained in a resource
+     * @param uri the {@link URI} to save the model to
+     * @throws IOException if a resource could not be saved
+     */
+    public static void save(final GModel model, final URI uri) throws IOException {
+
+        final Resource resource = model.eResource();
+        final ResourceSet resourceSet = resource.getResourceSet();
+        final boolean moved = !uri.equals(resource.getURI());
+
+        if (resourceSet != null) {
+            registerResourceFactory(resourceSet);
+        }
+
+        resource.setURI(uri);
+
+        final List<Resource> resources = new ArrayList<>();
+        resources.add(resource);
+
+        final Deque<GModel> models = new ArrayDeque<>();
+        final Deque<String> paths = new ArrayDeque<>();
+        models.push(model);
+        paths.push("");
+
+        while (!models.isEmpty()) {
+
+            final GModel current = models.pop();
+            final String path = paths.pop();
+
+            for (int i = 0; i < current.getNodes().size(); i++) {
+
+                final GNode node = current.getNodes().get(i);
+
+                if (!moved && !isLoaded(node)) {
+                    continue;
+                }
+
+                final GModel subgraph = node.getSubgraph();
+                if (subgraph == null || subgraph.eIsProxy()) {
+                    continue;
+                }
+
+                final String subgraphPath = path + SEPARATOR + i;
+                final Resource subgraphResource = findOrCreateResource(subgraph, uri, subgraphPath, moved);
+
+                resources.add(subgraphResource);
+                models.push(subgraph);
+                paths.push(subgraphPath);
+            }
+        }
+
+        for (final Resource toSave : resources) {
+            toSave.save(Collections.emptyMap());
+            if (toSave != resource) {
+                toSave.setTrackingModification(true);
+                toSave.setModified(false);
+            }
+        }
+    }
+
+    /**
+     * Unloads the given subgraph if it is stored in a resource of its own and has not been modified since it was
+     * loaded or saved.
+     *
+     * <p>
+     * Subgraphs nested inside it are unloaded too. Afterwards the subgraph is a proxy, which is loaded again from its
+     * file the next time {@link GNode#getSubgraph()} is called.
+     * </p>
+     *
+     * @param subgraph a subgraph that is not currently shown in the graph editor
+     * @return {@code true} if the subgraph was unloaded
+     */
+    public static boolean unload(final GModel subgraph) {
+
+        final List<Resource> resources = new ArrayList<>();
+        if (!collectUnloadableResources(subgraph, resources)) {
+            return false;
+        }
+
+        // Innermost subgraphs first, so that the outer ones keep valid references while they are unloaded.
+        Collections.reverse(resources);
+
+        for (final Resource resource : resources) {
+            final ResourceSet resourceSet = resource.getResourceSet();
+            resource.unload();
+            if (resourceSet != null) {
+                resourceSet.getResources().remove(resource);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Starts tracking modifications of the given subgraph's resource, if it has a resource of its own.
+     *
+     * <p>
+     * Should be called after a subgraph was loaded, so that {@link #unload(GModel)} knows whether it's safe to unload.
+     * </p>
+     *
+     * @param subgraph a loaded subgraph
+     */
+    public static void trackModification(final GModel subgraph) {
+
+        final Resource resource = ((InternalEObject) subgraph).eDirectResource();
+        if (resource != null && !resource.isTrackingModification()) {
+            resource.setTrackingModification(true);
+        }
+    }
+
+    /**
+     * Makes sure that the given resource set can load subgraph files.
+     *
+     * @param resourceSet the {@link ResourceSet} of a model
+     */
+    public static void registerResourceFactory(final ResourceSet resourceSet) {
+
+        final Map<String, Object> factories = resourceSet.getResourceFactoryRegistry().getExtensionToFactoryMap();
+        factories.putIfAbsent(Resource.Factory.Registry.DEFAULT_EXTENSION, new XMIResourceFactoryImpl());
+    }
+
+    /**
+     * Collects the resources of the given subgraph and all loaded subgraphs inside it.
+     *
+     * @return {@code false} if any of them is not stored in a resource of its own, or has been modified
+     */
+    private static boolean collectUnloadableResources(final GModel subgraph, final List<Resource> resources) {
+
+        final Resource resource = ((InternalEObject) subgraph).eDirectResource();
+
+        if (resource == null || !resource.isTrackingModification() || resource.isModified()) {
+            return false;
+        }
+
+        resources.add(resource);
+
+        for (final GNode node : subgraph.getNodes()) {
+            if (isLoaded(node) && !collectUnloadableResources(node.getSubgraph(), resources)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the resource of the given subgraph, or moves the subgraph to a new resource if it has none of its own.
+     */
+    private static Resource findOrCreateResource(final GModel subgraph, final URI modelUri, final String path,
+            final boolean moved) {
+
+        final Resource existing = ((InternalEObject) subgraph).eDirectResource();
+
+        if (existing != null) {
+            if (moved) {
+                existing.setURI(createSubgraphUri(modelUri, path, existing.getResourceSet()));
+            }
+            return existing;
+        }
+
+        final ResourceSet resourceSet = subgraph.eResource().getResourceSet();
+        final URI uri = createSubgraphUri(modelUri, path, resourceSet);
+
+        final Resource resource;
+        if (resourceSet != null) {
+            resource = resourceSet.createResource(uri);
+        } else {
+            resource = new XMIResourceFactoryImpl().createResource(uri);
+        }
+
+        resource.getContents().add(subgraph);
+        return resource;
+    }
+
+    /**
+     * Creates the URI of a subgraph file, by inserting the position of its node before the file extension.
+     *
+     * <p>
+     * Nodes may have been reordered since their subgraphs were saved, so a suffix is added if the URI is already taken
+     * by another subgraph in the resource set.
+     * </p>
+     */
+    private static URI createSubgraphUri(final URI modelUri, final String path, final ResourceSet resourceSet) {
+
+        final String extension = modelUri.fileExtension();
+        final URI base = modelUri.trimFileExtension();
+        final URI folder = base.trimSegments(1);
+
+        String name = base.lastSegment() + path;
+        URI uri = appendName(folder, name, extension);
+
+        for (int suffix = 1; resourceSet != null && resourceSet.getResource(uri, false) != null; suffix++) {
+            name = base.lastSegment() + path + "-" + suffix;
+            uri = appendName(folder, name, extension);
+        }
+        return uri;
+    }
+
+    /**
+     * Appends a file name with an optional extension to the given folder URI.
+     */
+    private static URI appendName(final URI folder, final String name, final String extension) {
+        final URI uri = folder.appendSegment(name);
+        return extension != null ? uri.appendFileExtension(extension) : uri;
+    }
+}
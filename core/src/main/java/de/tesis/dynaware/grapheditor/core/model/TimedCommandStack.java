@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.model;
+
+import org.eclipse.emf.common.command.BasicCommandStack;
+import org.eclipse.emf.common.command.Command;
+
+import de.tesis.dynaware.grapheditor.utils.GraphEditorMetrics;
+import de.tesis.dynaware.grapheditor.utils.GraphEditorMetrics.Timer;
+
+/**
+ * A {@link BasicCommandStack} that records how long commands take in the {@link GraphEditorMetrics}.
+ *
+ * <p>
+ * Command stack listeners are notified inside {@link #execute(Command)}, {@link #undo()} and {@link #redo()}, so the
+ * recorded times include the graph editor's reaction to each command.
+ * </p>
+ */
+public class TimedCommandStack extends BasicCommandStack {
+
+    private final GraphEditorMetrics metrics;
+
+    /**
+     * Creates a new timed command stack.
+     *
+     * @param metrics the {@link GraphEditorMetrics} to record command times in
+     */
+    public TimedCommandStack(final GraphEditorMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void execute(final Command command) {
+
+        final long start = metrics.start();
+        try {
+            super.execute(command);
+        } finally {
+            metrics.stop(Timer.COMMAND_EXECUTION, start);
+        }
+    }
+
+    @Override
+    public void undo() {
+
+        final long start = metrics.start();
+        try {
+            super.undo();
+        } finally {
+            metrics.stop(Timer.COMMAND_EXECUTION, start);
+        }
+    }
+
+    @Override
+    public void redo() {
+
+        final long start = metrics.start();
+        try {
+            super.redo();
+        } finally {
+            metrics.stop(Timer.COMMAND_EXECUTION, start);
+        }
+    }
+}
@@ -5,8 +5,10 @@ package de.tesis.dynaware.grapheditor.core.selections;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import de.tesis.dynaware.grapheditor.GConnectionSkin;
 import de.tesis.dynaware.grapheditor.GConnectorSkin;
@@ -59,7 +61,7 @@ public class SelectionCreator {
     private final EventHandler<MouseEvent> viewDraggedHandler = this::handleViewDragged;
     private final EventHandler<MouseEvent> viewReleasedHandler = this::handleViewReleased;
 
-    private List<GJoint> allJoints;
+    private Set<GJoint> allJoints;
 
     private final List<GNode> selectedNodesBackup = new ArrayList<>();
     private final List<GJoint> selectedJointsBackup = new ArrayList<>();
@@ -102,7 +104,7 @@ public class SelectionCreator {
     public void initialize(final GModel model) {
         
         this.model = model;
-        allJoints = GModelUtils.getAllJoints(model);
+        allJoints = new LinkedHashSet<>(GModelUtils.getAllJoints(model));
         
         addClickSelectionMechanism();
     }
@@ -259,7 +261,7 @@ public class SelectionCreator {
         }
         
         if(allJoints == null) {
-            allJoints = GModelUtils.getAllJoints(model);
+            allJoints = new LinkedHashSet<>(GModelUtils.getAllJoints(model));
         }
         else {
             allJoints.add(joint);
@@ -281,7 +283,7 @@ public class SelectionCreator {
         }
         
         if(allJoints == null) {
-            allJoints = GModelUtils.getAllJoints(model);
+            allJoints = new LinkedHashSet<>(GModelUtils.getAllJoints(model));
         }
         else {
             allJoints.remove(joint);
@@ -452,8 +454,7 @@ public class SelectionCreator {
             }
         }
         
-        for (int i = 0; i < allJoints.size(); i++) {
-            final GJoint joint = allJoints.get(i);
+        for (final GJoint joint : allJoints) {
             
             if(isJointSelected(joint, isShortcutDown)) {
             	selectionManager.select(joint);
@@ -4,7 +4,9 @@
 package de.tesis.dynaware.grapheditor.core.selections;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.function.BiConsumer;
 
 import org.eclipse.emf.common.command.CompoundCommand;
@@ -49,7 +51,7 @@ public class SelectionDeleter {
             final BiConsumer<Pair<List<GNode>, List<GConnection>>, CompoundCommand> consumer) {
 
         final List<GNode> nodesToDelete = new ArrayList<>();
-        final List<GConnection> connectionsToDelete = new ArrayList<>();
+        final Set<GConnection> connectionsToDelete = new LinkedHashSet<>();
 
         for (final GNode node : model.getNodes()) {
 
@@ -63,7 +65,7 @@ public class SelectionDeleter {
 
                     for (final GConnection connection : connector.getConnections()) {
 
-                        if (connection != null && !connectionsToDelete.contains(connection)) {
+                        if (connection != null) {
                             connectionsToDelete.add(connection);
                         }
                     }
@@ -73,17 +75,18 @@ public class SelectionDeleter {
 
         for (final GConnection connection : model.getConnections()) {
             final GConnectionSkin connectionSkin = skinLookup.lookupConnection(connection);
-            if (connectionSkin != null && connectionSkin.isSelected() && !connectionsToDelete.contains(connection)) {
+            if (connectionSkin != null && connectionSkin.isSelected()) {
                 connectionsToDelete.add(connection);
             }
         }
 
         if (!nodesToDelete.isEmpty() || !connectionsToDelete.isEmpty()) {
 
-            final CompoundCommand command = modelEditingManager.remove(nodesToDelete, connectionsToDelete);
+            final List<GConnection> connections = new ArrayList<>(connectionsToDelete);
+            final CompoundCommand command = modelEditingManager.remove(nodesToDelete, connections);
 
             if (consumer != null) {
-                consumer.accept(new Pair<>(nodesToDelete, connectionsToDelete), command);
+                consumer.accept(new Pair<>(nodesToDelete, connections), command);
             }
         }
     }
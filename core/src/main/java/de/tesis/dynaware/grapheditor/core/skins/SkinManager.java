@@ -27,7 +27,9 @@ import de.tesis.dynaware.grapheditor.model.GConnector;
 import de.tesis.dynaware.grapheditor.model.GJoint;
 import de.tesis.dynaware.grapheditor.model.GModel;
 import de.tesis.dynaware.grapheditor.model.GNode;
+import de.tesis.dynaware.grapheditor.utils.GraphEditorMetrics.Counter;
 import java.util.stream.Collectors;
+import javafx.scene.Node;
 import javafx.util.Callback;
 
 /**
@@ -40,6 +42,9 @@ import javafx.util.Callback;
  */
 public class SkinManager implements SkinLookup, GraphEditorSkins {
 
+    // Key under which the connector is stored in the properties of its skin's root node.
+    private static final String CONNECTOR_KEY = "graph-editor-connector";
+
     private final GraphEditor graphEditor;
 
     private Callback<GNode, GNodeSkin> nodeSkinFactory;
@@ -273,6 +278,29 @@ public class SkinManager implements SkinLookup, GraphEditorSkins {
         }
     }
 
+    /**
+     * Removes all skin instances.
+     *
+     * <p>
+     * Should be called when a different model is set, so that the skins of
+     * the old model are disposed and can be garbage collected.
+     * </p>
+     */
+    public void clear() {
+
+        nodeSkins.values().forEach(GNodeSkin::dispose);
+        connectorSkins.values().forEach(GConnectorSkin::dispose);
+        connectionSkins.values().forEach(GConnectionSkin::dispose);
+        jointSkins.values().forEach(GJointSkin::dispose);
+        tailSkins.values().forEach(GTailSkin::dispose);
+
+        nodeSkins.clear();
+        connectorSkins.clear();
+        connectionSkins.clear();
+        jointSkins.clear();
+        tailSkins.clear();
+    }
+
     /**
      * Initializes all node and joint skins, so that their layout values are
      * reloaded from their model instances.
@@ -282,6 +310,20 @@ public class SkinManager implements SkinLookup, GraphEditorSkins {
         jointSkins.values().forEach(GJointSkin::initialize);
     }
 
+    /**
+     * Gets the number of skin instances currently held.
+     *
+     * <p>
+     * May be called from any thread, in which case the result is approximate.
+     * </p>
+     *
+     * @return the total number of node, connector, connection, joint and tail skins
+     */
+    public int getSkinCount() {
+        return nodeSkins.size() + connectorSkins.size() + connectionSkins.size() + jointSkins.size()
+                + tailSkins.size();
+    }
+
     @Override
     public GNodeSkin lookupNode(final GNode node) {
         return nodeSkins.get(node);
@@ -307,6 +349,29 @@ public class SkinManager implements SkinLookup, GraphEditorSkins {
         return tailSkins.get(connector);
     }
 
+    /**
+     * Finds the connector whose skin contains the given JavaFX node.
+     *
+     * <p>
+     * Walks up the scene graph from the given node until a connector skin root is found.
+     * </p>
+     *
+     * @param node a JavaFX {@link Node}, for example the target of a mouse event
+     * @return the {@link GConnector} whose skin contains the node, or {@code null} if there is none
+     */
+    public static GConnector findConnector(final Node node) {
+
+        for (Node current = node; current != null; current = current.getParent()) {
+            if (current.hasProperties()) {
+                final Object connector = current.getProperties().get(CONNECTOR_KEY);
+                if (connector instanceof GConnector) {
+                    return (GConnector) connector;
+                }
+            }
+        }
+        return null;
+    }
+
     /**
      * Adds a list of connector skins for the given node.
      *
@@ -333,6 +398,10 @@ public class SkinManager implements SkinLookup, GraphEditorSkins {
             skin = new DefaultConnectorSkin(connector);
         }
         skin.setGraphEditor(graphEditor);
+        graphEditor.getMetrics().increment(Counter.CONNECTOR_SKINS_CREATED);
+        if (skin.getRoot() != null) {
+            skin.getRoot().getProperties().put(CONNECTOR_KEY, connector);
+        }
         return skin;
     }
 
@@ -342,6 +411,7 @@ public class SkinManager implements SkinLookup, GraphEditorSkins {
             skin = new DefaultTailSkin(connector);
         }
         skin.setGraphEditor(graphEditor);
+        graphEditor.getMetrics().increment(Counter.TAIL_SKINS_CREATED);
         return skin;
     }
 
@@ -351,6 +421,7 @@ public class SkinManager implements SkinLookup, GraphEditorSkins {
             skin = new DefaultConnectionSkin(connection);
         }
         skin.setGraphEditor(graphEditor);
+        graphEditor.getMetrics().increment(Counter.CONNECTION_SKINS_CREATED);
         return skin;
     }
 
@@ -360,6 +431,7 @@ public class SkinManager implements SkinLookup, GraphEditorSkins {
             skin = new DefaultJointSkin(joint);
         }
         skin.setGraphEditor(graphEditor);
+        graphEditor.getMetrics().increment(Counter.JOINT_SKINS_CREATED);
         skin.getRoot().setEditorProperties(graphEditor.getProperties());
         return skin;
     }
@@ -370,6 +442,7 @@ public class SkinManager implements SkinLookup, GraphEditorSkins {
             skin = new DefaultNodeSkin(node);
         }
         skin.setGraphEditor(graphEditor);
+        graphEditor.getMetrics().increment(Counter.NODE_SKINS_CREATED);
         skin.getRoot().setEditorProperties(graphEditor.getProperties());
         skin.initialize();
         return skin;
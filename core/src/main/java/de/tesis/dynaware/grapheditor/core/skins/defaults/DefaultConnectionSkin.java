@@ -46,7 +46,7 @@ public class DefaultConnectionSkin extends SimpleConnectionSkin {
 
         performChecks();
 
-        cursorOffsetCalculator = new CursorOffsetCalculator(connection, path, backgroundPath, connectionSegments);
+        cursorOffsetCalculator = new CursorOffsetCalculator(connection, path, backgroundPath, this::getPolyline);
         jointCreator = new JointCreator(connection, cursorOffsetCalculator);
         jointCleaner = new JointCleaner(connection);
         jointAlignmentManager = new JointAlignmentManager(connection);
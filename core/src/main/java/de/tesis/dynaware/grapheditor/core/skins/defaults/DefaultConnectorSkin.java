@@ -43,11 +43,16 @@ public class DefaultConnectorSkin extends GConnectorSkin {
 
     private static final double SIZE = 25;
 
+    // The indices of the gradient stops that use the outside fill. See the connector gradients in defaults.css.
+    private static final int[] OUTSIDE_STOPS_FIRST = { 0, 1 };
+    private static final int[] OUTSIDE_STOPS_LAST = { 4, 5 };
+
     private final Pane root = new Pane();
     private final Polygon polygon = new Polygon();
 
     private final AnimatedColor animatedColorAllowed;
     private final AnimatedColor animatedColorForbidden;
+    private final int[] outsideStops;
 
     /**
      * Creates a new default connector skin instance.
@@ -73,6 +78,10 @@ public class DefaultConnectorSkin extends GConnectorSkin {
 
         animatedColorAllowed = new AnimatedColor(ALLOWED, Color.WHITE, Color.MEDIUMSEAGREEN, Duration.millis(500));
         animatedColorForbidden = new AnimatedColor(FORBIDDEN, Color.WHITE, Color.TOMATO, Duration.millis(500));
+
+        final String type = connector.getType();
+        final boolean outsideFirst = DefaultConnectorTypes.isLeft(type) || DefaultConnectorTypes.isTop(type);
+        outsideStops = outsideFirst ? OUTSIDE_STOPS_FIRST : OUTSIDE_STOPS_LAST;
     }
 
     @Override
@@ -101,16 +110,17 @@ public class DefaultConnectorSkin extends GConnectorSkin {
             polygon.pseudoClassStateChanged(PSEUDO_CLASS_ALLOWED, false);
             break;
 
+        // The pseudo-class is set first, so that the animation picks up the fill for the new state as its template.
         case DRAG_OVER_ALLOWED:
-            ColorAnimationUtils.animateColor(polygon, animatedColorAllowed);
             polygon.pseudoClassStateChanged(PSEUDO_CLASS_FORBIDDEN, false);
             polygon.pseudoClassStateChanged(PSEUDO_CLASS_ALLOWED, true);
+            ColorAnimationUtils.animateFill(polygon, animatedColorAllowed, outsideStops);
             break;
 
         case DRAG_OVER_FORBIDDEN:
-            ColorAnimationUtils.animateColor(polygon, animatedColorForbidden);
             polygon.pseudoClassStateChanged(PSEUDO_CLASS_FORBIDDEN, true);
             polygon.pseudoClassStateChanged(PSEUDO_CLASS_ALLOWED, false);
+            ColorAnimationUtils.animateFill(polygon, animatedColorForbidden, outsideStops);
             break;
         }
     }
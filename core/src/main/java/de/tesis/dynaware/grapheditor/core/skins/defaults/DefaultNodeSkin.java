@@ -7,10 +7,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 import de.tesis.dynaware.grapheditor.core.skins.defaults.connection.SimpleConnectionSkin;
-import javafx.animation.FillTransition;
 import javafx.css.PseudoClass;
 import javafx.geometry.Point2D;
-import javafx.geometry.Side;
 import javafx.scene.Node;
 import javafx.scene.control.ContextMenu;
 import javafx.scene.control.MenuItem;
@@ -25,11 +23,13 @@ import org.slf4j.LoggerFactory;
 
 import de.tesis.dynaware.grapheditor.GConnectorSkin;
 import de.tesis.dynaware.grapheditor.GNodeSkin;
+import de.tesis.dynaware.grapheditor.core.skins.defaults.utils.ConnectorLayoutUtils;
 import de.tesis.dynaware.grapheditor.core.skins.defaults.utils.DefaultConnectorTypes;
 import de.tesis.dynaware.grapheditor.core.utils.LogMessages;
 import de.tesis.dynaware.grapheditor.model.GConnector;
 import de.tesis.dynaware.grapheditor.model.GNode;
-import de.tesis.dynaware.grapheditor.utils.GeometryUtils;
+import de.tesis.dynaware.grapheditor.utils.AnimationScheduler;
+import de.tesis.dynaware.grapheditor.utils.AnimationScheduler.FrameCallback;
 import de.tesis.dynaware.grapheditor.utils.ResizableBox;
 
 /**
@@ -57,9 +57,6 @@ public class DefaultNodeSkin extends GNodeSkin {
     private static final double HALO_OFFSET = 5;
     private static final double HALO_CORNER_SIZE = 10;
 
-    private static final double MINOR_POSITIVE_OFFSET = 2;
-    private static final double MINOR_NEGATIVE_OFFSET = -3;
-
     private static final double MIN_WIDTH = 41;
     private static final double MIN_HEIGHT = 41;
 
@@ -75,7 +72,11 @@ public class DefaultNodeSkin extends GNodeSkin {
     private final Rectangle background = new Rectangle();
 
     private final ContextMenu contextMenu = new ContextMenu();
-    private FillTransition ft;
+    private static final Duration ARRIVAL_FADE_DURATION = Duration.millis(1000);
+
+    private final FrameCallback arrivalFade = this::fadeArrival;
+    private Color arrivalColor;
+    private long arrivalStart;
 
     /**
      * Creates a new default node skin instance.
@@ -130,11 +131,41 @@ public class DefaultNodeSkin extends GNodeSkin {
     }
 
     public void animateNode(Color color) {
-        ft = new FillTransition(Duration.millis(1000), background, color, Color.TRANSPARENT);
-        ft.setCycleCount(1);
-        ft.setAutoReverse(true);
 
-        ft.play();
+        final boolean running = arrivalColor != null;
+
+        arrivalColor = color;
+        arrivalStart = 0;
+        background.setFill(color);
+
+        if (!running) {
+            AnimationScheduler.getInstance().add(arrivalFade);
+        }
+    }
+
+    /**
+     * Fades the background from the color of the last arrived task to transparent. Run on each frame by the
+     * {@link AnimationScheduler}.
+     *
+     * @param now the timestamp of the current frame in nanoseconds
+     * @return {@code true} while the fade is still running
+     */
+    private boolean fadeArrival(final long now) {
+
+        if (arrivalStart == 0) {
+            arrivalStart = now;
+        }
+
+        final double fraction = (now - arrivalStart) / (ARRIVAL_FADE_DURATION.toMillis() * 1_000_000);
+
+        if (fraction >= 1) {
+            background.setFill(Color.TRANSPARENT);
+            arrivalColor = null;
+            return false;
+        }
+
+        background.setFill(arrivalColor.interpolate(Color.TRANSPARENT, fraction));
+        return true;
     }
 
     public void taskArrived(Integer taskNumber) {
@@ -186,25 +217,9 @@ public class DefaultNodeSkin extends GNodeSkin {
 
         final Node connectorRoot = connectorSkin.getRoot();
 
-        final Side side = DefaultConnectorTypes.getSide(connectorSkin.getItem().getType());
-
-        // The following logic is required because the connectors are offset slightly from the node edges.
-        final double x, y;
-        if (side.equals(Side.LEFT)) {
-            x = 0;
-            y = connectorRoot.getLayoutY() + connectorSkin.getHeight() / 2;
-        } else if (side.equals(Side.RIGHT)) {
-            x = getRoot().getWidth();
-            y = connectorRoot.getLayoutY() + connectorSkin.getHeight() / 2;
-        } else if (side.equals(Side.TOP)) {
-            x = connectorRoot.getLayoutX() + connectorSkin.getWidth() / 2;
-            y = 0;
-        } else {
-            x = connectorRoot.getLayoutX() + connectorSkin.getWidth() / 2;
-            y = getRoot().getHeight();
-        }
-
-        return new Point2D(x, y);
+        return ConnectorLayoutUtils.getConnectionPosition(connectorSkin.getItem().getType(),
+                connectorRoot.getLayoutX(), connectorRoot.getLayoutY(), getRoot().getWidth(), getRoot().getHeight(),
+                connectorSkin.getWidth(), connectorSkin.getHeight());
     }
 
     /**
@@ -225,20 +240,18 @@ public class DefaultNodeSkin extends GNodeSkin {
      */
     private void layoutAllConnectors() {
 
-        layoutConnectors(topConnectorSkins, false, 0);
-        layoutConnectors(rightConnectorSkins, true, getRoot().getWidth());
-        layoutConnectors(bottomConnectorSkins, false, getRoot().getHeight());
-        layoutConnectors(leftConnectorSkins, true, 0);
+        layoutConnectors(topConnectorSkins);
+        layoutConnectors(rightConnectorSkins);
+        layoutConnectors(bottomConnectorSkins);
+        layoutConnectors(leftConnectorSkins);
     }
 
     /**
-     * Lays out the given connector skins in a horizontal or vertical direction at the given offset.
+     * Lays out the given connector skins, which are all on the same side of the node.
      *
      * @param connectorSkins the skins to lay out
-     * @param vertical {@code true} to lay out vertically, {@code false} to lay out horizontally
-     * @param offset the offset in the other dimension that the skins are layed out in
      */
-    private void layoutConnectors(final List<GConnectorSkin> connectorSkins, final boolean vertical, final double offset) {
+    private void layoutConnectors(final List<GConnectorSkin> connectorSkins) {
 
         final int count = connectorSkins.size();
 
@@ -247,22 +260,11 @@ public class DefaultNodeSkin extends GNodeSkin {
             final GConnectorSkin skin = connectorSkins.get(i);
             final Node root = skin.getRoot();
 
-            if (vertical) {
-
-                final double offsetY = getRoot().getHeight() / (count + 1);
-                final double offsetX = getMinorOffsetX(skin.getItem());
-
-                root.setLayoutX(GeometryUtils.moveOnPixel(offset - skin.getWidth() / 2 + offsetX));
-                root.setLayoutY(GeometryUtils.moveOnPixel((i + 1) * offsetY - skin.getHeight() / 2));
+            final Point2D layout = ConnectorLayoutUtils.getLayoutPosition(skin.getItem().getType(), i, count,
+                    getRoot().getWidth(), getRoot().getHeight(), skin.getWidth(), skin.getHeight());
 
-            } else {
-
-                final double offsetX = getRoot().getWidth() / (count + 1);
-                final double offsetY = getMinorOffsetY(skin.getItem());
-
-                root.setLayoutX(GeometryUtils.moveOnPixel((i + 1) * offsetX - skin.getWidth() / 2));
-                root.setLayoutY(GeometryUtils.moveOnPixel(offset - skin.getHeight() / 2 + offsetY));
-            }
+            root.setLayoutX(layout.getX());
+            root.setLayoutY(layout.getY());
         }
     }
 
@@ -326,42 +328,6 @@ public class DefaultNodeSkin extends GNodeSkin {
         leftConnectorSkins.stream().forEach(skin -> getRoot().getChildren().remove(skin.getRoot()));
     }
 
-    /**
-     * Gets a minor x-offset of a few pixels in order that the connector's area is distributed more evenly on either
-     * side of the node border.
-     * 
-     * @param connector the connector to be positioned
-     * @return an x-offset of a few pixels
-     */
-    private double getMinorOffsetX(final GConnector connector) {
-
-        final String type = connector.getType();
-
-        if (type.equals(DefaultConnectorTypes.LEFT_INPUT) || type.equals(DefaultConnectorTypes.RIGHT_OUTPUT)) {
-            return MINOR_POSITIVE_OFFSET;
-        } else {
-            return MINOR_NEGATIVE_OFFSET;
-        }
-    }
-
-    /**
-     * Gets a minor y-offset of a few pixels in order that the connector's area is distributed more evenly on either
-     * side of the node border.
-     * 
-     * @param connector the connector to be positioned
-     * @return a y-offset of a few pixels
-     */
-    private double getMinorOffsetY(final GConnector connector) {
-
-        final String type = connector.getType();
-
-        if (type.equals(DefaultConnectorTypes.TOP_INPUT) || type.equals(DefaultConnectorTypes.BOTTOM_OUTPUT)) {
-            return MINOR_POSITIVE_OFFSET;
-        } else {
-            return MINOR_NEGATIVE_OFFSET;
-        }
-    }
-
     /**
      * Stops the node being dragged if it isn't selected.
      * 
@@ -17,6 +17,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import de.tesis.dynaware.grapheditor.GTailSkin;
+import de.tesis.dynaware.grapheditor.core.skins.defaults.tail.OrthogonalRouter;
 import de.tesis.dynaware.grapheditor.core.skins.defaults.tail.RectangularPathCreator;
 import de.tesis.dynaware.grapheditor.core.skins.defaults.utils.DefaultConnectorTypes;
 import de.tesis.dynaware.grapheditor.core.utils.LogMessages;
@@ -44,6 +45,8 @@ public class DefaultTailSkin extends GTailSkin {
     protected final Polygon endpoint = new Polygon();
     protected final Group group = new Group(line, endpoint);
 
+    private OrthogonalRouter router;
+
     /**
      * Creates a new default tail skin instance.
      *
@@ -97,6 +100,19 @@ public class DefaultTailSkin extends GTailSkin {
         draw(start, end, target, valid);
     }
 
+    /**
+     * Sets the router used to draw the tail around nodes.
+     *
+     * <p>
+     * Set while a tail is being dragged. If no router is set, the tail is drawn without regard to other nodes.
+     * </p>
+     *
+     * @param router an {@link OrthogonalRouter}, or {@code null}
+     */
+    public void setRouter(final OrthogonalRouter router) {
+        this.router = router;
+    }
+
     @Override
     public List<Point2D> allocateJointPositions() {
 
@@ -144,7 +160,12 @@ public class DefaultTailSkin extends GTailSkin {
         clearPoints();
         addPoint(start);
 
-        if (DefaultConnectorTypes.getSide(getItem().getType()).isVertical()) {
+        final List<Point2D> routed = router == null ? null
+                : router.route(start, end, DefaultConnectorTypes.getSide(getItem().getType()), null);
+
+        if (routed != null) {
+            routed.stream().forEachOrdered(point -> addPoint(point));
+        } else if (DefaultConnectorTypes.getSide(getItem().getType()).isVertical()) {
             addPoint((start.getX() + end.getX()) / 2, start.getY());
             addPoint((start.getX() + end.getX()) / 2, end.getY());
         } else {
@@ -170,7 +191,7 @@ public class DefaultTailSkin extends GTailSkin {
         final Side startSide = DefaultConnectorTypes.getSide(getItem().getType());
         final Side endSide = DefaultConnectorTypes.getSide(target.getType());
 
-        final List<Point2D> points = RectangularPathCreator.createPath(start, end, startSide, endSide);
+        final List<Point2D> points = RectangularPathCreator.createPath(start, end, startSide, endSide, router);
         points.stream().forEachOrdered(point -> addPoint(point));
 
         addPoint(end);
@@ -0,0 +1,269 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.skins.defaults.connection;
+
+import java.util.Arrays;
+import java.util.List;
+
+import javafx.geometry.Point2D;
+import javafx.scene.transform.Transform;
+import de.tesis.dynaware.grapheditor.utils.GeometryUtils;
+
+/**
+ * Cached geometry of the points a connection skin is currently drawn through.
+ *
+ * <p>
+ * The positions are stored in primitive arrays, together with the cumulative arc length up to each point. A new
+ * instance should only be created when the points of the connection actually change. Lookups by distance along the
+ * connection are done by binary search and do not allocate.
+ * </p>
+ *
+ * <p>
+ * The positions can additionally be projected into scene coordinates. The projection is cached and is only
+ * recalculated when the given local-to-scene transform is different to the one used last time.
+ * </p>
+ */
+public class ConnectionPolyline {
+
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] lengths;
+
+    private double[] sceneXs;
+    private double[] sceneYs;
+    private double sceneMinX;
+    private double sceneMinY;
+    private double sceneMaxX;
+    private double sceneMaxY;
+
+    // Coefficients of the transform used for the cached scene positions.
+    private double mxx = Double.NaN;
+    private double mxy;
+    private double tx;
+    private double myx;
+    private double myy;
+    private double ty;
+
+    /**
+     * Creates a new polyline through the given points.
+     *
+     * <p>
+     * The points are moved off-pixel in the same way as the connection path, so that the polyline matches what is
+     * drawn on screen.
+     * </p>
+     *
+     * @param points the points the connection passes through (both connector and joint positions)
+     */
+    public ConnectionPolyline(final List<Point2D> points) {
+
+        final int count = points.size();
+
+        xs = new double[count];
+        ys = new double[count];
+        lengths = new double[count];
+
+        for (int i = 0; i < count; i++) {
+
+            final Point2D point = points.get(i);
+            xs[i] = GeometryUtils.moveOffPixel(point.getX());
+            ys[i] = GeometryUtils.moveOffPixel(point.getY());
+
+            if (i > 0) {
+                lengths[i] = lengths[i - 1] + Math.hypot(xs[i] - xs[i - 1], ys[i] - ys[i - 1]);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of points in the polyline.
+     *
+     * @return the number of points
+     */
+    public int getPointCount() {
+        return xs.length;
+    }
+
+    /**
+     * Gets the number of segments in the polyline.
+     *
+     * @return the number of segments, i.e. one less than the number of points
+     */
+    public int getSegmentCount() {
+        return Math.max(0, xs.length - 1);
+    }
+
+    /**
+     * Gets the x position of the point at the given index.
+     *
+     * @param index an index in the list of points
+     * @return the x position of the point in local coordinates
+     */
+    public double getX(final int index) {
+        return xs[index];
+    }
+
+    /**
+     * Gets the y position of the point at the given index.
+     *
+     * @param index an index in the list of points
+     * @return the y position of the point in local coordinates
+     */
+    public double getY(final int index) {
+        return ys[index];
+    }
+
+    /**
+     * Gets the total length of the polyline.
+     *
+     * @return the sum of the lengths of all segments
+     */
+    public double getLength() {
+        return lengths.length == 0 ? 0 : lengths[lengths.length - 1];
+    }
+
+    /**
+     * Gets the index of the segment that contains the point at the given distance along the polyline.
+     *
+     * @param distance a distance along the polyline, measured from the first point
+     * @return the index of the segment containing this distance, or {@code -1} if there are no segments
+     */
+    public int getSegmentIndex(final double distance) {
+
+        final int segmentCount = getSegmentCount();
+
+        if (segmentCount == 0) {
+            return -1;
+        } else if (distance <= 0) {
+            return 0;
+        } else if (distance >= getLength()) {
+            return segmentCount - 1;
+        }
+
+        // Index of the last point whose cumulative length is not greater than the distance.
+        final int found = Arrays.binarySearch(lengths, distance);
+        final int index = found >= 0 ? found : -found - 2;
+
+        return Math.min(index, segmentCount - 1);
+    }
+
+    /**
+     * Calculates the position at the given fraction of the total length.
+     *
+     * <p>
+     * The result is written into the given array so that no objects are created.
+     * </p>
+     *
+     * @param fraction a value between 0 (the first point) and 1 (the last point)
+     * @param target an array of at least length 2, into which the x and y values will be written
+     */
+    public void interpolate(final double fraction, final double[] target) {
+
+        if (xs.length == 0) {
+            return;
+        } else if (xs.length == 1) {
+            target[0] = xs[0];
+            target[1] = ys[0];
+            return;
+        }
+
+        final double distance = fraction * getLength();
+        final int i = getSegmentIndex(distance);
+
+        final double segmentLength = lengths[i + 1] - lengths[i];
+        final double t = segmentLength > 0 ? (distance - lengths[i]) / segmentLength : 0;
+        final double clamped = Math.max(0, Math.min(1, t));
+
+        target[0] = xs[i] + (xs[i + 1] - xs[i]) * clamped;
+        target[1] = ys[i] + (ys[i + 1] - ys[i]) * clamped;
+    }
+
+    /**
+     * Updates the cached scene positions of the points if the given transform has changed since the last call.
+     *
+     * @param transform the local-to-scene transform of the connection path
+     */
+    public void updateSceneTransform(final Transform transform) {
+
+        final boolean changed = transform.getMxx() != mxx || transform.getMxy() != mxy || transform.getTx() != tx
+                || transform.getMyx() != myx || transform.getMyy() != myy || transform.getTy() != ty;
+
+        if (!changed && sceneXs != null) {
+            return;
+        }
+
+        mxx = transform.getMxx();
+        mxy = transform.getMxy();
+        tx = transform.getTx();
+        myx = transform.getMyx();
+        myy = transform.getMyy();
+        ty = transform.getTy();
+
+        if (sceneXs == null) {
+            sceneXs = new double[xs.length];
+            sceneYs = new double[ys.length];
+        }
+
+        sceneMinX = Double.POSITIVE_INFINITY;
+        sceneMinY = Double.POSITIVE_INFINITY;
+        sceneMaxX = Double.NEGATIVE_INFINITY;
+        sceneMaxY = Double.NEGATIVE_INFINITY;
+
+        for (int i = 0; i < xs.length; i++) {
+
+            sceneXs[i] = mxx * xs[i] + mxy * ys[i] + tx;
+            sceneYs[i] = myx * xs[i] + myy * ys[i] + ty;
+
+            sceneMinX = Math.min(sceneMinX, sceneXs[i]);
+            sceneMinY = Math.min(sceneMinY, sceneYs[i]);
+            sceneMaxX = Math.max(sceneMaxX, sceneXs[i]);
+            sceneMaxY = Math.max(sceneMaxY, sceneYs[i]);
+        }
+    }
+
+    /**
+     * Gets the x position in the scene of the point at the given index.
+     *
+     * <p>
+     * {@link #updateSceneTransform(Transform)} must have been called first.
+     * </p>
+     *
+     * @param index an index in the list of points
+     * @return the x position of the point in scene coordinates
+     */
+    public double getSceneX(final int index) {
+        return sceneXs[index];
+    }
+
+    /**
+     * Gets the y position in the scene of the point at the given index.
+     *
+     * <p>
+     * {@link #updateSceneTransform(Transform)} must have been called first.
+     * </p>
+     *
+     * @param index an index in the list of points
+     * @return the y position of the point in scene coordinates
+     */
+    public double getSceneY(final int index) {
+        return sceneYs[index];
+    }
+
+    /**
+     * Checks if the given scene position lies within the scene bounds of the polyline, expanded by some tolerance.
+     *
+     * <p>
+     * {@link #updateSceneTransform(Transform)} must have been called first.
+     * </p>
+     *
+     * @param sceneX an x position in the scene
+     * @param sceneY a y position in the scene
+     * @param tolerance the distance by which the bounds are expanded on all sides
+     * @return {@code true} if the position is inside the expanded bounds
+     */
+    public boolean isNearSceneBounds(final double sceneX, final double sceneY, final double tolerance) {
+        return sceneXs != null && sceneXs.length > 0 && sceneX >= sceneMinX - tolerance
+                && sceneX <= sceneMaxX + tolerance && sceneY >= sceneMinY - tolerance
+                && sceneY <= sceneMaxY + tolerance;
+    }
+}
@@ -3,50 +3,44 @@
  */
 package de.tesis.dynaware.grapheditor.core.skins.defaults.connection;
 
-import java.util.List;
+import java.util.function.Supplier;
 
 import javafx.geometry.Point2D;
-import javafx.scene.shape.ArcTo;
-import javafx.scene.shape.HLineTo;
-import javafx.scene.shape.MoveTo;
 import javafx.scene.shape.Path;
-import javafx.scene.shape.PathElement;
-import javafx.scene.shape.VLineTo;
-import de.tesis.dynaware.grapheditor.core.skins.defaults.connection.segment.ConnectionSegment;
 import de.tesis.dynaware.grapheditor.core.skins.defaults.utils.RectangularConnectionUtils;
 import de.tesis.dynaware.grapheditor.model.GConnection;
 import de.tesis.dynaware.grapheditor.utils.GeometryUtils;
 
 /**
  * Helper class for calculating the offset of the cursor to a default connection skin.
+ *
+ * <p>
+ * Works on the cached {@link ConnectionPolyline} of the connection. Its scene positions are only recalculated when the
+ * path's local-to-scene transform changes, so repeated calls during mouse movement do not allocate.
+ * </p>
  */
 public class CursorOffsetCalculator {
 
     private final GConnection connection;
     private final Path path;
     private final Path backgroundPath;
-    private final List<ConnectionSegment> connectionSegments;
-
-    // Temporary variables used during calculation.
-    private double minOffsetX;
-    private double minOffsetY;
-    private double currentX;
-    private double currentY;
+    private final Supplier<ConnectionPolyline> polyline;
 
     /**
      * Creates a new cursor offset calculator instance for a default connection skin.
      *
+     * @param connection the connection the skin belongs to
      * @param path the connection's path
      * @param backgroundPath the connection's background path
-     * @param connectionSegments the connection's list of segments
+     * @param polyline supplies the connection's current {@link ConnectionPolyline}
      */
     public CursorOffsetCalculator(final GConnection connection, final Path path, final Path backgroundPath,
-            final List<ConnectionSegment> connectionSegments) {
+            final Supplier<ConnectionPolyline> polyline) {
 
         this.connection = connection;
         this.path = path;
         this.backgroundPath = backgroundPath;
-        this.connectionSegments = connectionSegments;
+        this.polyline = polyline;
     }
 
     /**
@@ -58,23 +52,52 @@ public class CursorOffsetCalculator {
      */
     public Point2D getOffset(final double cursorSceneX, final double cursorSceneY) {
 
+        final ConnectionPolyline current = getScenePolyline();
+
         // Scale factor only relevant if we are zoomed in.
         final double scaleFactor = backgroundPath.getLocalToSceneTransform().getMxx();
 
         // This will be used as the largest acceptable offset value.
         final double offsetBound = Math.ceil(backgroundPath.getStrokeWidth() / 2) * scaleFactor;
 
-        minOffsetX = offsetBound + 1;
-        minOffsetY = offsetBound + 1;
+        if (current == null || !current.isNearSceneBounds(cursorSceneX, cursorSceneY, offsetBound)) {
+            return null;
+        }
+
+        double minOffsetX = offsetBound + 1;
+        double minOffsetY = offsetBound + 1;
 
-        currentX = ((MoveTo) path.getElements().get(0)).getX();
-        currentY = ((MoveTo) path.getElements().get(0)).getY();
+        for (int i = 0; i < current.getSegmentCount(); i++) {
 
-        for (int i = 1; i < path.getElements().size(); i++) {
+            final double startX = current.getSceneX(i);
+            final double startY = current.getSceneY(i);
+            final double endX = current.getSceneX(i + 1);
+            final double endY = current.getSceneY(i + 1);
 
-            final PathElement pathElement = path.getElements().get(i);
+            if (current.getY(i) == current.getY(i + 1)) {
+
+                final double possibleMinOffsetY = startY - cursorSceneY;
+
+                final boolean inRangeX = GeometryUtils.checkInRange(startX, endX, cursorSceneX);
+                final boolean cursorInRangeY = Math.abs(possibleMinOffsetY) < offsetBound;
+                final boolean foundCloser = Math.abs(possibleMinOffsetY) < Math.abs(minOffsetY);
+
+                if (inRangeX && cursorInRangeY && foundCloser) {
+                    minOffsetY = possibleMinOffsetY;
+                }
 
-            calculateOffset(pathElement, cursorSceneX, cursorSceneY, offsetBound);
+            } else {
+
+                final double possibleMinOffsetX = startX - cursorSceneX;
+
+                final boolean cursorInRangeY = GeometryUtils.checkInRange(startY, endY, cursorSceneY);
+                final boolean cursorInRangeX = Math.abs(possibleMinOffsetX) < offsetBound;
+                final boolean foundCloser = Math.abs(possibleMinOffsetX) < Math.abs(minOffsetX);
+
+                if (cursorInRangeY && cursorInRangeX && foundCloser) {
+                    minOffsetX = possibleMinOffsetX;
+                }
+            }
         }
 
         if (minOffsetX > offsetBound && minOffsetY > offsetBound) {
@@ -95,18 +118,24 @@ public class CursorOffsetCalculator {
      */
     public int getNearestSegment(final double cursorX, final double cursorY) {
 
+        final ConnectionPolyline current = getScenePolyline();
+
+        if (current == null) {
+            return -1;
+        }
+
         int nearestIndex = -1;
         double nearestDistance = -1;
 
-        for (int i = 0; i < connectionSegments.size(); i++) {
+        for (int i = 0; i < current.getSegmentCount(); i++) {
 
-            final Point2D start = path.localToScene(connectionSegments.get(i).getStart());
-            final Point2D end = path.localToScene(connectionSegments.get(i).getEnd());
+            final double startX = current.getSceneX(i);
+            final double startY = current.getSceneY(i);
 
             if (RectangularConnectionUtils.isSegmentHorizontal(connection, i)) {
 
-                final boolean inRangeX = GeometryUtils.checkInRange(start.getX(), end.getX(), cursorX);
-                final double distanceY = Math.abs(start.getY() - cursorY);
+                final boolean inRangeX = GeometryUtils.checkInRange(startX, current.getSceneX(i + 1), cursorX);
+                final double distanceY = Math.abs(startY - cursorY);
 
                 if (inRangeX && (nearestDistance < 0 || distanceY < nearestDistance)) {
                     nearestIndex = i;
@@ -114,8 +143,8 @@ public class CursorOffsetCalculator {
                 }
             } else {
 
-                final boolean inRangeY = GeometryUtils.checkInRange(start.getY(), end.getY(), cursorY);
-                final double distanceX = Math.abs(start.getX() - cursorX);
+                final boolean inRangeY = GeometryUtils.checkInRange(startY, current.getSceneY(i + 1), cursorY);
+                final double distanceX = Math.abs(startX - cursorX);
 
                 if (inRangeY && (nearestDistance < 0 || distanceX < nearestDistance)) {
                     nearestIndex = i;
@@ -128,62 +157,17 @@ public class CursorOffsetCalculator {
     }
 
     /**
-     * Calculates the offset of the cursor to the given path element.
-     *
-     * <p>
-     * If the offset is smaller than the current minimum variable, its value will be updated.
-     * </p>
+     * Gets the current polyline of the connection, with its scene positions brought up to date.
      *
-     * @param pathElement a {@link PathElement} inside the connection path
-     * @param cursorSceneX the x position of the cursor
-     * @param cursorSceneY the y position of the cursor
-     * @param offsetBound the maximum allowed offset value
+     * @return the current {@link ConnectionPolyline}, or {@code null} if the connection has not been drawn yet
      */
-    private void calculateOffset(final PathElement pathElement, final double cursorSceneX, final double cursorSceneY,
-            final double offsetBound) {
-
-        final double currentSceneX = path.localToScene(currentX, currentY).getX();
-        final double currentSceneY = path.localToScene(currentX, currentY).getY();
-
-        if (pathElement instanceof HLineTo) {
-
-            final HLineTo hLineTo = (HLineTo) pathElement;
-
-            final double nextSceneX = path.localToScene(hLineTo.getX(), currentY).getX();
-            final double possibleMinOffsetY = currentSceneY - cursorSceneY;
-
-            final boolean inRangeX = GeometryUtils.checkInRange(currentSceneX, nextSceneX, cursorSceneX);
-            final boolean cursorInRangeY = Math.abs(possibleMinOffsetY) < offsetBound;
-            final boolean foundCloser = Math.abs(possibleMinOffsetY) < Math.abs(minOffsetY);
-
-            if (inRangeX && cursorInRangeY && foundCloser) {
-                minOffsetY = possibleMinOffsetY;
-            }
+    private ConnectionPolyline getScenePolyline() {
 
-            currentX = hLineTo.getX();
+        final ConnectionPolyline current = polyline.get();
 
-        } else if (pathElement instanceof ArcTo) {
-
-            final ArcTo arcTo = (ArcTo) pathElement;
-
-            currentX = arcTo.getX();
-            currentY = arcTo.getY();
-
-        } else if (pathElement instanceof VLineTo) {
-
-            final VLineTo vLineTo = (VLineTo) pathElement;
-
-            final double nextSceneY = path.localToScene(currentX, vLineTo.getY()).getY();
-            final double possibleMinOffsetX = currentSceneX - cursorSceneX;
-
-            final boolean cursorInRangeY = GeometryUtils.checkInRange(currentSceneY, nextSceneY, cursorSceneY);
-            final boolean cursorInRangeX = Math.abs(possibleMinOffsetX) < offsetBound;
-            final boolean foundCloser = Math.abs(possibleMinOffsetX) < Math.abs(minOffsetX);
-
-            if (cursorInRangeY && cursorInRangeX && foundCloser) {
-                minOffsetX = possibleMinOffsetX;
-            }
-            currentY = vLineTo.getY();
+        if (current != null) {
+            current.updateSceneTransform(path.getLocalToSceneTransform());
         }
+        return current;
     }
 }
@@ -3,7 +3,7 @@
  */
 package de.tesis.dynaware.grapheditor.core.skins.defaults.connection;
 
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -27,11 +27,16 @@ import de.tesis.dynaware.grapheditor.GraphEditor;
 import de.tesis.dynaware.grapheditor.SkinLookup;
 import de.tesis.dynaware.grapheditor.model.GConnection;
 import de.tesis.dynaware.grapheditor.model.GJoint;
-import de.tesis.dynaware.grapheditor.model.GModel;
 import de.tesis.dynaware.grapheditor.utils.GeometryUtils;
 
 /**
  * Monitors joint positions and cleans up / removes unnecessary joints.
+ *
+ * <p>
+ * Joints of a rectangular connection alternate between horizontal and vertical segments. Two consecutive joints at
+ * the same position form a segment of zero length, and the segments either side of it are collinear. Removing both
+ * joints therefore also merges these two segments into one.
+ * </p>
  */
 public class JointCleaner {
 
@@ -88,6 +93,12 @@ public class JointCleaner {
                 }
 
                 final List<Point2D> jointPositions = GeometryUtils.getJointPositions(jointSkins);
+
+                // If no joint was moved, the joints are still as clean as they were after the last change.
+                if (!checkJointsMoved(jointPositions)) {
+                    return;
+                }
+
                 final Set<Integer> jointsToCleanUp = findJointsToCleanUp(jointPositions);
 
                 if (!jointsToCleanUp.isEmpty()) {
@@ -95,11 +106,10 @@ public class JointCleaner {
                     final EditingDomain editingDomain = AdapterFactoryEditingDomain.getEditingDomainFor(connection);
                     final CompoundCommand command = new CompoundCommand();
 
-                    final GModel model = graphEditor.getModel();
                     final SkinLookup skinLookup = graphEditor.getSkinLookup();
 
                     JointCommands.removeJoints(command, jointsToCleanUp, connection);
-                    Commands.updateLayoutValues(command, model, skinLookup);
+                    Commands.updateLayoutValues(command, connection, skinLookup);
 
                     if (command.canExecute()) {
                         editingDomain.getCommandStack().execute(command);
@@ -114,72 +124,98 @@ public class JointCleaner {
         }
     }
 
+    /**
+     * Removes unnecessary joints from all given connections in a single command.
+     *
+     * <p>
+     * Uses the joint positions stored in the model, so it can be called after a model change (e.g. a layout) without
+     * waiting for the skins to be updated.
+     * </p>
+     *
+     * @param connections the connections to be cleaned up
+     * @return the number of joints that were removed
+     */
+    public static int cleanUp(final Collection<GConnection> connections) {
+
+        final CompoundCommand command = new CompoundCommand();
+        EditingDomain editingDomain = null;
+        int removed = 0;
+
+        for (final GConnection connection : connections) {
+
+            final Set<Integer> jointsToCleanUp = findJointsToCleanUp(GeometryUtils.getJointPositions(connection));
+
+            if (!jointsToCleanUp.isEmpty()) {
+                editingDomain = AdapterFactoryEditingDomain.getEditingDomainFor(connection);
+                JointCommands.removeJoints(command, jointsToCleanUp, connection);
+                removed += jointsToCleanUp.size();
+            }
+        }
+
+        if (editingDomain != null && command.canExecute()) {
+            editingDomain.getCommandStack().execute(command);
+            return removed;
+        }
+        return 0;
+    }
+
     /**
      * Finds the joints that should be cleaned up / removed from a list of joint positions.
      *
+     * <p>
+     * Works in a single pass with a stack of the joints kept so far. A joint at the same position as the joint on top
+     * of the stack cancels it out, and both are removed. Removing a pair can bring two more joints at the same position
+     * together, which are then removed in turn. At least two joints are always kept.
+     * </p>
+     *
      * @param jointPositions a list of {@link Point2D} instances containing the x and y values of the joints
      * @return a set of integers specifying the indices of the joints to be removed
      */
     public static Set<Integer> findJointsToCleanUp(final List<Point2D> jointPositions) {
 
         final Set<Integer> jointsToCleanUp = new HashSet<>();
-        final List<Point2D> remainingJointPositions = new ArrayList<>(jointPositions);
 
-        Point2D removed = removeJointPair(remainingJointPositions);
+        final int[] kept = new int[jointPositions.size()];
+        int keptCount = 0;
+        int remaining = jointPositions.size();
 
-        while (removed != null) {
+        for (int i = 0; i < jointPositions.size(); i++) {
 
-            int jointsCleaned = 0;
-            for (int i = 0; i < jointPositions.size(); i++) {
+            final boolean canRemove = keptCount > 0 && remaining > 2;
 
-                final boolean positionMatch = removed.equals(jointPositions.get(i));
-                final boolean alreadyCounted = jointsToCleanUp.contains(i);
-
-                if (positionMatch && !alreadyCounted) {
-                    jointsToCleanUp.add(i);
-                    jointsCleaned++;
-                }
-
-                if (jointsCleaned == 2) {
-                    break;
-                }
+            if (canRemove && jointPositions.get(kept[keptCount - 1]).equals(jointPositions.get(i))) {
+                jointsToCleanUp.add(kept[--keptCount]);
+                jointsToCleanUp.add(i);
+                remaining -= 2;
+            } else {
+                kept[keptCount++] = i;
             }
-
-            removed = removeJointPair(remainingJointPositions);
         }
 
         return jointsToCleanUp;
     }
 
     /**
-     * Finds the first pair of identical joint positions and removes them from the list.
+     * Checks if any joint skin is at a different position to its joint in the model.
      *
-     * @param jointPositions a list of {@link Point2D} instances containing the x and y values of the joints
-     * @return the position of the removed joints, or {@code null} if nothing was found to remove
+     * @param jointPositions the current positions of the joint skins
+     * @return {@code true} if at least one joint has been moved
      */
-    private static Point2D removeJointPair(final List<Point2D> jointPositions) {
+    private boolean checkJointsMoved(final List<Point2D> jointPositions) {
 
-        int foundIndex = -1;
-        Point2D foundPosition = null;
+        final List<GJoint> joints = connection.getJoints();
 
-        if (jointPositions.size() > 2) {
-            for (int i = 0; i < jointPositions.size() - 1; i++) {
+        if (joints.size() != jointPositions.size()) {
+            return true;
+        }
 
-                final Point2D currentPosition = jointPositions.get(i);
-                final Point2D nextPosition = jointPositions.get(i + 1);
+        for (int i = 0; i < joints.size(); i++) {
 
-                if (currentPosition.getX() == nextPosition.getX() && currentPosition.getY() == nextPosition.getY()) {
-                    foundIndex = i;
-                    foundPosition = currentPosition;
-                }
+            final Point2D position = jointPositions.get(i);
+            if (position.getX() != joints.get(i).getX() || position.getY() != joints.get(i).getY()) {
+                return true;
             }
         }
-
-        if (foundIndex >= 0) {
-            jointPositions.remove(foundIndex + 1);
-            jointPositions.remove(foundIndex);
-        }
-
-        return foundPosition;
+        return false;
     }
 }
@@ -48,20 +48,44 @@ public class JointCommands {
         final EditingDomain editingDomain = AdapterFactoryEditingDomain.getEditingDomainFor(connection);
         final CompoundCommand command = new CompoundCommand();
 
-        command.append(RemoveCommand.create(editingDomain, connection, JOINTS, connection.getJoints()));
+        appendSetNewJoints(command, positions, connection);
+
+        if (command.canExecute()) {
+            editingDomain.getCommandStack().execute(command);
+        }
+    }
+
+    /**
+     * Removes any existing joints from the connection and creates a new set of joints at the given positions.
+     *
+     * <p>
+     * This method adds the operations to the given compound command and does not execute it. The new joints get the
+     * type of the first existing joint, if there is one.
+     * </p>
+     *
+     * @param command a {@link CompoundCommand} to which the commands will be added
+     * @param positions a list of {@link Point2D} instances speciying the x and y positions of the new joints
+     * @param connection the connection in which the joints will be set
+     */
+    public static void appendSetNewJoints(final CompoundCommand command, final List<Point2D> positions,
+            final GConnection connection) {
+
+        final EditingDomain editingDomain = AdapterFactoryEditingDomain.getEditingDomainFor(connection);
+        final String type = connection.getJoints().isEmpty() ? null : connection.getJoints().get(0).getType();
+
+        if (!connection.getJoints().isEmpty()) {
+            command.append(RemoveCommand.create(editingDomain, connection, JOINTS, connection.getJoints()));
+        }
 
         for (final Point2D position : positions) {
 
             final GJoint newJoint = GraphFactory.eINSTANCE.createGJoint();
             newJoint.setX(position.getX());
             newJoint.setY(position.getY());
+            newJoint.setType(type);
 
             command.append(AddCommand.create(editingDomain, connection, JOINTS, newJoint));
         }
-
-        if (command.canExecute()) {
-            editingDomain.getCommandStack().execute(command);
-        }
     }
 
     /**
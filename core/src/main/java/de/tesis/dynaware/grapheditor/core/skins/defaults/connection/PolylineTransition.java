@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.skins.defaults.connection;
+
+import java.util.function.Supplier;
+
+import javafx.animation.Transition;
+import javafx.geometry.Bounds;
+import javafx.scene.Node;
+import javafx.util.Duration;
+
+/**
+ * A transition that moves a node along the cached polyline of a connection.
+ *
+ * <p>
+ * Behaves like a {@link javafx.animation.PathTransition} without orientation, but looks up positions in a
+ * {@link ConnectionPolyline} instead of re-deriving them from the path elements on every frame. The polyline is
+ * fetched from the supplier on each frame, so the node follows the connection if it is redrawn during the animation.
+ * </p>
+ */
+public class PolylineTransition extends Transition {
+
+    private final Supplier<ConnectionPolyline> polyline;
+    private final Node node;
+
+    private final double[] position = new double[2];
+
+    /**
+     * Creates a new polyline transition instance.
+     *
+     * @param duration the duration of one cycle of the transition
+     * @param polyline supplies the current polyline of the connection
+     * @param node the node to be moved along the polyline
+     */
+    public PolylineTransition(final Duration duration, final Supplier<ConnectionPolyline> polyline, final Node node) {
+
+        this.polyline = polyline;
+        this.node = node;
+
+        setCycleDuration(duration);
+    }
+
+    /**
+     * Gets the node that is moved by this transition.
+     *
+     * @return the animated {@link Node}
+     */
+    public Node getNode() {
+        return node;
+    }
+
+    @Override
+    protected void interpolate(final double frac) {
+
+        final ConnectionPolyline current = polyline.get();
+
+        if (current == null || current.getPointCount() == 0) {
+            return;
+        }
+
+        current.interpolate(frac, position);
+
+        // Center the node on the polyline, as a path transition would.
+        final Bounds bounds = node.getLayoutBounds();
+        node.setTranslateX(position[0] - bounds.getMinX() - bounds.getWidth() / 2);
+        node.setTranslateY(position[1] - bounds.getMinY() - bounds.getHeight() / 2);
+    }
+}
@@ -32,6 +32,9 @@ import de.tesis.dynaware.grapheditor.core.skins.defaults.utils.RectangularConnec
 import de.tesis.dynaware.grapheditor.model.GConnection;
 import de.tesis.dynaware.grapheditor.model.GNode;
 import de.tesis.dynaware.grapheditor.utils.GeometryUtils;
+import de.tesis.dynaware.grapheditor.utils.GraphEditorMetrics;
+import de.tesis.dynaware.grapheditor.utils.GraphEditorMetrics.Counter;
+import de.tesis.dynaware.grapheditor.utils.GraphEditorMetrics.Timer;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.text.Text;
 import javafx.scene.text.TextBoundsType;
@@ -76,13 +79,14 @@ public class SimpleConnectionSkin extends GConnectionSkin {
     private List<GJointSkin> jointSkins;
     private List<Point2D> points;
     private Map<Integer, List<Double>> intersections;
-
+    private ConnectionPolyline polyline;
+    private boolean lowDetail;
 
     private static final int SIZE_QUEUE = 3;
     private static final double RECTANGLE_WIDTH = 10;
     private static final double RECTANGLE_HEIGHT = 10;
 
-    public Vector<PathTransition> pathTransitions = new Vector<>();
+    public Vector<PolylineTransition> pathTransitions = new Vector<>();
     public Vector<Circle> circles = new Vector<>();
     public Vector<ParallelTransition> parallelTransitions = new Vector<>();
     public Vector<FadeTransition> fts = new Vector<>();
@@ -183,20 +187,53 @@ public class SimpleConnectionSkin extends GConnectionSkin {
         super.draw(points, allPoints);
         
         final boolean pointsRequireRedraw = !points.equals(this.points);
+        final boolean lowDetail = checkLowDetail();
+
+        final GraphEditorMetrics metrics = getGraphEditor().getMetrics();
 
         // If we are showing detours, get all intersections with connections *behind* this one. Otherwise in front.
-        final Map<Integer, List<Double>> intersections = intersectionFinder.find(allPoints, checkShowDetours());
+        // In low detail no gaps or detours are drawn, so the intersections are not needed.
+        final Map<Integer, List<Double>> intersections;
+        if (lowDetail) {
+            intersections = null;
+        } else {
+            final long start = metrics.start();
+            try {
+                intersections = intersectionFinder.find(allPoints, checkShowDetours());
+            } finally {
+                metrics.stop(Timer.INTERSECTION_FINDING, start);
+            }
+        }
 
         final boolean intersectionsStayedNull = this.intersections == null && intersections == null;
         final boolean intersectionsSame = intersections != null && intersections.equals(this.intersections);
         final boolean intersectionsRequireRedraw = !(intersectionsStayedNull || intersectionsSame);
 
-        if (pointsRequireRedraw || intersectionsRequireRedraw) {
+        if (pointsRequireRedraw) {
+            polyline = new ConnectionPolyline(points);
+        }
+
+        if (pointsRequireRedraw || intersectionsRequireRedraw || lowDetail != this.lowDetail) {
             drawAllSegments(points, intersections);
+            metrics.increment(Counter.CONNECTIONS_REDRAWN);
         }
 
         this.points = points;
         this.intersections = intersections;
+        this.lowDetail = lowDetail;
+    }
+
+    /**
+     * Gets the cached polyline through the points the connection is currently drawn through.
+     *
+     * <p>
+     * The polyline is only recreated when the points of the connection change.
+     * </p>
+     *
+     * @return the current {@link ConnectionPolyline}, or {@code null} if the connection has not been drawn yet
+     */
+    public ConnectionPolyline getPolyline() {
+        return polyline;
     }
 
     /**
@@ -287,7 +324,7 @@ public class SimpleConnectionSkin extends GConnectionSkin {
     }
 
     /**
-     * Aligns the first or last joint to have the same vertical or horizontal position as the start or end point.
+     * Aligns the first or last joint to its adjacent connector, in the list of points and in the view.
      *
      * @param points the list of points in this connection
      * @param vertical {@code true} to align in the vertical (y) direction, {@code false} for horizontal (x)
@@ -295,28 +332,13 @@ public class SimpleConnectionSkin extends GConnectionSkin {
      */
     private void alignJoint(final List<Point2D> points, final boolean vertical, final boolean start) {
 
-        final int targetPositionIndex = start ? 0 : points.size() - 1;
-        final int jointPositionIndex = start ? 1 : points.size() - 2;
-
+        final Point2D aligned = RectangularConnectionUtils.alignJoint(points, vertical, start);
         final GJointSkin jointSkin = jointSkins.get(start ? 0 : jointSkins.size() - 1);
 
         if (vertical) {
-
-            final double newJointY = points.get(targetPositionIndex).getY();
-            final double newJointLayoutY = GeometryUtils.moveOnPixel(newJointY - jointSkin.getHeight() / 2);
-            jointSkin.getRoot().setLayoutY(newJointLayoutY);
-
-            final double currentX = points.get(jointPositionIndex).getX();
-            points.set(jointPositionIndex, new Point2D(currentX, newJointY));
-
+            jointSkin.getRoot().setLayoutY(GeometryUtils.moveOnPixel(aligned.getY() - jointSkin.getHeight() / 2));
         } else {
-
-            final double newJointX = points.get(targetPositionIndex).getX();
-            final double newJointLayoutX = GeometryUtils.moveOnPixel(newJointX - jointSkin.getWidth() / 2);
-            jointSkin.getRoot().setLayoutX(newJointLayoutX);
-
-            final double currentY = points.get(jointPositionIndex).getY();
-            points.set(jointPositionIndex, new Point2D(newJointX, currentY));
+            jointSkin.getRoot().setLayoutX(GeometryUtils.moveOnPixel(aligned.getX() - jointSkin.getWidth() / 2));
         }
     }
 
@@ -385,6 +407,15 @@ public class SimpleConnectionSkin extends GConnectionSkin {
         return showDetours;
     }
     
+    /**
+     * Checks whether the graph editor is currently drawn in low detail.
+     *
+     * @return {@code true} if the graph editor is drawn in low detail
+     */
+    private boolean checkLowDetail() {
+        return getGraphEditor() != null && getGraphEditor().getProperties().isLowDetail();
+    }
+
     @Override
     protected void selectionChanged(boolean isSelected) {
         // Not implemented
@@ -428,10 +459,7 @@ public class SimpleConnectionSkin extends GConnectionSkin {
         root.getChildren().add(stack);
         circles.add(circle);
 
-        PathTransition pathTransition = new PathTransition();
-        pathTransition.setDuration(Duration.seconds(2.0));
-        pathTransition.setPath(path);
-        pathTransition.setNode(stack);
+        PolylineTransition pathTransition = new PolylineTransition(Duration.seconds(2.0), this::getPolyline, stack);
         pathTransition.setCycleCount(1);
         pathTransition.setAutoReverse(false);
         pathTransitions.add(pathTransition);
@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.skins.defaults.tail;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A spatial index of rectangular obstacles, such as the bounds of the nodes in a graph.
+ *
+ * <p>
+ * The plane is divided into square cells of a fixed size. Each obstacle is registered in every cell it overlaps, so a
+ * query only has to look at the obstacles in the cells overlapping the query rectangle. Obstacles are updated
+ * individually, so when a node moves only that node is re-indexed.
+ * </p>
+ */
+public class ObstacleIndex {
+
+    private static final double DEFAULT_CELL_SIZE = 200;
+
+    private final double cellSize;
+
+    private final Map<Object, double[]> bounds = new HashMap<>();
+    private final Map<Long, List<Object>> cells = new HashMap<>();
+
+    /**
+     * Creates a new obstacle index with the default cell size.
+     */
+    public ObstacleIndex() {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * Creates a new obstacle index.
+     *
+     * @param cellSize the width and height of a cell
+     */
+    public ObstacleIndex(final double cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Adds an obstacle, or updates its bounds if it is already in the index.
+     *
+     * @param key the object the obstacle represents, e.g. a node
+     * @param x the x position of the obstacle
+     * @param y the y position of the obstacle
+     * @param width the width of the obstacle
+     * @param height the height of the obstacle
+     * @return {@code true} if the index changed, {@code false} if the obstacle was already present with these bounds
+     */
+    public boolean update(final Object key, final double x, final double y, final double width, final double height) {
+
+        final double[] previous = bounds.get(key);
+
+        if (previous != null) {
+            if (previous[0] == x && previous[1] == y && previous[2] == x + width && previous[3] == y + height) {
+                return false;
+            }
+            removeFromCells(key, previous);
+        }
+
+        final double[] current = new double[] { x, y, x + width, y + height };
+        bounds.put(key, current);
+        addToCells(key, current);
+
+        return true;
+    }
+
+    /**
+     * Removes an obstacle from the index.
+     *
+     * @param key the object the obstacle represents
+     * @return {@code true} if the obstacle was present
+     */
+    public boolean remove(final Object key) {
+
+        final double[] previous = bounds.remove(key);
+        if (previous != null) {
+            removeFromCells(key, previous);
+        }
+        return previous != null;
+    }
+
+    /**
+     * Removes all obstacles whose keys are not in the given collection.
+     *
+     * @param keys the keys of the obstacles to keep
+     * @return {@code true} if any obstacles were removed
+     */
+    public boolean retainAll(final Collection<?> keys) {
+
+        boolean changed = false;
+
+        final Iterator<Map.Entry<Object, double[]>> iterator = bounds.entrySet().iterator();
+        while (iterator.hasNext()) {
+
+            final Map.Entry<Object, double[]> entry = iterator.next();
+            if (!keys.contains(entry.getKey())) {
+                removeFromCells(entry.getKey(), entry.getValue());
+                iterator.remove();
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Gets the bounds of an obstacle.
+     *
+     * @param key the object the obstacle represents
+     * @return an array containing min-x, min-y, max-x, and max-y, or {@code null} if the obstacle is not in the index
+     */
+    public double[] getBounds(final Object key) {
+        return bounds.get(key);
+    }
+
+    /**
+     * Gets the number of obstacles in the index.
+     *
+     * @return the number of obstacles
+     */
+    public int size() {
+        return bounds.size();
+    }
+
+    /**
+     * Finds all obstacles that overlap the given rectangle.
+     *
+     * @param minX the min-x value of the rectangle
+     * @param minY the min-y value of the rectangle
+     * @param maxX the max-x value of the rectangle
+     * @param maxY the max-y value of the rectangle
+     * @return the keys of the overlapping obstacles, each occurring once
+     */
+    public List<Object> query(final double minX, final double minY, final double maxX, final double maxY) {
+
+        final Set<Object> found = new LinkedHashSet<>();
+
+        for (int cellX = toCell(minX); cellX <= toCell(maxX); cellX++) {
+            for (int cellY = toCell(minY); cellY <= toCell(maxY); cellY++) {
+
+                final List<Object> cell = cells.get(toCellKey(cellX, cellY));
+                if (cell == null) {
+                    continue;
+                }
+
+                for (final Object key : cell) {
+                    final double[] obstacle = bounds.get(key);
+                    if (obstacle[0] <= maxX && obstacle[2] >= minX && obstacle[1] <= maxY && obstacle[3] >= minY) {
+                        found.add(key);
+                    }
+                }
+            }
+        }
+
+        return new ArrayList<>(found);
+    }
+
+    private void addToCells(final Object key, final double[] obstacle) {
+
+        for (int cellX = toCell(obstacle[0]); cellX <= toCell(obstacle[2]); cellX++) {
+            for (int cellY = toCell(obstacle[1]); cellY <= toCell(obstacle[3]); cellY++) {
+                cells.computeIfAbsent(toCellKey(cellX, cellY), cellKey -> new ArrayList<>()).add(key);
+            }
+        }
+    }
+
+    private void removeFromCells(final Object key, final double[] obstacle) {
+
+        for (int cellX = toCell(obstacle[0]); cellX <= toCell(obstacle[2]); cellX++) {
+            for (int cellY = toCell(obstacle[1]); cellY <= toCell(obstacle[3]); cellY++) {
+
+                final Long cellKey = toCellKey(cellX, cellY);
+                final List<Object> cell = cells.get(cellKey);
+
+                if (cell != null) {
+                    cell.remove(key);
+                    if (cell.isEmpty()) {
+                        cells.remove(cellKey);
+                    }
+                }
+            }
+        }
+    }
+
+    private int toCell(final double value) {
+        return (int) Math.floor(value / cellSize);
+    }
+
+    private static Long toCellKey(final int cellX, final int cellY) {
+        return ((long) cellX << 32) | (cellY & 0xffffffffL);
+    }
+}
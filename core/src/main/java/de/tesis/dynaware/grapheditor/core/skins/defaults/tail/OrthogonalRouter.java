@@ -0,0 +1,514 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.skins.defaults.tail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javafx.geometry.Point2D;
+import javafx.geometry.Side;
+
+/**
+ * Finds rectangular paths that go around obstacles such as nodes.
+ *
+ * <p>
+ * The search is restricted to the rectangle spanned by the start and end positions, plus some padding. A grid is
+ * built from the edges of the obstacles in this region (expanded by a small clearance) and from the start and end
+ * positions. The shortest path through this grid is then found with A*, where every bend adds a fixed penalty to the
+ * length. This keeps the number of joints low.
+ * </p>
+ *
+ * <p>
+ * The grid has a point for every pair of x and y coordinates, so its size grows with the square of the number of
+ * obstacles in the region. If it would have more than {@link #MAX_GRID_POINTS} points, no search is made and
+ * {@link #route} returns {@code null}. The {@link RectangularPathCreator} then falls back to its fixed paths.
+ * </p>
+ *
+ * <p>
+ * Obstacles are looked up in an {@link ObstacleIndex}. The result of the last request is cached, and is reused as long
+ * as the request and the obstacles in its search region are unchanged. So repeated calls during a drag are cheap,
+ * and moving a node only causes re-routing if it is close to the path.
+ * </p>
+ */
+public class OrthogonalRouter {
+
+    private static final double CLEARANCE = 10;
+    private static final double SEARCH_PADDING = 150;
+    private static final double BEND_PENALTY = 25;
+
+    /**
+     * The maximum number of grid points searched. Regions crowded with more obstacles than this allows are not routed.
+     */
+    static final int MAX_GRID_POINTS = 40_000;
+
+    // Directions are right, down, left, and up.
+    private static final int[] DX = { 1, 0, -1, 0 };
+    private static final int[] DY = { 0, 1, 0, -1 };
+
+    private final ObstacleIndex obstacles;
+
+    private double[] cachedRequest;
+    private List<Object> cachedKeys;
+    private List<double[]> cachedBounds;
+    private List<Point2D> cachedRoute;
+
+    // Search buffers, reused between requests.
+    private double[] costs = new double[0];
+    private int[] parents = new int[0];
+    private boolean[] closed = new boolean[0];
+    private final StateQueue queue = new StateQueue();
+
+    /**
+     * Creates a new router with an empty obstacle index.
+     */
+    public OrthogonalRouter() {
+        this(new ObstacleIndex());
+    }
+
+    /**
+     * Creates a new router for the given obstacles.
+     *
+     * @param obstacles the {@link ObstacleIndex} containing the obstacles to be avoided
+     */
+    public OrthogonalRouter(final ObstacleIndex obstacles) {
+        this.obstacles = obstacles;
+    }
+
+    /**
+     * Gets the obstacles this router avoids.
+     *
+     * @return the {@link ObstacleIndex} used by this router
+     */
+    public ObstacleIndex getObstacles() {
+        return obstacles;
+    }
+
+    /**
+     * Finds a rectangular path from the start to the end position.
+     *
+     * <p>
+     * The path leaves the start position outwards from the given side, by at least the minimum extension used by the
+     * {@link RectangularPathCreator}. If an end side is given, the path arrives at the end position from the outside
+     * of that side in the same way.
+     * </p>
+     *
+     * @param start the start position
+     * @param end the end position
+     * @param startSide the side of the node the path starts from
+     * @param endSide the side of the node the path travels to, or {@code null} if the end is not on a node
+     * @return the points between the start and end positions, never empty, or {@code null} if no path was found or
+     *         the search region contains too many obstacles
+     */
+    public List<Point2D> route(final Point2D start, final Point2D end, final Side startSide, final Side endSide) {
+
+        final double extension = RectangularPathCreator.MINIMUM_EXTENSION;
+
+        final Point2D exit = move(start, startSide, extension);
+        final Point2D entry = endSide == null ? end : move(end, endSide, extension);
+
+        final double minX = min(start.getX(), end.getX(), exit.getX(), entry.getX()) - SEARCH_PADDING;
+        final double minY = min(start.getY(), end.getY(), exit.getY(), entry.getY()) - SEARCH_PADDING;
+        final double maxX = max(start.getX(), end.getX(), exit.getX(), entry.getX()) + SEARCH_PADDING;
+        final double maxY = max(start.getY(), end.getY(), exit.getY(), entry.getY()) + SEARCH_PADDING;
+
+        final List<Object> keys = new ArrayList<>();
+        final List<double[]> bounds = new ArrayList<>();
+
+        for (final Object key : obstacles.query(minX, minY, maxX, maxY)) {
+
+            final double[] obstacle = obstacles.getBounds(key);
+            final double[] expanded = new double[] { obstacle[0] - CLEARANCE, obstacle[1] - CLEARANCE,
+                    obstacle[2] + CLEARANCE, obstacle[3] + CLEARANCE };
+
+            // An obstacle containing the exit or entry point cannot be avoided, so it is ignored.
+            if (!contains(expanded, exit) && !contains(expanded, entry)) {
+                keys.add(key);
+                bounds.add(expanded);
+            }
+        }
+
+        final double[] request = new double[] { start.getX(), start.getY(), end.getX(), end.getY(),
+                startSide.ordinal(), endSide == null ? -1 : endSide.ordinal() };
+
+        if (isCached(request, keys, bounds)) {
+            return cachedRoute == null ? null : new ArrayList<>(cachedRoute);
+        }
+
+        final List<Point2D> route = search(start, end, exit, entry, startSide, endSide,
+                new double[] { minX, minY, maxX, maxY }, bounds);
+
+        cachedRequest = request;
+        cachedKeys = keys;
+        cachedBounds = bounds;
+        cachedRoute = route;
+
+        return route == null ? null : new ArrayList<>(route);
+    }
+
+    /**
+     * Runs the A* search on the grid for the given region, unless the grid would be too large.
+     */
+    private List<Point2D> search(final Point2D start, final Point2D end, final Point2D exit, final Point2D entry,
+            final Side startSide, final Side endSide, final double[] region, final List<double[]> bounds) {
+
+        final double[] xs = createCoordinates(region[0], region[2], exit.getX(), entry.getX(), bounds, 0);
+        final double[] ys = createCoordinates(region[1], region[3], exit.getY(), entry.getY(), bounds, 1);
+
+        final int width = xs.length;
+        final int height = ys.length;
+
+        if ((long) width * height > MAX_GRID_POINTS) {
+            return null;
+        }
+
+        final boolean[] blockedPoints = new boolean[width * height];
+        final boolean[] blockedRight = new boolean[width * height];
+        final boolean[] blockedDown = new boolean[width * height];
+
+        for (final double[] obstacle : bounds) {
+
+            final int minI = obstacle[0] < xs[0] ? -1 : Arrays.binarySearch(xs, obstacle[0]);
+            final int maxI = obstacle[2] > xs[width - 1] ? width : Arrays.binarySearch(xs, obstacle[2]);
+            final int minJ = obstacle[1] < ys[0] ? -1 : Arrays.binarySearch(ys, obstacle[1]);
+            final int maxJ = obstacle[3] > ys[height - 1] ? height : Arrays.binarySearch(ys, obstacle[3]);
+
+            // Paths may run along the (expanded) edges of an obstacle, but not through its interior.
+            for (int i = Math.max(minI, 0); i <= Math.min(maxI, width - 1); i++) {
+                for (int j = Math.max(minJ, 0); j <= Math.min(maxJ, height - 1); j++) {
+
+                    final int point = j * width + i;
+                    final boolean insideX = i > minI && i < maxI;
+                    final boolean insideY = j > minJ && j < maxJ;
+
+                    blockedPoints[point] |= insideX && insideY;
+                    blockedRight[point] |= insideY && i < maxI;
+                    blockedDown[point] |= insideX && j < maxJ;
+                }
+            }
+        }
+
+        final int startPoint = Arrays.binarySearch(ys, exit.getY()) * width + Arrays.binarySearch(xs, exit.getX());
+        final int goalPoint = Arrays.binarySearch(ys, entry.getY()) * width + Arrays.binarySearch(xs, entry.getX());
+
+        if (blockedPoints[startPoint] || blockedPoints[goalPoint]) {
+            return null;
+        }
+
+        final int goalX = goalPoint % width;
+        final int goalY = goalPoint / width;
+        final int arrivalDirection = endSide == null ? -1 : opposite(toDirection(endSide));
+
+        prepareBuffers(width * height * 4);
+
+        final int startState = startPoint * 4 + toDirection(startSide);
+        costs[startState] = 0;
+        queue.push(startState, distance(xs, ys, startPoint % width, startPoint / width, goalX, goalY));
+
+        int goalState = -1;
+
+        while (!queue.isEmpty()) {
+
+            final int state = queue.pop();
+            if (closed[state]) {
+                continue;
+            }
+            closed[state] = true;
+
+            final int point = state / 4;
+            final int direction = state % 4;
+
+            if (point == goalPoint) {
+                goalState = state;
+                break;
+            }
+
+            final int i = point % width;
+            final int j = point / width;
+
+            for (int next = 0; next < 4; next++) {
+
+                final int nextI = i + DX[next];
+                final int nextJ = j + DY[next];
+
+                if (next == opposite(direction) || nextI < 0 || nextJ < 0 || nextI >= width || nextJ >= height) {
+                    continue;
+                }
+
+                final int nextPoint = nextJ * width + nextI;
+
+                if (blockedPoints[nextPoint] || isEdgeBlocked(point, nextPoint, next, blockedRight, blockedDown)) {
+                    continue;
+                }
+
+                double cost = costs[state] + Math.abs(xs[nextI] - xs[i]) + Math.abs(ys[nextJ] - ys[j]);
+                if (next != direction) {
+                    cost += BEND_PENALTY;
+                }
+                if (nextPoint == goalPoint && arrivalDirection >= 0 && next != arrivalDirection) {
+                    cost += BEND_PENALTY;
+                }
+
+                final int nextState = nextPoint * 4 + next;
+                if (cost < costs[nextState]) {
+                    costs[nextState] = cost;
+                    parents[nextState] = state;
+                    queue.push(nextState, cost + distance(xs, ys, nextI, nextJ, goalX, goalY));
+                }
+            }
+        }
+
+        queue.clear();
+
+        if (goalState < 0) {
+            return null;
+        }
+
+        final List<Point2D> points = new ArrayList<>();
+        points.add(end);
+        points.add(entry);
+
+        for (int state = goalState; state != startState; state = parents[state]) {
+            final int point = state / 4;
+            points.add(new Point2D(xs[point % width], ys[point / width]));
+        }
+
+        points.add(exit);
+        points.add(start);
+
+        final List<Point2D> simplified = simplify(points);
+
+        // Aligned start and end positions leave no corners, but connections need joints next to their connectors.
+        if (simplified.size() == 2) {
+            return RectangularPathCreator.createStraightPath(start, end, startSide);
+        }
+
+        final List<Point2D> path = new ArrayList<>();
+
+        for (int k = simplified.size() - 2; k > 0; k--) {
+            path.add(simplified.get(k));
+        }
+        return path;
+    }
+
+    /**
+     * Checks whether the last request had the same parameters and the same obstacles in its search region.
+     */
+    private boolean isCached(final double[] request, final List<Object> keys, final List<double[]> bounds) {
+
+        if (cachedRequest == null || !Arrays.equals(request, cachedRequest) || !keys.equals(cachedKeys)) {
+            return false;
+        }
+
+        for (int i = 0; i < bounds.size(); i++) {
+            if (!Arrays.equals(bounds.get(i), cachedBounds.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void prepareBuffers(final int stateCount) {
+
+        if (costs.length < stateCount) {
+            costs = new double[stateCount];
+            parents = new int[stateCount];
+            closed = new boolean[stateCount];
+        }
+
+        Arrays.fill(costs, 0, stateCount, Double.POSITIVE_INFINITY);
+        Arrays.fill(closed, 0, stateCount, false);
+    }
+
+    /**
+     * Creates the sorted, distinct grid coordinates along one axis.
+     *
+     * @param min the minimum coordinate of the search region
+     * @param max the maximum coordinate of the search region
+     * @param exit the coordinate of the exit point
+     * @param entry the coordinate of the entry point
+     * @param bounds the expanded obstacle bounds
+     * @param axis 0 for x, 1 for y
+     * @return the grid coordinates
+     */
+    private static double[] createCoordinates(final double min, final double max, final double exit,
+            final double entry, final List<double[]> bounds, final int axis) {
+
+        final double[] values = new double[4 + 2 * bounds.size()];
+
+        values[0] = min;
+        values[1] = max;
+        values[2] = exit;
+        values[3] = entry;
+
+        for (int k = 0; k < bounds.size(); k++) {
+            values[4 + 2 * k] = Math.max(min, Math.min(max, bounds.get(k)[axis]));
+            values[5 + 2 * k] = Math.max(min, Math.min(max, bounds.get(k)[axis + 2]));
+        }
+
+        Arrays.sort(values);
+
+        int count = 0;
+        for (int k = 0; k < values.length; k++) {
+            if (count == 0 || values[k] != values[count - 1]) {
+                values[count++] = values[k];
+            }
+        }
+        return Arrays.copyOf(values, count);
+    }
+
+    private static boolean isEdgeBlocked(final int point, final int nextPoint, final int direction,
+            final boolean[] blockedRight, final boolean[] blockedDown) {
+
+        switch (direction) {
+        case 0:
+            return blockedRight[point];
+        case 1:
+            return blockedDown[point];
+        case 2:
+            return blockedRight[nextPoint];
+        default:
+            return blockedDown[nextPoint];
+        }
+    }
+
+    /**
+     * Removes duplicate points and points lying on a straight line between their neighbours.
+     */
+    private static List<Point2D> simplify(final List<Point2D> points) {
+
+        final List<Point2D> simplified = new ArrayList<>();
+
+        for (final Point2D point : points) {
+
+            final int size = simplified.size();
+
+            if (size > 0 && simplified.get(size - 1).equals(point)) {
+                continue;
+            }
+
+            if (size > 1) {
+                final Point2D previous = simplified.get(size - 2);
+                final Point2D middle = simplified.get(size - 1);
+                final boolean vertical = previous.getX() == middle.getX() && middle.getX() == point.getX();
+                final boolean horizontal = previous.getY() == middle.getY() && middle.getY() == point.getY();
+                if (vertical || horizontal) {
+                    simplified.remove(size - 1);
+                }
+            }
+            simplified.add(point);
+        }
+        return simplified;
+    }
+
+    private static double distance(final double[] xs, final double[] ys, final int i, final int j, final int goalI,
+            final int goalJ) {
+        return Math.abs(xs[goalI] - xs[i]) + Math.abs(ys[goalJ] - ys[j]);
+    }
+
+    private static boolean contains(final double[] bounds, final Point2D point) {
+        return point.getX() > bounds[0] && point.getX() < bounds[2] && point.getY() > bounds[1]
+                && point.getY() < bounds[3];
+    }
+
+    private static Point2D move(final Point2D point, final Side side, final double distance) {
+        final int direction = toDirection(side);
+        return new Point2D(point.getX() + DX[direction] * distance, point.getY() + DY[direction] * distance);
+    }
+
+    private static int toDirection(final Side side) {
+
+        switch (side) {
+        case RIGHT:
+            return 0;
+        case BOTTOM:
+            return 1;
+        case LEFT:
+            return 2;
+        default:
+            return 3;
+        }
+    }
+
+    private static int opposite(final int direction) {
+        return (direction + 2) % 4;
+    }
+
+    private static double min(final double a, final double b, final double c, final double d) {
+        return Math.min(Math.min(a, b), Math.min(c, d));
+    }
+
+    private static double max(final double a, final double b, final double c, final double d) {
+        return Math.max(Math.max(a, b), Math.max(c, d));
+    }
+
+    /**
+     * A binary min-heap of search states ordered by their estimated total cost.
+     *
+     * <p>
+     * States are not updated in place. A state may be pushed more than once, and stale entries are skipped by the
+     * caller.
+     * </p>
+     */
+    private static class StateQueue {
+
+        private int[] states = new int[64];
+        private double[] priorities = new double[64];
+        private int size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        void push(final int state, final double priority) {
+
+            if (size == states.length) {
+                states = Arrays.copyOf(states, 2 * size);
+                priorities = Arrays.copyOf(priorities, 2 * size);
+            }
+
+            int index = size++;
+            while (index > 0) {
+                final int parent = (index - 1) / 2;
+                if (priorities[parent] <= priority) {
+                    break;
+                }
+                states[index] = states[parent];
+                priorities[index] = priorities[parent];
+                index = parent;
+            }
+            states[index] = state;
+            priorities[index] = priority;
+        }
+
+        int pop() {
+
+            final int result = states[0];
+            final int lastState = states[--size];
+            final double lastPriority = priorities[size];
+
+            int index = 0;
+            while (2 * index + 1 < size) {
+                int child = 2 * index + 1;
+                if (child + 1 < size && priorities[child + 1] < priorities[child]) {
+                    child++;
+                }
+                if (priorities[child] >= lastPriority) {
+                    break;
+                }
+                states[index] = states[child];
+                priorities[index] = priorities[child];
+                index = child;
+            }
+            states[index] = lastState;
+            priorities[index] = lastPriority;
+
+            return result;
+        }
+    }
+}
@@ -12,7 +12,35 @@ import javafx.geometry.Side;
  */
 public class RectangularPathCreator {
 
-    private static final double MINIMUM_EXTENSION = 30;
+    static final double MINIMUM_EXTENSION = 30;
+
+    /**
+     * Creates a rectangular path from the start to the end positions, avoiding obstacles if possible.
+     * 
+     * <p>
+     * Uses the given {@link OrthogonalRouter} to find a path around its obstacles. If the router is {@code null} or
+     * does not find a path, the path is created in the same way as by
+     * {@link #createPath(Point2D, Point2D, Side, Side)}.
+     * </p>
+     * 
+     * @param startPosition the start position
+     * @param endPosition the end position
+     * @param startSide the side of the node the path starts from
+     * @param endSide the side of the node the path travels to
+     * @param router an {@link OrthogonalRouter}, or {@code null}
+     * @return a list of points specifying the path
+     */
+    public static List<Point2D> createPath(final Point2D startPosition, final Point2D endPosition,
+            final Side startSide, final Side endSide, final OrthogonalRouter router) {
+
+        if (router != null) {
+            final List<Point2D> path = router.route(startPosition, endPosition, startSide, endSide);
+            if (path != null) {
+                return path;
+            }
+        }
+        return createPath(startPosition, endPosition, startSide, endSide);
+    }
 
     /**
      * Creates a rectangular path from the start to the end positions.
@@ -80,6 +108,38 @@ public class RectangularPathCreator {
         }
     }
 
+    /**
+     * Creates a path with two joints halfway between the start and end positions.
+     * 
+     * <p>
+     * Used when the start and end are aligned, e.g. a right-side and a left-side connector at the same height. The two
+     * joints then coincide and the connection is drawn as a straight line, but it keeps the joints that the default
+     * connection skin expects next to each connector.
+     * </p>
+     * 
+     * @param startPosition the start position
+     * @param endPosition the end position
+     * @param startSide the side of the node the path starts from
+     * @return a list of two points specifying the path
+     */
+    public static List<Point2D> createStraightPath(final Point2D startPosition, final Point2D endPosition,
+            final Side startSide) {
+
+        final List<Point2D> path = new ArrayList<>();
+
+        if (startSide.equals(Side.LEFT) || startSide.equals(Side.RIGHT)) {
+            final double averageX = (startPosition.getX() + endPosition.getX()) / 2;
+            addPoint(path, averageX, startPosition.getY());
+            addPoint(path, averageX, endPosition.getY());
+        } else {
+            final double averageY = (startPosition.getY() + endPosition.getY()) / 2;
+            addPoint(path, startPosition.getX(), averageY);
+            addPoint(path, endPosition.getX(), averageY);
+        }
+
+        return path;
+    }
+
     /**
      * Connects the start point on the left side of a node to an end point on the left side of a node.
      * 
@@ -1,5 +1,7 @@
 package de.tesis.dynaware.grapheditor.core.skins.defaults.utils;
 
+import java.util.Objects;
+
 import javafx.scene.paint.Color;
 import javafx.util.Duration;
 
@@ -63,4 +65,23 @@ public class AnimatedColor {
     public Duration getInterval() {
         return interval;
     }
+
+    @Override
+    public boolean equals(final Object other) {
+
+        if (this == other) {
+            return true;
+        } else if (!(other instanceof AnimatedColor)) {
+            return false;
+        }
+
+        final AnimatedColor animatedColor = (AnimatedColor) other;
+        return Objects.equals(property, animatedColor.property) && Objects.equals(first, animatedColor.first)
+                && Objects.equals(second, animatedColor.second) && Objects.equals(interval, animatedColor.interval);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(property, first, second, interval);
+    }
 }
@@ -1,27 +1,48 @@
 package de.tesis.dynaware.grapheditor.core.skins.defaults.utils;
 
-import javafx.animation.Animation;
-import javafx.animation.KeyFrame;
-import javafx.animation.KeyValue;
-import javafx.animation.Timeline;
-import javafx.beans.property.ObjectProperty;
-import javafx.beans.property.SimpleObjectProperty;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import de.tesis.dynaware.grapheditor.utils.AnimationScheduler;
+import de.tesis.dynaware.grapheditor.utils.AnimationScheduler.FrameCallback;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.css.StyleOrigin;
+import javafx.css.StyleableProperty;
 import javafx.scene.Node;
 import javafx.scene.paint.Color;
-import javafx.util.Duration;
+import javafx.scene.paint.LinearGradient;
+import javafx.scene.paint.Paint;
+import javafx.scene.paint.RadialGradient;
+import javafx.scene.paint.Stop;
+import javafx.scene.shape.Shape;
 
 /**
  * Utility class for creating animated color properties that can be accessed in CSS.
+ *
+ * <p>
+ * Additionally offers {@link #animateFill(Shape, AnimatedColor, int...)}, which animates the fill of a shape directly
+ * without going through CSS. This is much cheaper when many nodes are animated at once.
+ * </p>
  */
 public class ColorAnimationUtils {
 
-    private static final String TIMELINE_KEY = "color-animation-utils-timeline";
+    private static final String CALLBACK_KEY = "color-animation-utils-callback";
+    private static final String SHARED_ANIMATION_KEY = "color-animation-utils-shared-animation";
 
     private static final String COLOR_FORMAT = "#%02x%02x%02x";
 
+    // One running animation per set of animation parameters, shared by all shapes using those parameters.
+    private static final Map<AnimatedColor, SharedAnimation> SHARED_ANIMATIONS = new HashMap<>();
+
     /**
      * Adds animated color properties to the given node that can be accessed from CSS.
-     * 
+     *
      * @param node the node to be styled with animated colors
      * @param data a {@link AnimatedColor} object storing the animation parameters
      */
@@ -29,40 +50,370 @@ public class ColorAnimationUtils {
 
         removeAnimation(node);
 
-        final ObjectProperty<Color> baseColor = new SimpleObjectProperty<>();
+        final String format = data.getProperty() + ": " + COLOR_FORMAT + ";";
+        final long start = System.nanoTime();
 
-        final KeyValue firstkeyValue = new KeyValue(baseColor, data.getFirstColor());
-        final KeyValue secondKeyValue = new KeyValue(baseColor, data.getSecondColor());
-        final KeyFrame firstKeyFrame = new KeyFrame(Duration.ZERO, firstkeyValue);
-        final KeyFrame secondKeyFrame = new KeyFrame(data.getInterval(), secondKeyValue);
-        final Timeline timeline = new Timeline(firstKeyFrame, secondKeyFrame);
+        final FrameCallback callback = now -> {
 
-        baseColor.addListener((v, o, n) -> {
+            final Color color = interpolate(data, now - start);
 
-            final int redValue = (int) (n.getRed() * 255);
-            final int greenValue = (int) (n.getGreen() * 255);
-            final int blueValue = (int) (n.getBlue() * 255);
+            final int redValue = (int) (color.getRed() * 255);
+            final int greenValue = (int) (color.getGreen() * 255);
+            final int blueValue = (int) (color.getBlue() * 255);
 
-            final String format = data.getProperty() + ": " + COLOR_FORMAT + ";";
             node.setStyle(String.format(format, redValue, greenValue, blueValue));
-        });
+            return true;
+        };
+
+        node.getProperties().put(CALLBACK_KEY, callback);
+        AnimationScheduler.getInstance().add(callback);
+    }
+
+    /**
+     * Animates the fill of the given shape without using CSS.
+     *
+     * <p>
+     * The current fill of the shape is taken as a template. If it is a color, it is replaced by the animated color. If
+     * it is a gradient, the stops at the given indices are replaced by the animated color and all other stops are left
+     * as they are. If no indices are given, all stops are animated.
+     * </p>
+     *
+     * <p>
+     * All shapes animated with equal parameters share a single callback on the {@link AnimationScheduler}, so they
+     * pulse in phase. Each frame, a new paint is calculated once per distinct template and applied to the shapes with
+     * the same {@link StyleOrigin} as the template, i.e. no inline style is set and no CSS pass is triggered. If CSS
+     * later changes the fill, for example for a new pseudo-class state, the new fill becomes the template.
+     * </p>
+     *
+     * @param shape the shape whose fill should be animated
+     * @param data a {@link AnimatedColor} object storing the animation parameters
+     * @param stops the indices of the gradient stops to be animated
+     */
+    public static void animateFill(final Shape shape, final AnimatedColor data, final int... stops) {
+
+        removeAnimation(shape);
 
-        node.getProperties().put(TIMELINE_KEY, timeline);
+        // Make sure the template is the fill for the current pseudo-class state.
+        shape.applyCss();
+
+        SharedAnimation animation = SHARED_ANIMATIONS.get(data);
+        if (animation == null) {
+            animation = new SharedAnimation(data);
+            SHARED_ANIMATIONS.put(data, animation);
+        }
 
-        timeline.setAutoReverse(true);
-        timeline.setCycleCount(Animation.INDEFINITE);
-        timeline.play();
+        animation.add(shape, stops);
+        shape.getProperties().put(SHARED_ANIMATION_KEY, animation);
     }
 
     /**
      * Removes an animated color from this node, if one has been set on it.
+     *
+     * <p>
+     * If the fill of the node was animated via {@link #animateFill(Shape, AnimatedColor, int...)}, the template fill is
+     * restored with the style origin it had, so that CSS keeps control of it.
+     * </p>
      */
     public static void removeAnimation(final Node node) {
 
-        // Stopping the timeline should allow object properties that depend on it to be garbage collected.
-        if (node.getProperties().get(TIMELINE_KEY) instanceof Timeline) {
-            final Timeline timeline = (Timeline) node.getProperties().get(TIMELINE_KEY);
-            timeline.stop();
+        if (node.getProperties().get(CALLBACK_KEY) instanceof FrameCallback) {
+            final FrameCallback callback = (FrameCallback) node.getProperties().remove(CALLBACK_KEY);
+            AnimationScheduler.getInstance().remove(callback);
+        }
+
+        if (node.getProperties().get(SHARED_ANIMATION_KEY) instanceof SharedAnimation) {
+            final SharedAnimation animation = (SharedAnimation) node.getProperties().remove(SHARED_ANIMATION_KEY);
+            animation.remove((Shape) node);
+        }
+    }
+
+    /**
+     * Calculates the animated color at the given time.
+     *
+     * <p>
+     * The color moves linearly from the first to the second color and back again, taking one interval each way.
+     * </p>
+     *
+     * @param data the animation parameters
+     * @param elapsed the time since the animation started, in nanoseconds
+     * @return the color at this time
+     */
+    static Color interpolate(final AnimatedColor data, final long elapsed) {
+
+        final double interval = data.getInterval().toMillis() * 1_000_000;
+        if (interval <= 0) {
+            return data.getSecondColor();
+        }
+
+        final double position = (elapsed % (2 * interval)) / interval;
+        final double fraction = position <= 1 ? position : 2 - position;
+
+        return data.getFirstColor().interpolate(data.getSecondColor(), fraction);
+    }
+
+    /**
+     * Creates a copy of the given paint with the stops at the given indices set to the given color.
+     *
+     * @param template a {@link Color}, {@link LinearGradient}, or {@link RadialGradient}
+     * @param indices the indices of the stops to be replaced
+     * @param color the color to use for the replaced stops
+     * @return the new paint
+     */
+    static Paint recolor(final Paint template, final int[] indices, final Color color) {
+
+        if (template instanceof Color) {
+            return indices.length > 0 ? color : template;
+        } else if (template instanceof LinearGradient) {
+            final LinearGradient gradient = (LinearGradient) template;
+            return new LinearGradient(gradient.getStartX(), gradient.getStartY(), gradient.getEndX(),
+                    gradient.getEndY(), gradient.isProportional(), gradient.getCycleMethod(),
+                    recolor(gradient.getStops(), indices, color));
+        } else if (template instanceof RadialGradient) {
+            final RadialGradient gradient = (RadialGradient) template;
+            return new RadialGradient(gradient.getFocusAngle(), gradient.getFocusDistance(), gradient.getCenterX(),
+                    gradient.getCenterY(), gradient.getRadius(), gradient.isProportional(), gradient.getCycleMethod(),
+                    recolor(gradient.getStops(), indices, color));
+        }
+        return template;
+    }
+
+    /**
+     * Finds the parts of the given paint that should be animated.
+     *
+     * @param template a {@link Color}, {@link LinearGradient}, or {@link RadialGradient}
+     * @param stops the indices of the gradient stops to be animated, or none to animate all stops
+     * @return the indices of the gradient stops to be replaced, ignoring any that the gradient does not have, or {0}
+     *         for a color
+     */
+    static int[] findAnimatedStops(final Paint template, final int[] stops) {
+
+        final int stopCount;
+
+        if (template instanceof Color) {
+            return new int[] { 0 };
+        } else if (template instanceof LinearGradient) {
+            stopCount = ((LinearGradient) template).getStops().size();
+        } else if (template instanceof RadialGradient) {
+            stopCount = ((RadialGradient) template).getStops().size();
+        } else {
+            return new int[0];
+        }
+
+        if (stops.length == 0) {
+            final int[] all = new int[stopCount];
+            for (int i = 0; i < stopCount; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        int count = 0;
+        final int[] indices = new int[stops.length];
+
+        for (final int index : stops) {
+            if (index >= 0 && index < stopCount) {
+                indices[count++] = index;
+            }
+        }
+
+        final int[] result = new int[count];
+        System.arraycopy(indices, 0, result, 0, count);
+        return result;
+    }
+
+    /**
+     * Gets the running fill animation of the given shape.
+     *
+     * @param shape a shape animated via {@link #animateFill(Shape, AnimatedColor, int...)}
+     * @return the {@link FrameCallback} animating its fill, or {@code null} if its fill is not animated
+     */
+    static FrameCallback getFillAnimation(final Shape shape) {
+
+        final Object animation = shape.getProperties().get(SHARED_ANIMATION_KEY);
+        return animation instanceof SharedAnimation ? (SharedAnimation) animation : null;
+    }
+
+    /**
+     * Gets the fill of the given shape as a {@link StyleableProperty}, so that it can be set with a style origin.
+     */
+    @SuppressWarnings("unchecked")
+    private static StyleableProperty<Paint> getStyleableFill(final Shape shape) {
+        return (StyleableProperty<Paint>) shape.fillProperty();
+    }
+
+    private static List<Stop> recolor(final List<Stop> stops, final int[] indices, final Color color) {
+
+        final List<Stop> recolored = new ArrayList<>(stops);
+        for (final int index : indices) {
+            recolored.set(index, new Stop(stops.get(index).getOffset(), color));
+        }
+        return recolored;
+    }
+
+    /**
+     * A single frame callback driving the fills of all shapes that use the same animation parameters.
+     */
+    private static class SharedAnimation implements FrameCallback {
+
+        private final AnimatedColor data;
+        private final long start = System.nanoTime();
+
+        private Color color;
+
+        private final Map<Shape, AnimatedFill> fills = new LinkedHashMap<>();
+
+        // Reused every frame so that shapes with the same template share one paint instance.
+        private final Map<Template, Paint> frame = new HashMap<>();
+
+        // Set while a paint is applied, so that only changes made by others are taken as new templates.
+        private boolean applying;
+
+        SharedAnimation(final AnimatedColor data) {
+
+            this.data = data;
+        }
+
+        void add(final Shape shape, final int[] stops) {
+
+            final AnimatedFill fill = new AnimatedFill(shape, stops);
+
+            fills.put(shape, fill);
+            fill.capture();
+            shape.fillProperty().addListener(fill);
+
+            if (color != null) {
+                apply(fill, recolor(fill.template.paint, fill.template.stops, color));
+            }
+
+            if (fills.size() == 1) {
+                AnimationScheduler.getInstance().add(this);
+            }
+        }
+
+        void remove(final Shape shape) {
+
+            final AnimatedFill fill = fills.remove(shape);
+            if (fill != null) {
+                shape.fillProperty().removeListener(fill);
+                apply(fill, fill.template.paint);
+            }
+
+            if (fills.isEmpty()) {
+                AnimationScheduler.getInstance().remove(this);
+                SHARED_ANIMATIONS.remove(data);
+            }
+        }
+
+        @Override
+        public boolean onFrame(final long now) {
+
+            final Color current = interpolate(data, now - start);
+            if (current.equals(color)) {
+                return true;
+            }
+
+            color = current;
+            frame.clear();
+
+            for (final AnimatedFill fill : fills.values()) {
+
+                Paint paint = frame.get(fill.template);
+                if (paint == null) {
+                    paint = recolor(fill.template.paint, fill.template.stops, current);
+                    frame.put(fill.template, paint);
+                }
+
+                apply(fill, paint);
+            }
+            return true;
+        }
+
+        /**
+         * Sets the fill of a shape with the style origin of its template.
+         */
+        private void apply(final AnimatedFill fill, final Paint paint) {
+
+            applying = true;
+            try {
+                getStyleableFill(fill.shape).applyStyle(fill.origin, paint);
+            } finally {
+                applying = false;
+            }
+        }
+
+        /**
+         * The animated fill of a single shape, which listens for fills set by anything but the animation.
+         */
+        private class AnimatedFill implements ChangeListener<Paint> {
+
+            private final Shape shape;
+            private final int[] stops;
+
+            private Template template;
+            private StyleOrigin origin;
+
+            AnimatedFill(final Shape shape, final int[] stops) {
+                this.shape = shape;
+                this.stops = stops;
+            }
+
+            /**
+             * Takes the current fill of the shape and its style origin as the template.
+             */
+            void capture() {
+
+                final Paint paint = shape.getFill();
+
+                template = new Template(paint, findAnimatedStops(paint, stops));
+                origin = getStyleableFill(shape).getStyleOrigin();
+            }
+
+            @Override
+            public void changed(final ObservableValue<? extends Paint> observable, final Paint oldValue,
+                    final Paint newValue) {
+
+                if (applying) {
+                    return;
+                }
+
+                capture();
+
+                if (color != null) {
+                    apply(this, recolor(template.paint, template.stops, color));
+                }
+            }
+        }
+    }
+
+    /**
+     * A template paint together with the indices of its animated stops.
+     */
+    private static final class Template {
+
+        private final Paint paint;
+        private final int[] stops;
+
+        Template(final Paint paint, final int[] stops) {
+            this.paint = paint;
+            this.stops = stops;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+
+            if (this == other) {
+                return true;
+            } else if (!(other instanceof Template)) {
+                return false;
+            }
+
+            final Template template = (Template) other;
+            return Objects.equals(paint, template.paint) && Arrays.equals(stops, template.stops);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hashCode(paint) + Arrays.hashCode(stops);
         }
     }
 }
@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.skins.defaults.utils;
+
+import javafx.geometry.Point2D;
+import javafx.geometry.Side;
+import de.tesis.dynaware.grapheditor.utils.GeometryUtils;
+
+/**
+ * Helper methods for laying out the connectors of the default node skin.
+ *
+ * <p>
+ * Connectors are evenly spaced along their side of the node, in the order they appear in the node. All methods work
+ * on plain values, so the same layout can be computed with or without skins.
+ * </p>
+ */
+public class ConnectorLayoutUtils {
+
+    private static final double MINOR_POSITIVE_OFFSET = 2;
+    private static final double MINOR_NEGATIVE_OFFSET = -3;
+
+    /**
+     * Gets the layout position of a connector, i.e. the position of the top-left corner of its graphic.
+     *
+     * @param type the connector's type, one of the {@link DefaultConnectorTypes}
+     * @param index the index of the connector among the connectors on the same side of the node
+     * @param count the number of connectors on the same side of the node
+     * @param nodeWidth the width of the node
+     * @param nodeHeight the height of the node
+     * @param connectorWidth the width of the connector's graphic
+     * @param connectorHeight the height of the connector's graphic
+     * @return the layout position of the connector, relative to its node
+     */
+    public static Point2D getLayoutPosition(final String type, final int index, final int count, final double nodeWidth,
+            final double nodeHeight, final double connectorWidth, final double connectorHeight) {
+
+        final Side side = DefaultConnectorTypes.getSide(type);
+
+        if (side.equals(Side.LEFT) || side.equals(Side.RIGHT)) {
+
+            final double offset = side.equals(Side.RIGHT) ? nodeWidth : 0;
+            final double offsetY = nodeHeight / (count + 1);
+            final double offsetX = getMinorOffsetX(type);
+
+            final double layoutX = GeometryUtils.moveOnPixel(offset - connectorWidth / 2 + offsetX);
+            final double layoutY = GeometryUtils.moveOnPixel((index + 1) * offsetY - connectorHeight / 2);
+
+            return new Point2D(layoutX, layoutY);
+
+        } else {
+
+            final double offset = side.equals(Side.BOTTOM) ? nodeHeight : 0;
+            final double offsetX = nodeWidth / (count + 1);
+            final double offsetY = getMinorOffsetY(type);
+
+            final double layoutX = GeometryUtils.moveOnPixel((index + 1) * offsetX - connectorWidth / 2);
+            final double layoutY = GeometryUtils.moveOnPixel(offset - connectorHeight / 2 + offsetY);
+
+            return new Point2D(layoutX, layoutY);
+        }
+    }
+
+    /**
+     * Gets the position where connections are attached to a connector.
+     *
+     * <p>
+     * The connectors are offset slightly from the node edges, so connections are attached where the connector's
+     * center line meets the edge.
+     * </p>
+     *
+     * @param type the connector's type, one of the {@link DefaultConnectorTypes}
+     * @param layoutX the x-position of the top-left corner of the connector's graphic, relative to its node
+     * @param layoutY the y-position of the top-left corner of the connector's graphic, relative to its node
+     * @param nodeWidth the width of the node
+     * @param nodeHeight the height of the node
+     * @param connectorWidth the width of the connector's graphic
+     * @param connectorHeight the height of the connector's graphic
+     * @return the position of the connector, relative to its node
+     */
+    public static Point2D getConnectionPosition(final String type, final double layoutX, final double layoutY,
+            final double nodeWidth, final double nodeHeight, final double connectorWidth,
+            final double connectorHeight) {
+
+        final Side side = DefaultConnectorTypes.getSide(type);
+
+        final double x, y;
+        if (side.equals(Side.LEFT)) {
+            x = 0;
+            y = layoutY + connectorHeight / 2;
+        } else if (side.equals(Side.RIGHT)) {
+            x = nodeWidth;
+            y = layoutY + connectorHeight / 2;
+        } else if (side.equals(Side.TOP)) {
+            x = layoutX + connectorWidth / 2;
+            y = 0;
+        } else {
+            x = layoutX + connectorWidth / 2;
+            y = nodeHeight;
+        }
+
+        return new Point2D(x, y);
+    }
+
+    /**
+     * Gets a minor x-offset of a few pixels in order that the connector's area is distributed more evenly on either
+     * side of the node border.
+     *
+     * @param type the type of a connector on the left or right of a node
+     * @return an x-offset of a few pixels
+     */
+    private static double getMinorOffsetX(final String type) {
+
+        if (type.equals(DefaultConnectorTypes.LEFT_INPUT) || type.equals(DefaultConnectorTypes.RIGHT_OUTPUT)) {
+            return MINOR_POSITIVE_OFFSET;
+        } else {
+            return MINOR_NEGATIVE_OFFSET;
+        }
+    }
+
+    /**
+     * Gets a minor y-offset of a few pixels in order that the connector's area is distributed more evenly on either
+     * side of the node border.
+     *
+     * @param type the type of a connector on the top or bottom of a node
+     * @return a y-offset of a few pixels
+     */
+    private static double getMinorOffsetY(final String type) {
+
+        if (type.equals(DefaultConnectorTypes.TOP_INPUT) || type.equals(DefaultConnectorTypes.BOTTOM_OUTPUT)) {
+            return MINOR_POSITIVE_OFFSET;
+        } else {
+            return MINOR_NEGATIVE_OFFSET;
+        }
+    }
+}
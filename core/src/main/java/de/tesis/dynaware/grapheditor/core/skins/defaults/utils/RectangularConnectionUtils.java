@@ -3,6 +3,9 @@
  */
 package de.tesis.dynaware.grapheditor.core.skins.defaults.utils;
 
+import java.util.List;
+
+import javafx.geometry.Point2D;
 import javafx.geometry.Side;
 import de.tesis.dynaware.grapheditor.model.GConnection;
 
@@ -53,4 +56,31 @@ public class RectangularConnectionUtils {
             return (connection.getJoints().size() & 1) == 1;
         }
     }
+
+    /**
+     * Aligns the first or last joint to have the same vertical or horizontal position as the start or end point.
+     *
+     * @param points all points of a connection, i.e. the connector and joint positions
+     * @param vertical {@code true} to align in the vertical (y) direction, {@code false} for horizontal (x)
+     * @param start {@code true} to align the first joint to the start, {@code false} for the last joint to the end
+     * @return the new position of the joint, which has also been set in the list of points
+     */
+    public static Point2D alignJoint(final List<Point2D> points, final boolean vertical, final boolean start) {
+
+        final int targetPositionIndex = start ? 0 : points.size() - 1;
+        final int jointPositionIndex = start ? 1 : points.size() - 2;
+
+        final Point2D target = points.get(targetPositionIndex);
+        final Point2D joint = points.get(jointPositionIndex);
+
+        final Point2D aligned;
+        if (vertical) {
+            aligned = new Point2D(joint.getX(), target.getY());
+        } else {
+            aligned = new Point2D(target.getX(), joint.getY());
+        }
+
+        points.set(jointPositionIndex, aligned);
+        return aligned;
+    }
 }
@@ -47,9 +47,9 @@ public class GModelUtils {
 
             final GNode copy = copies.get(node);
 
-            for (final GConnector connector : node.getConnectors()) {
+            for (int connectorIndex = 0; connectorIndex < node.getConnectors().size(); connectorIndex++) {
 
-                final int connectorIndex = node.getConnectors().indexOf(connector);
+                final GConnector connector = node.getConnectors().get(connectorIndex);
                 final GConnector copiedConnector = copy.getConnectors().get(connectorIndex);
 
                 copiedConnector.getConnections().clear();
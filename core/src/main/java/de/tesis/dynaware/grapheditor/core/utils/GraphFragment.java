@@ -0,0 +1,378 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.utils;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.util.EcoreUtil.Copier;
+
+import de.tesis.dynaware.grapheditor.model.GConnection;
+import de.tesis.dynaware.grapheditor.model.GConnector;
+import de.tesis.dynaware.grapheditor.model.GJoint;
+import de.tesis.dynaware.grapheditor.model.GModel;
+import de.tesis.dynaware.grapheditor.model.GNode;
+import de.tesis.dynaware.grapheditor.model.GraphFactory;
+import de.tesis.dynaware.grapheditor.model.GraphPackage;
+
+/**
+ * An immutable snapshot of some nodes and the connections between them, e.g. for a clipboard.
+ *
+ * <p>
+ * The snapshot is taken in one pass with a {@link Copier}. Connections are only included if both their source and
+ * target nodes are, so the snapshot is independent of the model it was taken from. The snapshot itself is never
+ * handed out. Instead, {@link #instantiate(List, List)} creates new elements from it as often as needed.
+ * </p>
+ *
+ * <p>
+ * The references between connectors and connections are stored as indices into flat arrays. Instantiating therefore
+ * creates each element directly and wires up the new elements by index, without any maps or list lookups. Only
+ * subgraphs, which are rare, are deep-copied on every instantiation.
+ * </p>
+ *
+ * <p>
+ * A fragment can be written to a stream with {@link #write(OutputStream)} and read back with
+ * {@link #read(InputStream)}, e.g. to exchange it with another process via the system clipboard. The stream contains a
+ * gzip-compressed binary EMF resource, which is decoded while it is read.
+ * </p>
+ */
+public final class GraphFragment {
+
+    private static final URI FRAGMENT_URI = URI.createURI("fragment.graph");
+    private static final String NO_FRAGMENT = "Stream does not contain a graph fragment.";
+    private static final String BROKEN_FRAGMENT = "Graph fragment references elements it does not contain.";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final List<GNode> nodes;
+    private final List<GConnection> connections;
+
+    private final int connectorCount;
+    private final int[] connectionSources;
+    private final int[] connectionTargets;
+    private final int[][] connectorConnections;
+
+    /**
+     * Creates a new graph fragment from detached copies of the elements.
+     *
+     * <p>
+     * References to connectors or connections that are not part of the fragment are stored as index -1, see
+     * {@link #isComplete()}.
+     * </p>
+     */
+    private GraphFragment(final List<GNode> nodes, final List<GConnection> connections) {
+
+        this.nodes = nodes;
+        this.connections = connections;
+
+        final Map<GConnector, Integer> connectorIndices = new IdentityHashMap<>();
+        final Map<GConnection, Integer> connectionIndices = new IdentityHashMap<>();
+
+        for (final GNode node : nodes) {
+            for (final GConnector connector : node.getConnectors()) {
+                connectorIndices.put(connector, connectorIndices.size());
+            }
+        }
+
+        connectorCount = connectorIndices.size();
+        connectionSources = new int[connections.size()];
+        connectionTargets = new int[connections.size()];
+
+        for (int i = 0; i < connections.size(); i++) {
+            final GConnection connection = connections.get(i);
+            connectionIndices.put(connection, i);
+            connectionSources[i] = indexOf(connectorIndices, connection.getSource());
+            connectionTargets[i] = indexOf(connectorIndices, connection.getTarget());
+        }
+
+        connectorConnections = new int[connectorCount][];
+
+        int connectorIndex = 0;
+        for (final GNode node : nodes) {
+            for (final GConnector connector : node.getConnectors()) {
+
+                final int[] indices = new int[connector.getConnections().size()];
+                for (int i = 0; i < indices.length; i++) {
+                    indices[i] = indexOf(connectionIndices, connector.getConnections().get(i));
+                }
+                connectorConnections[connectorIndex++] = indices;
+            }
+        }
+    }
+
+    /**
+     * Takes a snapshot of the given nodes and all connections between them.
+     *
+     * @param nodes the nodes to copy, in the order in which they should be instantiated
+     * @return a new {@link GraphFragment} containing copies of the given nodes and their connections
+     */
+    public static GraphFragment copyOf(final Collection<GNode> nodes) {
+
+        final Set<GNode> nodeSet = new HashSet<>(nodes);
+        final List<GConnection> connections = new ArrayList<>();
+
+        for (final GNode node : nodes) {
+            for (final GConnector connector : node.getConnectors()) {
+                for (final GConnection connection : connector.getConnections()) {
+
+                    // Only count each connection once, at its source.
+                    if (connection == null || connection.getSource() != connector || connection.getTarget() == null) {
+                        continue;
+                    }
+                    if (nodeSet.contains(connection.getTarget().getParent())) {
+                        connections.add(connection);
+                    }
+                }
+            }
+        }
+
+        // Don't keep references to elements that were not copied, like connections to unselected nodes.
+        final Copier copier = new Copier(true, false);
+
+        final Collection<GNode> copiedNodes = copier.copyAll(nodes);
+        final Collection<GConnection> copiedConnections = copier.copyAll(connections);
+        copier.copyReferences();
+
+        return new GraphFragment(Collections.unmodifiableList(new ArrayList<>(copiedNodes)),
+                Collections.unmodifiableList(new ArrayList<>(copiedConnections)));
+    }
+
+    /**
+     * Reads a fragment that was written by {@link #write(OutputStream)}.
+     *
+     * <p>
+     * The stream is decompressed and decoded as it is read, so large fragments are never held in memory in
+     * uncompressed form. The stream is not closed.
+     * </p>
+     *
+     * @param input an {@link InputStream} positioned at the start of a fragment
+     * @return the {@link GraphFragment} read from the stream
+     * @throws IOException if the stream could not be read or does not contain a complete fragment
+     */
+    public static GraphFragment read(final InputStream input) throws IOException {
+
+        // Make sure the graph package is registered, so that the binary resource can find its classes.
+        GraphPackage.eINSTANCE.eClass();
+
+        final Resource resource = new BinaryResourceImpl(FRAGMENT_URI);
+
+        try (final InputStream decompressed = new GZIPInputStream(new NonClosingInputStream(input), BUFFER_SIZE)) {
+            resource.load(decompressed, Collections.emptyMap());
+        }
+
+        if (resource.getContents().isEmpty() || !(resource.getContents().get(0) instanceof GModel)) {
+            throw new IOException(NO_FRAGMENT);
+        }
+
+        // The loaded elements are not shared with anyone, so they can be used as the snapshot directly.
+        final GModel model = (GModel) resource.getContents().get(0);
+        final List<GNode> nodes = Collections.unmodifiableList(new ArrayList<>(model.getNodes()));
+        final List<GConnection> connections = Collections.unmodifiableList(new ArrayList<>(model.getConnections()));
+        final GraphFragment fragment = new GraphFragment(nodes, connections);
+
+        if (!fragment.isComplete()) {
+            throw new IOException(BROKEN_FRAGMENT);
+        }
+        return fragment;
+    }
+
+    /**
+     * Writes this fragment to the given stream, as a gzip-compressed binary EMF resource.
+     *
+     * <p>
+     * The stream is not closed.
+     * </p>
+     *
+     * @param output the {@link OutputStream} to write to
+     * @throws IOException if the stream could not be written
+     */
+    public void write(final OutputStream output) throws IOException {
+
+        final GModel model = GraphFactory.eINSTANCE.createGModel();
+        instantiate(model.getNodes(), model.getConnections());
+
+        final Resource resource = new BinaryResourceImpl(FRAGMENT_URI);
+        resource.getContents().add(model);
+
+        try (final OutputStream compressed = new GZIPOutputStream(new NonClosingOutputStream(output), BUFFER_SIZE)) {
+            resource.save(compressed, Collections.emptyMap());
+        }
+    }
+
+    /**
+     * Gets the number of nodes in this fragment.
+     *
+     * @return the number of nodes
+     */
+    public int getNodeCount() {
+        return nodes.size();
+    }
+
+    /**
+     * Gets the number of connections in this fragment.
+     *
+     * @return the number of connections
+     */
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    /**
+     * Creates new nodes and connections from this fragment.
+     *
+     * <p>
+     * The new elements are not added to any model. Nodes are created in the order they were copied in.
+     * </p>
+     *
+     * @param newNodes a list to which the new nodes are added
+     * @param newConnections a list to which the new connections are added
+     */
+    public void instantiate(final List<GNode> newNodes, final List<GConnection> newConnections) {
+
+        final GConnector[] newConnectors = new GConnector[connectorCount];
+        final GConnection[] newConnectionArray = new GConnection[connections.size()];
+
+        int connectorIndex = 0;
+        for (final GNode node : nodes) {
+
+            final GNode newNode = create(node);
+            if (node.getSubgraph() != null) {
+                newNode.setSubgraph(EcoreUtil.copy(node.getSubgraph()));
+            }
+
+            for (final GConnector connector : node.getConnectors()) {
+                final GConnector newConnector = create(connector);
+                newNode.getConnectors().add(newConnector);
+                newConnectors[connectorIndex++] = newConnector;
+            }
+            newNodes.add(newNode);
+        }
+
+        for (int i = 0; i < newConnectionArray.length; i++) {
+
+            final GConnection connection = connections.get(i);
+            final GConnection newConnection = create(connection);
+
+            newConnection.setSource(newConnectors[connectionSources[i]]);
+            newConnection.setTarget(newConnectors[connectionTargets[i]]);
+
+            for (final GJoint joint : connection.getJoints()) {
+                newConnection.getJoints().add(create(joint));
+            }
+
+            newConnectionArray[i] = newConnection;
+            newConnections.add(newConnection);
+        }
+
+        for (int i = 0; i < connectorCount; i++) {
+            final List<GConnection> connectorConnectionList = newConnectors[i].getConnections();
+            for (final int connection : connectorConnections[i]) {
+                connectorConnectionList.add(newConnectionArray[connection]);
+            }
+        }
+    }
+
+    /**
+     * Checks that every connector and connection referenced by this fragment is also contained in it.
+     *
+     * <p>
+     * Fragments taken with {@link #copyOf(Collection)} are always complete. Fragments read from a stream may not be, if
+     * the stream was written by something else.
+     * </p>
+     */
+    private boolean isComplete() {
+
+        for (int i = 0; i < connections.size(); i++) {
+            if (connectionSources[i] < 0 || connectionTargets[i] < 0) {
+                return false;
+            }
+        }
+
+        for (final int[] indices : connectorConnections) {
+            for (final int index : indices) {
+                if (index < 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the index of an element in the given map, or -1 if it is not in the map.
+     */
+    private static <T> int indexOf(final Map<T, Integer> indices, final T element) {
+
+        final Integer index = indices.get(element);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Creates a new object of the same class as the given one, with the same attribute values but no references.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T extends EObject> T create(final T template) {
+
+        final T copy = (T) EcoreUtil.create(template.eClass());
+
+        for (final EAttribute attribute : template.eClass().getEAllAttributes()) {
+            if (attribute.isChangeable() && !attribute.isDerived() && template.eIsSet(attribute)) {
+                copy.eSet(attribute, template.eGet(attribute));
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Keeps the given stream open when the decompressing stream around it is closed.
+     */
+    private static class NonClosingInputStream extends FilterInputStream {
+
+        NonClosingInputStream(final InputStream input) {
+            super(input);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Keeps the given stream open when the compressing stream around it is closed.
+     */
+    private static class NonClosingOutputStream extends FilterOutputStream {
+
+        NonClosingOutputStream(final OutputStream output) {
+            super(output);
+        }
+
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+            out.write(bytes, offset, length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
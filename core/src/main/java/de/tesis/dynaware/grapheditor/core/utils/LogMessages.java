@@ -13,4 +13,8 @@ public final class LogMessages {
     public static final String UNSUPPORTED_JOINT_COUNT = "Joint count not compatible with source and target connector types.";
     public static final String CONNECTOR_MISSING = "Connection must have non-null source and target connectors.";
     public static final String CONNECTION_REFERENCE_MISSING = "A connector is missing a reference to its connection.";
-}
\ No newline at end of file
+    public static final String CONNECTIONS_ROUTED = "Routed {} of {} connections ({} connections per second).";
+    public static final String LAYOUT_CALCULATED = "Calculated {} for {} nodes and {} connections in {} ms.";
+    public static final String LAYOUT_FAILED = "Layout calculation failed.";
+    public static final String SUBGRAPH_NOT_LOADED = "Subgraph could not be loaded from '{}'.";
+}
\ No newline at end of file
@@ -13,6 +13,8 @@ import de.tesis.dynaware.grapheditor.core.DefaultGraphEditor;
 import de.tesis.dynaware.grapheditor.model.GConnection;
 import de.tesis.dynaware.grapheditor.model.GModel;
 import de.tesis.dynaware.grapheditor.utils.GeometryUtils;
+import de.tesis.dynaware.grapheditor.utils.GraphEditorMetrics;
+import de.tesis.dynaware.grapheditor.utils.GraphEditorMetrics.Timer;
 import javafx.geometry.Point2D;
 
 /**
@@ -21,17 +23,31 @@ import javafx.geometry.Point2D;
 public class DefaultConnectionLayouter implements ConnectionLayouter {
 
     private final SkinLookup skinLookup;
+    private final GraphEditorMetrics metrics;
     private GModel model;
 
+    /**
+     * Creates a new {@link DefaultConnectionLayouter} instance without metrics.
+     *
+     * @param skinLookup
+     *            the {@link SkinLookup} used to look up skins
+     */
+    public DefaultConnectionLayouter(final SkinLookup skinLookup) {
+        this(skinLookup, new GraphEditorMetrics());
+    }
+
     /**
      * Creates a new {@link DefaultConnectionLayouter} instance. Only one instance
      * should exist per {@link DefaultGraphEditor} instance.
      *
      * @param skinLookup
      *            the {@link SkinLookup} used to look up skins
+     * @param metrics
+     *            the {@link GraphEditorMetrics} that redraws are recorded in
      */
-    public DefaultConnectionLayouter(final SkinLookup skinLookup) {
+    public DefaultConnectionLayouter(final SkinLookup skinLookup, final GraphEditorMetrics metrics) {
         this.skinLookup = skinLookup;
+        this.metrics = metrics;
     }
 
     @Override
@@ -48,19 +64,24 @@ public class DefaultConnectionLayouter implements ConnectionLayouter {
             return;
         }
 
-        final Map<GConnection, List<Point2D>> allPoints = new HashMap<>();
-
-        for (int i = 0; i < model.getConnections().size(); i++) {
-            final GConnection connection = model.getConnections().get(i);
-            final GConnectionSkin connectionSkin = skinLookup.lookupConnection(connection);
-            final List<Point2D> points = createPoints(connection);
-            connectionSkin.applyConstraints(points);
-            allPoints.put(connection, points);
-        }
-
-        for (final Map.Entry<GConnection, List<Point2D>> entry : allPoints.entrySet()) {
-            final GConnectionSkin connectionSkin = skinLookup.lookupConnection(entry.getKey());
-            connectionSkin.draw(entry.getValue(), allPoints);
+        final long start = metrics.start();
+        try {
+            final Map<GConnection, List<Point2D>> allPoints = new HashMap<>();
+
+            for (int i = 0; i < model.getConnections().size(); i++) {
+                final GConnection connection = model.getConnections().get(i);
+                final GConnectionSkin connectionSkin = skinLookup.lookupConnection(connection);
+                final List<Point2D> points = createPoints(connection);
+                connectionSkin.applyConstraints(points);
+                allPoints.put(connection, points);
+            }
+
+            for (final Map.Entry<GConnection, List<Point2D>> entry : allPoints.entrySet()) {
+                final GConnectionSkin connectionSkin = skinLookup.lookupConnection(entry.getKey());
+                connectionSkin.draw(entry.getValue(), allPoints);
+            }
+        } finally {
+            metrics.stop(Timer.CONNECTION_REDRAW, start);
         }
     }
 
@@ -8,7 +8,11 @@ import de.tesis.dynaware.grapheditor.GJointSkin;
 import de.tesis.dynaware.grapheditor.GNodeSkin;
 import de.tesis.dynaware.grapheditor.GTailSkin;
 import de.tesis.dynaware.grapheditor.core.DefaultGraphEditor;
+import de.tesis.dynaware.grapheditor.utils.GraphEditorMetrics;
+import de.tesis.dynaware.grapheditor.utils.GraphEditorMetrics.Timer;
 import de.tesis.dynaware.grapheditor.utils.GraphEditorProperties;
+import javafx.beans.InvalidationListener;
+import javafx.css.PseudoClass;
 import javafx.scene.CacheHint;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.Region;
@@ -34,6 +38,12 @@ import javafx.scene.layout.Region;
  * reposition them inside their layer. The layers always have the same
  * dimensions as the editor region itself.
  * </p>
+ *
+ * <p>
+ * While the editor properties are in low detail, the view has the
+ * <b>low-detail</b> pseudo-class so that stylesheets can simplify the skins
+ * inside it.
+ * </p>
  */
 public class GraphEditorView extends Region
 {
@@ -51,6 +61,8 @@ public class GraphEditorView extends Region
     private static final String STYLE_CLASS_NODE_LAYER = "graph-editor-node-layer";
     private static final String STYLE_CLASS_CONNECTION_LAYER = "graph-editor-connection-layer";
 
+    private static final PseudoClass PSEUDO_CLASS_LOW_DETAIL = PseudoClass.getPseudoClass("low-detail");
+
     private final Pane nodeLayer = new Pane();
     private final Pane connectionLayer = new Pane();
 
@@ -58,15 +70,23 @@ public class GraphEditorView extends Region
     private ConnectionLayouter connectionLayouter;
 
     private final SelectionBox selectionBox = new SelectionBox();
+    private final GraphEditorMetrics metrics;
 
     private GraphEditorProperties editorProperties;
 
+    private final InvalidationListener lowDetailListener = observable -> updateLowDetail();
+
     /**
      * Creates a new {@link GraphEditorView} to which skin instances can be
      * added and removed.
+     *
+     * @param metrics
+     *            the {@link GraphEditorMetrics} of the graph editor
      */
-    public GraphEditorView()
+    public GraphEditorView(final GraphEditorMetrics metrics)
     {
+        this.metrics = metrics;
+
         getStyleClass().addAll(STYLE_CLASS);
 
         setMaxWidth(GraphEditorProperties.DEFAULT_MAX_WIDTH);
@@ -225,18 +245,44 @@ public class GraphEditorView extends Region
      */
     public void setEditorProperties(final GraphEditorProperties pEditorProperties)
     {
+        if (editorProperties != null)
+        {
+            editorProperties.lowDetailProperty().removeListener(lowDetailListener);
+        }
+
         editorProperties = pEditorProperties;
 
         if (editorProperties != null)
         {
             grid.visibleProperty().bind(editorProperties.gridVisibleProperty());
             grid.gridSpacingProperty().bind(editorProperties.gridSpacingProperty());
+            editorProperties.lowDetailProperty().addListener(lowDetailListener);
         }
         else
         {
             grid.visibleProperty().unbind();
             grid.gridSpacingProperty().unbind();
         }
+
+        updateLowDetail();
+    }
+
+    /**
+     * Updates the low-detail pseudo-class and redraws the connections when
+     * the level of detail changes.
+     *
+     * <p>
+     * Skins are not recreated. Node and connector skins are simplified via the
+     * stylesheet, while connection skins check the level of detail when they
+     * are next drawn.
+     * </p>
+     */
+    private void updateLowDetail()
+    {
+        final boolean lowDetail = editorProperties != null && editorProperties.isLowDetail();
+
+        pseudoClassStateChanged(PSEUDO_CLASS_LOW_DETAIL, lowDetail);
+        requestLayout();
     }
 
     /**
@@ -278,12 +324,20 @@ public class GraphEditorView extends Region
     @Override
     protected void layoutChildren()
     {
-        final double width = getWidth();
-        final double height = getHeight();
-        nodeLayer.resizeRelocate(0, 0, width, height);
-        connectionLayer.resizeRelocate(0, 0, width, height);
-        connectionLayouter.redraw();
-        grid.resizeRelocate(0, 0, width, height);
+        final long start = metrics.start();
+        try
+        {
+            final double width = getWidth();
+            final double height = getHeight();
+            nodeLayer.resizeRelocate(0, 0, width, height);
+            connectionLayer.resizeRelocate(0, 0, width, height);
+            connectionLayouter.redraw();
+            grid.resizeRelocate(0, 0, width, height);
+        }
+        finally
+        {
+            metrics.stop(Timer.LAYOUT_CHILDREN, start);
+        }
     }
 
     /**
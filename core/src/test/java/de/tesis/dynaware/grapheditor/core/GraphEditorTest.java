@@ -3,15 +3,23 @@
  */
 package de.tesis.dynaware.grapheditor.core;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+import javafx.event.Event;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.Region;
+
 import org.eclipse.emf.common.command.CommandStack;
+import org.eclipse.emf.edit.command.AddCommand;
 import org.eclipse.emf.edit.domain.AdapterFactoryEditingDomain;
 import org.eclipse.emf.edit.domain.EditingDomain;
 import org.junit.Before;
@@ -28,6 +36,7 @@ import de.tesis.dynaware.grapheditor.model.GJoint;
 import de.tesis.dynaware.grapheditor.model.GModel;
 import de.tesis.dynaware.grapheditor.model.GNode;
 import de.tesis.dynaware.grapheditor.model.GraphFactory;
+import de.tesis.dynaware.grapheditor.model.GraphPackage;
 
 /**
  * This test treats the graph editor as a single unit.
@@ -154,6 +163,39 @@ public class GraphEditorTest {
         assertTrue("Second joint should have moved right by 17 pixels.", secondJointFinalX == secondJointInitialX + 17);
     }
 
+    @Test
+    public void jointDraggedIntoLineIsCleanedAfterCommand() {
+
+        final GConnection connection = model.getConnections().get(0);
+        final GJoint firstJoint = connection.getJoints().get(0);
+        final GJoint secondJoint = connection.getJoints().get(1);
+
+        // A command that changes the joints of the connection, but keeps the first two.
+        final GJoint firstNewJoint = GraphFactory.eINSTANCE.createGJoint();
+        firstNewJoint.setX(150);
+        firstNewJoint.setY(300);
+        final GJoint secondNewJoint = GraphFactory.eINSTANCE.createGJoint();
+        secondNewJoint.setX(150);
+        secondNewJoint.setY(400);
+
+        commandStack.execute(AddCommand.create(editingDomain, connection, GraphPackage.Literals.GCONNECTION__JOINTS,
+                Arrays.asList(firstNewJoint, secondNewJoint), 2));
+        assertEquals(6, connection.getJoints().size());
+
+        // Drag the second joint onto the first one and release it.
+        final Region firstJointRoot = skinLookup.lookupJoint(firstJoint).getRoot();
+        final Region secondJointRoot = skinLookup.lookupJoint(secondJoint).getRoot();
+        secondJointRoot.setLayoutX(firstJointRoot.getLayoutX());
+        secondJointRoot.setLayoutY(firstJointRoot.getLayoutY());
+
+        Event.fireEvent(secondJointRoot, new MouseEvent(MouseEvent.MOUSE_RELEASED, 0, 0, 0, 0, MouseButton.PRIMARY, 1,
+                false, false, false, false, false, false, false, false, false, false, null));
+
+        assertEquals("The joints on top of each other should have been removed.", 4, connection.getJoints().size());
+        assertFalse(connection.getJoints().contains(firstJoint));
+        assertFalse(connection.getJoints().contains(secondJoint));
+    }
+
     /**
      * Adds a node to the model that has an input and output connector.
      *
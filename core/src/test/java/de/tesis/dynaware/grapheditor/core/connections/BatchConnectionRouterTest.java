@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.connections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.emf.common.command.CommandStack;
+import org.eclipse.emf.edit.domain.AdapterFactoryEditingDomain;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.tesis.dynaware.grapheditor.GraphEditor;
+import de.tesis.dynaware.grapheditor.core.DefaultGraphEditor;
+import de.tesis.dynaware.grapheditor.core.skins.defaults.utils.DefaultConnectorTypes;
+import de.tesis.dynaware.grapheditor.model.GConnection;
+import de.tesis.dynaware.grapheditor.model.GConnector;
+import de.tesis.dynaware.grapheditor.model.GJoint;
+import de.tesis.dynaware.grapheditor.model.GModel;
+import de.tesis.dynaware.grapheditor.model.GNode;
+import de.tesis.dynaware.grapheditor.model.GraphFactory;
+
+public class BatchConnectionRouterTest {
+
+    private GraphEditor graphEditor;
+    private GModel model;
+    private CommandStack commandStack;
+
+    @Before
+    public void setUp() {
+
+        model = GraphFactory.eINSTANCE.createGModel();
+
+        final GNode source = createNode(0, 100, DefaultConnectorTypes.RIGHT_OUTPUT);
+        final GNode firstTarget = createNode(400, 0, DefaultConnectorTypes.LEFT_INPUT);
+        final GNode secondTarget = createNode(400, 300, DefaultConnectorTypes.LEFT_INPUT);
+
+        connect(source, firstTarget, 250, 500, 250, 600);
+        connect(source, secondTarget, 250, 500, 250, 600);
+
+        graphEditor = new DefaultGraphEditor();
+        graphEditor.setModel(model);
+
+        commandStack = AdapterFactoryEditingDomain.getEditingDomainFor(model).getCommandStack();
+        commandStack.flush();
+    }
+
+    @Test
+    public void rerouteIsUndoneInOneStep() {
+
+        final List<List<Double>> originalJoints = getJointPositions();
+
+        final BatchConnectionRouter.Result result = new BatchConnectionRouter(graphEditor.getSkinLookup())
+                .reroute(model);
+
+        assertEquals(2, result.getConnectionCount());
+        assertEquals(2, result.getRoutedCount());
+        assertEquals(0, result.getFailedCount());
+
+        final List<List<Double>> routedJoints = getJointPositions();
+        assertNotEquals(originalJoints.get(0), routedJoints.get(0));
+        assertNotEquals(originalJoints.get(1), routedJoints.get(1));
+
+        assertTrue(commandStack.canUndo());
+        commandStack.undo();
+
+        assertEquals(originalJoints, getJointPositions());
+        assertFalse("The whole batch should be a single command.", commandStack.canUndo());
+
+        commandStack.redo();
+        assertEquals(routedJoints, getJointPositions());
+    }
+
+    @Test
+    public void connectionsWithOtherTypesAreSkipped() {
+
+        model.getConnections().get(0).getSource().setType("output");
+
+        final BatchConnectionRouter.Result result = new BatchConnectionRouter(graphEditor.getSkinLookup())
+                .reroute(model);
+
+        assertEquals(2, result.getConnectionCount());
+        assertEquals(1, result.getRoutedCount());
+    }
+
+    @Test
+    public void alignedConnectionGetsTwoJoints() {
+
+        final GNode source = model.getNodes().get(0);
+        final GNode target = createNode(400, 100, DefaultConnectorTypes.LEFT_INPUT);
+        connect(source, target, 250, 500, 250, 600);
+        graphEditor.reload();
+
+        final BatchConnectionRouter.Result result = new BatchConnectionRouter(graphEditor.getSkinLookup())
+                .reroute(model);
+
+        assertEquals(3, result.getRoutedCount());
+
+        final List<Double> joints = getJointPositions().get(2);
+        assertEquals(4, joints.size());
+        assertEquals(joints.get(0), joints.get(2));
+        assertEquals(joints.get(1), joints.get(3));
+    }
+
+    private List<List<Double>> getJointPositions() {
+
+        final List<List<Double>> positions = new ArrayList<>();
+
+        for (final GConnection connection : model.getConnections()) {
+
+            final List<Double> joints = new ArrayList<>();
+            for (final GJoint joint : connection.getJoints()) {
+                joints.add(joint.getX());
+                joints.add(joint.getY());
+            }
+            positions.add(joints);
+        }
+        return positions;
+    }
+
+    private GNode createNode(final double x, final double y, final String... connectorTypes) {
+
+        final GNode node = GraphFactory.eINSTANCE.createGNode();
+        node.setX(x);
+        node.setY(y);
+        node.setWidth(100);
+        node.setHeight(60);
+
+        for (final String type : connectorTypes) {
+            final GConnector connector = GraphFactory.eINSTANCE.createGConnector();
+            connector.setType(type);
+            node.getConnectors().add(connector);
+        }
+
+        model.getNodes().add(node);
+        return node;
+    }
+
+    private void connect(final GNode source, final GNode target, final double... jointPositions) {
+
+        final GConnection connection = GraphFactory.eINSTANCE.createGConnection();
+        connection.setSource(source.getConnectors().get(0));
+        connection.setTarget(target.getConnectors().get(0));
+
+        for (int i = 0; i < jointPositions.length; i += 2) {
+            final GJoint joint = GraphFactory.eINSTANCE.createGJoint();
+            joint.setX(jointPositions[i]);
+            joint.setY(jointPositions[i + 1]);
+            connection.getJoints().add(joint);
+        }
+
+        source.getConnectors().get(0).getConnections().add(connection);
+        target.getConnectors().get(0).getConnections().add(connection);
+        model.getConnections().add(connection);
+    }
+}
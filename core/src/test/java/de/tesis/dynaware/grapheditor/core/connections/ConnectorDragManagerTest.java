@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.connections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.event.Event;
+import javafx.event.EventType;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.tesis.dynaware.grapheditor.Commands;
+import de.tesis.dynaware.grapheditor.GraphEditor;
+import de.tesis.dynaware.grapheditor.core.DefaultGraphEditor;
+import de.tesis.dynaware.grapheditor.core.data.DummyDataFactory;
+import de.tesis.dynaware.grapheditor.core.skins.SkinManager;
+import de.tesis.dynaware.grapheditor.model.GConnector;
+import de.tesis.dynaware.grapheditor.model.GModel;
+import de.tesis.dynaware.grapheditor.model.GNode;
+
+/**
+ * Tests that connector mouse events are picked up by the event filters on the view, and that only events belonging to
+ * a connection drag are consumed.
+ */
+public class ConnectorDragManagerTest {
+
+    private GraphEditor graphEditor;
+    private GModel model;
+
+    private GNode node;
+    private GConnector connector;
+
+    private final List<MouseEvent> nodeEvents = new ArrayList<>();
+    private final List<MouseEvent> connectorEvents = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+
+        graphEditor = new DefaultGraphEditor();
+        model = DummyDataFactory.createModel();
+        graphEditor.setModel(model);
+
+        node = model.getNodes().get(0);
+        connector = node.getConnectors().get(0);
+
+        final Node nodeRoot = graphEditor.getSkinLookup().lookupNode(node).getRoot();
+        nodeRoot.addEventHandler(MouseEvent.ANY, nodeEvents::add);
+
+        getConnectorRoot(connector).addEventHandler(MouseEvent.ANY, connectorEvents::add);
+    }
+
+    @Test
+    public void findConnector() {
+
+        final Node root = getConnectorRoot(connector);
+
+        assertEquals(connector, SkinManager.findConnector(root));
+        assertEquals(connector, SkinManager.findConnector(((Parent) root).getChildrenUnmodifiable().get(0)));
+        assertNull(SkinManager.findConnector(graphEditor.getSkinLookup().lookupNode(node).getRoot()));
+        assertNull(SkinManager.findConnector(graphEditor.getView()));
+    }
+
+    @Test
+    public void pressOnConnectorIsConsumed() {
+
+        final Node root = getConnectorRoot(connector);
+
+        fire(root, MouseEvent.MOUSE_PRESSED, MouseButton.PRIMARY);
+        fire(((Parent) root).getChildrenUnmodifiable().get(0), MouseEvent.MOUSE_PRESSED, MouseButton.PRIMARY);
+        assertEquals("Presses on the connector should not reach the node.", 0, nodeEvents.size());
+
+        fire(graphEditor.getSkinLookup().lookupNode(node).getRoot(), MouseEvent.MOUSE_PRESSED, MouseButton.PRIMARY);
+        assertEquals("Presses on the node itself should reach the node.", 1, nodeEvents.size());
+    }
+
+    @Test
+    public void pressesNotStartingDragReachConnectorSkin() {
+
+        final Node root = getConnectorRoot(connector);
+
+        fire(root, MouseEvent.MOUSE_PRESSED, MouseButton.SECONDARY);
+        assertEquals(1, connectorEvents.size());
+
+        graphEditor.getProperties().setReadOnly(true);
+
+        fire(root, MouseEvent.MOUSE_PRESSED, MouseButton.PRIMARY);
+        assertEquals(2, connectorEvents.size());
+    }
+
+    @Test
+    public void releaseWithoutDragIsNotConsumed() {
+
+        fire(getConnectorRoot(connector), MouseEvent.MOUSE_RELEASED, MouseButton.PRIMARY);
+        assertEquals(1, connectorEvents.size());
+        assertEquals(1, nodeEvents.size());
+    }
+
+    @Test
+    public void enteredAndExitedAreNotConsumed() {
+
+        final Node root = getConnectorRoot(connector);
+
+        fire(root, MouseEvent.MOUSE_ENTERED, MouseButton.NONE);
+        fire(root, MouseEvent.MOUSE_EXITED, MouseButton.NONE);
+        assertEquals(2, connectorEvents.size());
+        assertEquals(2, nodeEvents.size());
+    }
+
+    @Test
+    public void dragDetectedWithoutDragIsNotConsumed() {
+
+        // Read-only, so that no drag gesture is started.
+        graphEditor.getProperties().setReadOnly(true);
+
+        final Node root = getConnectorRoot(connector);
+
+        fire(root, MouseEvent.DRAG_DETECTED, MouseButton.PRIMARY);
+        fire(root, MouseEvent.DRAG_DETECTED, MouseButton.SECONDARY);
+        assertEquals(2, connectorEvents.size());
+        assertEquals(2, nodeEvents.size());
+    }
+
+    @Test
+    public void connectorsAddedLaterAreHandled() {
+
+        final GNode newNode = DummyDataFactory.createNode();
+        Commands.addNode(model, newNode);
+
+        final Node newNodeRoot = graphEditor.getSkinLookup().lookupNode(newNode).getRoot();
+        newNodeRoot.addEventHandler(MouseEvent.ANY, nodeEvents::add);
+
+        for (final GConnector newConnector : newNode.getConnectors()) {
+            fire(getConnectorRoot(newConnector), MouseEvent.MOUSE_PRESSED, MouseButton.PRIMARY);
+        }
+        assertEquals(0, nodeEvents.size());
+
+        fire(newNodeRoot, MouseEvent.MOUSE_PRESSED, MouseButton.PRIMARY);
+        assertEquals(1, nodeEvents.size());
+    }
+
+    private Node getConnectorRoot(final GConnector connector) {
+        return graphEditor.getSkinLookup().lookupConnector(connector).getRoot();
+    }
+
+    private static void fire(final Node target, final EventType<MouseEvent> type, final MouseButton button) {
+
+        final boolean primary = button == MouseButton.PRIMARY;
+        final boolean secondary = button == MouseButton.SECONDARY;
+
+        Event.fireEvent(target, new MouseEvent(type, 0, 0, 0, 0, button, 1, false, false, false, false, primary,
+                false, secondary, false, false, false, null));
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.export;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import de.tesis.dynaware.grapheditor.core.skins.defaults.utils.DefaultConnectorTypes;
+import de.tesis.dynaware.grapheditor.model.GConnection;
+import de.tesis.dynaware.grapheditor.model.GConnector;
+import de.tesis.dynaware.grapheditor.model.GJoint;
+import de.tesis.dynaware.grapheditor.model.GModel;
+import de.tesis.dynaware.grapheditor.model.GNode;
+import de.tesis.dynaware.grapheditor.model.GraphFactory;
+
+public class SvgExporterTest {
+
+    private static final double NODE_WIDTH = 100;
+    private static final double NODE_HEIGHT = 80;
+
+    @Test
+    public void testDocumentContainsAllElements() throws Exception {
+
+        final Document document = export(createCrossingModel(), new SvgExporter());
+
+        assertEquals("svg", document.getDocumentElement().getTagName());
+        assertEquals(2, document.getElementsByTagName("path").getLength());
+        assertEquals(4, document.getElementsByTagName("rect").getLength());
+        assertEquals(4, document.getElementsByTagName("polygon").getLength());
+        assertEquals("<A & B>", document.getElementsByTagName("title").item(0).getTextContent());
+    }
+
+    @Test
+    public void testGapIsDrawnInConnectionBehind() throws Exception {
+
+        final List<String> paths = getPaths(export(createCrossingModel(), new SvgExporter()));
+
+        // The first connection is behind the second one, so it has a gap where they cross.
+        assertEquals(2, countMoves(paths.get(0)));
+        assertEquals(1, countMoves(paths.get(1)));
+        assertFalse(paths.get(0).contains("A"));
+        assertFalse(paths.get(1).contains("A"));
+    }
+
+    @Test
+    public void testDetourIsDrawnInConnectionInFront() throws Exception {
+
+        final SvgExporter exporter = new SvgExporter();
+        exporter.setShowDetours(true);
+
+        final List<String> paths = getPaths(export(createCrossingModel(), exporter));
+
+        assertFalse(paths.get(0).contains("A"));
+        assertTrue(paths.get(1).contains("A"));
+        assertEquals(1, countMoves(paths.get(0)));
+        assertEquals(1, countMoves(paths.get(1)));
+    }
+
+    @Test
+    public void testIntersectionsCanBeHidden() throws Exception {
+
+        final SvgExporter exporter = new SvgExporter();
+        exporter.setShowIntersections(false);
+
+        for (final String path : getPaths(export(createCrossingModel(), exporter))) {
+            assertEquals(1, countMoves(path));
+            assertFalse(path.contains("A"));
+        }
+    }
+
+    @Test
+    public void testEmptyModel() throws Exception {
+
+        final Document document = export(GraphFactory.eINSTANCE.createGModel(), new SvgExporter());
+
+        assertEquals("svg", document.getDocumentElement().getTagName());
+        assertEquals(0, document.getElementsByTagName("path").getLength());
+    }
+
+    /**
+     * Creates a model with a horizontal connection from left to right and a vertical connection from top to bottom
+     * that crosses it.
+     */
+    private static GModel createCrossingModel() {
+
+        final GModel model = GraphFactory.eINSTANCE.createGModel();
+
+        final GNode left = createNode(model, 0, 100);
+        final GNode right = createNode(model, 400, 100);
+        final GNode top = createNode(model, 120, -200);
+        final GNode bottom = createNode(model, 120, 400);
+
+        left.setId("<A & B>");
+
+        final GConnection horizontal = createConnection(model, left, DefaultConnectorTypes.RIGHT_OUTPUT, right,
+                DefaultConnectorTypes.LEFT_INPUT);
+        addJoint(horizontal, 250, 141);
+        addJoint(horizontal, 250, 141);
+
+        final GConnection vertical = createConnection(model, top, DefaultConnectorTypes.BOTTOM_OUTPUT, bottom,
+                DefaultConnectorTypes.TOP_INPUT);
+        addJoint(vertical, 171, 260);
+        addJoint(vertical, 171, 260);
+
+        return model;
+    }
+
+    private static GNode createNode(final GModel model, final double x, final double y) {
+
+        final GNode node = GraphFactory.eINSTANCE.createGNode();
+
+        node.setX(x);
+        node.setY(y);
+        node.setWidth(NODE_WIDTH);
+        node.setHeight(NODE_HEIGHT);
+
+        model.getNodes().add(node);
+        return node;
+    }
+
+    private static GConnection createConnection(final GModel model, final GNode source, final String sourceType,
+            final GNode target, final String targetType) {
+
+        final GConnector sourceConnector = GraphFactory.eINSTANCE.createGConnector();
+        sourceConnector.setType(sourceType);
+        source.getConnectors().add(sourceConnector);
+
+        final GConnector targetConnector = GraphFactory.eINSTANCE.createGConnector();
+        targetConnector.setType(targetType);
+        target.getConnectors().add(targetConnector);
+
+        final GConnection connection = GraphFactory.eINSTANCE.createGConnection();
+        connection.setSource(sourceConnector);
+        connection.setTarget(targetConnector);
+
+        model.getConnections().add(connection);
+        return connection;
+    }
+
+    private static void addJoint(final GConnection connection, final double x, final double y) {
+
+        final GJoint joint = GraphFactory.eINSTANCE.createGJoint();
+        joint.setX(x);
+        joint.setY(y);
+
+        connection.getJoints().add(joint);
+    }
+
+    private static Document export(final GModel model, final SvgExporter exporter) throws Exception {
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        exporter.export(model, output);
+
+        final ByteArrayInputStream input = new ByteArrayInputStream(output.toByteArray());
+        return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(input);
+    }
+
+    private static List<String> getPaths(final Document document) {
+
+        final List<String> paths = new ArrayList<>();
+        final NodeList elements = document.getElementsByTagName("path");
+
+        for (int i = 0; i < elements.getLength(); i++) {
+            paths.add(((Element) elements.item(i)).getAttribute("d"));
+        }
+        return paths;
+    }
+
+    private static int countMoves(final String path) {
+        return path.split("M", -1).length - 1;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.layout;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class ForceDirectedLayoutTest {
+
+    @Test
+    public void connectedNodesEndUpCloserThanUnconnectedNodes() {
+
+        // Two triangles without a connection between them.
+        final int[] sources = { 0, 1, 2, 3, 4, 5 };
+        final int[] targets = { 1, 2, 0, 4, 5, 3 };
+
+        final LayoutGraph graph = LayoutGraphs.create(6, sources, targets);
+        final LayoutResult result = new ForceDirectedLayout().layout(graph);
+
+        double connected = 0;
+        double unconnected = 0;
+
+        for (int i = 0; i < 6; i++) {
+            for (int j = i + 1; j < 6; j++) {
+                if (i / 3 == j / 3) {
+                    connected = Math.max(connected, getDistance(result, i, j));
+                } else {
+                    unconnected += getDistance(result, i, j) / 9;
+                }
+            }
+        }
+
+        assertTrue(connected < unconnected);
+    }
+
+    @Test
+    public void cancelledLayoutStopsEarly() {
+
+        final LayoutGraph graph = LayoutGraphs.createDag(100, 2, 0);
+        final int[] published = new int[1];
+
+        final LayoutMonitor monitor = new LayoutMonitor() {
+
+            @Override
+            public boolean isCancelled() {
+                return published[0] == 5;
+            }
+
+            @Override
+            public void publish(final double[] positions) {
+                assertEquals(2 * graph.getNodeCount(), positions.length);
+                published[0]++;
+            }
+        };
+
+        final LayoutResult result = new ForceDirectedLayout().layout(graph, monitor);
+
+        assertEquals(5, published[0]);
+        assertFinite(graph, result);
+    }
+
+    @Test
+    public void layoutLargeGraph() {
+
+        final LayoutGraph graph = LayoutGraphs.createDag(2000, 2, 0);
+        final LayoutResult result = new ForceDirectedLayout().layout(graph);
+
+        assertFinite(graph, result);
+    }
+
+    private static double getDistance(final LayoutResult result, final int first, final int second) {
+        final double dx = result.getNodeX(first) - result.getNodeX(second);
+        final double dy = result.getNodeY(first) - result.getNodeY(second);
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    private static void assertFinite(final LayoutGraph graph, final LayoutResult result) {
+
+        for (int i = 0; i < graph.getNodeCount(); i++) {
+            assertFalse(Double.isNaN(result.getNodeX(i)) || Double.isInfinite(result.getNodeX(i)));
+            assertFalse(Double.isNaN(result.getNodeY(i)) || Double.isInfinite(result.getNodeY(i)));
+        }
+    }
+}
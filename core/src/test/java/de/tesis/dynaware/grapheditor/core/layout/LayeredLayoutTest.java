@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.layout;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class LayeredLayoutTest {
+
+    @Test
+    public void chainIsLaidOutFromLeftToRight() {
+
+        final LayoutGraph graph = LayoutGraphs.create(3, new int[] { 0, 1 }, new int[] { 1, 2 });
+        final LayoutResult result = new LayeredLayout().layout(graph);
+
+        assertTrue(result.getNodeX(0) + LayoutGraphs.NODE_WIDTH < result.getNodeX(1));
+        assertTrue(result.getNodeX(1) + LayoutGraphs.NODE_WIDTH < result.getNodeX(2));
+
+        assertEquals(result.getNodeY(0), result.getNodeY(1), 0);
+        assertEquals(result.getNodeY(1), result.getNodeY(2), 0);
+
+        // Straight connections get two aligned joints.
+        for (int e = 0; e < graph.getConnectionCount(); e++) {
+            final double[] joints = result.getJoints(e);
+            assertEquals(4, joints.length);
+            assertEquals(joints[0], joints[2], 0);
+            assertEquals(joints[1], joints[3], 0);
+        }
+        assertOrthogonal(graph, result);
+    }
+
+    @Test
+    public void nodesInSameLayerDoNotOverlap() {
+
+        final LayoutGraph graph = LayoutGraphs.create(4, new int[] { 0, 0, 0 }, new int[] { 1, 2, 3 });
+        final LayoutResult result = new LayeredLayout().layout(graph);
+
+        assertEquals(result.getNodeX(1), result.getNodeX(2), 0);
+        assertEquals(result.getNodeX(2), result.getNodeX(3), 0);
+
+        assertNoOverlaps(graph, result);
+        assertOrthogonal(graph, result);
+    }
+
+    @Test
+    public void cyclesAreBroken() {
+
+        final LayoutGraph graph = LayoutGraphs.create(3, new int[] { 0, 1, 2 }, new int[] { 1, 2, 0 });
+        final LayoutResult result = new LayeredLayout().layout(graph);
+
+        assertNoOverlaps(graph, result);
+
+        for (int e = 0; e < graph.getConnectionCount(); e++) {
+            assertNotNull(result.getJoints(e));
+        }
+    }
+
+    @Test
+    public void longConnectionsGetOrthogonalJoints() {
+
+        final LayoutGraph graph = LayoutGraphs.create(4, new int[] { 0, 1, 2, 0 }, new int[] { 1, 2, 3, 3 });
+        final LayoutResult result = new LayeredLayout().layout(graph);
+
+        assertNoOverlaps(graph, result);
+        assertOrthogonal(graph, result);
+    }
+
+    @Test
+    public void unknownConnectorTypesKeepTheirJoints() {
+
+        final LayoutGraph graph = LayoutGraphs.create(2, new int[] { 0 }, new int[] { 1 }, null, null);
+        final LayoutResult result = new LayeredLayout().layout(graph);
+
+        assertNull(result.getJoints(0));
+    }
+
+    @Test
+    public void layoutLargeDag() {
+
+        final LayoutGraph graph = LayoutGraphs.createDag(10000, 2, 0);
+        final LayoutResult result = new LayeredLayout().layout(graph);
+
+        assertNoOverlaps(graph, result);
+        assertOrthogonal(graph, result);
+    }
+
+    /**
+     * Checks that no two nodes overlap, comparing each node only with the nodes starting in the same x range.
+     */
+    private static void assertNoOverlaps(final LayoutGraph graph, final LayoutResult result) {
+
+        final Integer[] nodes = new Integer[graph.getNodeCount()];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = i;
+        }
+        Arrays.sort(nodes, (first, second) -> Double.compare(result.getNodeX(first), result.getNodeX(second)));
+
+        for (int i = 0; i < nodes.length; i++) {
+            for (int j = i + 1; j < nodes.length; j++) {
+
+                final int first = nodes[i];
+                final int second = nodes[j];
+
+                if (result.getNodeX(second) >= result.getNodeX(first) + graph.getNodeWidth(first)) {
+                    break;
+                }
+
+                final boolean overlapY = result.getNodeY(second) < result.getNodeY(first) + graph.getNodeHeight(first)
+                        && result.getNodeY(first) < result.getNodeY(second) + graph.getNodeHeight(second);
+                assertFalse(overlapY);
+            }
+        }
+    }
+
+    /**
+     * Checks that every connection starts horizontally at its source connector, alternates between horizontal and
+     * vertical segments, and ends horizontally at its target connector.
+     */
+    private static void assertOrthogonal(final LayoutGraph graph, final LayoutResult result) {
+
+        for (int e = 0; e < graph.getConnectionCount(); e++) {
+
+            final double[] joints = result.getJoints(e);
+            assertEquals(0, joints.length % 4);
+
+            final int source = graph.getSource(e);
+            final int target = graph.getTarget(e);
+
+            double x = Math.ceil(result.getNodeX(source) + graph.getSourceOffsetX(e));
+            double y = Math.ceil(result.getNodeY(source) + graph.getSourceOffsetY(e));
+
+            final double endX = Math.ceil(result.getNodeX(target) + graph.getTargetOffsetX(e));
+            final double endY = Math.ceil(result.getNodeY(target) + graph.getTargetOffsetY(e));
+
+            boolean horizontal = true;
+
+            for (int j = 0; j <= joints.length; j += 2) {
+
+                final double nextX = j < joints.length ? joints[j] : endX;
+                final double nextY = j < joints.length ? joints[j + 1] : endY;
+
+                if (horizontal) {
+                    assertEquals(y, nextY, 0);
+                } else {
+                    assertEquals(x, nextX, 0);
+                }
+
+                horizontal = !horizontal;
+                x = nextX;
+                y = nextY;
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.layout;
+
+import java.util.Collections;
+import java.util.Random;
+
+import javafx.geometry.Side;
+
+/**
+ * Creates {@link LayoutGraph} instances for tests and benchmarks, without a model.
+ */
+final class LayoutGraphs {
+
+    static final double NODE_WIDTH = 150;
+    static final double NODE_HEIGHT = 100;
+
+    private LayoutGraphs() {
+    }
+
+    /**
+     * Creates a graph whose connections all go from a right-side output to a left-side input.
+     *
+     * @param nodeCount the number of nodes
+     * @param sources the source node of each connection
+     * @param targets the target node of each connection
+     * @return a new {@link LayoutGraph}
+     */
+    static LayoutGraph create(final int nodeCount, final int[] sources, final int[] targets) {
+        return create(nodeCount, sources, targets, Side.RIGHT, Side.LEFT);
+    }
+
+    /**
+     * Creates a graph whose connections all have the given sides.
+     *
+     * @param nodeCount the number of nodes
+     * @param sources the source node of each connection
+     * @param targets the target node of each connection
+     * @param sourceSide the side of every source connector, or {@code null}
+     * @param targetSide the side of every target connector, or {@code null}
+     * @return a new {@link LayoutGraph}
+     */
+    static LayoutGraph create(final int nodeCount, final int[] sources, final int[] targets, final Side sourceSide,
+            final Side targetSide) {
+
+        final Side[] sides = new Side[2 * sources.length];
+        for (int e = 0; e < sources.length; e++) {
+            sides[2 * e] = sourceSide;
+            sides[2 * e + 1] = targetSide;
+        }
+        return create(nodeCount, sources, targets, sides);
+    }
+
+    /**
+     * Creates a graph with the given connector sides, with each connector in the middle of its side.
+     *
+     * <p>
+     * Connectors with an unknown side are placed as if they were on the right of the source and the left of the
+     * target.
+     * </p>
+     *
+     * @param nodeCount the number of nodes
+     * @param sources the source node of each connection
+     * @param targets the target node of each connection
+     * @param sides the source and target side of each connection, possibly {@code null}
+     * @return a new {@link LayoutGraph}
+     */
+    static LayoutGraph create(final int nodeCount, final int[] sources, final int[] targets, final Side[] sides) {
+
+        final double[] nodeBounds = new double[4 * nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            nodeBounds[4 * i + 2] = NODE_WIDTH;
+            nodeBounds[4 * i + 3] = NODE_HEIGHT;
+        }
+
+        final double[] connectorOffsets = new double[4 * sources.length];
+
+        for (int e = 0; e < sources.length; e++) {
+            setOffset(connectorOffsets, 4 * e, sides[2 * e] == null ? Side.RIGHT : sides[2 * e]);
+            setOffset(connectorOffsets, 4 * e + 2, sides[2 * e + 1] == null ? Side.LEFT : sides[2 * e + 1]);
+        }
+
+        return new LayoutGraph(Collections.emptyList(), Collections.emptyList(), nodeBounds, sources, targets,
+                connectorOffsets, sides);
+    }
+
+    /**
+     * Creates a random directed acyclic graph.
+     *
+     * <p>
+     * The nodes are split into ranks of roughly the square root of the node count. Every connection goes from a node
+     * to a node between one and three ranks further on.
+     * </p>
+     *
+     * @param nodeCount the number of nodes
+     * @param connectionsPerNode the average number of outgoing connections per node
+     * @param seed the seed of the random generator
+     * @return a new {@link LayoutGraph}
+     */
+    static LayoutGraph createDag(final int nodeCount, final int connectionsPerNode, final long seed) {
+
+        final Random random = new Random(seed);
+        final int rankSize = Math.max(1, (int) Math.sqrt(nodeCount));
+        final int rankCount = (nodeCount + rankSize - 1) / rankSize;
+
+        final int connectionCount = rankCount > 1 ? connectionsPerNode * nodeCount : 0;
+        final int[] sources = new int[connectionCount];
+        final int[] targets = new int[connectionCount];
+
+        for (int e = 0; e < connectionCount; e++) {
+
+            final int source = random.nextInt((rankCount - 1) * rankSize);
+            final int rank = Math.min(rankCount - 1, source / rankSize + 1 + random.nextInt(3));
+            final int target = Math.min(nodeCount - 1, rank * rankSize + random.nextInt(rankSize));
+
+            sources[e] = source;
+            targets[e] = target;
+        }
+
+        return create(nodeCount, sources, targets);
+    }
+
+    private static void setOffset(final double[] offsets, final int index, final Side side) {
+
+        switch (side) {
+        case TOP:
+            offsets[index] = NODE_WIDTH / 2;
+            break;
+        case RIGHT:
+            offsets[index] = NODE_WIDTH;
+            offsets[index + 1] = NODE_HEIGHT / 2;
+            break;
+        case BOTTOM:
+            offsets[index] = NODE_WIDTH / 2;
+            offsets[index + 1] = NODE_HEIGHT;
+            break;
+        default:
+            offsets[index + 1] = NODE_HEIGHT / 2;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.layout;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import javafx.geometry.Side;
+
+import org.junit.Test;
+
+public class MeshLayoutTest {
+
+    private static final int ROWS = 4;
+    private static final int COLUMNS = 5;
+
+    @Test
+    public void meshIsLaidOutOnLattice() {
+
+        final int[] nodes = shuffledNodes(ROWS * COLUMNS);
+        final LayoutGraph graph = createMesh(nodes, false);
+        final LayoutResult result = new MeshLayout().layout(graph);
+
+        for (int row = 0; row < ROWS; row++) {
+            for (int column = 0; column < COLUMNS; column++) {
+
+                final int node = nodes[row * COLUMNS + column];
+                final int first = nodes[0];
+
+                final double expectedX = result.getNodeX(first) + column * getColumnWidth(result, nodes);
+                final double expectedY = result.getNodeY(first) + row * getRowHeight(result, nodes);
+
+                assertEquals(expectedX, result.getNodeX(node), 0);
+                assertEquals(expectedY, result.getNodeY(node), 0);
+            }
+        }
+
+        for (int e = 0; e < graph.getConnectionCount(); e++) {
+            assertTrue(isStraight(result.getJoints(e)));
+        }
+    }
+
+    @Test
+    public void torusIsLaidOutOnLattice() {
+
+        final int[] nodes = shuffledNodes(ROWS * COLUMNS);
+        final LayoutGraph graph = createMesh(nodes, true);
+        final LayoutResult result = new MeshLayout().layout(graph);
+
+        final Set<String> positions = new HashSet<>();
+        for (final int node : nodes) {
+            positions.add(result.getNodeX(node) + "," + result.getNodeY(node));
+        }
+        assertEquals(nodes.length, positions.size());
+
+        // Each row and column of the torus has two wrap-around connections, which cannot be straight.
+        int bent = 0;
+        for (int e = 0; e < graph.getConnectionCount(); e++) {
+            if (!isStraight(result.getJoints(e))) {
+                bent++;
+            }
+        }
+        assertEquals(2 * ROWS + 2 * COLUMNS, bent);
+    }
+
+    @Test
+    public void unconnectedNodesDoNotOverlap() {
+
+        final LayoutGraph graph = LayoutGraphs.create(3, new int[0], new int[0], new Side[0]);
+        final LayoutResult result = new MeshLayout().layout(graph);
+
+        for (int i = 0; i < 3; i++) {
+            for (int j = i + 1; j < 3; j++) {
+                final boolean apartX = Math.abs(result.getNodeX(i) - result.getNodeX(j)) >= LayoutGraphs.NODE_WIDTH;
+                final boolean apartY = Math.abs(result.getNodeY(i) - result.getNodeY(j)) >= LayoutGraphs.NODE_HEIGHT;
+                assertTrue(apartX || apartY);
+            }
+        }
+    }
+
+    /**
+     * Checks whether the joints are two coinciding points, which the default skins draw as a straight line.
+     */
+    private static boolean isStraight(final double[] joints) {
+        return joints.length == 4 && joints[0] == joints[2] && joints[1] == joints[3];
+    }
+
+    private static double getColumnWidth(final LayoutResult result, final int[] nodes) {
+        return result.getNodeX(nodes[1]) - result.getNodeX(nodes[0]);
+    }
+
+    private static double getRowHeight(final LayoutResult result, final int[] nodes) {
+        return result.getNodeY(nodes[COLUMNS]) - result.getNodeY(nodes[0]);
+    }
+
+    /**
+     * Gets a random assignment of node indices to lattice positions, so that the layout cannot rely on node order.
+     */
+    private static int[] shuffledNodes(final int count) {
+
+        final List<Integer> indices = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            indices.add(i);
+        }
+        Collections.shuffle(indices, new Random(0));
+
+        final int[] nodes = new int[count];
+        for (int i = 0; i < count; i++) {
+            nodes[i] = indices.get(i);
+        }
+        return nodes;
+    }
+
+    /**
+     * Creates a mesh with a pair of opposite connections between all neighboring nodes, like a network on chip.
+     *
+     * @param nodes the node at each lattice position, row by row
+     * @param torus {@code true} to connect the last row and column to the first
+     */
+    private static LayoutGraph createMesh(final int[] nodes, final boolean torus) {
+
+        final List<Integer> sources = new ArrayList<>();
+        final List<Integer> targets = new ArrayList<>();
+        final List<Side> sides = new ArrayList<>();
+
+        for (int row = 0; row < ROWS; row++) {
+            for (int column = 0; column < COLUMNS; column++) {
+
+                final int node = nodes[row * COLUMNS + column];
+
+                if (column + 1 < COLUMNS || torus) {
+                    final int east = nodes[row * COLUMNS + (column + 1) % COLUMNS];
+                    connect(sources, targets, sides, node, east, Side.RIGHT, Side.LEFT);
+                    connect(sources, targets, sides, east, node, Side.LEFT, Side.RIGHT);
+                }
+                if (row + 1 < ROWS || torus) {
+                    final int south = nodes[(row + 1) % ROWS * COLUMNS + column];
+                    connect(sources, targets, sides, node, south, Side.BOTTOM, Side.TOP);
+                    connect(sources, targets, sides, south, node, Side.TOP, Side.BOTTOM);
+                }
+            }
+        }
+
+        final int[] sourceArray = new int[sources.size()];
+        final int[] targetArray = new int[targets.size()];
+        for (int e = 0; e < sourceArray.length; e++) {
+            sourceArray[e] = sources.get(e);
+            targetArray[e] = targets.get(e);
+        }
+
+        return LayoutGraphs.create(nodes.length, sourceArray, targetArray, sides.toArray(new Side[sides.size()]));
+    }
+
+    private static void connect(final List<Integer> sources, final List<Integer> targets, final List<Side> sides,
+            final int source, final int target, final Side sourceSide, final Side targetSide) {
+
+        sources.add(source);
+        targets.add(target);
+        sides.add(sourceSide);
+        sides.add(targetSide);
+    }
+}
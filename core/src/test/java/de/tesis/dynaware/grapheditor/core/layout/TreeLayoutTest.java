@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.layout;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TreeLayoutTest {
+
+    @Test
+    public void parentsAreCenteredAboveChildren() {
+
+        final LayoutGraph graph = LayoutGraphs.create(4, new int[] { 0, 0, 0 }, new int[] { 1, 2, 3 });
+        final LayoutResult result = new TreeLayout().layout(graph);
+
+        assertEquals(result.getNodeY(1), result.getNodeY(2), 0);
+        assertEquals(result.getNodeY(2), result.getNodeY(3), 0);
+        assertTrue(result.getNodeY(0) + LayoutGraphs.NODE_HEIGHT < result.getNodeY(1));
+
+        assertEquals(result.getNodeX(2), result.getNodeX(0), 0);
+        assertLevelsDoNotOverlap(graph, result);
+    }
+
+    @Test
+    public void subtreesDoNotOverlap() {
+
+        final LayoutGraph graph = createRandomTree(1000, 0);
+        final LayoutResult result = new TreeLayout().layout(graph);
+
+        assertLevelsDoNotOverlap(graph, result);
+    }
+
+    @Test
+    public void forestAndCyclesAreLaidOut() {
+
+        // A tree 0 -> 1, a separate node 2, and a cycle 3 -> 4 -> 5 -> 3.
+        final LayoutGraph graph = LayoutGraphs.create(6, new int[] { 0, 3, 4, 5 }, new int[] { 1, 4, 5, 3 });
+        final LayoutResult result = new TreeLayout().layout(graph);
+
+        assertLevelsDoNotOverlap(graph, result);
+        assertTrue(result.getNodeY(3) < result.getNodeY(4));
+        assertTrue(result.getNodeY(4) < result.getNodeY(5));
+    }
+
+    @Test
+    public void layoutDeepChain() {
+
+        final int nodeCount = 100000;
+        final int[] sources = new int[nodeCount - 1];
+        final int[] targets = new int[nodeCount - 1];
+
+        for (int i = 0; i < nodeCount - 1; i++) {
+            sources[i] = i;
+            targets[i] = i + 1;
+        }
+
+        final LayoutGraph graph = LayoutGraphs.create(nodeCount, sources, targets);
+        final LayoutResult result = new TreeLayout().layout(graph);
+
+        assertEquals(result.getNodeX(0), result.getNodeX(nodeCount - 1), 0);
+    }
+
+    @Test
+    public void layoutLargeTree() {
+
+        final LayoutGraph graph = createRandomTree(200000, 0);
+        final LayoutResult result = new TreeLayout().layout(graph);
+
+        assertLevelsDoNotOverlap(graph, result);
+    }
+
+    /**
+     * Creates a random tree where each node is a child of one of the nodes created before it.
+     */
+    private static LayoutGraph createRandomTree(final int nodeCount, final long seed) {
+
+        final Random random = new Random(seed);
+        final int[] sources = new int[nodeCount - 1];
+        final int[] targets = new int[nodeCount - 1];
+
+        for (int i = 1; i < nodeCount; i++) {
+            sources[i - 1] = random.nextInt(i);
+            targets[i - 1] = i;
+        }
+        return LayoutGraphs.create(nodeCount, sources, targets);
+    }
+
+    /**
+     * Checks that nodes on the same level keep at least some distance, which implies that no two nodes overlap.
+     */
+    private static void assertLevelsDoNotOverlap(final LayoutGraph graph, final LayoutResult result) {
+
+        final Integer[] nodes = new Integer[graph.getNodeCount()];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = i;
+        }
+        Arrays.sort(nodes, Comparator.<Integer> comparingDouble(result::getNodeY)
+                .thenComparingDouble(result::getNodeX));
+
+        for (int k = 1; k < nodes.length; k++) {
+
+            final int left = nodes[k - 1];
+            final int right = nodes[k];
+
+            if (result.getNodeY(left) == result.getNodeY(right)) {
+                assertTrue(result.getNodeX(left) + graph.getNodeWidth(left) < result.getNodeX(right));
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.junit.Test;
+
+import de.tesis.dynaware.grapheditor.model.GModel;
+import de.tesis.dynaware.grapheditor.model.GNode;
+import de.tesis.dynaware.grapheditor.model.GraphFactory;
+import de.tesis.dynaware.grapheditor.model.GraphPackage;
+
+public class BulkRemoveCommandTest {
+
+    @Test
+    public void testUndoRestoresOrder() {
+
+        final GModel model = createModel(10);
+        final List<GNode> nodes = new ArrayList<>(model.getNodes());
+
+        final BulkRemoveCommand command = new BulkRemoveCommand();
+        command.remove(model, GraphPackage.Literals.GMODEL__NODES, nodes.get(0));
+        command.remove(model, GraphPackage.Literals.GMODEL__NODES, nodes.get(4));
+        command.remove(model, GraphPackage.Literals.GMODEL__NODES, nodes.get(5));
+        command.remove(model, GraphPackage.Literals.GMODEL__NODES, nodes.get(9));
+
+        assertTrue(command.canExecute());
+        command.execute();
+
+        assertEquals(6, model.getNodes().size());
+        assertFalse(model.getNodes().contains(nodes.get(4)));
+        assertEquals(null, nodes.get(4).eContainer());
+
+        command.undo();
+        assertEquals(nodes, model.getNodes());
+        assertEquals(model, nodes.get(4).eContainer());
+
+        command.redo();
+        assertEquals(6, model.getNodes().size());
+        assertEquals(nodes.get(1), model.getNodes().get(0));
+    }
+
+    @Test
+    public void testOneNotificationPerList() {
+
+        final GModel model = createModel(10);
+        final List<GNode> nodes = new ArrayList<>(model.getNodes());
+
+        final List<Notification> notifications = new ArrayList<>();
+        model.eAdapters().add(new AdapterImpl() {
+
+            @Override
+            public void notifyChanged(final Notification notification) {
+                if (notification.getFeature() == GraphPackage.Literals.GMODEL__NODES) {
+                    notifications.add(notification);
+                }
+            }
+        });
+
+        final BulkRemoveCommand command = new BulkRemoveCommand();
+        command.remove(model, GraphPackage.Literals.GMODEL__NODES, nodes.get(0));
+        command.remove(model, GraphPackage.Literals.GMODEL__NODES, nodes.get(4));
+        command.remove(model, GraphPackage.Literals.GMODEL__NODES, nodes.get(5));
+        command.remove(model, GraphPackage.Literals.GMODEL__NODES, nodes.get(9));
+
+        command.execute();
+        assertEquals(1, notifications.size());
+        assertEquals(Notification.REMOVE_MANY, notifications.get(0).getEventType());
+
+        // One notification for each run of adjacent nodes: 0, 4 and 5, and 9.
+        notifications.clear();
+        command.undo();
+        assertEquals(nodes, model.getNodes());
+        assertEquals(3, notifications.size());
+        assertEquals(Notification.ADD, notifications.get(0).getEventType());
+        assertEquals(Notification.ADD_MANY, notifications.get(1).getEventType());
+        assertEquals(Notification.ADD, notifications.get(2).getEventType());
+
+        notifications.clear();
+        command.redo();
+        assertEquals(6, model.getNodes().size());
+        assertEquals(1, notifications.size());
+        assertEquals(Notification.REMOVE_MANY, notifications.get(0).getEventType());
+        assertEquals(Arrays.asList(nodes.get(0), nodes.get(4), nodes.get(5), nodes.get(9)),
+                notifications.get(0).getOldValue());
+        assertArrayEquals(new int[] { 0, 4, 5, 9 }, (int[]) notifications.get(0).getNewValue());
+    }
+
+    @Test
+    public void testEmptyCommandCannotExecute() {
+        assertFalse(new BulkRemoveCommand().canExecute());
+    }
+
+    @Test
+    public void testRemoveManyNodes() {
+
+        final int nodeCount = 10000;
+        final GModel model = createModel(nodeCount);
+        final List<GNode> nodes = new ArrayList<>(model.getNodes());
+
+        final BulkRemoveCommand command = new BulkRemoveCommand();
+        for (int i = 0; i < nodeCount; i += 2) {
+            command.remove(model, GraphPackage.Literals.GMODEL__NODES, nodes.get(i));
+        }
+
+        command.execute();
+        assertEquals(nodeCount / 2, model.getNodes().size());
+
+        command.undo();
+        assertEquals(nodes, model.getNodes());
+    }
+
+    private static GModel createModel(final int nodeCount) {
+
+        final GModel model = GraphFactory.eINSTANCE.createGModel();
+        for (int i = 0; i < nodeCount; i++) {
+            model.getNodes().add(GraphFactory.eINSTANCE.createGNode());
+        }
+        return model;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import de.tesis.dynaware.grapheditor.model.GConnection;
+import de.tesis.dynaware.grapheditor.model.GConnector;
+import de.tesis.dynaware.grapheditor.model.GModel;
+import de.tesis.dynaware.grapheditor.model.GNode;
+import de.tesis.dynaware.grapheditor.model.GraphFactory;
+
+public class ModelSanityCheckerTest {
+
+    @Test
+    public void testValidate() {
+
+        final GModel model = createModel();
+        assertTrue(ModelSanityChecker.validate(model));
+
+        model.getNodes().get(0).setWidth(-1);
+        assertFalse(ModelSanityChecker.validate(model));
+    }
+
+    @Test
+    public void testIncrementalValidation() {
+
+        final GModel model = createModel();
+        final GNode node = model.getNodes().get(0);
+        final GConnection connection = model.getConnections().get(0);
+
+        final ModelSanityChecker checker = new ModelSanityChecker();
+        checker.initialize(model);
+
+        node.setWidth(-1);
+        checker.initialize(model);
+
+        assertEquals(1, checker.getIssues().size());
+        assertEquals(node, checker.getIssues().get(0).getElement());
+
+        node.setWidth(10);
+        connection.getSource().getConnections().remove(connection);
+        checker.initialize(model);
+
+        assertEquals(1, checker.getIssues().size());
+        assertEquals(connection, checker.getIssues().get(0).getElement());
+
+        // Moving a node can't make the model invalid, so it is not checked again.
+        node.setX(100);
+        checker.initialize(model);
+        assertEquals(1, checker.getIssues().size());
+
+        checker.initialize(null);
+        assertTrue(checker.getIssues().isEmpty());
+        assertTrue(model.eAdapters().isEmpty());
+        assertTrue(node.eAdapters().isEmpty());
+    }
+
+    private static GModel createModel() {
+
+        final GModel model = GraphFactory.eINSTANCE.createGModel();
+
+        final GNode first = createNode();
+        final GNode second = createNode();
+        model.getNodes().add(first);
+        model.getNodes().add(second);
+
+        final GConnector source = first.getConnectors().get(0);
+        final GConnector target = second.getConnectors().get(0);
+
+        final GConnection connection = GraphFactory.eINSTANCE.createGConnection();
+        connection.setSource(source);
+        connection.setTarget(target);
+        source.getConnections().add(connection);
+        target.getConnections().add(connection);
+        model.getConnections().add(connection);
+
+        return model;
+    }
+
+    private static GNode createNode() {
+
+        final GNode node = GraphFactory.eINSTANCE.createGNode();
+        node.setWidth(10);
+        node.setHeight(10);
+        node.getConnectors().add(GraphFactory.eINSTANCE.createGConnector());
+        return node;
+    }
+}
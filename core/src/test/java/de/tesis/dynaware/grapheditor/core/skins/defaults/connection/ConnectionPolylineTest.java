@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.skins.defaults.connection;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import javafx.geometry.Point2D;
+import javafx.scene.transform.Affine;
+
+import org.junit.Test;
+
+public class ConnectionPolylineTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void lengthAndSegments() {
+
+        final ConnectionPolyline polyline = createPolyline();
+
+        assertEquals(3, polyline.getPointCount());
+        assertEquals(2, polyline.getSegmentCount());
+        assertEquals(150, polyline.getLength(), DELTA);
+
+        assertEquals(0, polyline.getSegmentIndex(-10));
+        assertEquals(0, polyline.getSegmentIndex(50));
+        assertEquals(1, polyline.getSegmentIndex(100));
+        assertEquals(1, polyline.getSegmentIndex(120));
+        assertEquals(1, polyline.getSegmentIndex(500));
+    }
+
+    @Test
+    public void interpolate() {
+
+        final ConnectionPolyline polyline = createPolyline();
+        final double[] position = new double[2];
+
+        polyline.interpolate(0, position);
+        assertEquals(9.5, position[0], DELTA);
+        assertEquals(9.5, position[1], DELTA);
+
+        polyline.interpolate(0.5, position);
+        assertEquals(84.5, position[0], DELTA);
+        assertEquals(9.5, position[1], DELTA);
+
+        polyline.interpolate(1, position);
+        assertEquals(109.5, position[0], DELTA);
+        assertEquals(59.5, position[1], DELTA);
+    }
+
+    @Test
+    public void sceneTransform() {
+
+        final ConnectionPolyline polyline = createPolyline();
+
+        polyline.updateSceneTransform(new Affine(2, 0, 10, 0, 2, 20));
+
+        assertEquals(29, polyline.getSceneX(0), DELTA);
+        assertEquals(139, polyline.getSceneY(2), DELTA);
+
+        assertEquals(true, polyline.isNearSceneBounds(100, 39, 0));
+        assertEquals(false, polyline.isNearSceneBounds(300, 39, 5));
+    }
+
+    private static ConnectionPolyline createPolyline() {
+        return new ConnectionPolyline(Arrays.asList(new Point2D(10, 10), new Point2D(110, 10), new Point2D(110, 60)));
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.skins.defaults.connection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javafx.geometry.Point2D;
+
+import org.junit.Test;
+
+public class JointCleanerTest {
+
+    @Test
+    public void removeCoincidentPair() {
+
+        final List<Point2D> positions = Arrays.asList(new Point2D(10, 0), new Point2D(10, 50), new Point2D(10, 50),
+                new Point2D(10, 100));
+
+        assertEquals(new HashSet<>(Arrays.asList(1, 2)), JointCleaner.findJointsToCleanUp(positions));
+    }
+
+    @Test
+    public void removeNestedPairs() {
+
+        final List<Point2D> positions = Arrays.asList(new Point2D(0, 0), new Point2D(10, 0), new Point2D(10, 50),
+                new Point2D(10, 50), new Point2D(10, 0), new Point2D(20, 0));
+
+        assertEquals(new HashSet<>(Arrays.asList(1, 2, 3, 4)), JointCleaner.findJointsToCleanUp(positions));
+    }
+
+    @Test
+    public void keepAtLeastTwoJoints() {
+
+        final List<Point2D> positions = Arrays.asList(new Point2D(10, 10), new Point2D(10, 10));
+        assertTrue(JointCleaner.findJointsToCleanUp(positions).isEmpty());
+
+        final List<Point2D> four = Arrays.asList(new Point2D(10, 10), new Point2D(10, 10), new Point2D(20, 10),
+                new Point2D(20, 10));
+        final Set<Integer> removed = JointCleaner.findJointsToCleanUp(four);
+        assertEquals(2, removed.size());
+    }
+
+    @Test
+    public void nothingToRemove() {
+
+        final List<Point2D> positions = Arrays.asList(new Point2D(0, 0), new Point2D(10, 0), new Point2D(10, 10),
+                new Point2D(0, 10));
+
+        assertTrue(JointCleaner.findJointsToCleanUp(positions).isEmpty());
+    }
+}
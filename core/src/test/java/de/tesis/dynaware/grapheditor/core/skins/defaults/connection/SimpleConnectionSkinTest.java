@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.skins.defaults.connection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.tesis.dynaware.grapheditor.GraphEditor;
+import de.tesis.dynaware.grapheditor.core.DefaultGraphEditor;
+import de.tesis.dynaware.grapheditor.core.layout.GraphLayouter;
+import de.tesis.dynaware.grapheditor.core.layout.LayoutGraph;
+import de.tesis.dynaware.grapheditor.core.layout.MeshLayout;
+import de.tesis.dynaware.grapheditor.core.skins.defaults.utils.DefaultConnectorTypes;
+import de.tesis.dynaware.grapheditor.model.GConnection;
+import de.tesis.dynaware.grapheditor.model.GConnector;
+import de.tesis.dynaware.grapheditor.model.GJoint;
+import de.tesis.dynaware.grapheditor.model.GModel;
+import de.tesis.dynaware.grapheditor.model.GNode;
+import de.tesis.dynaware.grapheditor.model.GraphFactory;
+
+public class SimpleConnectionSkinTest {
+
+    private static final int SIZE = 3;
+
+    private GraphEditor graphEditor;
+    private GModel model;
+
+    @Before
+    public void setUp() {
+
+        model = GraphFactory.eINSTANCE.createGModel();
+
+        final GNode[] nodes = new GNode[SIZE * SIZE];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = createNode(i * 37 % 500, i * 53 % 400);
+        }
+
+        for (int row = 0; row < SIZE; row++) {
+            for (int column = 0; column < SIZE; column++) {
+
+                final GNode node = nodes[row * SIZE + column];
+
+                if (column + 1 < SIZE) {
+                    connect(node, DefaultConnectorTypes.RIGHT_OUTPUT, nodes[row * SIZE + column + 1],
+                            DefaultConnectorTypes.LEFT_INPUT);
+                }
+                if (row + 1 < SIZE) {
+                    connect(node, DefaultConnectorTypes.BOTTOM_OUTPUT, nodes[(row + 1) * SIZE + column],
+                            DefaultConnectorTypes.TOP_INPUT);
+                }
+            }
+        }
+
+        graphEditor = new DefaultGraphEditor();
+        graphEditor.setModel(model);
+    }
+
+    @Test
+    public void straightConnectionsFromMeshLayout() {
+
+        final LayoutGraph graph = LayoutGraph.create(model, graphEditor.getSkinLookup());
+        assertTrue(GraphLayouter.apply(model, graph, new MeshLayout().layout(graph)));
+
+        for (final GConnection connection : model.getConnections()) {
+
+            assertNotNull(graphEditor.getSkinLookup().lookupConnection(connection));
+            assertEquals(2, connection.getJoints().size());
+
+            final GJoint first = connection.getJoints().get(0);
+            final GJoint second = connection.getJoints().get(1);
+
+            assertEquals(first.getX(), second.getX(), 0);
+            assertEquals(first.getY(), second.getY(), 0);
+
+            assertNotNull(graphEditor.getSkinLookup().lookupJoint(first));
+            assertNotNull(graphEditor.getSkinLookup().lookupJoint(second));
+        }
+    }
+
+    private GNode createNode(final double x, final double y) {
+
+        final GNode node = GraphFactory.eINSTANCE.createGNode();
+        node.setX(x);
+        node.setY(y);
+        node.setWidth(100);
+        node.setHeight(60);
+
+        for (final String type : new String[] { DefaultConnectorTypes.LEFT_INPUT, DefaultConnectorTypes.RIGHT_OUTPUT,
+                DefaultConnectorTypes.TOP_INPUT, DefaultConnectorTypes.BOTTOM_OUTPUT }) {
+
+            final GConnector connector = GraphFactory.eINSTANCE.createGConnector();
+            connector.setType(type);
+            node.getConnectors().add(connector);
+        }
+
+        model.getNodes().add(node);
+        return node;
+    }
+
+    private void connect(final GNode source, final String sourceType, final GNode target, final String targetType) {
+
+        final GConnector sourceConnector = getConnector(source, sourceType);
+        final GConnector targetConnector = getConnector(target, targetType);
+
+        final GConnection connection = GraphFactory.eINSTANCE.createGConnection();
+        connection.setSource(sourceConnector);
+        connection.setTarget(targetConnector);
+
+        // Placeholder joints, replaced by the layout.
+        for (int i = 0; i < 2; i++) {
+            final GJoint joint = GraphFactory.eINSTANCE.createGJoint();
+            joint.setX(600);
+            joint.setY(500);
+            connection.getJoints().add(joint);
+        }
+
+        sourceConnector.getConnections().add(connection);
+        targetConnector.getConnections().add(connection);
+        model.getConnections().add(connection);
+    }
+
+    private static GConnector getConnector(final GNode node, final String type) {
+
+        for (final GConnector connector : node.getConnectors()) {
+            if (connector.getType().equals(type)) {
+                return connector;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.skins.defaults.tail;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.geometry.Point2D;
+import javafx.geometry.Side;
+
+import org.junit.Test;
+
+public class OrthogonalRouterTest {
+
+    private static final Point2D START = new Point2D(0, 0);
+    private static final Point2D END = new Point2D(300, 100);
+
+    @Test
+    public void routeWithoutObstacles() {
+
+        final OrthogonalRouter router = new OrthogonalRouter();
+        final List<Point2D> path = router.route(START, END, Side.RIGHT, Side.LEFT);
+
+        assertNotNull(path);
+        assertEquals(2, path.size());
+        assertOrthogonal(path);
+    }
+
+    @Test
+    public void routeBetweenAlignedPositions() {
+
+        final Point2D end = new Point2D(300, 0);
+
+        final OrthogonalRouter router = new OrthogonalRouter();
+        final List<Point2D> path = router.route(START, end, Side.RIGHT, Side.LEFT);
+
+        assertNotNull(path);
+        assertEquals(2, path.size());
+        assertEquals(new Point2D(150, 0), path.get(0));
+        assertEquals(new Point2D(150, 0), path.get(1));
+        assertEquals(path, RectangularPathCreator.createPath(START, end, Side.RIGHT, Side.LEFT, router));
+    }
+
+    @Test
+    public void routeAroundObstacle() {
+
+        final OrthogonalRouter router = new OrthogonalRouter();
+        router.getObstacles().update("node", 100, -50, 100, 200);
+
+        final List<Point2D> path = router.route(START, END, Side.RIGHT, Side.LEFT);
+
+        assertNotNull(path);
+        assertOrthogonal(path);
+
+        final List<Point2D> all = new ArrayList<>(path);
+        all.add(0, START);
+        all.add(END);
+
+        for (int i = 0; i < all.size() - 1; i++) {
+            assertFalse(crosses(all.get(i), all.get(i + 1), 100, -50, 200, 150));
+        }
+    }
+
+    @Test
+    public void movingDistantObstacleKeepsRoute() {
+
+        final OrthogonalRouter router = new OrthogonalRouter();
+        router.getObstacles().update("near", 100, -50, 100, 200);
+        router.getObstacles().update("far", 5000, 5000, 100, 100);
+
+        final List<Point2D> first = router.route(START, END, Side.RIGHT, Side.LEFT);
+        assertTrue(router.getObstacles().update("far", 6000, 6000, 100, 100));
+        final List<Point2D> second = router.route(START, END, Side.RIGHT, Side.LEFT);
+
+        assertEquals(first, second);
+    }
+
+    @Test
+    public void crowdedRegionFallsBackToFixedPath() {
+
+        final OrthogonalRouter router = new OrthogonalRouter();
+
+        // A few hundred small obstacles with distinct edges, far more than the grid limit allows.
+        for (int i = 0; i < 300; i++) {
+            router.getObstacles().update("node" + i, -140 + 1.7 * i, -140 + 1.3 * i, 1, 1);
+        }
+
+        assertNull(router.route(START, END, Side.RIGHT, Side.LEFT));
+
+        final List<Point2D> fixedPath = RectangularPathCreator.createPath(START, END, Side.RIGHT, Side.LEFT);
+        assertEquals(fixedPath, RectangularPathCreator.createPath(START, END, Side.RIGHT, Side.LEFT, router));
+    }
+
+    @Test
+    public void indexQuery() {
+
+        final ObstacleIndex index = new ObstacleIndex(50);
+        index.update("a", 0, 0, 120, 40);
+        index.update("b", 500, 500, 10, 10);
+
+        assertEquals(1, index.query(100, 10, 110, 20).size());
+        assertEquals(0, index.query(200, 200, 300, 300).size());
+
+        assertFalse(index.update("a", 0, 0, 120, 40));
+        assertTrue(index.update("a", 200, 200, 20, 20));
+        assertEquals(1, index.query(200, 200, 300, 300).size());
+        assertEquals(0, index.query(100, 10, 110, 20).size());
+    }
+
+    private static void assertOrthogonal(final List<Point2D> path) {
+
+        final List<Point2D> all = new ArrayList<>(path);
+        all.add(0, START);
+        all.add(END);
+
+        for (int i = 0; i < all.size() - 1; i++) {
+            final Point2D a = all.get(i);
+            final Point2D b = all.get(i + 1);
+            assertTrue(a.getX() == b.getX() || a.getY() == b.getY());
+        }
+    }
+
+    private static boolean crosses(final Point2D a, final Point2D b, final double minX, final double minY,
+            final double maxX, final double maxY) {
+
+        final double segmentMinX = Math.min(a.getX(), b.getX());
+        final double segmentMaxX = Math.max(a.getX(), b.getX());
+        final double segmentMinY = Math.min(a.getY(), b.getY());
+        final double segmentMaxY = Math.max(a.getY(), b.getY());
+
+        return segmentMaxX > minX && segmentMinX < maxX && segmentMaxY > minY && segmentMinY < maxY;
+    }
+}
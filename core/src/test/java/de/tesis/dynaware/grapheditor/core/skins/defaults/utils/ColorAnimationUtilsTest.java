@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.skins.defaults.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javafx.application.Platform;
+import javafx.css.StyleOrigin;
+import javafx.css.StyleableProperty;
+import javafx.embed.swing.JFXPanel;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.CycleMethod;
+import javafx.scene.paint.LinearGradient;
+import javafx.scene.paint.Paint;
+import javafx.scene.paint.Stop;
+import javafx.scene.shape.Rectangle;
+import javafx.util.Duration;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.tesis.dynaware.grapheditor.utils.AnimationScheduler.FrameCallback;
+
+public class ColorAnimationUtilsTest {
+
+    private static final Duration INTERVAL = Duration.millis(500);
+    private static final AnimatedColor ANIMATED_COLOR = new AnimatedColor("-test-color", Color.WHITE, Color.TOMATO,
+            INTERVAL);
+
+    // The outside stops are white, like the inside stops, so that they can only be told apart by their index.
+    private static final LinearGradient TEMPLATE = createGradient(Color.WHITE, Color.BLACK, Color.WHITE);
+    private static final int[] OUTSIDE_STOPS = { 0, 1 };
+
+    @BeforeClass
+    public static void initializeToolkit() {
+        new JFXPanel();
+    }
+
+    @Test
+    public void findStopsByIndex() {
+
+        assertArrayEquals(new int[] { 0, 1 }, ColorAnimationUtils.findAnimatedStops(TEMPLATE, OUTSIDE_STOPS));
+        assertArrayEquals(new int[] { 0, 1, 2, 3, 4, 5 }, ColorAnimationUtils.findAnimatedStops(TEMPLATE, new int[0]));
+        assertArrayEquals(new int[] { 5 }, ColorAnimationUtils.findAnimatedStops(TEMPLATE, new int[] { 5, 6, -1 }));
+        assertArrayEquals(new int[] { 0 }, ColorAnimationUtils.findAnimatedStops(Color.RED, OUTSIDE_STOPS));
+        assertArrayEquals(new int[0], ColorAnimationUtils.findAnimatedStops(null, OUTSIDE_STOPS));
+    }
+
+    @Test
+    public void interpolateBackAndForth() {
+
+        final long interval = (long) (INTERVAL.toMillis() * 1_000_000);
+
+        assertEquals(Color.WHITE, ColorAnimationUtils.interpolate(ANIMATED_COLOR, 0));
+        assertEquals(Color.TOMATO, ColorAnimationUtils.interpolate(ANIMATED_COLOR, interval));
+        assertEquals(Color.WHITE, ColorAnimationUtils.interpolate(ANIMATED_COLOR, 2 * interval));
+        assertEquals(ColorAnimationUtils.interpolate(ANIMATED_COLOR, interval / 2),
+                ColorAnimationUtils.interpolate(ANIMATED_COLOR, 3 * interval / 2));
+    }
+
+    @Test
+    public void animateOnlyGivenStops() throws Exception {
+
+        runOnFxThread(() -> {
+
+            final Rectangle shape = createStyledShape(TEMPLATE);
+
+            ColorAnimationUtils.animateFill(shape, ANIMATED_COLOR, OUTSIDE_STOPS);
+            pulse(shape);
+
+            final List<Stop> stops = ((LinearGradient) shape.getFill()).getStops();
+
+            assertNotEquals(Color.WHITE, stops.get(0).getColor());
+            assertEquals(stops.get(0).getColor(), stops.get(1).getColor());
+            assertEquals(Color.BLACK, stops.get(2).getColor());
+            assertEquals(Color.WHITE, stops.get(5).getColor());
+
+            // The animated fill keeps the origin of the template, so the stylesheet stays in control.
+            assertEquals(StyleOrigin.AUTHOR, getStyleableFill(shape).getStyleOrigin());
+
+            ColorAnimationUtils.removeAnimation(shape);
+        });
+    }
+
+    @Test
+    public void newCssFillBecomesTemplate() throws Exception {
+
+        runOnFxThread(() -> {
+
+            final Rectangle shape = createStyledShape(TEMPLATE);
+
+            ColorAnimationUtils.animateFill(shape, ANIMATED_COLOR, OUTSIDE_STOPS);
+            pulse(shape);
+
+            final Color animated = ((LinearGradient) shape.getFill()).getStops().get(0).getColor();
+
+            // As if a stylesheet rule for a new pseudo-class state matched.
+            final LinearGradient hover = createGradient(Color.WHITE, Color.BLUE, Color.GREY);
+            getStyleableFill(shape).applyStyle(StyleOrigin.AUTHOR, hover);
+
+            final List<Stop> stops = ((LinearGradient) shape.getFill()).getStops();
+            assertEquals(animated, stops.get(0).getColor());
+            assertEquals(Color.BLUE, stops.get(2).getColor());
+            assertEquals(Color.GREY, stops.get(5).getColor());
+
+            ColorAnimationUtils.removeAnimation(shape);
+            assertEquals(hover, shape.getFill());
+        });
+    }
+
+    @Test
+    public void removeRestoresTemplateWithOrigin() throws Exception {
+
+        runOnFxThread(() -> {
+
+            final Rectangle shape = createStyledShape(TEMPLATE);
+
+            ColorAnimationUtils.animateFill(shape, ANIMATED_COLOR, OUTSIDE_STOPS);
+            pulse(shape);
+            ColorAnimationUtils.removeAnimation(shape);
+
+            assertEquals(TEMPLATE, shape.getFill());
+            assertEquals(StyleOrigin.AUTHOR, getStyleableFill(shape).getStyleOrigin());
+            assertNull(ColorAnimationUtils.getFillAnimation(shape));
+        });
+    }
+
+    @Test
+    public void animateColorFill() throws Exception {
+
+        runOnFxThread(() -> {
+
+            final Rectangle shape = createStyledShape(Color.WHITE);
+
+            ColorAnimationUtils.animateFill(shape, ANIMATED_COLOR);
+            pulse(shape);
+
+            assertNotEquals(Color.WHITE, shape.getFill());
+
+            ColorAnimationUtils.removeAnimation(shape);
+            assertEquals(Color.WHITE, shape.getFill());
+        });
+    }
+
+    private static Rectangle createStyledShape(final Paint fill) {
+
+        final Rectangle shape = new Rectangle(25, 25);
+        getStyleableFill(shape).applyStyle(StyleOrigin.AUTHOR, fill);
+        return shape;
+    }
+
+    /**
+     * Runs a frame of the fill animation of the given shape, a quarter of the way into the animation.
+     */
+    private static void pulse(final Rectangle shape) {
+
+        final FrameCallback animation = ColorAnimationUtils.getFillAnimation(shape);
+        animation.onFrame(System.nanoTime() + (long) (INTERVAL.toMillis() * 1_000_000 / 4));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static StyleableProperty<Paint> getStyleableFill(final Rectangle shape) {
+        return (StyleableProperty<Paint>) shape.fillProperty();
+    }
+
+    private static LinearGradient createGradient(final Color outside, final Color stroke, final Color inside) {
+
+        return new LinearGradient(0, 0, 25, 0, false, CycleMethod.NO_CYCLE, new Stop(0, outside),
+                new Stop(0.4, outside), new Stop(0.4, stroke), new Stop(0.44, stroke), new Stop(0.44, inside),
+                new Stop(1, inside));
+    }
+
+    /**
+     * Runs the given test code on the JavaFX application thread, where the animation frames also run.
+     */
+    private static void runOnFxThread(final Runnable runnable) throws Exception {
+
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        Platform.runLater(() -> {
+            try {
+                runnable.run();
+            } catch (final Throwable throwable) {
+                failure.set(throwable);
+            } finally {
+                latch.countDown();
+            }
+        });
+
+        latch.await(10, TimeUnit.SECONDS);
+
+        if (failure.get() instanceof Error) {
+            throw (Error) failure.get();
+        } else if (failure.get() != null) {
+            throw new Exception(failure.get());
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.core.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl;
+import org.junit.Test;
+
+import de.tesis.dynaware.grapheditor.model.GConnection;
+import de.tesis.dynaware.grapheditor.model.GConnector;
+import de.tesis.dynaware.grapheditor.model.GJoint;
+import de.tesis.dynaware.grapheditor.model.GModel;
+import de.tesis.dynaware.grapheditor.model.GNode;
+import de.tesis.dynaware.grapheditor.model.GraphFactory;
+
+public class GraphFragmentTest {
+
+    @Test
+    public void copyInternalConnectionsOnly() {
+
+        final GNode first = createNode(10);
+        final GNode second = createNode(20);
+        final GNode third = createNode(30);
+
+        final GConnection inside = connect(first.getConnectors().get(1), second.getConnectors().get(0));
+        connect(second.getConnectors().get(1), third.getConnectors().get(0));
+
+        final GJoint joint = GraphFactory.eINSTANCE.createGJoint();
+        joint.setX(15);
+        inside.getJoints().add(joint);
+
+        final GraphFragment fragment = GraphFragment.copyOf(Arrays.asList(first, second));
+
+        assertEquals(2, fragment.getNodeCount());
+        assertEquals(1, fragment.getConnectionCount());
+
+        final List<GNode> nodes = new ArrayList<>();
+        final List<GConnection> connections = new ArrayList<>();
+        fragment.instantiate(nodes, connections);
+
+        assertEquals(2, nodes.size());
+        assertEquals(1, connections.size());
+        assertEquals(10, nodes.get(0).getX(), 0);
+        assertEquals(20, nodes.get(1).getX(), 0);
+
+        final GConnection connection = connections.get(0);
+        assertEquals(nodes.get(0).getConnectors().get(1), connection.getSource());
+        assertEquals(nodes.get(1).getConnectors().get(0), connection.getTarget());
+        assertEquals(connection, nodes.get(0).getConnectors().get(1).getConnections().get(0));
+        assertEquals(connection, nodes.get(1).getConnectors().get(0).getConnections().get(0));
+        assertEquals(15, connection.getJoints().get(0).getX(), 0);
+
+        // The connection to the node that was not copied is dropped.
+        assertTrue(nodes.get(1).getConnectors().get(1).getConnections().isEmpty());
+    }
+
+    @Test
+    public void instantiateRepeatedly() {
+
+        final GNode first = createNode(0);
+        final GNode second = createNode(0);
+        connect(first.getConnectors().get(1), second.getConnectors().get(0));
+
+        final GraphFragment fragment = GraphFragment.copyOf(Arrays.asList(first, second));
+
+        final List<GNode> firstPaste = new ArrayList<>();
+        final List<GNode> secondPaste = new ArrayList<>();
+        fragment.instantiate(firstPaste, new ArrayList<>());
+        fragment.instantiate(secondPaste, new ArrayList<>());
+
+        // Changing a pasted node must not change the fragment.
+        firstPaste.get(0).setX(100);
+
+        assertNotSame(firstPaste.get(0), secondPaste.get(0));
+        assertEquals(0, secondPaste.get(0).getX(), 0);
+        assertEquals(1, secondPaste.get(0).getConnectors().get(1).getConnections().size());
+    }
+
+    @Test
+    public void writeAndRead() throws IOException {
+
+        final GNode first = createNode(10);
+        final GNode second = createNode(20);
+        connect(first.getConnectors().get(1), second.getConnectors().get(0));
+        first.setType("test-type");
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        GraphFragment.copyOf(Arrays.asList(first, second)).write(output);
+
+        final GraphFragment fragment = GraphFragment.read(new ByteArrayInputStream(output.toByteArray()));
+
+        final List<GNode> nodes = new ArrayList<>();
+        final List<GConnection> connections = new ArrayList<>();
+        fragment.instantiate(nodes, connections);
+
+        assertEquals(2, nodes.size());
+        assertEquals("test-type", nodes.get(0).getType());
+        assertEquals(20, nodes.get(1).getX(), 0);
+        assertEquals(nodes.get(1).getConnectors().get(0), connections.get(0).getTarget());
+    }
+
+    @Test(expected = IOException.class)
+    public void readInvalidStream() throws IOException {
+        GraphFragment.read(new ByteArrayInputStream(new byte[] { 1, 2, 3 }));
+    }
+
+    @Test(expected = IOException.class)
+    public void readIncompleteFragment() throws IOException {
+
+        final GNode node = createNode(10);
+        final GConnection connection = connect(node.getConnectors().get(1), node.getConnectors().get(0));
+        connection.setTarget(null);
+
+        final GModel model = GraphFactory.eINSTANCE.createGModel();
+        model.getNodes().add(node);
+        model.getConnections().add(connection);
+
+        final Resource resource = new BinaryResourceImpl(URI.createURI("fragment.graph"));
+        resource.getContents().add(model);
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (final GZIPOutputStream compressed = new GZIPOutputStream(output)) {
+            resource.save(compressed, Collections.emptyMap());
+        }
+
+        GraphFragment.read(new ByteArrayInputStream(output.toByteArray()));
+    }
+
+    @Test
+    public void copyLargeFragment() {
+
+        final int nodeCount = 5000;
+        final List<GNode> nodes = new ArrayList<>();
+
+        for (int i = 0; i < nodeCount; i++) {
+            nodes.add(createNode(i));
+            if (i > 0) {
+                connect(nodes.get(i - 1).getConnectors().get(1), nodes.get(i).getConnectors().get(0));
+            }
+        }
+
+        final GraphFragment fragment = GraphFragment.copyOf(nodes);
+
+        final List<GNode> pastedNodes = new ArrayList<>();
+        final List<GConnection> pastedConnections = new ArrayList<>();
+        fragment.instantiate(pastedNodes, pastedConnections);
+
+        assertEquals(nodeCount, pastedNodes.size());
+        assertEquals(nodeCount - 1, pastedConnections.size());
+        assertEquals(pastedNodes.get(nodeCount - 1), pastedConnections.get(nodeCount - 2).getTarget().getParent());
+    }
+
+    private static GNode createNode(final double x) {
+
+        final GNode node = GraphFactory.eINSTANCE.createGNode();
+        node.setX(x);
+
+        final GConnector input = GraphFactory.eINSTANCE.createGConnector();
+        final GConnector output = GraphFactory.eINSTANCE.createGConnector();
+
+        node.getConnectors().add(input);
+        node.getConnectors().add(output);
+
+        return node;
+    }
+
+    private static GConnection connect(final GConnector source, final GConnector target) {
+
+        final GConnection connection = GraphFactory.eINSTANCE.createGConnection();
+
+        source.getConnections().add(connection);
+        target.getConnections().add(connection);
+
+        connection.setSource(source);
+        connection.setTarget(target);
+
+        return connection;
+    }
+}
@@ -3,7 +3,10 @@
  */
 package de.tesis.dynaware.grapheditor.demo;
 
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 import de.tesis.dynaware.grapheditor.demo.animation.AnimationManager;
 import org.eclipse.emf.ecore.EObject;
@@ -14,6 +17,14 @@ import de.tesis.dynaware.grapheditor.Commands;
 import de.tesis.dynaware.grapheditor.GraphEditor;
 import de.tesis.dynaware.grapheditor.GraphEditorContainer;
 import de.tesis.dynaware.grapheditor.core.DefaultGraphEditor;
+import de.tesis.dynaware.grapheditor.core.connections.BatchConnectionRouter;
+import de.tesis.dynaware.grapheditor.core.layout.ForceDirectedLayout;
+import de.tesis.dynaware.grapheditor.core.layout.GraphLayouter;
+import de.tesis.dynaware.grapheditor.core.layout.LayeredLayout;
+import de.tesis.dynaware.grapheditor.core.layout.LayoutResult;
+import de.tesis.dynaware.grapheditor.core.layout.MeshLayout;
+import de.tesis.dynaware.grapheditor.core.layout.TreeLayout;
+import de.tesis.dynaware.grapheditor.core.model.SubgraphNavigator;
 import de.tesis.dynaware.grapheditor.core.skins.defaults.connection.SimpleConnectionSkin;
 import de.tesis.dynaware.grapheditor.core.view.GraphEditorView;
 import de.tesis.dynaware.grapheditor.demo.customskins.DefaultSkinController;
@@ -25,6 +36,8 @@ import de.tesis.dynaware.grapheditor.demo.customskins.tree.TreeConnectorValidato
 import de.tesis.dynaware.grapheditor.demo.customskins.tree.TreeSkinConstants;
 import de.tesis.dynaware.grapheditor.demo.selections.SelectionCopier;
 import de.tesis.dynaware.grapheditor.demo.utils.AwesomeIcon;
+import de.tesis.dynaware.grapheditor.demo.utils.PerformanceOverlay;
+import de.tesis.dynaware.grapheditor.model.GConnection;
 import de.tesis.dynaware.grapheditor.model.GModel;
 import de.tesis.dynaware.grapheditor.model.GNode;
 import de.tesis.dynaware.grapheditor.model.GraphFactory;
@@ -93,6 +106,8 @@ public class GraphEditorDemoController {
     @FXML
     private RadioMenuItem detouredStyleButton;
     @FXML
+    private RadioMenuItem performanceOverlayButton;
+    @FXML
     private ToggleButton minimapButton;
     @FXML
     private GraphEditorContainer graphEditorContainer;
@@ -101,11 +116,16 @@ public class GraphEditorDemoController {
 	private final SelectionCopier selectionCopier = new SelectionCopier(graphEditor.getSkinLookup(),
 			graphEditor.getSelectionManager());
     private final GraphEditorPersistence graphEditorPersistence = new GraphEditorPersistence();
+    private final GraphLayouter graphLayouter = new GraphLayouter(graphEditor.getSkinLookup());
+    private CompletableFuture<LayoutResult> runningLayout;
+    private final BatchConnectionRouter connectionRouter = new BatchConnectionRouter(graphEditor.getSkinLookup());
+    private final SubgraphNavigator subgraphNavigator = new SubgraphNavigator(graphEditor);
 
     private DefaultSkinController defaultSkinController;
     private TreeSkinController treeSkinController;
     private TitledSkinController titledSkinController;
     private AnimationManager animationManager;
+    private PerformanceOverlay performanceOverlay;
 
 
     private final ObjectProperty<SkinController> activeSkinController = new SimpleObjectProperty<SkinController>(){
@@ -142,6 +162,9 @@ public class GraphEditorDemoController {
         activeSkinController.set(defaultSkinController);
         animationManager = new AnimationManager(graphEditorContainer, defaultSkinController);
 
+        performanceOverlay = new PerformanceOverlay(graphEditor, defaultSkinController::getPendingTokenCount);
+        graphEditorContainer.getChildren().add(performanceOverlay.getNode());
+
 		graphEditor.modelProperty().addListener((w, o, n) -> selectionCopier.initialize(n));
         selectionCopier.initialize(model);
 
@@ -246,6 +269,67 @@ public class GraphEditorDemoController {
         activeSkinController.get().clearConnectors();
     }
 
+    @FXML
+    public void openSubgraph() {
+
+        final List<GNode> selectedNodes = graphEditor.getSelectionManager().getSelectedItems().stream()
+                .filter(e -> e instanceof GNode).map(e -> (GNode) e).collect(Collectors.toList());
+
+        if (selectedNodes.size() == 1) {
+            cancelLayout();
+            subgraphNavigator.drillInto(selectedNodes.get(0));
+        }
+    }
+
+    @FXML
+    public void closeSubgraph() {
+        cancelLayout();
+        subgraphNavigator.drillOut();
+    }
+
+    @FXML
+    public void layoutHierarchical() {
+        graphLayouter.layout(graphEditor.getModel(), new LayeredLayout());
+    }
+
+    @FXML
+    public void layoutMesh() {
+        graphLayouter.layout(graphEditor.getModel(), new MeshLayout());
+    }
+
+    @FXML
+    public void layoutTree() {
+        graphLayouter.layout(graphEditor.getModel(), new TreeLayout());
+    }
+
+    @FXML
+    public void layoutForceDirected() {
+        cancelLayout();
+        runningLayout = graphLayouter.layout(graphEditor.getModel(), new ForceDirectedLayout());
+    }
+
+    @FXML
+    public void routeConnections() {
+
+        cancelLayout();
+
+        final List<GConnection> selectedConnections = graphEditor.getSelectionManager().getSelectedConnections();
+
+        if (selectedConnections.isEmpty()) {
+            connectionRouter.reroute(graphEditor.getModel());
+        } else {
+            connectionRouter.reroute(graphEditor.getModel(), selectedConnections);
+        }
+    }
+
+    @FXML
+    public void cancelLayout() {
+        if (runningLayout != null) {
+            runningLayout.cancel(false);
+            runningLayout = null;
+        }
+    }
+
     @FXML
     public void setDefaultSkin() {
         activeSkinController.set(defaultSkinController);
@@ -276,6 +360,11 @@ public class GraphEditorDemoController {
         graphEditor.reload();
     }
 
+    @FXML
+    public void togglePerformanceOverlay() {
+        performanceOverlay.setActive(performanceOverlayButton.isSelected());
+    }
+
     @FXML
     public void toggleMinimap() {
         graphEditorContainer.getMinimap().visibleProperty().bind(minimapButton.selectedProperty());
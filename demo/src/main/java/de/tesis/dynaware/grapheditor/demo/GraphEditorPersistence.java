@@ -11,10 +11,9 @@ import javafx.stage.Window;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.xmi.impl.XMIResourceFactoryImpl;
-import org.eclipse.emf.edit.domain.AdapterFactoryEditingDomain;
-import org.eclipse.emf.edit.domain.EditingDomain;
 
 import de.tesis.dynaware.grapheditor.GraphEditor;
+import de.tesis.dynaware.grapheditor.core.model.SubgraphResources;
 import de.tesis.dynaware.grapheditor.model.GModel;
 
 /**
@@ -174,22 +173,18 @@ public class GraphEditorPersistence {
             absolutePath += FILE_EXTENSION;
         }
 
-        final EditingDomain editingDomain = AdapterFactoryEditingDomain.getEditingDomainFor(model);
-
-        final URI fileUri = URI.createFileURI(absolutePath);
-        final XMIResourceFactoryImpl resourceFactory = new XMIResourceFactoryImpl();
-        final Resource resource = resourceFactory.createResource(fileUri);
-        resource.getContents().add(model);
+        // Save from the top-level model, with each subgraph in a file of its own.
+        GModel rootModel = model;
+        while (rootModel.getSupergraph() != null && rootModel.getSupergraph().eContainer() instanceof GModel) {
+            rootModel = (GModel) rootModel.getSupergraph().eContainer();
+        }
 
         try {
-            resource.save(Collections.EMPTY_MAP);
+            SubgraphResources.save(rootModel, URI.createFileURI(absolutePath));
         } catch (final IOException e) {
             e.printStackTrace();
         }
 
-        editingDomain.getResourceSet().getResources().clear();
-        editingDomain.getResourceSet().getResources().add(resource);
-
         initialDirectory = file.getParentFile();
     }
 
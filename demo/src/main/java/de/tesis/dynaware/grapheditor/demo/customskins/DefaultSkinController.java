@@ -6,6 +6,8 @@ import de.tesis.dynaware.grapheditor.demo.animation.SimulationRecord;
 import de.tesis.dynaware.grapheditor.demo.animation.SimulationSequence;
 import de.tesis.dynaware.grapheditor.model.*;
 import javafx.animation.ParallelTransition;
+import javafx.event.ActionEvent;
+import javafx.event.EventHandler;
 import javafx.geometry.Side;
 
 import org.eclipse.emf.common.command.CompoundCommand;
@@ -26,6 +28,7 @@ import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 
 
@@ -42,6 +45,9 @@ public class DefaultSkinController implements SkinController {
 
     private static final int MAX_CONNECTOR_COUNT = 5;
 
+    // Read by the performance overlay on a background thread.
+    private final AtomicInteger pendingTokenCount = new AtomicInteger();
+
     /**
      * Creates a new {@link DefaultSkinController} instance.
      * 
@@ -425,11 +431,35 @@ public class DefaultSkinController implements SkinController {
             SimpleConnectionSkin connectionSkin = (SimpleConnectionSkin) graphEditor.getSkinLookup().lookupConnection(entry.getKey());
             connectionSkin.createNewAnimationPath(entry.getValue().getTaskNumber());
 
-            transition.getChildren().add(connectionSkin.parallelTransitions.lastElement());
+            final ParallelTransition token = connectionSkin.parallelTransitions.lastElement();
+            final EventHandler<ActionEvent> onArrived = token.getOnFinished();
+
+            pendingTokenCount.incrementAndGet();
+            token.setOnFinished(event -> {
+                pendingTokenCount.decrementAndGet();
+                if (onArrived != null) {
+                    onArrived.handle(event);
+                }
+            });
+
+            transition.getChildren().add(token);
             transition.setCycleCount(1);
         }
 
         return transition;
     }
 
+    /**
+     * Gets the number of task tokens that have been created but have not yet arrived at their target node.
+     *
+     * <p>
+     * May be called from any thread.
+     * </p>
+     *
+     * @return the number of pending tokens
+     */
+    public int getPendingTokenCount() {
+        return pendingTokenCount.get();
+    }
+
 }
@@ -0,0 +1,317 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.demo.customskins.tree;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.emf.common.command.CompoundCommand;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.edit.command.AddCommand;
+import org.eclipse.emf.edit.command.RemoveCommand;
+import org.eclipse.emf.edit.command.SetCommand;
+import org.eclipse.emf.edit.domain.AdapterFactoryEditingDomain;
+import org.eclipse.emf.edit.domain.EditingDomain;
+
+import de.tesis.dynaware.grapheditor.model.GConnection;
+import de.tesis.dynaware.grapheditor.model.GConnector;
+import de.tesis.dynaware.grapheditor.model.GModel;
+import de.tesis.dynaware.grapheditor.model.GNode;
+import de.tesis.dynaware.grapheditor.model.GraphFactory;
+import de.tesis.dynaware.grapheditor.model.GraphPackage;
+
+/**
+ * Commands to collapse and expand subtrees of the tree skins.
+ *
+ * <p>
+ * The nodes and connections below a collapsed node are moved out of the edited model into the node's subgraph, and
+ * the connections from the node to its children are removed. The graph editor only creates skins for the edited
+ * model, so a collapsed subtree costs no skins at all, however large it is. The subgraph is saved with the model, so
+ * collapsed subtrees survive saving and loading.
+ * </p>
+ *
+ * <p>
+ * Expanding moves the subtree back, reconnects its roots to the node, and moves it along if the node was moved while
+ * it was collapsed. Both operations are single commands and can be undone.
+ * </p>
+ */
+public class TreeCommands {
+
+    private static final EReference NODES = GraphPackage.Literals.GMODEL__NODES;
+    private static final EReference CONNECTIONS = GraphPackage.Literals.GMODEL__CONNECTIONS;
+    private static final EReference CONNECTOR_CONNECTIONS = GraphPackage.Literals.GCONNECTOR__CONNECTIONS;
+    private static final EReference SUBGRAPH = GraphPackage.Literals.GNODE__SUBGRAPH;
+    private static final EAttribute NODE_X = GraphPackage.Literals.GNODE__X;
+    private static final EAttribute NODE_Y = GraphPackage.Literals.GNODE__Y;
+
+    /**
+     * Static class, not to be instantiated.
+     */
+    private TreeCommands() {
+    }
+
+    /**
+     * Checks whether the given node has a collapsed subtree.
+     *
+     * <p>
+     * A subtree that is stored in a separate file and not loaded yet counts as collapsed, and is not loaded by this
+     * check.
+     * </p>
+     *
+     * @param node a {@link GNode} of the tree skin
+     * @return {@code true} if the node has a collapsed subtree
+     */
+    public static boolean isCollapsed(final GNode node) {
+
+        final GModel subgraph = (GModel) ((InternalEObject) node).eGet(SUBGRAPH, false);
+        return subgraph != null && (subgraph.eIsProxy() || !subgraph.getNodes().isEmpty());
+    }
+
+    /**
+     * Checks whether the given node has visible children.
+     *
+     * @param node a {@link GNode} of the tree skin
+     * @return {@code true} if the node's output has at least one connection
+     */
+    public static boolean hasChildren(final GNode node) {
+        final GConnector output = findConnector(node, TreeSkinConstants.TREE_OUTPUT_CONNECTOR);
+        return output != null && !output.getConnections().isEmpty();
+    }
+
+    /**
+     * Collapses the subtree below the given node.
+     *
+     * <p>
+     * Does nothing if the subtree is connected to any node outside it, e.g. via a connection back to the given node.
+     * </p>
+     *
+     * @param node a {@link GNode} of the tree skin in the edited model
+     * @return {@code true} if the subtree was collapsed
+     */
+    public static boolean collapse(final GNode node) {
+
+        final GModel model = (GModel) node.eContainer();
+        final GConnector output = findConnector(node, TreeSkinConstants.TREE_OUTPUT_CONNECTOR);
+
+        if (model == null || output == null || output.getConnections().isEmpty() || isCollapsed(node)) {
+            return false;
+        }
+
+        final List<GConnection> rootConnections = new ArrayList<>(output.getConnections());
+        final List<GNode> descendants = findDescendants(node, rootConnections);
+        final Set<GNode> subtree = Collections.newSetFromMap(new IdentityHashMap<>(2 * descendants.size()));
+        subtree.addAll(descendants);
+
+        final Set<GConnection> roots = Collections.newSetFromMap(new IdentityHashMap<>());
+        roots.addAll(rootConnections);
+
+        final List<GConnection> innerConnections = new ArrayList<>();
+
+        for (final GNode descendant : descendants) {
+            for (final GConnector connector : descendant.getConnectors()) {
+                for (final GConnection connection : connector.getConnections()) {
+
+                    if (roots.contains(connection)) {
+                        continue;
+                    }
+
+                    final GNode source = connection.getSource().getParent();
+                    final GNode target = connection.getTarget().getParent();
+
+                    if (!subtree.contains(source) || !subtree.contains(target)) {
+                        return false;
+                    }
+                    if (connector.equals(connection.getSource())) {
+                        innerConnections.add(connection);
+                    }
+                }
+            }
+        }
+
+        final EditingDomain editingDomain = AdapterFactoryEditingDomain.getEditingDomainFor(model);
+        final CompoundCommand command = new CompoundCommand();
+
+        GModel subgraph = node.getSubgraph();
+        if (subgraph == null) {
+            subgraph = GraphFactory.eINSTANCE.createGModel();
+            command.append(SetCommand.create(editingDomain, node, SUBGRAPH, subgraph));
+        }
+
+        final List<GConnection> removedConnections = new ArrayList<>(innerConnections);
+        removedConnections.addAll(rootConnections);
+
+        command.append(RemoveCommand.create(editingDomain, model, CONNECTIONS, removedConnections));
+        command.append(RemoveCommand.create(editingDomain, output, CONNECTOR_CONNECTIONS, rootConnections));
+
+        for (final GConnection connection : rootConnections) {
+            command.append(RemoveCommand.create(editingDomain, connection.getTarget(), CONNECTOR_CONNECTIONS,
+                    connection));
+        }
+
+        command.append(RemoveCommand.create(editingDomain, model, NODES, descendants));
+        command.append(AddCommand.create(editingDomain, subgraph, NODES, descendants));
+
+        if (!innerConnections.isEmpty()) {
+            command.append(AddCommand.create(editingDomain, subgraph, CONNECTIONS, innerConnections));
+        }
+
+        if (command.canExecute()) {
+            editingDomain.getCommandStack().execute(command);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Expands the collapsed subtree of the given node.
+     *
+     * @param node a {@link GNode} of the tree skin in the edited model
+     * @return {@code true} if the subtree was expanded
+     */
+    public static boolean expand(final GNode node) {
+
+        final GModel model = (GModel) node.eContainer();
+        final GConnector output = findConnector(node, TreeSkinConstants.TREE_OUTPUT_CONNECTOR);
+
+        if (model == null || output == null || !isCollapsed(node)) {
+            return false;
+        }
+
+        final GModel subgraph = node.getSubgraph();
+        final List<GNode> nodes = new ArrayList<>(subgraph.getNodes());
+        final List<GConnection> connections = new ArrayList<>(subgraph.getConnections());
+
+        final EditingDomain editingDomain = AdapterFactoryEditingDomain.getEditingDomainFor(model);
+        final CompoundCommand command = new CompoundCommand();
+
+        command.append(RemoveCommand.create(editingDomain, subgraph, NODES, nodes));
+        if (!connections.isEmpty()) {
+            command.append(RemoveCommand.create(editingDomain, subgraph, CONNECTIONS, connections));
+        }
+        command.append(SetCommand.create(editingDomain, node, SUBGRAPH, SetCommand.UNSET_VALUE));
+
+        command.append(AddCommand.create(editingDomain, model, NODES, nodes));
+        if (!connections.isEmpty()) {
+            command.append(AddCommand.create(editingDomain, model, CONNECTIONS, connections));
+        }
+
+        final List<GNode> roots = new ArrayList<>();
+
+        for (final GNode child : nodes) {
+
+            final GConnector input = findConnector(child, TreeSkinConstants.TREE_INPUT_CONNECTOR);
+            if (input == null || !input.getConnections().isEmpty()) {
+                continue;
+            }
+
+            roots.add(child);
+
+            final GConnection connection = GraphFactory.eINSTANCE.createGConnection();
+            connection.setType(TreeSkinConstants.TREE_CONNECTION);
+            connection.setSource(output);
+            connection.setTarget(input);
+
+            command.append(AddCommand.create(editingDomain, model, CONNECTIONS, connection));
+            command.append(AddCommand.create(editingDomain, output, CONNECTOR_CONNECTIONS, connection));
+            command.append(AddCommand.create(editingDomain, input, CONNECTOR_CONNECTIONS, connection));
+        }
+
+        appendMoveBelow(command, editingDomain, node, nodes, roots);
+
+        if (command.canExecute()) {
+            editingDomain.getCommandStack().execute(command);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Appends commands to move the given nodes so that their roots are centered below the given parent.
+     *
+     * <p>
+     * Nothing is appended if the nodes are already there, e.g. because the parent was not moved while they were
+     * collapsed.
+     * </p>
+     */
+    private static void appendMoveBelow(final CompoundCommand command, final EditingDomain editingDomain,
+            final GNode parent, final List<GNode> nodes, final List<GNode> roots) {
+
+        if (roots.isEmpty()) {
+            return;
+        }
+
+        double left = Double.MAX_VALUE;
+        double right = -Double.MAX_VALUE;
+        double top = Double.MAX_VALUE;
+
+        for (final GNode root : roots) {
+            left = Math.min(left, root.getX());
+            right = Math.max(right, root.getX() + root.getWidth());
+            top = Math.min(top, root.getY());
+        }
+
+        final double dx = Math.round(parent.getX() + parent.getWidth() / 2 - (left + right) / 2);
+        final double dy = Math.round(parent.getY() + parent.getHeight() + TreeNodeSkin.CHILD_Y_OFFSET - top);
+
+        if (dx == 0 && dy == 0) {
+            return;
+        }
+
+        for (final GNode node : nodes) {
+            command.append(SetCommand.create(editingDomain, node, NODE_X, node.getX() + dx));
+            command.append(SetCommand.create(editingDomain, node, NODE_Y, node.getY() + dy));
+        }
+    }
+
+    /**
+     * Finds all nodes below the given node, in breadth-first order, starting from the given connections.
+     */
+    private static List<GNode> findDescendants(final GNode node, final List<GConnection> rootConnections) {
+
+        final List<GNode> descendants = new ArrayList<>();
+        final Set<GNode> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        visited.add(node);
+
+        for (final GConnection connection : rootConnections) {
+            final GNode child = connection.getTarget().getParent();
+            if (visited.add(child)) {
+                descendants.add(child);
+            }
+        }
+
+        for (int i = 0; i < descendants.size(); i++) {
+
+            final GConnector output = findConnector(descendants.get(i), TreeSkinConstants.TREE_OUTPUT_CONNECTOR);
+            if (output == null) {
+                continue;
+            }
+
+            for (final GConnection connection : output.getConnections()) {
+                final GNode child = connection.getTarget().getParent();
+                if (visited.add(child)) {
+                    descendants.add(child);
+                }
+            }
+        }
+        return descendants;
+    }
+
+    /**
+     * Finds the first connector of the given type on the given node.
+     */
+    static GConnector findConnector(final GNode node, final String type) {
+
+        for (final GConnector connector : node.getConnectors()) {
+            if (type.equals(connector.getType())) {
+                return connector;
+            }
+        }
+        return null;
+    }
+}
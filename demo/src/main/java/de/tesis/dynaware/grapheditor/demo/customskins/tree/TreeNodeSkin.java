@@ -40,6 +40,7 @@ public class TreeNodeSkin extends GNodeSkin {
     private static final String STYLE_CLASS_BACKGROUND = "tree-node-background";
     private static final String STYLE_CLASS_SELECTION_HALO = "tree-node-selection-halo";
     private static final String STYLE_CLASS_BUTTON = "tree-node-button";
+    private static final String STYLE_CLASS_COLLAPSE_BUTTON = "tree-node-collapse-button";
 
     private static final PseudoClass PSEUDO_CLASS_SELECTED = PseudoClass.getPseudoClass("selected");
 
@@ -50,7 +51,10 @@ public class TreeNodeSkin extends GNodeSkin {
     private static final double MIN_HEIGHT = 61;
 
     // Child nodes will be added this far below their parent.
-    private static final double CHILD_Y_OFFSET = 80;
+    static final double CHILD_Y_OFFSET = 80;
+
+    // Child nodes will be added this far to the right of their last sibling.
+    private static final double SIBLING_X_OFFSET = 40;
 
     private static final EReference NODES = GraphPackage.Literals.GMODEL__NODES;
     private static final EReference CONNECTIONS = GraphPackage.Literals.GMODEL__CONNECTIONS;
@@ -60,6 +64,9 @@ public class TreeNodeSkin extends GNodeSkin {
 
     private final Rectangle selectionHalo = new Rectangle();
     private final Button addChildButton = new Button();
+    private final Button collapseButton = new Button();
+
+    private Boolean collapsedShown;
 
     private GConnectorSkin inputConnectorSkin;
     private GConnectorSkin outputConnectorSkin;
@@ -91,10 +98,17 @@ public class TreeNodeSkin extends GNodeSkin {
 
         addSelectionHalo();
         addButton();
+        addCollapseButton();
 
         background.addEventFilter(MouseEvent.MOUSE_DRAGGED, this::filterMouseDragged);
     }
 
+    @Override
+    public void initialize() {
+        super.initialize();
+        updateCollapseButton();
+    }
+
     @Override
     public void setConnectorSkins(final List<GConnectorSkin> connectorSkins) {
 
@@ -237,7 +251,54 @@ public class TreeNodeSkin extends GNodeSkin {
     }
 
     /**
-     * Adds a child node with one input and one output connector, placed directly underneath its parent.
+     * Adds a button to the node skin that will collapse or expand the subtree below the node when pressed.
+     */
+    private void addCollapseButton() {
+
+        StackPane.setAlignment(collapseButton, Pos.BOTTOM_LEFT);
+
+        collapseButton.getStyleClass().setAll(STYLE_CLASS_COLLAPSE_BUTTON);
+        collapseButton.setCursor(Cursor.DEFAULT);
+        collapseButton.setPickOnBounds(false);
+
+        collapseButton.setOnAction(event -> {
+            if (TreeCommands.isCollapsed(getItem())) {
+                TreeCommands.expand(getItem());
+            } else {
+                TreeCommands.collapse(getItem());
+            }
+        });
+
+        getRoot().getChildren().add(collapseButton);
+    }
+
+    /**
+     * Shows the collapse button if the node has children, and the expand button if its subtree is collapsed.
+     *
+     * <p>
+     * Children can't be added to a collapsed node, because they would be hidden straight away.
+     * </p>
+     */
+    private void updateCollapseButton() {
+
+        final boolean collapsed = TreeCommands.isCollapsed(getItem());
+
+        collapseButton.setVisible(collapsed || TreeCommands.hasChildren(getItem()));
+        addChildButton.setDisable(collapsed);
+
+        if (collapsedShown == null || collapsedShown != collapsed) {
+            collapseButton.setGraphic(collapsed ? AwesomeIcon.PLUS_SQUARE.node() : AwesomeIcon.MINUS_SQUARE.node());
+            collapsedShown = collapsed;
+        }
+    }
+
+    /**
+     * Adds a child node with one input and one output connector.
+     *
+     * <p>
+     * The first child is placed directly underneath its parent. Further children are placed to the right of their
+     * rightmost sibling, so that siblings don't overlap.
+     * </p>
      */
     private void addChildNode() {
 
@@ -247,6 +308,12 @@ public class TreeNodeSkin extends GNodeSkin {
         childNode.setX(getItem().getX() + (getItem().getWidth() - childNode.getWidth()) / 2);
         childNode.setY(getItem().getY() + getItem().getHeight() + CHILD_Y_OFFSET);
 
+        final GNode lastSibling = findRightmostChild();
+        if (lastSibling != null) {
+            childNode.setX(lastSibling.getX() + lastSibling.getWidth() + SIBLING_X_OFFSET);
+            childNode.setY(lastSibling.getY());
+        }
+
         final GModel model = getGraphEditor().getModel();
         final double maxAllowedY = model.getContentHeight() - VIEW_PADDING;
 
@@ -288,6 +355,27 @@ public class TreeNodeSkin extends GNodeSkin {
         }
     }
 
+    /**
+     * Finds the child of this skin's node that is furthest to the right.
+     *
+     * @return the rightmost child node, or {@code null} if the node has no children
+     */
+    private GNode findRightmostChild() {
+
+        final GConnector output = findOutput();
+        GNode rightmost = null;
+
+        if (output != null) {
+            for (final GConnection connection : output.getConnections()) {
+                final GNode child = connection.getTarget().getParent();
+                if (rightmost == null || child.getX() > rightmost.getX()) {
+                    rightmost = child;
+                }
+            }
+        }
+        return rightmost;
+    }
+
     /**
      * Finds the output connector of this skin's node.
      *
@@ -1,27 +1,33 @@
 package de.tesis.dynaware.grapheditor.demo.selections;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.function.BiConsumer;
 
 import javafx.geometry.Point2D;
 import javafx.scene.Node;
 import javafx.scene.Parent;
+import javafx.scene.input.Clipboard;
+import javafx.scene.input.ClipboardContent;
+import javafx.scene.input.DataFormat;
 import javafx.scene.layout.Region;
 
 import org.eclipse.emf.common.command.CompoundCommand;
 import org.eclipse.emf.ecore.EReference;
-import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.emf.edit.command.AddCommand;
 import org.eclipse.emf.edit.domain.AdapterFactoryEditingDomain;
 import org.eclipse.emf.edit.domain.EditingDomain;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import de.tesis.dynaware.grapheditor.GNodeSkin;
 import de.tesis.dynaware.grapheditor.SelectionManager;
 import de.tesis.dynaware.grapheditor.SkinLookup;
-import de.tesis.dynaware.grapheditor.core.utils.GModelUtils;
+import de.tesis.dynaware.grapheditor.core.utils.GraphFragment;
 import de.tesis.dynaware.grapheditor.model.GConnection;
 import de.tesis.dynaware.grapheditor.model.GJoint;
 import de.tesis.dynaware.grapheditor.model.GModel;
@@ -38,6 +44,12 @@ import de.tesis.dynaware.grapheditor.model.GraphPackage;
  * <li>If a connection's source and target nodes are <b>both</b> copied, the connection and its joints are also copied.</li>
  * </ol>
  * </p>
+ *
+ * <p>
+ * The copied elements are also put on the system clipboard in the {@link #FRAGMENT_FORMAT} format, so they can be
+ * pasted into a graph editor in another process. A paste uses whatever fragment is on the system clipboard, and falls
+ * back to the last copied fragment if the clipboard contains something else.
+ * </p>
  */
 public class SelectionCopier {
 
@@ -46,11 +58,20 @@ public class SelectionCopier {
 
     private static final double BASE_PASTE_OFFSET = 20;
 
+    /**
+     * The clipboard format of copied graph fragments, see {@link GraphFragment#write(java.io.OutputStream)}.
+     */
+    public static final DataFormat FRAGMENT_FORMAT = getOrCreateFormat("application/x-grapheditor-fragment");
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SelectionCopier.class);
+    private static final String CLIPBOARD_WRITE_FAILED = "Copied elements could not be put on the clipboard.";
+    private static final String CLIPBOARD_READ_FAILED = "Clipboard content could not be read as a graph fragment.";
+
     private final SkinLookup skinLookup;
     private final SelectionManager selectionManager;
 
-    private final List<GNode> copiedNodes = new ArrayList<>();
-    private final List<GConnection> copiedConnections = new ArrayList<>();
+    private GraphFragment copiedFragment;
+    private ByteBuffer copiedBytes;
 
     private Parent parentAtTimeOfCopy;
     private double parentSceneXAtTimeOfCopy;
@@ -89,23 +110,18 @@ public class SelectionCopier {
             return;
         }
 
-        copiedNodes.clear();
-        copiedConnections.clear();
-
-        final Map<GNode, GNode> copyStorage = new HashMap<>();
+        final List<GNode> selectedNodes = new ArrayList<>();
 
         // Don't iterate directly over selectionTracker.getSelectedNodes() because that will not preserve ordering.
         for (final GNode node : model.getNodes()) {
             if (selectionManager.isSelected(node)) {
-
-                final GNode copiedNode = EcoreUtil.copy(node);
-                copiedNodes.add(copiedNode);
-                copyStorage.put(node, copiedNode);
+                selectedNodes.add(node);
             }
         }
 
-        copiedConnections.addAll(GModelUtils.copyConnections(copyStorage));
+        copiedFragment = GraphFragment.copyOf(selectedNodes);
         saveParentPositionInScene();
+        writeToClipboard();
     }
 
     /**
@@ -147,8 +163,8 @@ public class SelectionCopier {
      * Clears the memory of what was cut / copied. Future paste operations will do nothing.
      */
     public void clearMemory() {
-        copiedNodes.clear();
-        copiedConnections.clear();
+        copiedFragment = null;
+        copiedBytes = null;
     }
 
     /**
@@ -159,17 +175,80 @@ public class SelectionCopier {
      */
     private void preparePastedElements(final List<GNode> pastedNodes, final List<GConnection> pastedConnections) {
 
-        final Map<GNode, GNode> pasteStorage = new HashMap<>();
+        readFromClipboard();
 
-        for (final GNode copiedNode : copiedNodes) {
+        if (copiedFragment != null) {
+            copiedFragment.instantiate(pastedNodes, pastedConnections);
+        }
+    }
+
+    /**
+     * Puts the copied fragment on the system clipboard.
+     */
+    private void writeToClipboard() {
 
-            final GNode pastedNode = EcoreUtil.copy(copiedNode);
-            pastedNodes.add(pastedNode);
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
 
-            pasteStorage.put(copiedNode, pastedNode);
+        try {
+            copiedFragment.write(output);
+        } catch (final IOException e) {
+            LOGGER.warn(CLIPBOARD_WRITE_FAILED, e);
+            copiedBytes = null;
+            return;
         }
 
-        pastedConnections.addAll(GModelUtils.copyConnections(pasteStorage));
+        copiedBytes = ByteBuffer.wrap(output.toByteArray());
+
+        final ClipboardContent content = new ClipboardContent();
+        content.put(FRAGMENT_FORMAT, copiedBytes.duplicate());
+        Clipboard.getSystemClipboard().setContent(content);
+    }
+
+    /**
+     * Replaces the copied fragment with the fragment on the system clipboard, if it came from somewhere else.
+     */
+    private void readFromClipboard() {
+
+        final Clipboard clipboard = Clipboard.getSystemClipboard();
+        if (!clipboard.hasContent(FRAGMENT_FORMAT)) {
+            return;
+        }
+
+        final Object content = clipboard.getContent(FRAGMENT_FORMAT);
+        final ByteBuffer bytes;
+
+        if (content instanceof ByteBuffer) {
+            bytes = ((ByteBuffer) content).duplicate();
+        } else if (content instanceof byte[]) {
+            bytes = ByteBuffer.wrap((byte[]) content);
+        } else {
+            return;
+        }
+
+        // Our own copy is already in memory, no need to decode it again.
+        bytes.rewind();
+        if (bytes.equals(copiedBytes)) {
+            return;
+        }
+
+        try {
+            copiedFragment = GraphFragment.read(new ByteBufferInputStream(bytes.duplicate()));
+            copiedBytes = bytes;
+            parentAtTimeOfCopy = null;
+        } catch (final IOException e) {
+            LOGGER.warn(CLIPBOARD_READ_FAILED, e);
+        }
+    }
+
+    /**
+     * Gets the data format with the given MIME type, creating it if it doesn't exist yet.
+     *
+     * @param mimeType the MIME type of the format
+     * @return the {@link DataFormat} for the given MIME type
+     */
+    private static DataFormat getOrCreateFormat(final String mimeType) {
+        final DataFormat existing = DataFormat.lookupMimeType(mimeType);
+        return existing != null ? existing : new DataFormat(mimeType);
     }
 
     /**
@@ -259,12 +338,13 @@ public class SelectionCopier {
         final EditingDomain editingDomain = AdapterFactoryEditingDomain.getEditingDomainFor(model);
         final CompoundCommand command = new CompoundCommand();
 
-        for (final GNode pastedNode : pastedNodes) {
-            command.append(AddCommand.create(editingDomain, model, NODES, pastedNode));
+        // One command per list, so that pasting many elements does not create many commands.
+        if (!pastedNodes.isEmpty()) {
+            command.append(AddCommand.create(editingDomain, model, NODES, pastedNodes));
         }
 
-        for (final GConnection pastedConnection : pastedConnections) {
-            command.append(AddCommand.create(editingDomain, model, CONNECTIONS, pastedConnection));
+        if (!pastedConnections.isEmpty()) {
+            command.append(AddCommand.create(editingDomain, model, CONNECTIONS, pastedConnections));
         }
 
         if (command.canExecute()) {
@@ -415,4 +495,38 @@ public class SelectionCopier {
         public double endX;
         public double endY;
     }
+
+    /**
+     * Reads the remaining bytes of a {@link ByteBuffer}, so that clipboard content can be decoded as a stream.
+     */
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        public ByteBufferInputStream(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int offset, final int length) {
+
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+
+            final int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
 }
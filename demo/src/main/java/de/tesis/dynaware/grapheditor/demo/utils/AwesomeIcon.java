@@ -26,7 +26,17 @@ public enum AwesomeIcon {
     /**
      * A map icon.
      */
-    MAP(0xf03e);
+    MAP(0xf03e),
+
+    /**
+     * A plus-in-a-square icon.
+     */
+    PLUS_SQUARE(0xf196),
+
+    /**
+     * A minus-in-a-square icon.
+     */
+    MINUS_SQUARE(0xf147);
 
     private static final String STYLE_CLASS = "icon";
     private static final String FONT_AWESOME = "FontAwesome";
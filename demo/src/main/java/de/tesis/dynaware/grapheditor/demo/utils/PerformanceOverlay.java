@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2005 - 2014 by TESIS DYNAware GmbH
+ */
+package de.tesis.dynaware.grapheditor.demo.utils;
+
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+import de.tesis.dynaware.grapheditor.GraphEditor;
+import de.tesis.dynaware.grapheditor.utils.GraphEditorMetrics;
+import de.tesis.dynaware.grapheditor.utils.GraphEditorMetrics.Counter;
+import de.tesis.dynaware.grapheditor.utils.GraphEditorMetrics.Gauge;
+import de.tesis.dynaware.grapheditor.utils.GraphEditorMetrics.Timer;
+import de.tesis.dynaware.grapheditor.utils.LatencyHistogram;
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+
+/**
+ * A small overlay that shows the performance of the graph editor while the demo is running.
+ *
+ * <p>
+ * Shows the frame rate, the 99th percentile of the time spent in the editor per pulse, the number of live skins, the
+ * number of connections redrawn in the last pulse, the number of pending task tokens and the heap use.
+ * </p>
+ *
+ * <p>
+ * The values are sampled a few times per second from the editor's {@link GraphEditorMetrics} on a background thread,
+ * and all text is formatted there too. The JavaFX thread only draws the finished lines into a single {@link Canvas},
+ * so that the overlay costs almost nothing in the pulses it measures. Rates and percentiles are computed over the
+ * interval since the previous sample.
+ * </p>
+ */
+public class PerformanceOverlay {
+
+    private static final String THREAD_NAME = "performance-overlay";
+
+    private static final long SAMPLE_PERIOD = 500;
+
+    private static final double WIDTH = 210;
+    private static final double PADDING = 8;
+    private static final double LINE_HEIGHT = 16;
+    private static final int LINE_COUNT = 6;
+
+    private static final Font FONT = Font.font("Monospaced", 11);
+    private static final Color BACKGROUND = Color.rgb(0, 0, 0, 0.7);
+    private static final Color FOREGROUND = Color.rgb(230, 230, 230);
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final double BYTES_PER_MEGABYTE = 1024 * 1024;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, THREAD_NAME);
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Canvas canvas = new Canvas(WIDTH, 2 * PADDING + LINE_COUNT * LINE_HEIGHT);
+    private final GraphEditorMetrics metrics;
+    private final IntSupplier pendingTokenCount;
+
+    private ScheduledFuture<?> sampling;
+    private boolean metricsWereEnabled;
+
+    // Only accessed on the sampling thread.
+    private GraphEditorMetrics.Snapshot previous;
+
+    /**
+     * Creates a new, inactive performance overlay.
+     *
+     * @param graphEditor the {@link GraphEditor} whose performance is shown
+     * @param pendingTokenCount supplies the number of pending task tokens, must be safe to call from any thread
+     */
+    public PerformanceOverlay(final GraphEditor graphEditor, final IntSupplier pendingTokenCount) {
+
+        this.metrics = graphEditor.getMetrics();
+        this.pendingTokenCount = pendingTokenCount;
+
+        canvas.setMouseTransparent(true);
+        canvas.setManaged(false);
+        canvas.setVisible(false);
+        canvas.relocate(PADDING, PADDING);
+    }
+
+    /**
+     * Gets the JavaFX node of the overlay, to be added on top of the graph editor.
+     *
+     * @return the {@link Canvas} the overlay is drawn into
+     */
+    public Node getNode() {
+        return canvas;
+    }
+
+    /**
+     * Shows or hides the overlay.
+     *
+     * <p>
+     * The editor's metrics are enabled while the overlay is shown. When it is hidden, they are restored to their
+     * previous state.
+     * </p>
+     *
+     * @param active {@code true} to show the overlay and start sampling
+     */
+    public void setActive(final boolean active) {
+
+        if (active == (sampling != null)) {
+            return;
+        }
+
+        canvas.setVisible(active);
+
+        if (active) {
+
+            metricsWereEnabled = metrics.isEnabled();
+            metrics.setEnabled(true);
+
+            executor.execute(() -> previous = null);
+            sampling = executor.scheduleAtFixedRate(this::sample, 0, SAMPLE_PERIOD, TimeUnit.MILLISECONDS);
+
+        } else {
+
+            sampling.cancel(false);
+            sampling = null;
+
+            metrics.setEnabled(metricsWereEnabled);
+        }
+    }
+
+    /**
+     * Takes a sample of the metrics and formats it for drawing.
+     */
+    private void sample() {
+
+        final GraphEditorMetrics.Snapshot snapshot = metrics.snapshot();
+
+        final LatencyHistogram.Snapshot frames = getInterval(snapshot, Timer.FRAME_INTERVAL);
+        final LatencyHistogram.Snapshot pulses = getInterval(snapshot, Timer.PULSE);
+        previous = snapshot;
+
+        final double fps = frames.getTotal() == 0 ? 0 : frames.getCount() * NANOS_PER_SECOND / frames.getTotal();
+        final double pulseTime = pulses.getPercentile(99) / NANOS_PER_MILLI;
+
+        final Runtime runtime = Runtime.getRuntime();
+        final double usedHeap = (runtime.totalMemory() - runtime.freeMemory()) / BYTES_PER_MEGABYTE;
+        final double maxHeap = runtime.maxMemory() / BYTES_PER_MEGABYTE;
+
+        final String[] lines = new String[LINE_COUNT];
+        lines[0] = String.format(Locale.ROOT, "FPS            %8.1f", fps);
+        lines[1] = String.format(Locale.ROOT, "Pulse p99      %6.2f ms", pulseTime);
+        lines[2] = String.format(Locale.ROOT, "Skins          %8d", snapshot.getGauge(Gauge.LIVE_SKINS));
+        lines[3] = String.format(Locale.ROOT, "Redrawn        %8d",
+                snapshot.getLastPulseCount(Counter.CONNECTIONS_REDRAWN));
+        lines[4] = String.format(Locale.ROOT, "Tokens         %8d", pendingTokenCount.getAsInt());
+        lines[5] = String.format(Locale.ROOT, "Heap    %5.0f / %5.0f MB", usedHeap, maxHeap);
+
+        Platform.runLater(() -> draw(lines));
+    }
+
+    private LatencyHistogram.Snapshot getInterval(final GraphEditorMetrics.Snapshot snapshot, final Timer timer) {
+        return previous == null ? snapshot.getTimer(timer) : snapshot.getTimer(timer).since(previous.getTimer(timer));
+    }
+
+    /**
+     * Draws the given lines into the canvas.
+     */
+    private void draw(final String[] lines) {
+
+        final GraphicsContext context = canvas.getGraphicsContext2D();
+
+        context.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        context.setFill(BACKGROUND);
+        context.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+
+        context.setFill(FOREGROUND);
+        context.setFont(FONT);
+
+        for (int i = 0; i < lines.length; i++) {
+            context.fillText(lines[i], PADDING, PADDING + (i + 1) * LINE_HEIGHT - 4);
+        }
+    }
+}
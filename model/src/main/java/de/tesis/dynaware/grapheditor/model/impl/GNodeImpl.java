@@ -335,6 +335,29 @@ public class GNodeImpl extends MinimalEObjectImpl.Container implements GNode {
 	 * @generated
 	 */
 	public GModel getSubgraph() {
+		if (subgraph != null && subgraph.eIsProxy()) {
+			InternalEObject oldSubgraph = (InternalEObject)subgraph;
+			subgraph = (GModel)eResolveProxy(oldSubgraph);
+			if (subgraph != oldSubgraph) {
+				InternalEObject newSubgraph = (InternalEObject)subgraph;
+				NotificationChain msgs =  oldSubgraph.eInverseRemove(this, GraphPackage.GMODEL__SUPERGRAPH, GModel.class, null);
+				if (newSubgraph.eInternalContainer() == null) {
+					msgs =  newSubgraph.eInverseAdd(this, GraphPackage.GMODEL__SUPERGRAPH, GModel.class, msgs);
+				}
+				if (msgs != null) msgs.dispatch();
+				if (eNotificationRequired())
+					eNotify(new ENotificationImpl(this, Notification.RESOLVE, GraphPackage.GNODE__SUBGRAPH, oldSubgraph, subgraph));
+			}
+		}
+		return subgraph;
+	}
+
+	/**
+	 * <!-- begin-user-doc -->
+	 * <!-- end-user-doc -->
+	 * @generated
+	 */
+	public GModel basicGetSubgraph() {
 		return subgraph;
 	}
 
@@ -440,7 +463,8 @@ public class GNodeImpl extends MinimalEObjectImpl.Container implements GNode {
 			case GraphPackage.GNODE__HEIGHT:
 				return getHeight();
 			case GraphPackage.GNODE__SUBGRAPH:
-				return getSubgraph();
+				if (resolve) return getSubgraph();
+				return basicGetSubgraph();
 			case GraphPackage.GNODE__CONNECTORS:
 				return getConnectors();
 		}